@@ -0,0 +1,138 @@
+package com.pos.benchmarks;
+
+import com.pos.utils.CsvRoleAccessService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One access decision per op: the compiled route trie behind CsvRoleAccessService against the
+ * regex-per-rule matcher it replaced. "hot" cycles through 64 request paths, which the trie
+ * memoizes; "distinct" cycles through 20,000 paths with ids in them, more than the memo keeps,
+ * so most decisions walk the trie.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AccessRuleBenchmark {
+
+    private static final String[] ROLES = {"OPERATOR", "SUPERVISOR"};
+
+    @Param({"30", "300", "3000"})
+    public int ruleCount;
+
+    @Param({"hot", "distinct"})
+    public String paths;
+
+    private CsvRoleAccessService trie;
+    private LegacyRegexRoleMatcher regex;
+    private Path rulesFile;
+
+    private String[] methods;
+    private String[] requestPaths;
+    private String[] roles;
+    private int next;
+
+    @Setup
+    public void setUp() throws Exception {
+        List<String> lines = rules(ruleCount);
+        rulesFile = Files.createTempFile("access-rules-", ".csv");
+        Files.write(rulesFile, lines);
+
+        trie = new CsvRoleAccessService();
+        setField(trie, "rulesPath", rulesFile.toString());
+        setField(trie, "watchRules", false);
+        trie.load();
+        regex = new LegacyRegexRoleMatcher(lines);
+
+        int count = "hot".equals(paths) ? 64 : 20_000;
+        methods = new String[count];
+        requestPaths = new String[count];
+        roles = new String[count];
+        for (int k = 0; k < count; k++) {
+            int rule = (int) ((k * 7919L) % ruleCount);
+            roles[k] = ROLES[k % 2];
+            if (k % 8 == 7) {
+                methods[k] = "GET";
+                requestPaths[k] = "/unknown/" + k;
+                continue;
+            }
+            switch (rule % 3) {
+                case 0 -> {
+                    methods[k] = "GET";
+                    requestPaths[k] = "/res" + rule + "/items";
+                }
+                case 1 -> {
+                    methods[k] = "PUT";
+                    requestPaths[k] = "/res" + rule + "/items/" + k;
+                }
+                default -> {
+                    methods[k] = "GET";
+                    requestPaths[k] = "/res" + rule + "/reports/daily/" + k;
+                }
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(rulesFile);
+    }
+
+    @Benchmark
+    public boolean routeTrie() {
+        int k = advance();
+        return trie.isAllowed(methods[k], requestPaths[k], roles[k]);
+    }
+
+    @Benchmark
+    public boolean legacyRegex() {
+        int k = advance();
+        return regex.isAllowed(methods[k], requestPaths[k], roles[k]);
+    }
+
+    private int advance() {
+        int k = next;
+        next = k + 1 == requestPaths.length ? 0 : k + 1;
+        return k;
+    }
+
+    private static List<String> rules(int count) {
+        List<String> lines = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            switch (i % 3) {
+                case 0 -> lines.add("GET,/res" + i + "/items,OPERATOR|SUPERVISOR");
+                case 1 -> lines.add("PUT,/res" + i + "/items/{id},SUPERVISOR");
+                default -> lines.add("GET,/res" + i + "/reports/*,SUPERVISOR");
+            }
+        }
+        return lines;
+    }
+
+    // the service only takes its rules path from configuration
+    private static void setField(Object target, String name, Object value) throws ReflectiveOperationException {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+}
@@ -0,0 +1,103 @@
+package com.pos.benchmarks;
+
+import com.pos.PosApplication;
+import com.pos.pojo.Client;
+import com.pos.pojo.Inventory;
+import com.pos.pojo.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.Banner;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The full application on an in-memory H2 database in MySQL mode, for benchmarks that go through
+ * flows and DAOs. Arguments override application.properties, so no MySQL server is needed; the
+ * schema is created from the entities and dropped when the context closes.
+ */
+final class BenchmarkContext implements AutoCloseable {
+
+    private final ConfigurableApplicationContext context;
+
+    private BenchmarkContext(ConfigurableApplicationContext context) {
+        this.context = context;
+    }
+
+    static BenchmarkContext start(String database) {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(PosApplication.class)
+                .bannerMode(Banner.Mode.OFF)
+                .logStartupInfo(false)
+                .run(
+                        "--spring.datasource.url=jdbc:h2:mem:" + database
+                                + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;NON_KEYWORDS=DATE,VALUE,YEAR,MONTH",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.jpa.open-in-view=false",
+                        "--server.port=0",
+                        "--pos.catalog.warmUp=false",
+                        "--pos.order.totalsBackfill.enabled=false",
+                        "--logging.level.root=WARN"
+                );
+        return new BenchmarkContext(context);
+    }
+
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    /** Transaction-bound EntityManager, like the one injected into the DAOs. */
+    EntityManager entityManager() {
+        return SharedEntityManagerCreator.createSharedEntityManager(bean(EntityManagerFactory.class));
+    }
+
+    TransactionTemplate transactionTemplate() {
+        return new TransactionTemplate(bean(PlatformTransactionManager.class));
+    }
+
+    /** One client owning {@code count} products, each stocked with {@code quantity} units. Returns the product ids. */
+    List<Integer> seedProducts(int count, int quantity) {
+        EntityManager em = entityManager();
+        return transactionTemplate().execute(status -> {
+            Client client = BenchmarkData.client("bench");
+            em.persist(client);
+
+            List<Integer> ids = new ArrayList<>(count);
+            for (int i = 1; i <= count; i++) {
+                Product product = new Product();
+                product.setBarcode(BenchmarkData.barcode(i));
+                product.setClientId(client.getId());
+                product.setName("Product " + i);
+                product.setMrp(10.0 + i % 500);
+                product.setImageUrl("https://img.example.com/" + i + ".png");
+                em.persist(product);
+
+                Inventory inventory = new Inventory();
+                inventory.setProductId(product.getId());
+                inventory.setQuantity(quantity);
+                em.persist(inventory);
+                ids.add(product.getId());
+
+                if (i % 500 == 0) {
+                    em.flush();
+                    em.clear();
+                }
+            }
+            return ids;
+        });
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+}
@@ -0,0 +1,115 @@
+package com.pos.benchmarks;
+
+import com.pos.model.form.InventoryForm;
+import com.pos.model.form.OrderForm;
+import com.pos.model.form.OrderItemForm;
+import com.pos.model.form.ProductForm;
+import com.pos.pojo.Client;
+import com.pos.pojo.OrderItem;
+import com.pos.pojo.Product;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/** Deterministic fixtures shared by the benchmarks. */
+final class BenchmarkData {
+
+    private BenchmarkData() {}
+
+    static String barcode(int i) {
+        return "BC" + String.format("%08d", i);
+    }
+
+    static List<Product> products(int count) {
+        List<Product> products = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            Product product = new Product();
+            product.setId(i);
+            product.setBarcode(barcode(i));
+            product.setClientId(1 + i % 20);
+            product.setName("Product " + i);
+            product.setMrp(10.0 + i % 500);
+            product.setImageUrl(i % 3 == 0 ? null : "https://img.example.com/" + i + ".png");
+            products.add(product);
+        }
+        return products;
+    }
+
+    static List<OrderItem> orderItems(int count, int productCount) {
+        List<OrderItem> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            items.add(orderItem(1, 1 + i % productCount, 1 + i % 5, 9.5 + i % 100));
+        }
+        return items;
+    }
+
+    static OrderItem orderItem(Integer orderId, Integer productId, int quantity, double sellingPrice) {
+        OrderItem item = new OrderItem();
+        item.setOrderId(orderId);
+        item.setProductId(productId);
+        item.setQuantity(quantity);
+        item.setSellingPrice(sellingPrice);
+        return item;
+    }
+
+    static Client client(String name) {
+        Client client = new Client();
+        client.setName(name);
+        client.setEmail(name + "@clients.example.com");
+        return client;
+    }
+
+    /** Forms with surrounding whitespace on every string field, as they arrive from the UI. */
+    static List<ProductForm> paddedProductForms(int count) {
+        List<ProductForm> forms = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            ProductForm form = new ProductForm();
+            form.setBarcode("  " + barcode(i) + " ");
+            form.setName(" Product " + i + "  ");
+            form.setClientId(1);
+            form.setMrp(10.0 + i);
+            form.setImageUrl(" https://img.example.com/" + i + ".png ");
+            forms.add(form);
+        }
+        return forms;
+    }
+
+    static OrderForm paddedOrderForm(int itemCount) {
+        List<OrderItemForm> items = new ArrayList<>(itemCount);
+        for (int i = 1; i <= itemCount; i++) {
+            OrderItemForm item = new OrderItemForm();
+            item.setBarcode(" " + barcode(i) + "  ");
+            item.setQuantity(1 + i % 5);
+            item.setSellingPrice(9.5 + i % 100);
+            items.add(item);
+        }
+        OrderForm form = new OrderForm();
+        form.setItems(items);
+        return form;
+    }
+
+    static List<InventoryForm> inventoryForms(int count) {
+        List<InventoryForm> forms = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            InventoryForm form = new InventoryForm();
+            form.setBarcode(barcode(i));
+            form.setQuantity(100 + i);
+            forms.add(form);
+        }
+        return forms;
+    }
+
+    /** Product upload file in the four-column layout; every {@code badEvery}-th row has a bad mrp (0 = none). */
+    static byte[] productTsv(int rows, int badEvery) {
+        StringBuilder tsv = new StringBuilder("barcode\tname\tmrp\timageUrl\n");
+        for (int i = 1; i <= rows; i++) {
+            String mrp = badEvery > 0 && i % badEvery == 0 ? "n/a" : String.valueOf(10.0 + i % 500);
+            tsv.append(barcode(i)).append('\t')
+                    .append("Product ").append(i).append('\t')
+                    .append(mrp).append('\t')
+                    .append("https://img.example.com/").append(i).append(".png\n");
+        }
+        return tsv.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
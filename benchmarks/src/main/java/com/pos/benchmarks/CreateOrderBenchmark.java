@@ -0,0 +1,83 @@
+package com.pos.benchmarks;
+
+import com.pos.exception.ApiException;
+import com.pos.flow.OrderFlow;
+import com.pos.pojo.OrderItem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OrderFlow.createOrder end to end on H2: one IN query for the products and their MRPs, the guarded
+ * inventory decrements, and the order plus item inserts, in one transaction per op. {@code perItem}
+ * runs the same baskets through {@link LegacyPerItemOrderCreator}, the per-item path the flow used
+ * before batching. Absolute numbers say little about MySQL; the point is the trend across item counts
+ * and between the two paths.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class CreateOrderBenchmark {
+
+    private static final int PRODUCTS = 2000;
+
+    @Param({"1", "10", "100", "1000"})
+    public int itemsPerOrder;
+
+    private BenchmarkContext context;
+    private OrderFlow orderFlow;
+    private LegacyPerItemOrderCreator perItemCreator;
+    private List<Integer> productIds;
+    private int nextProduct;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start("pos_create_order");
+        orderFlow = context.bean(OrderFlow.class);
+        perItemCreator = new LegacyPerItemOrderCreator(context);
+        productIds = context.seedProducts(PRODUCTS, Integer.MAX_VALUE / 2);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Integer createOrder() throws ApiException {
+        return orderFlow.createOrder(nextItems());
+    }
+
+    @Benchmark
+    public Integer perItem() {
+        return perItemCreator.createOrder(nextItems());
+    }
+
+    // Fresh items every op: both paths write the order id back onto them. PRODUCTS covers the largest
+    // basket, so no product repeats within an order.
+    private List<OrderItem> nextItems() {
+        List<OrderItem> items = new ArrayList<>(itemsPerOrder);
+        for (int i = 0; i < itemsPerOrder; i++) {
+            Integer productId = productIds.get(nextProduct);
+            nextProduct = (nextProduct + 1) % PRODUCTS;
+            items.add(BenchmarkData.orderItem(null, productId, 1 + i % 3, 9.5));
+        }
+        return items;
+    }
+}
@@ -0,0 +1,125 @@
+package com.pos.benchmarks;
+
+import com.pos.exception.ApiException;
+import com.pos.model.form.OrderForm;
+import com.pos.model.form.OrderItemForm;
+import com.pos.model.form.ProductForm;
+import com.pos.utils.FormNormalizer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Trimming a 1,000-row product upload and a 1,000-item order the way the DTOs do, through
+ * FormNormalizer and through the reflective loop it replaced. For "padded" input each call first puts
+ * the original padded strings back on the forms (plain setter calls on kept references, the same for
+ * both normalizers), so there is always whitespace to strip without a per-invocation setup; "trimmed"
+ * forms are normalized once per iteration, which is the common case of clean input.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FormNormalizeBenchmark {
+
+    private static final int FORMS = 1000;
+
+    @Param({"padded", "trimmed"})
+    public String input;
+
+    private List<ProductForm> productForms;
+    private OrderForm orderForm;
+
+    private boolean padded;
+    private String[] paddedBarcodes;
+    private String[] paddedNames;
+    private String[] paddedImageUrls;
+    private String[] paddedItemBarcodes;
+
+    @Setup(Level.Iteration)
+    public void setUp() throws ApiException {
+        productForms = BenchmarkData.paddedProductForms(FORMS);
+        orderForm = BenchmarkData.paddedOrderForm(FORMS);
+        padded = "padded".equals(input);
+
+        if (padded) {
+            paddedBarcodes = productForms.stream().map(ProductForm::getBarcode).toArray(String[]::new);
+            paddedNames = productForms.stream().map(ProductForm::getName).toArray(String[]::new);
+            paddedImageUrls = productForms.stream().map(ProductForm::getImageUrl).toArray(String[]::new);
+            paddedItemBarcodes = orderForm.getItems().stream().map(OrderItemForm::getBarcode).toArray(String[]::new);
+        } else {
+            for (ProductForm form : productForms) FormNormalizer.normalize(form);
+            for (OrderItemForm item : orderForm.getItems()) FormNormalizer.normalize(item);
+        }
+    }
+
+    @Benchmark
+    public List<ProductForm> productFormsVarHandle() throws ApiException {
+        repadProductForms();
+        for (ProductForm form : productForms) {
+            FormNormalizer.normalize(form);
+        }
+        return productForms;
+    }
+
+    @Benchmark
+    public List<ProductForm> productFormsReflection() throws ApiException {
+        repadProductForms();
+        for (ProductForm form : productForms) {
+            LegacyReflectionNormalizer.normalize(form);
+        }
+        return productForms;
+    }
+
+    @Benchmark
+    public OrderForm orderFormVarHandle() throws ApiException {
+        repadOrderForm();
+        FormNormalizer.normalize(orderForm);
+        for (OrderItemForm item : orderForm.getItems()) {
+            FormNormalizer.normalize(item);
+        }
+        return orderForm;
+    }
+
+    @Benchmark
+    public OrderForm orderFormReflection() throws ApiException {
+        repadOrderForm();
+        LegacyReflectionNormalizer.normalize(orderForm);
+        for (OrderItemForm item : orderForm.getItems()) {
+            LegacyReflectionNormalizer.normalize(item);
+        }
+        return orderForm;
+    }
+
+    private void repadProductForms() {
+        if (!padded) return;
+        for (int i = 0; i < FORMS; i++) {
+            ProductForm form = productForms.get(i);
+            form.setBarcode(paddedBarcodes[i]);
+            form.setName(paddedNames[i]);
+            form.setImageUrl(paddedImageUrls[i]);
+        }
+    }
+
+    private void repadOrderForm() {
+        if (!padded) return;
+        List<OrderItemForm> items = orderForm.getItems();
+        for (int i = 0; i < FORMS; i++) {
+            items.get(i).setBarcode(paddedItemBarcodes[i]);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.pos.benchmarks;
+
+import com.pos.model.constants.OrderStatus;
+import com.pos.pojo.Inventory;
+import com.pos.pojo.Order;
+import com.pos.pojo.OrderItem;
+import com.pos.pojo.Product;
+import jakarta.persistence.EntityManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Copy of the order create path OrderFlow used before batching: per item, one product lookup for the
+ * MRP check, one inventory select and a dirty-checked decrement, then one insert per order item.
+ * Validation errors are dropped; the benchmark only sends valid baskets. Kept only as the baseline
+ * for {@link CreateOrderBenchmark}.
+ */
+final class LegacyPerItemOrderCreator {
+
+    private static final String SELECT_INVENTORY_BY_PRODUCT_ID =
+            "select i from Inventory i where i.productId = :productId";
+
+    private final EntityManager em;
+    private final TransactionTemplate transactionTemplate;
+
+    LegacyPerItemOrderCreator(BenchmarkContext context) {
+        this.em = context.entityManager();
+        this.transactionTemplate = context.transactionTemplate();
+    }
+
+    Integer createOrder(List<OrderItem> items) {
+        return transactionTemplate.execute(status -> {
+            for (OrderItem item : items) {
+                Product product = em.find(Product.class, item.getProductId());
+                if (item.getSellingPrice() > product.getMrp()) {
+                    throw new IllegalStateException("selling price above MRP for product " + product.getId());
+                }
+
+                Inventory inventory = em.createQuery(SELECT_INVENTORY_BY_PRODUCT_ID, Inventory.class)
+                        .setParameter("productId", item.getProductId())
+                        .setMaxResults(1)
+                        .getSingleResult();
+                if (inventory.getQuantity() < item.getQuantity()) {
+                    throw new IllegalStateException("insufficient inventory for product " + product.getId());
+                }
+                inventory.setQuantity(inventory.getQuantity() - item.getQuantity());
+            }
+
+            Order order = new Order();
+            order.setStatus(OrderStatus.CREATED);
+            em.persist(order);
+            for (OrderItem item : items) {
+                item.setOrderId(order.getId());
+                em.persist(item);
+            }
+            return order.getId();
+        });
+    }
+}
@@ -0,0 +1,34 @@
+package com.pos.benchmarks;
+
+import com.pos.exception.ApiException;
+
+import java.lang.reflect.Field;
+
+import static com.pos.model.constants.ErrorMessages.ERROR_DURING_NORMALIZATION;
+
+/**
+ * Copy of AbstractDto.normalize before FormNormalizer: getDeclaredFields and setAccessible on every
+ * call, and every string written back trimmed. Kept only as the baseline for {@link FormNormalizeBenchmark}.
+ */
+final class LegacyReflectionNormalizer {
+
+    private LegacyReflectionNormalizer() {}
+
+    static <T> void normalize(T form) throws ApiException {
+        if (form == null) return;
+
+        for (Field field : form.getClass().getDeclaredFields()) {
+            if (field.getType().equals(String.class)) {
+                try {
+                    field.setAccessible(true);
+                    String value = (String) field.get(form);
+                    if (value != null) {
+                        field.set(form, value.trim());
+                    }
+                } catch (IllegalAccessException e) {
+                    throw new ApiException(ERROR_DURING_NORMALIZATION.value());
+                }
+            }
+        }
+    }
+}
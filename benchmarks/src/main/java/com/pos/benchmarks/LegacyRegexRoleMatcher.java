@@ -0,0 +1,100 @@
+package com.pos.benchmarks;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Copy of the access matcher CsvRoleAccessService used before the route trie: one regex per rule,
+ * scanned in file order for every decision. Kept only as the baseline for {@link AccessRuleBenchmark}.
+ */
+final class LegacyRegexRoleMatcher {
+
+    private final List<Rule> rules = new ArrayList<>();
+
+    LegacyRegexRoleMatcher(List<String> csvLines) {
+        for (String line : csvLines) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+            String[] parts = line.split(",", -1);
+
+            String method = parts[0].trim().toUpperCase(Locale.ROOT);
+            String path = normalizePath(parts[1].trim());
+            rules.add(new Rule(method, path, parseRoles(parts[2].trim())));
+        }
+    }
+
+    boolean isAllowed(String method, String path, String role) {
+        if (method == null || path == null || role == null) return false;
+
+        String m = method.trim().toUpperCase(Locale.ROOT);
+        String p = normalizePath(path.trim());
+        String r = role.trim().toUpperCase(Locale.ROOT);
+
+        for (Rule rule : rules) {
+            if (rule.matches(m, p) && rule.allowsRole(r)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String normalizePath(String p) {
+        if (!p.startsWith("/")) p = "/" + p;
+        if (p.length() > 1 && p.endsWith("/")) p = p.substring(0, p.length() - 1);
+        return p;
+    }
+
+    private static Set<String> parseRoles(String rolesRaw) {
+        if (rolesRaw.equals("*")) {
+            return Set.of("*");
+        }
+
+        Set<String> roles = new HashSet<>();
+        for (String s : rolesRaw.replace("|", ",").split(",", -1)) {
+            String v = s.trim();
+            if (!v.isEmpty()) roles.add(v.toUpperCase(Locale.ROOT));
+        }
+        return roles;
+    }
+
+    private static final class Rule {
+        private final String method;
+        private final Pattern pathRegex;
+        private final Set<String> roles;
+
+        Rule(String method, String pathSpec, Set<String> roles) {
+            this.method = method;
+            this.roles = roles;
+            this.pathRegex = Pattern.compile("^" + toRegex(pathSpec) + "$");
+        }
+
+        boolean matches(String reqMethod, String reqPath) {
+            if (!"*".equals(method) && !method.equals(reqMethod)) return false;
+            return pathRegex.matcher(reqPath).matches();
+        }
+
+        boolean allowsRole(String role) {
+            return roles.contains("*") || roles.contains(role);
+        }
+
+        private static String toRegex(String pathSpec) {
+            String p = pathSpec.replace(".", "\\.")
+                    .replace("?", "\\?")
+                    .replace("+", "\\+")
+                    .replace("(", "\\(")
+                    .replace(")", "\\)")
+                    .replace("[", "\\[")
+                    .replace("]", "\\]")
+                    .replace("^", "\\^")
+                    .replace("$", "\\$")
+                    .replace("|", "\\|");
+
+            p = p.replaceAll("\\{[^/]+\\}", "[^/]+");
+            return p.replace("*", ".*");
+        }
+    }
+}
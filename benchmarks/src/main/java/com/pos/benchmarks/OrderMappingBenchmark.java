@@ -0,0 +1,108 @@
+package com.pos.benchmarks;
+
+import com.pos.exception.ApiException;
+import com.pos.model.data.ClientData;
+import com.pos.model.data.OrderItemData;
+import com.pos.model.form.InventoryForm;
+import com.pos.model.form.InvoiceForm;
+import com.pos.pojo.Client;
+import com.pos.pojo.Inventory;
+import com.pos.pojo.OrderItem;
+import com.pos.pojo.Product;
+import com.pos.utils.ClientConversion;
+import com.pos.utils.CollectionIndexUtil;
+import com.pos.utils.InventoryConversion;
+import com.pos.utils.OrderConversion;
+import com.pos.utils.OrderMathUtil;
+import com.pos.utils.ProductConversion;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The in-memory mapping done around every order, invoice and upload: totals, indexing products by
+ * id, item and product read models, and inventory forms joined to product ids. Run with
+ * {@code -prof gc} to see the allocation per op next to the time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderMappingBenchmark {
+
+    @Param({"10", "1000"})
+    public int items;
+
+    private List<Product> products;
+    private Map<Integer, Product> productById;
+    private List<OrderItem> orderItems;
+    private List<InventoryForm> inventoryForms;
+    private Map<String, Integer> productIdByBarcode;
+    private Client client;
+
+    @Setup
+    public void setUp() {
+        products = BenchmarkData.products(items);
+        productById = CollectionIndexUtil.indexBy(products, Product::getId);
+        orderItems = BenchmarkData.orderItems(items, items);
+        inventoryForms = BenchmarkData.inventoryForms(items);
+        productIdByBarcode = new HashMap<>();
+        for (Product product : products) {
+            productIdByBarcode.put(product.getBarcode(), product.getId());
+        }
+        client = BenchmarkData.client("acme");
+    }
+
+    @Benchmark
+    public double orderTotal() {
+        return OrderMathUtil.calculateTotalAmount(orderItems);
+    }
+
+    @Benchmark
+    public Map<Integer, Product> indexProductsById() {
+        return CollectionIndexUtil.indexBy(products, Product::getId);
+    }
+
+    @Benchmark
+    public List<OrderItemData> orderItemData() throws ApiException {
+        return OrderConversion.toOrderItemDataList(orderItems, productById);
+    }
+
+    @Benchmark
+    public InvoiceForm invoiceForm() throws ApiException {
+        return OrderConversion.toInvoiceForm(1, orderItems, productById);
+    }
+
+    @Benchmark
+    public void productData(Blackhole bh) {
+        for (Product product : products) {
+            bh.consume(ProductConversion.toData(product));
+        }
+    }
+
+    @Benchmark
+    public ClientData clientData() {
+        return ClientConversion.convertPojoToData(1, client);
+    }
+
+    @Benchmark
+    public List<Inventory> inventoryPojos() {
+        return InventoryConversion.convertFormsToPojos(inventoryForms, productIdByBarcode);
+    }
+}
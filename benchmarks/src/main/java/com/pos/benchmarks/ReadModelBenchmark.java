@@ -0,0 +1,264 @@
+package com.pos.benchmarks;
+
+import com.pos.api.OrderApi;
+import com.pos.dao.ClientDao;
+import com.pos.dao.OrderDao;
+import com.pos.dao.OrderItemDao;
+import com.pos.dao.OrderRow;
+import com.pos.dao.ProductDao;
+import com.pos.model.constants.OrderStatus;
+import com.pos.model.data.ClientData;
+import com.pos.model.data.OrderData;
+import com.pos.model.data.ProductData;
+import com.pos.pojo.Client;
+import com.pos.pojo.Order;
+import com.pos.pojo.OrderItem;
+import com.pos.pojo.Product;
+import com.pos.utils.ClientConversion;
+import com.pos.utils.OrderConversion;
+import com.pos.utils.OrderMathUtil;
+import com.pos.utils.ProductConversion;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Product, client and order list pages: the column projections the DAOs' searchPage uses now, against
+ * loading managed entities in a read-write transaction and converting them, as the pages did before.
+ * The order projection is the OrderRow one; with {@code totals=missing} its correlated item subqueries
+ * run for every row, as for orders the totals backfill has not reached, and the entity baseline loads
+ * the page's items to sum them. Run with {@code -prof gc}; the allocation per op is the interesting column.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ReadModelBenchmark {
+
+    private static final int ROWS = 5000;
+    private static final int ITEMS_PER_ORDER = 5;
+
+    private static final String SELECT_PRODUCT_PAGE = "SELECT p FROM Product p ORDER BY p.id";
+    private static final String SELECT_CLIENT_PAGE = "SELECT c FROM Client c ORDER BY c.id";
+    private static final String SELECT_ORDER_PAGE = "SELECT o FROM Order o ORDER BY o.updatedAt DESC, o.id DESC";
+
+    /** One application context per page type, so each state seeds only the table it reads. */
+    abstract static class Pages {
+
+        BenchmarkContext context;
+        EntityManager entityManager;
+        TransactionTemplate readOnly;
+        TransactionTemplate readWrite;
+        private int page;
+
+        void open(String database) {
+            context = BenchmarkContext.start(database);
+            entityManager = context.entityManager();
+            readOnly = context.transactionTemplate();
+            readOnly.setReadOnly(true);
+            readWrite = context.transactionTemplate();
+        }
+
+        int nextPage(int pageSize) {
+            int current = page;
+            page = (page + 1) % (ROWS / pageSize);
+            return current;
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class ProductPages extends Pages {
+
+        @Param({"20", "200"})
+        public int pageSize;
+
+        ProductDao productDao;
+
+        @Setup
+        public void setUp() {
+            open("pos_read_products");
+            context.seedProducts(ROWS, 100);
+            productDao = context.bean(ProductDao.class);
+        }
+
+        @TearDown
+        public void tearDown() {
+            context.close();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class ClientPages extends Pages {
+
+        @Param({"20", "200"})
+        public int pageSize;
+
+        ClientDao clientDao;
+
+        @Setup
+        public void setUp() {
+            open("pos_read_clients");
+            readWrite.executeWithoutResult(status -> {
+                for (int i = 1; i <= ROWS; i++) {
+                    entityManager.persist(BenchmarkData.client("client-" + i));
+                    if (i % 500 == 0) {
+                        entityManager.flush();
+                        entityManager.clear();
+                    }
+                }
+            });
+            clientDao = context.bean(ClientDao.class);
+        }
+
+        @TearDown
+        public void tearDown() {
+            context.close();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class OrderPages extends Pages {
+
+        @Param({"20", "200"})
+        public int pageSize;
+
+        /** stored: totals written on create; missing: pre-backfill orders, totals summed from the items. */
+        @Param({"stored", "missing"})
+        public String totals;
+
+        OrderDao orderDao;
+        OrderItemDao orderItemDao;
+
+        @Setup
+        public void setUp() {
+            open("pos_read_orders");
+            List<Integer> productIds = context.seedProducts(ROWS, 100);
+            readWrite.executeWithoutResult(status -> {
+                for (int i = 0; i < ROWS; i++) {
+                    List<OrderItem> items = new ArrayList<>(ITEMS_PER_ORDER);
+                    for (int j = 0; j < ITEMS_PER_ORDER; j++) {
+                        Integer productId = productIds.get((i + j * 1000) % productIds.size());
+                        items.add(BenchmarkData.orderItem(null, productId, 1 + j, 9.5 + j));
+                    }
+
+                    Order order = new Order();
+                    order.setStatus(OrderStatus.CREATED);
+                    if (totals.equals("stored")) {
+                        order.setTotalAmount(OrderMathUtil.calculateTotalAmount(items));
+                        order.setItemCount(items.size());
+                    }
+                    entityManager.persist(order);
+                    for (OrderItem item : items) {
+                        item.setOrderId(order.getId());
+                        entityManager.persist(item);
+                    }
+                    if (i % 200 == 0) {
+                        entityManager.flush();
+                        entityManager.clear();
+                    }
+                }
+            });
+            orderDao = context.bean(OrderDao.class);
+            orderItemDao = context.bean(OrderItemDao.class);
+        }
+
+        @TearDown
+        public void tearDown() {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public List<ProductData> productProjection(ProductPages s) {
+        int current = s.nextPage(s.pageSize);
+        return s.readOnly.execute(status -> s.productDao.searchPage(null, null, null, current, s.pageSize, false).rows());
+    }
+
+    @Benchmark
+    public List<ProductData> productEntities(ProductPages s) {
+        int current = s.nextPage(s.pageSize);
+        return s.readWrite.execute(status -> {
+            List<Product> products = s.entityManager.createQuery(SELECT_PRODUCT_PAGE, Product.class)
+                    .setFirstResult(current * s.pageSize)
+                    .setMaxResults(s.pageSize)
+                    .getResultList();
+            List<ProductData> data = new ArrayList<>(products.size());
+            for (Product product : products) {
+                data.add(ProductConversion.toData(product));
+            }
+            return data;
+        });
+    }
+
+    @Benchmark
+    public List<ClientData> clientProjection(ClientPages s) {
+        int current = s.nextPage(s.pageSize);
+        return s.readOnly.execute(status -> s.clientDao.searchPage(null, null, null, current, s.pageSize, false).rows());
+    }
+
+    @Benchmark
+    public List<ClientData> clientEntities(ClientPages s) {
+        int current = s.nextPage(s.pageSize);
+        return s.readWrite.execute(status -> {
+            List<Client> clients = s.entityManager.createQuery(SELECT_CLIENT_PAGE, Client.class)
+                    .setFirstResult(current * s.pageSize)
+                    .setMaxResults(s.pageSize)
+                    .getResultList();
+            List<ClientData> data = new ArrayList<>(clients.size());
+            for (Client client : clients) {
+                data.add(ClientConversion.convertPojoToData(client.getId(), client));
+            }
+            return data;
+        });
+    }
+
+    @Benchmark
+    public List<OrderData> orderProjection(OrderPages s) {
+        int current = s.nextPage(s.pageSize);
+        return s.readOnly.execute(status -> {
+            List<OrderRow> rows = s.orderDao.searchPage(null, null, null, null, current, s.pageSize, false).rows();
+            return OrderApi.toOrderDataList(rows);
+        });
+    }
+
+    @Benchmark
+    public List<OrderData> orderEntities(OrderPages s) {
+        int current = s.nextPage(s.pageSize);
+        return s.readWrite.execute(status -> {
+            List<Order> orders = s.entityManager.createQuery(SELECT_ORDER_PAGE, Order.class)
+                    .setFirstResult(current * s.pageSize)
+                    .setMaxResults(s.pageSize)
+                    .getResultList();
+            List<Integer> orderIds = orders.stream().map(Order::getId).toList();
+            Map<Integer, List<OrderItem>> itemsByOrderId = s.orderItemDao.selectByOrderIds(orderIds).stream()
+                    .collect(Collectors.groupingBy(OrderItem::getOrderId));
+
+            List<OrderData> data = new ArrayList<>(orders.size());
+            for (Order order : orders) {
+                List<OrderItem> items = itemsByOrderId.getOrDefault(order.getId(), List.of());
+                OrderData row = OrderConversion.toOrderDataWithTotal(order, items);
+                row.setItemCount(items.size());
+                data.add(row);
+            }
+            return data;
+        });
+    }
+}
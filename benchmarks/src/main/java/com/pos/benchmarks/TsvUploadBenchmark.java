@@ -0,0 +1,104 @@
+package com.pos.benchmarks;
+
+import com.pos.exception.ApiException;
+import com.pos.exception.UploadValidationException;
+import com.pos.model.form.ProductForm;
+import com.pos.utils.ProductTsvParser;
+import com.pos.utils.TsvParser;
+import com.pos.utils.TsvUploadUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Upload parsing: raw TSV reading, the chunked stream that copies every row to the error file,
+ * the error report when rows fail, and the full product upload parser.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TsvUploadBenchmark {
+
+    @Param({"1000", "10000"})
+    public int rows;
+
+    private byte[] validTsv;
+    private byte[] tsvWithErrors;
+    private MockMultipartFile productFile;
+
+    @Setup
+    public void setUp() {
+        validTsv = BenchmarkData.productTsv(rows, 0);
+        tsvWithErrors = BenchmarkData.productTsv(rows, 10);
+        productFile = new MockMultipartFile("file", "products.tsv", "text/tab-separated-values", validTsv);
+    }
+
+    @Benchmark
+    public int readRows(Blackhole bh) throws ApiException {
+        int count = 0;
+        try (TsvParser.Reader reader = TsvParser.open(new ByteArrayInputStream(validTsv))) {
+            bh.consume(reader.header());
+            String[] row;
+            while ((row = reader.next()) != null) {
+                bh.consume(row);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int streamOrThrow(Blackhole bh) throws ApiException {
+        try (TsvParser.Reader reader = TsvParser.open(new ByteArrayInputStream(validTsv))) {
+            String[] header = reader.header();
+            return TsvUploadUtil.streamOrThrow(reader, header, errorReport(validTsv),
+                    (row, lineNumber) -> row, TsvUploadUtil.CHUNK_SIZE, bh::consume);
+        }
+    }
+
+    /** One row in ten fails; the nine before the first are re-read into the report, then every row is written. */
+    @Benchmark
+    public long buildErrorTsv(Blackhole bh) throws ApiException, IOException {
+        try (TsvParser.Reader reader = TsvParser.open(new ByteArrayInputStream(tsvWithErrors))) {
+            String[] header = reader.header();
+            TsvUploadUtil.streamOrThrow(reader, header, errorReport(tsvWithErrors), (row, lineNumber) -> {
+                Double.parseDouble(TsvParser.s(row, 2));
+                return row;
+            }, TsvUploadUtil.CHUNK_SIZE, bh::consume);
+            throw new IllegalStateException("Expected row errors");
+        } catch (UploadValidationException e) {
+            // the report is normally deleted once streamed to the client
+            long size = Files.size(e.getFile());
+            Files.deleteIfExists(e.getFile());
+            return size;
+        }
+    }
+
+    @Benchmark
+    public int productTsvParse(Blackhole bh) throws ApiException {
+        TsvUploadUtil.ChunkSource<ProductForm> source = ProductTsvParser.parse(productFile, 1);
+        return source.forEachChunk(bh::consume);
+    }
+
+    private static TsvUploadUtil.ErrorReport errorReport(byte[] tsv) {
+        return new TsvUploadUtil.ErrorReport("bench_errors", () -> TsvParser.open(new ByteArrayInputStream(tsv)));
+    }
+}
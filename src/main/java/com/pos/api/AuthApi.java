@@ -4,11 +4,18 @@ import com.pos.dao.UserDao;
 import com.pos.exception.ApiException;
 import com.pos.model.constants.UserRole;
 import com.pos.pojo.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
 import static com.pos.model.constants.ErrorMessages.*;
 import static com.pos.utils.AuthConversion.convertSignupToUser;
 
@@ -19,7 +26,17 @@ public class AuthApi {
     @Autowired
     private UserDao userDao;
 
-    private final BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
+    @Autowired
+    private UserPrincipalCache principalCache;
+
+    @Autowired
+    private BCryptPasswordEncoder encoder;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${auth.bcrypt.strength:10}")
+    private int bcryptStrength = 10;
 
     public User signup(String email, String password) throws ApiException {
 
@@ -32,22 +49,57 @@ public class AuthApi {
         return user;
     }
 
+    // Always against the stored hash: a cached one would keep an old password working until it expired
     @Transactional(readOnly = true)
     public User validateLogin(String email, String password) throws ApiException {
+        long start = System.nanoTime();
+        String outcome = "failure";
+        try {
+            long generation = principalCache.generation();
+            User user = userDao.findByEmail(email).orElseThrow(() -> new ApiException(INVALID_CREDENTIALS.value() + ": " + email));
+            if (!matches(password, user.getPasswordHash())) {
+                throw new ApiException(INVALID_CREDENTIALS.value());
+            }
+            // the session lookup that follows a login is then served from the cache
+            principalCache.put(user, generation);
+            outcome = "success";
+            return user;
+        } finally {
+            Timer.builder("pos.auth.login")
+                    .description("Login checks, including the user lookup and the BCrypt comparison")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
 
-        User user = userDao.findByEmail(email).orElseThrow(() -> new ApiException(INVALID_CREDENTIALS.value() + ": " + email));
-        if (!encoder.matches(password, user.getPasswordHash())) {
-            throw new ApiException(INVALID_CREDENTIALS.value());
+    /** True when the stored hash was made with a different BCrypt cost than the configured one. */
+    public boolean needsRehash(User user) {
+        return hashCost(user.getPasswordHash()) != bcryptStrength;
+    }
+
+    /** Re-encodes an already verified password at the configured cost. */
+    public void rehashPassword(Integer userId, String password) throws ApiException {
+        User user = userDao.selectById(userId);
+        if (user == null) {
+            throw new ApiException(USER_NOT_FOUND.value() + ": " + userId);
         }
-        return user;
+        user.setPasswordHash(encoder.encode(password));
+        principalCache.invalidate(List.of(userId), List.of(user.getEmail()));
+        meterRegistry.counter("pos.auth.password.rehashed").increment();
     }
 
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public User getById(Integer userId) throws ApiException {
-        User user = userDao.selectById(userId);
+        User user = principalCache.getById(userId);
+        if (user != null) return user;
+
+        long generation = principalCache.generation();
+        user = userDao.selectById(userId);
         if (user == null) {
             throw new ApiException(USER_NOT_FOUND.value() + ": " + userId);
         }
+        principalCache.put(user, generation);
         return user;
     }
 
@@ -56,10 +108,28 @@ public class AuthApi {
         if (user == null) {
             throw new ApiException(USER_NOT_FOUND.value() + ": " + userId);
         }
-        if (!encoder.matches(currentPassword, user.getPasswordHash())) {
+        if (!matches(currentPassword, user.getPasswordHash())) {
             throw new ApiException(CURRENT_PASSWORD_INCORRECT.value());
         }
 
         user.setPasswordHash(encoder.encode(newPassword));
+        principalCache.invalidate(List.of(userId), List.of(user.getEmail()));
+    }
+
+    // Timed on its own: the BCrypt cost, not the lookup, is what moves when auth.bcrypt.strength changes
+    private boolean matches(String password, String passwordHash) {
+        return meterRegistry.timer("pos.auth.password.check").record(() -> encoder.matches(password, passwordHash));
+    }
+
+    // -------------------- Static helpers --------------------
+
+    /** Cost factor of a "$2a$10$..." hash, or -1 when it is not a BCrypt hash. */
+    public static int hashCost(String passwordHash) {
+        if (passwordHash == null || passwordHash.length() < 7 || passwordHash.charAt(3) != '$') return -1;
+        try {
+            return Integer.parseInt(passwordHash.substring(4, 6));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
     }
-}
\ No newline at end of file
+}
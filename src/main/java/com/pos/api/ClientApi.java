@@ -1,10 +1,10 @@
 package com.pos.api;
 
 import com.pos.dao.ClientDao;
+import com.pos.dao.PageResult;
 import com.pos.exception.ApiException;
 import com.pos.model.data.ClientData;
 import com.pos.pojo.Client;
-import com.pos.utils.ClientConversion;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -67,13 +67,9 @@ public class ClientApi {
         existing.setEmail(client.getEmail());
     }
 
-    public List<Client> search(Integer id, String name, String email, int page, int size) {
-        return clientDao.searchByParams(id, name, email, page, size);
-    }
-
-    public long getCount(Integer id, String name, String email) {
-        Long count = clientDao.getCount(id, name, email);
-        return count == null ? 0L : count;
+    @Transactional(readOnly = true)
+    public PageResult<ClientData> search(Integer id, String name, String email, int page, int size, boolean withTotal) {
+        return clientDao.searchPage(id, name, email, page, size, withTotal);
     }
 
     public List<Client> getByNames(List<String> names) {
@@ -85,14 +81,4 @@ public class ClientApi {
         if (CollectionUtils.isEmpty(ids)) return List.of();
         return clientDao.selectByIds(ids);
     }
-
-    // -------------------- Static helpers --------------------
-
-    public static List<ClientData> toClientDataList(List<Client> clients) {
-        if (clients == null || clients.isEmpty()) return List.of();
-
-        return clients.stream()
-                .map(pojo -> ClientConversion.convertPojoToData(pojo.getId(), pojo))
-                .toList();
-    }
 }
\ No newline at end of file
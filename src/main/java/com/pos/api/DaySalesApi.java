@@ -3,14 +3,19 @@ package com.pos.api;
 import com.pos.dao.DaySalesDao;
 import com.pos.exception.ApiException;
 import com.pos.pojo.DaySales;
+import com.pos.pojo.DaySalesCursor;
 import com.pos.utils.DaySalesConversion;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import static com.pos.model.constants.ErrorMessages.DATE_REQUIRED;
 
@@ -23,6 +28,12 @@ public class DaySalesApi {
     @Autowired
     private DaySalesDao daySalesDao;
 
+    @Value("${pos.daySales.batchSize:500}")
+    private int batchSize = 500;
+
+    @Value("${pos.daySales.settleSeconds:120}")
+    private long settleSeconds = 120;
+
     public List<DaySales> getDaySales(ZonedDateTime dayInAnyZone) throws ApiException {
         if (dayInAnyZone == null) {
             throw new ApiException(DATE_REQUIRED.value());
@@ -35,19 +46,112 @@ public class DaySalesApi {
         return rows == null ? List.of() : rows;
     }
 
-    public void calculateDaySales() throws ApiException {
-        ZonedDateTime dayStartBusiness = ZonedDateTime.now(BUSINESS_ZONE)
-                .toLocalDate()
-                .atStartOfDay(BUSINESS_ZONE);
+    /**
+     * Folds the next batch of invoiced orders past the cursor into their business-day rows and
+     * advances the cursor in the same transaction, so every order is counted exactly once however
+     * often this runs. Orders updated within the settle window are left for a later run: their
+     * invoice transaction may still be in flight, and moving the cursor past them would lose them.
+     * A cursor that fell behind (missed runs) simply catches up over however many days it spans.
+     *
+     * @return number of orders folded; 0 once the rollup has caught up
+     */
+    public int rollUpInvoicedOrders() {
+        ZonedDateTime now = ZonedDateTime.now(BUSINESS_ZONE);
+        DaySalesCursor cursor = daySalesDao.selectCursorForUpdate();
+        if (cursor == null) {
+            cursor = startCursor(now);
+        }
+
+        List<Object[]> orders = daySalesDao.selectInvoicedOrderTotalsAfter(
+                cursor.getLastUpdatedAt(), cursor.getLastOrderId(), now.minusSeconds(settleSeconds), batchSize);
+
+        Map<ZonedDateTime, DaySales> deltas = new LinkedHashMap<>();
+        for (Object[] row : orders) {
+            ZonedDateTime updatedAt = (ZonedDateTime) row[1];
+            DaySales delta = deltas.computeIfAbsent(toBusinessStartOfDay(updatedAt), day -> emptyDay(day));
+            delta.setInvoicedOrdersCount(delta.getInvoicedOrdersCount() + 1);
+            delta.setInvoicedItemsCount(delta.getInvoicedItemsCount() + DaySalesConversion.toInt(row[2]));
+            delta.setTotalRevenue(delta.getTotalRevenue() + DaySalesConversion.toBigDecimal(row[3]).doubleValue());
 
+            cursor.setLastUpdatedAt(updatedAt);
+            cursor.setLastOrderId(DaySalesConversion.toInt(row[0]));
+        }
+
+        // Today always gets a row, even before its first invoice
+        deltas.putIfAbsent(toBusinessStartOfDay(now), emptyDay(toBusinessStartOfDay(now)));
+        deltas.values().forEach(this::addToDay);
+        return orders.size();
+    }
+
+    /**
+     * Rebuilds one business day's row from its order lines, replacing what it held, so a day can be
+     * recomputed any number of times. Only days the rollup cursor has fully passed are touched;
+     * later days are still being added to by the rollup and would end up counted twice. The cursor
+     * is share-locked so the rollup cannot move while the day is rebuilt.
+     *
+     * @return false when the day was skipped because the rollup has not passed it yet
+     */
+    public boolean recomputeDay(LocalDate day) {
+        ZonedDateTime dayStartBusiness = day.atStartOfDay(BUSINESS_ZONE);
         ZonedDateTime dayEndBusiness = dayStartBusiness.plusDays(1);
-        calculateDaySales(dayStartBusiness, dayEndBusiness);
+
+        // Before the first rollup everything up to today's midnight is final (see startCursor)
+        DaySalesCursor cursor = daySalesDao.selectCursorForShare();
+        ZonedDateTime rolledUpUntil = cursor == null
+                ? toBusinessStartOfDay(ZonedDateTime.now(BUSINESS_ZONE))
+                : cursor.getLastUpdatedAt();
+        if (dayEndBusiness.isAfter(rolledUpUntil)) {
+            return false;
+        }
+
+        Object[] row = daySalesDao.selectInvoicedSalesAggregatesForDay(dayStartBusiness, dayEndBusiness);
+        DaySales totals = DaySalesConversion.toPojo(dayStartBusiness, row[0], row[1], row[2]);
+
+        DaySales existing = daySalesDao.selectByDate(dayStartBusiness);
+        if (existing == null) {
+            daySalesDao.insert(totals);
+        } else {
+            existing.setInvoicedOrdersCount(totals.getInvoicedOrdersCount());
+            existing.setInvoicedItemsCount(totals.getInvoicedItemsCount());
+            existing.setTotalRevenue(totals.getTotalRevenue());
+        }
+        return true;
+    }
+
+    private void addToDay(DaySales delta) {
+        DaySales day = daySalesDao.selectByDate(delta.getDate());
+        if (day == null) {
+            daySalesDao.insert(delta);
+            return;
+        }
+        day.setInvoicedOrdersCount(day.getInvoicedOrdersCount() + delta.getInvoicedOrdersCount());
+        day.setInvoicedItemsCount(day.getInvoicedItemsCount() + delta.getInvoicedItemsCount());
+        day.setTotalRevenue(day.getTotalRevenue() + delta.getTotalRevenue());
     }
 
-    private void calculateDaySales(ZonedDateTime startBusiness, ZonedDateTime endBusiness) throws ApiException {
-        Object[] row = daySalesDao.selectInvoicedSalesAggregatesForDay(startBusiness, endBusiness);
-        DaySales pojo = DaySalesConversion.toPojo(startBusiness, row[0], row[1], row[2]);
-        daySalesDao.insert(pojo);
+    // First rollup: start at the beginning of today and rebuild today's row from there on
+    private DaySalesCursor startCursor(ZonedDateTime now) {
+        ZonedDateTime dayStartBusiness = toBusinessStartOfDay(now);
+
+        DaySales today = daySalesDao.selectByDate(dayStartBusiness);
+        if (today != null) {
+            today.setInvoicedOrdersCount(0);
+            today.setInvoicedItemsCount(0);
+            today.setTotalRevenue(0.0);
+        }
+
+        DaySalesCursor cursor = new DaySalesCursor();
+        cursor.setId(DaySalesCursor.ROLLUP_ID);
+        cursor.setLastUpdatedAt(dayStartBusiness);
+        cursor.setLastOrderId(0);
+        daySalesDao.insert(cursor);
+        return cursor;
+    }
+
+    // -------------------- Static helpers --------------------
+
+    private static DaySales emptyDay(ZonedDateTime dayStartBusiness) {
+        return DaySalesConversion.toPojo(dayStartBusiness, 0, 0, 0);
     }
 
     private static ZonedDateTime toBusinessStartOfDay(ZonedDateTime zdt) {
@@ -0,0 +1,107 @@
+package com.pos.api;
+
+import com.pos.dao.DaySalesBackfillJobDao;
+import com.pos.exception.ApiException;
+import com.pos.model.constants.DaySalesBackfillStatus;
+import com.pos.pojo.DaySalesBackfillJob;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+import static com.pos.model.constants.ErrorMessages.DAY_SALES_BACKFILL_NOT_FOUND;
+
+/**
+ * Shared state of DaySales backfills. The instance running the days records progress with the token it
+ * started or took the job over with; once another instance takes over, the old token stops counting.
+ */
+@Component
+@Transactional(rollbackFor = Exception.class)
+public class DaySalesBackfillJobApi {
+
+    @Autowired private DaySalesBackfillJobDao daySalesBackfillJobDao;
+
+    @Transactional(readOnly = true)
+    public DaySalesBackfillJob getActive() {
+        return daySalesBackfillJobDao.selectActive();
+    }
+
+    @Transactional(readOnly = true)
+    public DaySalesBackfillJob getCheck(String jobId) throws ApiException {
+        DaySalesBackfillJob job = jobId == null ? null : daySalesBackfillJobDao.selectById(jobId);
+        if (job == null) {
+            throw new ApiException(DAY_SALES_BACKFILL_NOT_FOUND.value() + ": " + jobId);
+        }
+        return job;
+    }
+
+    /** Inserts a running backfill; fails on commit with a DataIntegrityViolationException if one is already running. */
+    public DaySalesBackfillJob create(LocalDate startDate, LocalDate endDate, int totalDays) {
+        ZonedDateTime now = ZonedDateTime.now();
+        DaySalesBackfillJob job = new DaySalesBackfillJob();
+        job.setId(UUID.randomUUID().toString());
+        job.setStartDate(startDate);
+        job.setEndDate(endDate);
+        job.setActiveSlot(DaySalesBackfillJob.ACTIVE_SLOT);
+        job.setStatus(DaySalesBackfillStatus.RUNNING);
+        job.setTotalDays(totalDays);
+        resetProgress(job, now);
+        job.setCreatedAt(now);
+        daySalesBackfillJobDao.insert(job);
+        return job;
+    }
+
+    /** Returns the processed-day count including this day, or -1 if {@code token} no longer owns the job. */
+    public int recordDay(String jobId, String token, boolean recomputed) {
+        return daySalesBackfillJobDao.recordDay(jobId, token, recomputed, !recomputed, "", ZonedDateTime.now());
+    }
+
+    /** As {@link #recordDay}, listing {@code day} as failed. */
+    public int recordFailedDay(String jobId, String token, LocalDate day) {
+        return daySalesBackfillJobDao.recordDay(jobId, token, false, false, day + ",", ZonedDateTime.now());
+    }
+
+    /** Marks the backfill done, SUCCEEDED unless a day failed. False if {@code token} no longer owns it. */
+    public boolean finish(String jobId, String token) {
+        DaySalesBackfillJob job = daySalesBackfillJobDao.selectByIdForUpdate(jobId);
+        if (job == null || job.getActiveSlot() == null || !token.equals(job.getClaimToken())) {
+            return false;
+        }
+        job.setStatus(job.getFailedDays().isEmpty() ? DaySalesBackfillStatus.SUCCEEDED : DaySalesBackfillStatus.FAILED);
+        job.setActiveSlot(null);
+        job.setFinishedAt(ZonedDateTime.now());
+        return true;
+    }
+
+    /**
+     * Takes over the running backfill if it has been quiet for longer than {@code lease}: progress starts
+     * again from zero under a new token, since every day is recomputed from scratch anyway. Null when there
+     * is nothing to take over.
+     */
+    public DaySalesBackfillJob takeOverStalled(Duration lease) {
+        ZonedDateTime now = ZonedDateTime.now();
+        DaySalesBackfillJob job = daySalesBackfillJobDao.selectActiveForUpdate();
+        if (job == null || !job.getHeartbeatAt().isBefore(now.minus(lease))) {
+            return null;
+        }
+        resetProgress(job, now);
+        return job;
+    }
+
+    public int deleteFinishedBefore(ZonedDateTime cutoff) {
+        return daySalesBackfillJobDao.deleteFinishedBefore(cutoff);
+    }
+
+    private static void resetProgress(DaySalesBackfillJob job, ZonedDateTime now) {
+        job.setProcessedDays(0);
+        job.setRecomputedDays(0);
+        job.setSkippedDays(0);
+        job.setFailedDays("");
+        job.setClaimToken(UUID.randomUUID().toString());
+        job.setHeartbeatAt(now);
+    }
+}
@@ -1,7 +1,9 @@
 package com.pos.api;
 
 import com.pos.dao.InventoryDao;
+import com.pos.dao.PageResult;
 import com.pos.exception.ApiException;
+import com.pos.model.data.InventoryData;
 import com.pos.model.form.InventoryForm;
 import com.pos.pojo.Inventory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -45,54 +47,53 @@ public class InventoryApi {
         return inventory;
     }
 
-    public List<Inventory> findByProductIds(List<Integer> productIds, int page, int size) {
-        if (CollectionUtils.isEmpty(productIds)) return List.of();
-        return inventoryDao.findByProductIds(productIds, page, size);
+    @Transactional(readOnly = true)
+    public PageResult<InventoryData> search(String barcode, String productName, int page, int size, boolean withTotal) {
+        return inventoryDao.search(barcode, productName, page, size, withTotal);
     }
 
     public void add(List<Inventory> inventories) throws ApiException {
         if (CollectionUtils.isEmpty(inventories)) return;
 
-        List<Integer> productIds = extractDistinctProductIdsFromInventories(inventories);
-        List<Inventory> existingList = inventoryDao.selectByProductIds(productIds);
-        Map<Integer, Inventory> existingByProductId = toInventoryByProductId(existingList);
-
         for (Inventory inventory : inventories) {
-            Integer productId = inventory.getProductId();
-            if (productId == null) {
+            if (inventory.getProductId() == null) {
                 throw new ApiException(PRODUCT_NOT_FOUND.value());
             }
-            Inventory existing = existingByProductId.get(productId);
-            if (existing == null) {
-                inventoryDao.insert(inventory);
-            } else {
-                existing.setQuantity(inventory.getQuantity());
-            }
         }
+        inventoryDao.upsertAll(inventories);
     }
 
-    public void reduceInventory(Integer productId, Integer quantity) throws ApiException {
+    public void reduceInventories(Map<Integer, Integer> quantityByProductId) throws ApiException {
+        if (CollectionUtils.isEmpty(quantityByProductId)) return;
 
+        for (Map.Entry<Integer, Integer> entry : quantityByProductId.entrySet()) {
+            validateReduction(entry.getKey(), entry.getValue());
+        }
+
+        List<Integer> shortProductIds = inventoryDao.decrementIfAvailable(quantityByProductId);
+        if (!shortProductIds.isEmpty()) {
+            throw new ApiException(describeShortLines(shortProductIds, quantityByProductId));
+        }
+    }
+
+    private static void validateReduction(Integer productId, Integer quantity) throws ApiException {
         if (productId == null) throw new ApiException(PRODUCT_NOT_FOUND.value());
         if (quantity == null || quantity <= 0) {
             throw new ApiException(QUANTITY_MUST_BE_POSITIVE.value() + ": " + quantity);
         }
-
-        Inventory inventory = getCheckByProductId(productId);
-        if (inventory.getQuantity() < quantity) {
-            throw new ApiException(
-                    INSUFFICIENT_INVENTORY.value()
-                            + " | productId=" + productId
-                            + ", available=" + inventory.getQuantity()
-                            + ", requested=" + quantity
-            );
-        }
-        inventory.setQuantity(inventory.getQuantity() - quantity);
     }
 
-    public Long getCountByProductIds(List<Integer> productIds) {
-        if (CollectionUtils.isEmpty(productIds)) return 0L;
-        return inventoryDao.getCountByProductIds(productIds);
+    private String describeShortLines(List<Integer> shortProductIds, Map<Integer, Integer> quantityByProductId) {
+        Map<Integer, Inventory> existingByProductId = toInventoryByProductId(inventoryDao.selectByProductIds(shortProductIds));
+
+        StringJoiner lines = new StringJoiner("; ");
+        for (Integer productId : shortProductIds) {
+            Inventory existing = existingByProductId.get(productId);
+            lines.add("productId=" + productId
+                    + ", available=" + (existing == null ? 0 : existing.getQuantity())
+                    + ", requested=" + quantityByProductId.get(productId));
+        }
+        return INSUFFICIENT_INVENTORY.value() + " | " + lines;
     }
 
     public static List<String> extractBarcodes(List<InventoryForm> forms) {
@@ -0,0 +1,101 @@
+package com.pos.api;
+
+import com.pos.dao.InvoiceJobDao;
+import com.pos.exception.ApiException;
+import com.pos.model.constants.InvoiceJobStatus;
+import com.pos.pojo.InvoiceJob;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static com.pos.model.constants.ErrorMessages.INVOICE_JOB_NOT_FOUND;
+
+/**
+ * Shared state of async invoice jobs. Workers on any instance claim a job before running it and write
+ * to it only with the token of their claim, so a job taken over after its lease runs out is never
+ * finished twice.
+ */
+@Component
+@Transactional(rollbackFor = Exception.class)
+public class InvoiceJobApi {
+
+    @Autowired private InvoiceJobDao invoiceJobDao;
+
+    @Transactional(readOnly = true)
+    public InvoiceJob getActiveByOrderId(Integer orderId) {
+        return invoiceJobDao.selectActiveByOrderId(orderId);
+    }
+
+    @Transactional(readOnly = true)
+    public InvoiceJob getCheck(Integer orderId, String jobId) throws ApiException {
+        InvoiceJob job = jobId == null ? null : invoiceJobDao.selectById(jobId);
+        if (job == null || !job.getOrderId().equals(orderId)) {
+            throw new ApiException(INVOICE_JOB_NOT_FOUND.value() + ": " + jobId);
+        }
+        return job;
+    }
+
+    /** Inserts a queued job; fails on commit with a DataIntegrityViolationException if the order already has one. */
+    public InvoiceJob create(Integer orderId, String form) {
+        ZonedDateTime now = ZonedDateTime.now();
+        InvoiceJob job = new InvoiceJob();
+        job.setId(UUID.randomUUID().toString());
+        job.setOrderId(orderId);
+        job.setActiveOrderId(orderId);
+        job.setStatus(InvoiceJobStatus.QUEUED);
+        job.setForm(form);
+        job.setAttempts(0);
+        job.setHeartbeatAt(now);
+        job.setCreatedAt(now);
+        invoiceJobDao.insert(job);
+        return job;
+    }
+
+    public void delete(String jobId) {
+        invoiceJobDao.deleteById(jobId);
+    }
+
+    /** Claims a queued job, or a running one whose worker has been quiet longer than {@code lease}; null if taken. */
+    public InvoiceJob claim(String jobId, Duration lease) {
+        ZonedDateTime now = ZonedDateTime.now();
+        String token = UUID.randomUUID().toString();
+        if (!invoiceJobDao.claim(jobId, token, now, now.minus(lease))) {
+            return null;
+        }
+        return invoiceJobDao.selectById(jobId);
+    }
+
+    /**
+     * Claims up to {@code limit} active jobs, queued or running, quiet for longer than {@code lease}. Each comes
+     * back running under a new token, so the caller runs it without claiming it again.
+     */
+    public List<InvoiceJob> takeOverStalled(Duration lease, int limit) {
+        ZonedDateTime now = ZonedDateTime.now();
+        ZonedDateTime staleBefore = now.minus(lease);
+        List<InvoiceJob> taken = new ArrayList<>();
+        for (String id : invoiceJobDao.selectStalledIds(staleBefore, limit)) {
+            if (invoiceJobDao.takeOverIfStalled(id, UUID.randomUUID().toString(), now, staleBefore)) {
+                taken.add(invoiceJobDao.selectById(id));
+            }
+        }
+        return taken;
+    }
+
+    public boolean recordAttempt(String jobId, String token, int attempts) {
+        return invoiceJobDao.updateAttempts(jobId, token, attempts, ZonedDateTime.now());
+    }
+
+    public boolean finish(String jobId, String token, InvoiceJobStatus status, String invoicePath, String error) {
+        return invoiceJobDao.finish(jobId, token, status, invoicePath, error, ZonedDateTime.now());
+    }
+
+    public int deleteFinishedBefore(ZonedDateTime cutoff) {
+        return invoiceJobDao.deleteFinishedBefore(cutoff);
+    }
+}
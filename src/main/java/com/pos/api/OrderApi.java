@@ -2,12 +2,16 @@ package com.pos.api;
 
 import com.pos.dao.OrderDao;
 import com.pos.dao.OrderItemDao;
+import com.pos.dao.OrderRow;
+import com.pos.dao.PageResult;
+import com.pos.dao.SalesReportDao;
 import com.pos.exception.ApiException;
 import com.pos.model.constants.OrderStatus;
 import com.pos.model.data.OrderData;
 import com.pos.pojo.Order;
 import com.pos.pojo.OrderItem;
 import com.pos.utils.OrderConversion;
+import com.pos.utils.OrderMathUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
@@ -15,7 +19,6 @@ import org.springframework.util.CollectionUtils;
 
 import java.time.ZonedDateTime;
 import java.util.List;
-import java.util.Map;
 
 import static com.pos.model.constants.ErrorMessages.*;
 
@@ -25,6 +28,7 @@ public class OrderApi {
 
     @Autowired private OrderDao orderDao;
     @Autowired private OrderItemDao orderItemDao;
+    @Autowired private SalesReportDao salesReportDao;
 
     public Integer create(List<OrderItem> items) throws ApiException {
 
@@ -38,12 +42,14 @@ public class OrderApi {
 
         Order order = new Order();
         order.setStatus(OrderStatus.CREATED);
+        order.setTotalAmount(OrderMathUtil.calculateTotalAmount(items));
+        order.setItemCount(items.size());
         orderDao.insert(order);
 
         for (OrderItem item : items) {
             item.setOrderId(order.getId());
-            orderItemDao.insert(item);
         }
+        orderItemDao.insertAll(items);
         return order.getId();
     }
 
@@ -66,10 +72,19 @@ public class OrderApi {
         }
         order.setInvoicePath(path);
         order.setStatus(OrderStatus.INVOICED);
+        salesReportDao.addInvoicedOrder(orderId);
     }
 
-    public List<Order> search(Integer id, ZonedDateTime start, ZonedDateTime end, OrderStatus status, int page, int size) {
-        return orderDao.search(id, start, end, status, page, size);
+    @Transactional(readOnly = true)
+    public PageResult<OrderRow> search(Integer id, ZonedDateTime start, ZonedDateTime end, OrderStatus status,
+                                       int page, int size, boolean withTotal) {
+        return orderDao.searchPage(id, start, end, status, page, size, withTotal);
+    }
+
+    @Transactional(readOnly = true)
+    public List<OrderRow> searchAfter(Integer id, ZonedDateTime start, ZonedDateTime end, OrderStatus status,
+                                      ZonedDateTime cursorAt, Integer cursorId, int limit) {
+        return orderDao.searchAfter(id, start, end, status, cursorAt, cursorId, limit);
     }
 
     public List<OrderItem> getItemsByOrderId(Integer orderId) throws ApiException {
@@ -86,6 +101,7 @@ public class OrderApi {
         return items;
     }
 
+    @Transactional(readOnly = true)
     public long getCount(Integer id, ZonedDateTime start, ZonedDateTime end, OrderStatus status) {
         Long count = orderDao.getCount(id, start, end, status);
         return count == null ? 0L : count;
@@ -95,16 +111,22 @@ public class OrderApi {
         return orderItemDao.selectByOrderIds(orderIds);
     }
 
+    /** Stores totals on up to {@code limit} orders that predate them; returns how many were filled in. */
+    public int backfillTotals(int limit) {
+        List<Integer> orderIds = orderDao.selectIdsWithoutTotals(limit);
+        if (orderIds.isEmpty()) return 0;
+
+        orderDao.updateTotalsFromItems(orderIds);
+        return orderIds.size();
+    }
+
     // -------------------- Static helpers --------------------
 
-    public static List<OrderData> toOrderDataList(List<Order> orders, Map<Integer, List<OrderItem>> itemsByOrderId) {
-        if (orders == null || orders.isEmpty()) return List.of();
+    public static List<OrderData> toOrderDataList(List<OrderRow> rows) {
+        if (rows == null || rows.isEmpty()) return List.of();
 
-        return orders.stream()
-                .map(o -> {
-                    List<OrderItem> items = itemsByOrderId.getOrDefault(o.getId(), List.of());
-                    return OrderConversion.toOrderDataWithTotal(o, items);
-                })
+        return rows.stream()
+                .map(OrderConversion::toOrderData)
                 .toList();
     }
 
@@ -1,14 +1,18 @@
 package com.pos.api;
 
+import com.pos.dao.PageResult;
 import com.pos.dao.ProductDao;
 import com.pos.exception.ApiException;
 import com.pos.model.constants.ErrorMessages;
+import com.pos.model.data.ProductData;
 import com.pos.pojo.Product;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.CollectionUtils;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -24,6 +28,9 @@ public class ProductApi {
     @Autowired
     private ProductDao productDao;
 
+    @Autowired
+    private ProductCatalogCache catalogCache;
+
     public Product get(Integer id) {
         return productDao.selectById(id);
     }
@@ -38,7 +45,25 @@ public class ProductApi {
 
     public List<Product> getByIds(List<Integer> ids) {
         if (CollectionUtils.isEmpty(ids)) return List.of();
-        return productDao.selectByIds(ids);
+        return selectByIdsCached(ids);
+    }
+
+    /** Reads the database, not the catalog cache: order creation checks selling prices against these MRPs. */
+    public List<Product> getCheckByIds(List<Integer> ids) throws ApiException {
+        if (CollectionUtils.isEmpty(ids)) return List.of();
+
+        List<Product> found = productDao.selectByIds(ids);
+        Set<Integer> foundIds = found.stream()
+                .map(Product::getId)
+                .collect(Collectors.toSet());
+        List<Integer> missing = ids.stream()
+                .filter(id -> !foundIds.contains(id))
+                .distinct()
+                .toList();
+        if (!missing.isEmpty()) {
+            throw new ApiException(PRODUCT_NOT_FOUND.value() + ": " + missing);
+        }
+        return found;
     }
 
     public List<Product> getByBarcodes(List<String> barcodes) {
@@ -51,7 +76,7 @@ public class ProductApi {
             throw new ApiException(AT_LEAST_ONE_BARCODE_REQUIRED.value());
         }
 
-        List<Product> found = productDao.selectByBarcodes(barcodes);
+        List<Product> found = selectByBarcodesCached(barcodes);
         Set<String> foundSet = toBarcodeSet(found);
         List<String> missing = findMissingBarcodes(barcodes, foundSet);
         if (!missing.isEmpty()) {
@@ -75,15 +100,12 @@ public class ProductApi {
         return product;
     }
 
-    public List<Integer> findProductIdsByBarcodeOrName(String barcode, String productName) {
-        return productDao.findProductIdsByBarcodeOrName(barcode, productName);
-    }
-
     public void add(Product product) throws ApiException {
         if (getByBarcode(product.getBarcode()) != null) {
             throw new ApiException(PRODUCT_BARCODE_ALREADY_EXISTS.value() + ": " + product.getBarcode());
         }
         productDao.insert(product);
+        catalogCache.invalidate(List.of(), List.of(product.getBarcode()));
     }
 
     public void addBulk(List<Product> products) throws ApiException {
@@ -97,9 +119,8 @@ public class ProductApi {
                     SOME_BARCODES_ALREADY_EXIST.value() + ": " + extractBarcodes(existingProducts)
             );
         }
-        for (Product product : products) {
-            productDao.insert(product);
-        }
+        productDao.insertAll(products);
+        catalogCache.invalidate(List.of(), barcodes);
     }
 
     public void update(Integer productId, Product product) throws ApiException {
@@ -114,28 +135,66 @@ public class ProductApi {
         existing.setName(product.getName());
         existing.setMrp(product.getMrp());
         existing.setImageUrl(product.getImageUrl());
+        catalogCache.invalidate(List.of(productId), List.of(existing.getBarcode()));
     }
 
     public void validateSellingPrice(Integer productId, Double sellingPrice) throws ApiException {
         if (sellingPrice == null) throw new ApiException(SELLING_PRICE_REQUIRED.value());
-        Product product = getCheck(productId);
-        if (sellingPrice > product.getMrp()) {
-            throw new ApiException(
-                    SELLING_PRICE_EXCEEDS_MRP.value() + " | productId=" + productId + ", mrp=" + product.getMrp() + ", sellingPrice=" + sellingPrice
-            );
-        }
+        checkSellingPrice(getCheck(productId), sellingPrice);
     }
 
-    public List<Product> search(String name, String barcode, Integer clientId, int page, int pageSize) {
-        return productDao.search(name, barcode, clientId, page, pageSize);
+    @Transactional(readOnly = true)
+    public PageResult<ProductData> search(String name, String barcode, Integer clientId, int page, int pageSize, boolean withTotal) {
+        return productDao.searchPage(name, barcode, clientId, page, pageSize, withTotal);
     }
 
-    public long getCount(String name, String barcode, Integer clientId) {
-        return productDao.getCount(name, barcode, clientId);
+    private List<Product> selectByIdsCached(List<Integer> ids) {
+        long generation = catalogCache.generation();
+        Map<Integer, Product> cached = catalogCache.getByIds(ids);
+        if (cached.isEmpty()) return load(productDao.selectByIds(ids), generation);
+
+        List<Integer> missing = ids.stream()
+                .filter(id -> !cached.containsKey(id))
+                .distinct()
+                .toList();
+        return merge(cached.values(), missing.isEmpty() ? List.of() : load(productDao.selectByIds(missing), generation));
+    }
+
+    private List<Product> selectByBarcodesCached(List<String> barcodes) {
+        long generation = catalogCache.generation();
+        Map<String, Product> cached = catalogCache.getByBarcodes(barcodes);
+        if (cached.isEmpty()) return load(productDao.selectByBarcodes(barcodes), generation);
+
+        List<String> missing = barcodes.stream()
+                .filter(b -> !cached.containsKey(b))
+                .distinct()
+                .toList();
+        return merge(cached.values(), missing.isEmpty() ? List.of() : load(productDao.selectByBarcodes(missing), generation));
+    }
+
+    private List<Product> load(List<Product> products, long generation) {
+        catalogCache.putAll(products, generation);
+        return products;
     }
 
     // -------------------- Static helpers --------------------
 
+    public static void checkSellingPrice(Product product, Double sellingPrice) throws ApiException {
+        if (sellingPrice == null) throw new ApiException(SELLING_PRICE_REQUIRED.value());
+        if (sellingPrice > product.getMrp()) {
+            throw new ApiException(
+                    SELLING_PRICE_EXCEEDS_MRP.value() + " | productId=" + product.getId() + ", mrp=" + product.getMrp() + ", sellingPrice=" + sellingPrice
+            );
+        }
+    }
+
+    private static List<Product> merge(Collection<Product> cached, List<Product> loaded) {
+        List<Product> merged = new ArrayList<>(cached.size() + loaded.size());
+        merged.addAll(cached);
+        merged.addAll(loaded);
+        return merged;
+    }
+
     public static List<String> extractBarcodes(List<Product> products) {
         if (products == null || products.isEmpty()) return List.of();
         return products.stream()
@@ -0,0 +1,221 @@
+package com.pos.api;
+
+import com.pos.dao.ProductDao;
+import com.pos.metrics.CacheMeters;
+import com.pos.pojo.Product;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Read-through cache of the product fields needed on the order, invoice and upload paths
+ * (barcode, id, name, mrp, clientId). Products handed out are detached copies.
+ * Only found products are cached. Entries expire after {@code ttlSeconds}; writers evict when their
+ * transaction completes, but only on their own instance. A row changed on another instance, or cached
+ * by a reader whose snapshot predates the commit, is served for at most {@code ttlSeconds}. Selling
+ * prices are checked against MRPs read from the database, not from here. Hits, misses, evictions
+ * and size are published as the standard {@code cache.*} meters, tagged {@code cache=productCatalog}.
+ */
+@Component
+public class ProductCatalogCache implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductCatalogCache.class);
+
+    private static final int DEFAULT_MAX_ENTRIES = 50_000;
+    private static final long DEFAULT_TTL_SECONDS = 300;
+    private static final int WARM_UP_PAGE_SIZE = 1000;
+
+    private record Entry(Integer id, String barcode, Integer clientId, String name, Double mrp, long expiresAtNanos) {
+
+        static Entry of(Product product, long expiresAtNanos) {
+            return new Entry(product.getId(), product.getBarcode(), product.getClientId(), product.getName(),
+                    product.getMrp(), expiresAtNanos);
+        }
+
+        boolean expired(long now) {
+            return now - expiresAtNanos >= 0;
+        }
+
+        Product toProduct() {
+            Product product = new Product();
+            product.setId(id);
+            product.setBarcode(barcode);
+            product.setClientId(clientId);
+            product.setName(name);
+            product.setMrp(mrp);
+            return product;
+        }
+    }
+
+    @Autowired
+    private ProductDao productDao;
+
+    @Value("${pos.catalog.maxEntries:" + DEFAULT_MAX_ENTRIES + "}")
+    private int maxEntries = DEFAULT_MAX_ENTRIES;
+
+    @Value("${pos.catalog.ttlSeconds:" + DEFAULT_TTL_SECONDS + "}")
+    private long ttlSeconds = DEFAULT_TTL_SECONDS;
+
+    @Value("${pos.catalog.warmUp:true}")
+    private boolean warmUpEnabled = true;
+
+    private final Map<Integer, Entry> byId = new ConcurrentHashMap<>();
+    private final Map<String, Integer> idByBarcode = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void warmUp() {
+        if (!warmUpEnabled) return;
+
+        long gen = generation();
+        int afterId = 0;
+        int loaded = 0;
+        while (loaded < maxEntries) {
+            List<Product> page = productDao.selectCatalogPage(afterId, Math.min(WARM_UP_PAGE_SIZE, maxEntries - loaded));
+            if (page.isEmpty()) break;
+            putAll(page, gen);
+            loaded += page.size();
+            afterId = page.get(page.size() - 1).getId();
+        }
+        log.info("Product catalog cache warmed up with {} products", byId.size());
+    }
+
+    /**
+     * Snapshot of the invalidation counter. Capture it before reading from the database and
+     * pass it to {@link #putAll} so rows read before a concurrent write are not cached.
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    public Map<Integer, Product> getByIds(Collection<Integer> ids) {
+        Map<Integer, Product> found = new HashMap<>();
+        for (Integer id : ids) {
+            Entry entry = hit(id == null ? null : byId.get(id));
+            if (entry != null) found.put(id, entry.toProduct());
+        }
+        return found;
+    }
+
+    public Map<String, Product> getByBarcodes(Collection<String> barcodes) {
+        Map<String, Product> found = new HashMap<>();
+        for (String barcode : barcodes) {
+            Entry entry = hit(lookupBarcode(barcode));
+            if (entry != null) found.put(barcode, entry.toProduct());
+        }
+        return found;
+    }
+
+    public void putAll(Collection<Product> products, long expectedGeneration) {
+        if (products.isEmpty() || generation.get() != expectedGeneration) return;
+
+        long expiresAt = System.nanoTime() + TimeUnit.SECONDS.toNanos(ttlSeconds);
+        for (Product product : products) {
+            if (product.getId() == null || product.getBarcode() == null) continue;
+            if (!byId.containsKey(product.getId())) makeRoom();
+            byId.put(product.getId(), Entry.of(product, expiresAt));
+            idByBarcode.put(product.getBarcode(), product.getId());
+        }
+        // An invalidation may have raced the puts above; drop them rather than keep stale rows.
+        if (generation.get() != expectedGeneration) {
+            products.forEach(p -> remove(p.getId(), p.getBarcode()));
+        }
+    }
+
+    /**
+     * Evicts now, so the writing transaction never reads its own stale entry, and again once it
+     * completes, dropping rows other readers loaded meanwhile and anything this transaction
+     * cached from its own uncommitted changes if it rolls back.
+     */
+    public void invalidate(Collection<Integer> ids, Collection<String> barcodes) {
+        evict(ids, barcodes);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) return;
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                evict(ids, barcodes);
+            }
+        });
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CacheMeters.bind(registry, "productCatalog", this, hits, misses, evictions, cache -> cache.byId.size());
+    }
+
+    private void evict(Collection<Integer> ids, Collection<String> barcodes) {
+        generation.incrementAndGet();
+        ids.forEach(id -> remove(id, null));
+        barcodes.stream()
+                .filter(Objects::nonNull)
+                .forEach(barcode -> remove(idByBarcode.get(barcode), barcode));
+    }
+
+    private Entry lookupBarcode(String barcode) {
+        Integer id = barcode == null ? null : idByBarcode.get(barcode);
+        Entry entry = id == null ? null : byId.get(id);
+        return entry != null && entry.barcode().equals(barcode) ? entry : null;
+    }
+
+    private Entry hit(Entry entry) {
+        if (entry != null && entry.expired(System.nanoTime())) {
+            remove(entry.id(), entry.barcode());
+            entry = null;
+        }
+        if (entry == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return entry;
+    }
+
+    private void makeRoom() {
+        Iterator<Integer> it = byId.keySet().iterator();
+        while (byId.size() >= maxEntries && it.hasNext()) {
+            Integer victim = it.next();
+            Entry entry = byId.remove(victim);
+            if (entry != null) {
+                idByBarcode.remove(entry.barcode(), victim);
+                evictions.increment();
+            }
+        }
+    }
+
+    private void remove(Integer id, String barcode) {
+        if (id != null) {
+            Entry entry = byId.remove(id);
+            if (entry != null) idByBarcode.remove(entry.barcode(), id);
+        }
+        if (barcode != null) {
+            Integer mapped = idByBarcode.remove(barcode);
+            if (mapped != null && !Objects.equals(mapped, id)) byId.remove(mapped);
+        }
+    }
+}
@@ -9,7 +9,7 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.CollectionUtils;
 
 import java.time.LocalDate;
-import java.util.List;
+import java.util.*;
 
 import static com.pos.model.constants.ErrorMessages.*;
 
@@ -20,10 +20,26 @@ public class SalesReportApi {
     @Autowired
     private SalesReportDao salesReportDao;
 
+    /**
+     * Days after the first aggregated day are read from pos_product_day_sales; earlier days (and the
+     * first day itself, which may predate the first aggregated invoice) fall back to the raw line items.
+     */
     public List<SalesReportData> getSalesReport(LocalDate startDate, LocalDate endDate, Integer clientId) {
-        return salesReportDao.getSalesReportRows(startDate, endDate, clientId);
+        LocalDate firstAggregated = salesReportDao.selectFirstAggregatedDate();
+        if (firstAggregated == null || !endDate.isAfter(firstAggregated)) {
+            return salesReportDao.getSalesReportRows(startDate, endDate, clientId);
+        }
+        if (startDate.isAfter(firstAggregated)) {
+            return salesReportDao.getAggregatedSalesReportRows(startDate, endDate, clientId);
+        }
+
+        List<SalesReportData> raw = salesReportDao.getSalesReportRows(startDate, firstAggregated, clientId);
+        List<SalesReportData> aggregated = salesReportDao.getAggregatedSalesReportRows(
+                firstAggregated.plusDays(1), endDate, clientId);
+        return mergeByBarcode(raw, aggregated);
     }
 
+
     public List<SalesReportData> getCheckSalesReport(LocalDate startDate, LocalDate endDate, Integer clientId) throws ApiException {
 
         List<SalesReportData> rows = getSalesReport(startDate, endDate, clientId);
@@ -37,4 +53,23 @@ public class SalesReportApi {
         }
         return rows;
     }
-}
\ No newline at end of file
+
+    // -------------------- Static helpers --------------------
+
+    private static List<SalesReportData> mergeByBarcode(List<SalesReportData> first, List<SalesReportData> second) {
+        Map<String, SalesReportData> byBarcode = new LinkedHashMap<>();
+        for (SalesReportData row : first) {
+            byBarcode.put(row.getBarcode(), row);
+        }
+        for (SalesReportData row : second) {
+            SalesReportData existing = byBarcode.putIfAbsent(row.getBarcode(), row);
+            if (existing != null) {
+                existing.setQuantity(existing.getQuantity() + row.getQuantity());
+                existing.setRevenue(existing.getRevenue() + row.getRevenue());
+            }
+        }
+        List<SalesReportData> merged = new ArrayList<>(byBarcode.values());
+        merged.sort(Comparator.comparing(SalesReportData::getProductName));
+        return merged;
+    }
+}
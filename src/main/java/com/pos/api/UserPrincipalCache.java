@@ -0,0 +1,150 @@
+package com.pos.api;
+
+import com.pos.metrics.CacheMeters;
+import com.pos.model.constants.UserRole;
+import com.pos.pojo.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Short-lived cache of what session checks need from a user (id, email, role), looked up by id.
+ * Password hashes are never cached: login always checks against the database, so a changed password
+ * takes effect on every instance at once. Users handed out are detached copies. Entries expire after
+ * {@code ttlSeconds}; writers that change a role evict when their transaction completes, as in
+ * {@link ProductCatalogCache}, but only on their own instance, so a role change can take up to
+ * {@code ttlSeconds} to show on the others. Hits, misses, evictions and size are published as the
+ * standard {@code cache.*} meters, tagged {@code cache=userPrincipal}.
+ */
+@Component
+public class UserPrincipalCache implements MeterBinder {
+
+    private static final int DEFAULT_MAX_ENTRIES = 10_000;
+    private static final long DEFAULT_TTL_SECONDS = 300;
+
+    private record Entry(Integer id, String email, UserRole role, long expiresAtNanos) {
+
+        boolean expired(long now) {
+            return now - expiresAtNanos >= 0;
+        }
+
+        User toUser() {
+            User user = new User();
+            user.setId(id);
+            user.setEmail(email);
+            user.setRole(role);
+            return user;
+        }
+    }
+
+    @Value("${auth.principalCache.maxEntries:" + DEFAULT_MAX_ENTRIES + "}")
+    private int maxEntries = DEFAULT_MAX_ENTRIES;
+
+    @Value("${auth.principalCache.ttlSeconds:" + DEFAULT_TTL_SECONDS + "}")
+    private long ttlSeconds = DEFAULT_TTL_SECONDS;
+
+    private final Map<Integer, Entry> byId = new ConcurrentHashMap<>();
+    private final Map<String, Integer> idByEmail = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /** Capture before reading a user from the database and pass to {@link #put}; see {@link ProductCatalogCache#generation()}. */
+    public long generation() {
+        return generation.get();
+    }
+
+    public User getById(Integer id) {
+        return hit(id == null ? null : byId.get(id));
+    }
+
+    public void put(User user, long expectedGeneration) {
+        if (user == null || user.getId() == null || user.getEmail() == null) return;
+        if (generation.get() != expectedGeneration) return;
+
+        if (!byId.containsKey(user.getId())) makeRoom();
+        long expiresAt = System.nanoTime() + TimeUnit.SECONDS.toNanos(ttlSeconds);
+        byId.put(user.getId(), new Entry(user.getId(), user.getEmail(), user.getRole(), expiresAt));
+        idByEmail.put(user.getEmail(), user.getId());
+
+        if (generation.get() != expectedGeneration) {
+            remove(user.getId(), user.getEmail());
+        }
+    }
+
+    /** Evicts now and again when the current transaction completes. */
+    public void invalidate(Collection<Integer> ids, Collection<String> emails) {
+        evict(ids, emails);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) return;
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                evict(ids, emails);
+            }
+        });
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CacheMeters.bind(registry, "userPrincipal", this, hits, misses, evictions, cache -> cache.byId.size());
+    }
+
+    private User hit(Entry entry) {
+        if (entry != null && entry.expired(System.nanoTime())) {
+            remove(entry.id(), entry.email());
+            entry = null;
+        }
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.toUser();
+    }
+
+    private void evict(Collection<Integer> ids, Collection<String> emails) {
+        generation.incrementAndGet();
+        ids.forEach(id -> remove(id, null));
+        emails.stream()
+                .filter(Objects::nonNull)
+                .forEach(email -> remove(idByEmail.get(email), email));
+    }
+
+    private void makeRoom() {
+        Iterator<Integer> it = byId.keySet().iterator();
+        while (byId.size() >= maxEntries && it.hasNext()) {
+            Integer victim = it.next();
+            Entry entry = byId.remove(victim);
+            if (entry != null) {
+                idByEmail.remove(entry.email(), victim);
+                evictions.increment();
+            }
+        }
+    }
+
+    private void remove(Integer id, String email) {
+        if (id != null) {
+            Entry entry = byId.remove(id);
+            if (entry != null) idByEmail.remove(entry.email(), id);
+        }
+        if (email != null) {
+            Integer mapped = idByEmail.remove(email);
+            if (mapped != null && !Objects.equals(mapped, id)) byId.remove(mapped);
+        }
+    }
+}
@@ -1,75 +1,18 @@
-//package com.pos.api;
-//
-//import com.pos.dao.UserDao;
-//import com.pos.exception.ApiException;
-//import com.pos.pojo.User;
-//import org.springframework.beans.factory.annotation.Autowired;
-//import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-//import org.springframework.stereotype.Component;
-//import org.springframework.transaction.annotation.Transactional;
-//import org.springframework.util.CollectionUtils;
-//
-//import java.util.ArrayList;
-//import java.util.List;
-//import java.util.Map;
-//import java.util.stream.Collectors;
-//
-//import static com.pos.model.constants.ErrorMessages.*;
-//
-//@Component
-//@Transactional(rollbackFor = Exception.class)
-//public class UserUploadApi {
-//
-//    @Autowired
-//    private UserDao userDao;
-//
-//    private final BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
-//
-//    public void bulkCreateOrUpdate(List<User> incomingUsers) throws ApiException {
-//        if (CollectionUtils.isEmpty(incomingUsers)) {
-//            throw new ApiException(USER_BULK_EMPTY.value());
-//        }
-//
-//        List<String> emails = new ArrayList<>(incomingUsers.size());
-//        for (User incoming : incomingUsers) {
-//            String email = incoming.getEmail();
-//            if (email == null || email.isBlank()) {
-//                throw new ApiException(INVALID_EMAIL.value() + ": " + email);
-//            }
-//            emails.add(email);
-//        }
-//
-//        List<User> existingUsers = userDao.findByEmails(emails);
-//
-//        Map<String, User> existingByEmail = existingUsers.stream()
-//                .filter(u -> u.getEmail() != null)
-//                .collect(Collectors.toMap(User::getEmail, u -> u, (a, b) -> a));
-//
-//        for (User incoming : incomingUsers) {
-//            User existing = existingByEmail.get(incoming.getEmail());
-//
-//            if (existing == null) {
-//                incoming.setPassword(encoder.encode(incoming.getPassword()));
-//                userDao.insert(incoming);
-//            } else {
-//                existing.setRole(incoming.getRole());
-//            }
-//        }
-//    }
-//}
-//
 package com.pos.api;
 
 import com.pos.dao.UserDao;
 import com.pos.exception.ApiException;
 import com.pos.pojo.User;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.CollectionUtils;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static com.pos.model.constants.ErrorMessages.*;
 
@@ -80,25 +23,61 @@ public class UserUploadApi {
     @Autowired
     private UserDao userDao;
 
-    private final BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
+    @Autowired
+    private UserPrincipalCache principalCache;
 
-    public void bulkCreateOrUpdate(List<User> incomingUsers) throws ApiException {
+    @Transactional(readOnly = true)
+    public Set<String> getExistingEmails(List<String> emails) {
+        return userDao.findByEmails(emails).stream()
+                .map(User::getEmail)
+                .collect(Collectors.toSet());
+    }
 
+    /**
+     * Updates the role of users that already exist and batch-inserts the rest, whose passwords must
+     * already be hashed. Returns the number of users created.
+     */
+    public int bulkCreateOrUpdate(List<User> incomingUsers) throws ApiException {
         if (CollectionUtils.isEmpty(incomingUsers)) {
             throw new ApiException(USER_BULK_EMPTY.value());
         }
+
+        Map<String, User> existingByEmail = userDao.findByEmails(extractEmails(incomingUsers)).stream()
+                .collect(Collectors.toMap(User::getEmail, u -> u, (a, b) -> a));
+
+        List<User> newUsers = new ArrayList<>();
+        List<Integer> updatedIds = new ArrayList<>();
         for (User incoming : incomingUsers) {
-            String email = incoming.getEmail();
+            User existing = existingByEmail.get(incoming.getEmail());
+            if (existing != null) {
+                existing.setRole(incoming.getRole());
+                updatedIds.add(existing.getId());
+                continue;
+            }
+            if (incoming.getPasswordHash() == null) {
+                throw new ApiException(PASSWORD_CANNOT_BE_EMPTY.value() + ": " + incoming.getEmail());
+            }
+            newUsers.add(incoming);
+        }
+
+        if (!updatedIds.isEmpty()) {
+            principalCache.invalidate(updatedIds, existingByEmail.keySet());
+        }
+        userDao.insertAll(newUsers);
+        return newUsers.size();
+    }
+
+    // -------------------- Static helpers --------------------
+
+    public static List<String> extractEmails(List<User> users) throws ApiException {
+        List<String> emails = new ArrayList<>(users.size());
+        for (User user : users) {
+            String email = user.getEmail();
             if (email == null || email.isBlank()) {
                 throw new ApiException(INVALID_EMAIL.value() + ": " + email);
             }
-            User existing = userDao.findByEmail(email).orElse(null);
-            if (existing == null) {
-                incoming.setPasswordHash(encoder.encode(incoming.getPasswordHash()));
-                userDao.insert(incoming);
-            } else {
-                existing.setRole(incoming.getRole());
-            }
+            emails.add(email);
         }
+        return emails;
     }
-}
\ No newline at end of file
+}
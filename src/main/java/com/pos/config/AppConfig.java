@@ -1,14 +1,56 @@
 package com.pos.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import java.net.http.HttpClient;
+import java.time.Duration;
+
 @Configuration
 public class AppConfig {
 
+    @Value("${invoice.client.connectTimeoutMs:2000}")
+    private long connectTimeoutMs = 2000;
+
+    @Value("${invoice.client.readTimeoutMs:10000}")
+    private long readTimeoutMs = 10_000;
+
+    @Value("${invoice.client.maxConnectionsPerRoute:20}")
+    private int maxConnectionsPerRoute = 20;
+
+    @Value("${invoice.client.acquireTimeoutMs:1000}")
+    private long acquireTimeoutMs = 1000;
+
+    @Value("${invoice.client.breaker.failureThreshold:5}")
+    private int breakerFailureThreshold = 5;
+
+    @Value("${invoice.client.breaker.openMs:30000}")
+    private long breakerOpenMs = 30_000;
+
+    @Bean
+    public InvoiceHttpInterceptor invoiceHttpInterceptor() {
+        return new InvoiceHttpInterceptor(maxConnectionsPerRoute, acquireTimeoutMs, breakerFailureThreshold, breakerOpenMs);
+    }
+
+    /**
+     * One shared JDK client: HTTP/1.1 connections are kept alive and reused across invoices instead
+     * of a new handshake per call, and both connect and read are bounded.
+     */
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(InvoiceHttpInterceptor invoiceHttpInterceptor) {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .build();
+
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(Duration.ofMillis(readTimeoutMs));
+
+        RestTemplate restTemplate = new RestTemplate(requestFactory);
+        restTemplate.getInterceptors().add(invoiceHttpInterceptor);
+        return restTemplate;
     }
 }
@@ -0,0 +1,234 @@
+package com.pos.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Guards calls to the invoice service. In-flight requests are capped per host, so a slow service
+ * cannot take every request thread. A request holds its slot until its response is closed, not just
+ * until the headers arrive, so a slow body download still counts as in flight. After {@code failureThreshold} consecutive failures (I/O errors
+ * or 5xx) the circuit opens: calls fail fast for {@code openMs}, then one trial call decides
+ * whether it closes again. Requests, failures and latency are counted for {@link #stats()}, and
+ * published as {@code pos.invoice.client.*} meters once bound to a registry.
+ *
+ * Rejections surface as {@link ResourceAccessException}, like an unreachable service.
+ */
+public class InvoiceHttpInterceptor implements ClientHttpRequestInterceptor, MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(InvoiceHttpInterceptor.class);
+
+    public record Stats(long requests, long failures, long shortCircuited, long rejected,
+                        double meanLatencyMs, long maxLatencyMs, boolean circuitOpen) {
+    }
+
+    private final int maxPerRoute;
+    private final long acquireTimeoutMs;
+    private final int failureThreshold;
+    private final long openMs;
+
+    private final Map<String, Semaphore> permitsByRoute = new ConcurrentHashMap<>();
+
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicBoolean trialInFlight = new AtomicBoolean();
+    // epoch millis until which calls are refused; 0 while the circuit is closed
+    private volatile long openUntil;
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder shortCircuited = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder latencyTotalMs = new LongAdder();
+    private final AtomicLong maxLatencyMs = new AtomicLong();
+
+    // null until bound; calls made before then are only in stats()
+    private volatile Timer successTimer;
+    private volatile Timer failureTimer;
+
+    public InvoiceHttpInterceptor(int maxPerRoute, long acquireTimeoutMs, int failureThreshold, long openMs) {
+        this.maxPerRoute = maxPerRoute;
+        this.acquireTimeoutMs = acquireTimeoutMs;
+        this.failureThreshold = failureThreshold;
+        this.openMs = openMs;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        URI uri = request.getURI();
+        boolean trial = admit(uri);
+
+        Semaphore permits = permitsByRoute.computeIfAbsent(route(uri), r -> new Semaphore(maxPerRoute));
+        if (!tryAcquire(permits)) {
+            if (trial) trialInFlight.set(false);
+            rejected.increment();
+            throw new ResourceAccessException("Invoice service busy: " + maxPerRoute + " requests in flight to " + route(uri));
+        }
+
+        long start = System.nanoTime();
+        ClientHttpResponse response;
+        try {
+            response = execution.execute(request, body);
+        } catch (IOException | RuntimeException e) {
+            permits.release();
+            record(start, false, trial);
+            throw e;
+        }
+        ClientHttpResponse guarded = new PermitReleasingResponse(response, permits);
+        try {
+            record(start, !response.getStatusCode().is5xxServerError(), trial);
+        } catch (IOException | RuntimeException e) {
+            guarded.close();
+            throw e;
+        }
+        return guarded;
+    }
+
+    public Stats stats() {
+        long count = requests.sum();
+        double mean = count == 0 ? 0.0 : (double) latencyTotalMs.sum() / count;
+        return new Stats(count, failures.sum(), shortCircuited.sum(), rejected.sum(),
+                mean, maxLatencyMs.get(), openUntil != 0);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        successTimer = requestTimer(registry, "success");
+        failureTimer = requestTimer(registry, "failure");
+        rejectionCounter(registry, shortCircuited, "circuit_open");
+        rejectionCounter(registry, rejected, "busy");
+        Gauge.builder("pos.invoice.client.circuit.open", this, interceptor -> interceptor.openUntil != 0 ? 1 : 0)
+                .description("1 while calls to the invoice service are failing fast")
+                .register(registry);
+    }
+
+    private static Timer requestTimer(MeterRegistry registry, String outcome) {
+        return Timer.builder("pos.invoice.client.requests")
+                .description("Calls to the invoice service; failure is an I/O error or a 5xx")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    private static void rejectionCounter(MeterRegistry registry, LongAdder count, String reason) {
+        FunctionCounter.builder("pos.invoice.client.rejected", count, LongAdder::sum)
+                .description("Calls refused without reaching the invoice service")
+                .tag("reason", reason)
+                .register(registry);
+    }
+
+    // Returns true when this call is the half-open trial
+    private boolean admit(URI uri) {
+        long until = openUntil;
+        if (until == 0) return false;
+
+        if (System.currentTimeMillis() < until || !trialInFlight.compareAndSet(false, true)) {
+            shortCircuited.increment();
+            throw new ResourceAccessException("Invoice service circuit open: " + uri);
+        }
+        return true;
+    }
+
+    private boolean tryAcquire(Semaphore permits) {
+        try {
+            return permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void record(long startNanos, boolean success, boolean trial) {
+        long elapsedNanos = System.nanoTime() - startNanos;
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        requests.increment();
+        latencyTotalMs.add(elapsedMs);
+        maxLatencyMs.accumulateAndGet(elapsedMs, Math::max);
+        Timer timer = success ? successTimer : failureTimer;
+        if (timer != null) timer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+
+        if (success) {
+            consecutiveFailures.set(0);
+            if (openUntil != 0) {
+                openUntil = 0;
+                log.info("Invoice service circuit closed");
+            }
+        } else {
+            failures.increment();
+            if (trial || consecutiveFailures.incrementAndGet() >= failureThreshold) {
+                consecutiveFailures.set(0);
+                openUntil = System.currentTimeMillis() + openMs;
+                log.warn("Invoice service circuit open for {} ms", openMs);
+            }
+        }
+        if (trial) trialInFlight.set(false);
+    }
+
+    private static String route(URI uri) {
+        return uri.getScheme() + "://" + uri.getHost() + ":" + uri.getPort();
+    }
+
+    /** Returns the route slot when the caller closes the response; RestTemplate does so after reading the body. */
+    private static final class PermitReleasingResponse implements ClientHttpResponse {
+
+        private final ClientHttpResponse delegate;
+        private final Semaphore permits;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        PermitReleasingResponse(ClientHttpResponse delegate, Semaphore permits) {
+            this.delegate = delegate;
+            this.permits = permits;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            return delegate.getBody();
+        }
+
+        @Override
+        public void close() {
+            try {
+                delegate.close();
+            } finally {
+                if (released.compareAndSet(false, true)) permits.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.pos.config;
+
+import com.pos.metrics.SqlStatementCounter;
+import com.pos.metrics.StatementCountingDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Wraps the application DataSource so every statement is counted for the per-request SQL
+     * metric. Static, and the counter is looked up lazily, so the post-processor does not pull
+     * other beans in early.
+     */
+    @Bean
+    public static BeanPostProcessor statementCountingDataSourcePostProcessor(ObjectProvider<SqlStatementCounter> counter) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof StatementCountingDataSource)) {
+                    return new StatementCountingDataSource(dataSource, counter.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,25 @@
+package com.pos.controller;
+
+import com.pos.dto.AccessRulesDto;
+import com.pos.exception.ApiException;
+import com.pos.model.data.AccessRulesData;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/admin/access-rules")
+public class AccessRulesController {
+
+    @Autowired
+    private AccessRulesDto accessRulesDto;
+
+    @RequestMapping(method = RequestMethod.GET)
+    public AccessRulesData get() {
+        return accessRulesDto.get();
+    }
+
+    @RequestMapping(value = "/reload", method = RequestMethod.POST)
+    public AccessRulesData reload() throws ApiException {
+        return accessRulesDto.reload();
+    }
+}
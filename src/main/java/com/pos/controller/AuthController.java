@@ -6,7 +6,7 @@ import com.pos.model.data.AuthData;
 import com.pos.model.form.ChangePasswordForm;
 import com.pos.model.form.LoginForm;
 import com.pos.model.form.SignupForm;
-import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -27,16 +27,13 @@ public class AuthController {
     }
 
     @RequestMapping(value = "/login", method = RequestMethod.POST)
-    public AuthData login(@Valid @RequestBody LoginForm form, HttpServletRequest request) throws ApiException {
-        return authDto.login(form, request);
+    public AuthData login(@Valid @RequestBody LoginForm form, HttpServletResponse response) throws ApiException {
+        return authDto.login(form, response);
     }
 
     @RequestMapping(value = "/logout", method = RequestMethod.POST)
-    public void logout(HttpServletRequest request) {
-        var session = request.getSession(false);
-        if (session != null) {
-            session.invalidate();
-        }
+    public void logout(HttpServletResponse response) {
+        authDto.logout(response);
     }
 
     @RequestMapping(value = "/change-password", method = RequestMethod.POST)
@@ -27,9 +27,10 @@ public class ClientController {
             @RequestParam(name = "name", required = false) String name,
             @RequestParam(name = "email", required = false) String email,
             @RequestParam(name = "page", defaultValue = "0") int page,
-            @RequestParam(name = "size", defaultValue = "10") int size
+            @RequestParam(name = "size", defaultValue = "10") int size,
+            @RequestParam(name = "includeTotal", defaultValue = "true") boolean includeTotal
     ) throws ApiException {
-        return clientDto.getClients(id, name, email, page, size);
+        return clientDto.getClients(id, name, email, page, size, includeTotal);
     }
 
     @RequestMapping(value = "/{id}", method = RequestMethod.PUT)
@@ -2,10 +2,14 @@ package com.pos.controller;
 
 import com.pos.dto.DaySalesDto;
 import com.pos.exception.ApiException;
+import com.pos.model.data.DaySalesBackfillData;
 import com.pos.model.data.DaySalesData;
+import com.pos.model.form.DaySalesBackfillForm;
 import com.pos.model.form.DaySalesForm;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -21,4 +25,14 @@ public class DaySalesController {
     public List<DaySalesData> get(@Valid DaySalesForm form) throws ApiException {
         return daySalesDto.get(form);
     }
+
+    @RequestMapping(value = "/backfill", method = RequestMethod.POST)
+    public ResponseEntity<DaySalesBackfillData> startBackfill(@Valid DaySalesBackfillForm form) throws ApiException {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(daySalesDto.startBackfill(form));
+    }
+
+    @RequestMapping(value = "/backfill/{jobId}", method = RequestMethod.GET)
+    public DaySalesBackfillData getBackfill(@PathVariable String jobId) throws ApiException {
+        return daySalesDto.getBackfill(jobId);
+    }
 }
@@ -3,6 +3,7 @@ package com.pos.controller;
 import com.pos.dto.OrderDto;
 import com.pos.exception.ApiException;
 import com.pos.model.data.InvoiceData;
+import com.pos.model.data.InvoiceJobData;
 import com.pos.model.data.OrderData;
 import com.pos.model.data.OrderItemData;
 import com.pos.model.data.PaginatedResponse;
@@ -10,6 +11,7 @@ import com.pos.model.form.OrderForm;
 import com.pos.model.form.OrderSearchForm;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.Resource;
 import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
 
@@ -45,15 +47,18 @@ public class OrderController {
         return orderDto.generateInvoice(orderId);
     }
 
+    @RequestMapping(value = "/{orderId}/invoice/jobs", method = RequestMethod.POST)
+    public ResponseEntity<InvoiceJobData> enqueueInvoice(@PathVariable Integer orderId) throws ApiException {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(orderDto.enqueueInvoice(orderId));
+    }
+
+    @RequestMapping(value = "/{orderId}/invoice/jobs/{jobId}", method = RequestMethod.GET)
+    public InvoiceJobData getInvoiceJob(@PathVariable Integer orderId, @PathVariable String jobId) throws ApiException {
+        return orderDto.getInvoiceJob(orderId, jobId);
+    }
+
     @RequestMapping(value = "/{orderId}/invoice/download", method = RequestMethod.GET)
-    public ResponseEntity<byte[]> downloadInvoice(@PathVariable Integer orderId) throws ApiException {
-        ResponseEntity<byte[]> res = orderDto.downloadInvoice(orderId);
-
-        return ResponseEntity
-                .status(res.getStatusCode())
-                .header(HttpHeaders.CONTENT_DISPOSITION,
-                        "attachment; filename=\"invoice_" + orderId + ".pdf\"")
-                .contentType(MediaType.APPLICATION_PDF)
-                .body(res.getBody());
+    public ResponseEntity<Resource> downloadInvoice(@PathVariable Integer orderId) throws ApiException {
+        return orderDto.downloadInvoice(orderId);
     }
-}
\ No newline at end of file
+}
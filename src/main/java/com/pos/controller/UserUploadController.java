@@ -1,6 +1,7 @@
 package com.pos.controller;
 
 import com.pos.dto.UserUploadDto;
+import com.pos.model.data.UserUploadData;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -21,7 +22,7 @@ public class UserUploadController {
             method = RequestMethod.POST,
             consumes = MediaType.MULTIPART_FORM_DATA_VALUE
     )
-    public void upload(@RequestParam("file") MultipartFile file) throws Exception {
-        userBulkDto.upload(file);
+    public UserUploadData upload(@RequestParam("file") MultipartFile file) throws Exception {
+        return userBulkDto.upload(file);
     }
 }
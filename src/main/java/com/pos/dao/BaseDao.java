@@ -4,13 +4,34 @@ import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.Query;
 import jakarta.persistence.TypedQuery;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Function;
 
 public abstract class BaseDao {
 
+    protected static final int JDBC_BATCH_SIZE = 1000;
+    private static final long DEFAULT_TOTAL_TTL_MILLIS = 10_000;
+
+    @FunctionalInterface
+    public interface StatementBinder<T> {
+        void bind(PreparedStatement statement, T row) throws SQLException;
+    }
+
     @PersistenceContext
     protected EntityManager entityManager;
 
+    @Value("${pos.jdbc.bulkChunkSize:" + JDBC_BATCH_SIZE + "}")
+    private int bulkChunkSize = JDBC_BATCH_SIZE;
+
+    @Value("${pos.search.totalTtlMillis:" + DEFAULT_TOTAL_TTL_MILLIS + "}")
+    private long totalTtlMillis = DEFAULT_TOTAL_TTL_MILLIS;
+
     protected EntityManager em() {
         return entityManager;
     }
@@ -37,10 +58,117 @@ public abstract class BaseDao {
         return em().createQuery(jpql, clazz);
     }
 
+    protected <T> TypedQuery<T> createQuery(QueryShape.Compiled compiled, QueryShape.Filters filters, Class<T> clazz) {
+        TypedQuery<T> query = createQuery(compiled.jpql(), clazz);
+        for (String param : compiled.params()) {
+            query.setParameter(param, filters.get(param));
+        }
+        return query;
+    }
+
+    /**
+     * Fetches one page of a search. With {@code withTotal} the total comes from {@link #countTotal}, except
+     * on a short last page, whose position already gives the exact total without a count.
+     */
+    protected <T> PageResult<T> selectPage(QueryShape shape, String projection, QueryShape.Filters filters,
+                                           Class<T> clazz, int page, int size, boolean withTotal) {
+        List<T> rows = createQuery(shape.select(projection, filters), filters, clazz)
+                .setFirstResult(page * size)
+                .setMaxResults(size)
+                .getResultList();
+        return new PageResult<>(rows, withTotal ? pageTotal(shape, filters, page, size, rows.size()) : null);
+    }
+
+    /**
+     * {@link #selectPage} for multi-column projections: each row arrives as an array and is turned
+     * into a result by {@code mapper}.
+     */
+    protected <T> PageResult<T> selectPage(QueryShape shape, String projection, QueryShape.Filters filters,
+                                           Function<Object[], T> mapper, int page, int size, boolean withTotal) {
+        List<Object[]> tuples = createQuery(shape.select(projection, filters), filters, Object[].class)
+                .setFirstResult(page * size)
+                .setMaxResults(size)
+                .getResultList();
+
+        List<T> rows = new ArrayList<>(tuples.size());
+        for (Object[] tuple : tuples) {
+            rows.add(mapper.apply(tuple));
+        }
+        return new PageResult<>(rows, withTotal ? pageTotal(shape, filters, page, size, tuples.size()) : null);
+    }
+
+    /**
+     * COUNT of a search, shared for {@code pos.search.totalTtlMillis} by requests with the same filters
+     * (see {@link QueryShape#total}), so paging does not rerun the count that a LIMIT query stops early on.
+     */
+    protected long countTotal(QueryShape shape, QueryShape.Filters filters) {
+        return shape.total(filters, totalTtlMillis,
+                () -> createQuery(shape.count("*", filters), filters, Long.class).getSingleResult());
+    }
+
+    private long pageTotal(QueryShape shape, QueryShape.Filters filters, int page, int size, int fetched) {
+        long seen = (long) page * size + fetched;
+        if (fetched < size && (fetched > 0 || page == 0)) {
+            shape.rememberTotal(filters, seen, totalTtlMillis);
+            return seen;
+        }
+        // a cached total may predate inserts; never report fewer rows than this page shows exist
+        return Math.max(countTotal(shape, filters), seen);
+    }
+
     protected Query createNativeQuery(String sql) {
         return em().createNativeQuery(sql);
     }
 
+    /**
+     * Runs a native statement once per row as a JDBC batch on the transaction's connection and
+     * returns the update count of each row, in row order. IDENTITY ids disable Hibernate insert
+     * batching, so bulk writes go through here instead.
+     */
+    protected <T> int[] batchUpdate(String sql, List<T> rows, StatementBinder<T> binder) {
+        if (rows == null || rows.isEmpty()) return new int[0];
+
+        em().flush();
+        int[] counts = new int[rows.size()];
+        em().unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                int done = 0;
+                int pending = 0;
+                for (T row : rows) {
+                    binder.bind(statement, row);
+                    statement.addBatch();
+                    if (++pending == JDBC_BATCH_SIZE) {
+                        done = copyCounts(statement.executeBatch(), counts, done);
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    copyCounts(statement.executeBatch(), counts, done);
+                }
+            }
+        });
+        return counts;
+    }
+
+    /**
+     * Bulk-upload variant of {@link #batchUpdate}: rows go out {@code pos.jdbc.bulkChunkSize} at a time and
+     * the persistence context is cleared after each chunk, so managed state does not grow with the upload.
+     * Entities loaded earlier in the transaction are detached.
+     */
+    protected <T> void bulkWrite(String sql, List<T> rows, StatementBinder<T> binder) {
+        if (rows == null || rows.isEmpty()) return;
+
+        for (int from = 0; from < rows.size(); from += bulkChunkSize) {
+            batchUpdate(sql, rows.subList(from, Math.min(from + bulkChunkSize, rows.size())), binder);
+            em().clear();
+        }
+    }
+
+    private static int copyCounts(int[] chunk, int[] counts, int offset) {
+        System.arraycopy(chunk, 0, counts, offset, chunk.length);
+        return offset + chunk.length;
+    }
+
     protected String like(String value) {
         return value == null ? null : "%" + value + "%";
     }
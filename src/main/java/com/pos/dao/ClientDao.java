@@ -1,5 +1,6 @@
 package com.pos.dao;
 
+import com.pos.model.data.ClientData;
 import com.pos.pojo.Client;
 import org.springframework.stereotype.Repository;
 import org.springframework.util.CollectionUtils;
@@ -9,37 +10,21 @@ import java.util.List;
 @Repository
 public class ClientDao extends BaseDao {
 
-    private static final String SEARCH_COUNT_BASE_QUERY = """
-            FROM Client c
-            WHERE (:id IS NULL OR c.id = :id)
-            AND (:name IS NULL OR c.name LIKE :name)
-            AND (:email IS NULL OR c.email LIKE :email)""";
+    private static final QueryShape SEARCH_SHAPE = QueryShape.from("Client c")
+            .where("id", "c.id = :id")
+            .where("name", "c.name LIKE :name")
+            .where("email", "c.email LIKE :email")
+            .orderBy("c.id");
 
-    private static final String SEARCH_QUERY = "SELECT c " + SEARCH_COUNT_BASE_QUERY + " ORDER BY c.id";
-    private static final String COUNT_QUERY = "SELECT COUNT(c) " + SEARCH_COUNT_BASE_QUERY;
     private static final String SELECT_BY_NAME = "SELECT c FROM Client c WHERE c.name = :name";
     private static final String SELECT_BY_NAMES = "SELECT c FROM Client c WHERE c.name IN :names";
     private static final String SELECT_BY_IDS = "SELECT c FROM Client c WHERE c.id IN :ids";
 
-    public List<Client> searchByParams(Integer id, String name, String email, int page, int size) {
+    /** Search page projected straight into ClientData; no entities are loaded into the persistence context. */
+    public PageResult<ClientData> searchPage(Integer id, String name, String email, int page, int size, boolean withTotal) {
 
-        return createQuery(SEARCH_QUERY, Client.class)
-                .setParameter("id", id)
-                .setParameter("name", like(name))
-                .setParameter("email", like(email))
-                .setFirstResult(page * size)
-                .setMaxResults(size)
-                .getResultList();
-    }
-
-
-    public Long getCount(Integer id, String name, String email) {
-
-        return createQuery(COUNT_QUERY, Long.class)
-                .setParameter("id", id)
-                .setParameter("name", like(name))
-                .setParameter("email", like(email))
-                .getSingleResult();
+        QueryShape.Filters filters = searchFilters(id, name, email);
+        return selectPage(SEARCH_SHAPE, "c.id, c.name, c.email", filters, ClientDao::toClientData, page, size, withTotal);
     }
 
     public Client selectByName(String name) {
@@ -72,4 +57,19 @@ public class ClientDao extends BaseDao {
     public Client selectById(Integer id) {
         return select(id, Client.class);
     }
-}
\ No newline at end of file
+
+    private QueryShape.Filters searchFilters(Integer id, String name, String email) {
+        return QueryShape.filters()
+                .with("id", id)
+                .with("name", like(name))
+                .with("email", like(email));
+    }
+
+    private static ClientData toClientData(Object[] row) {
+        ClientData data = new ClientData();
+        data.setId((Integer) row[0]);
+        data.setName((String) row[1]);
+        data.setEmail((String) row[2]);
+        return data;
+    }
+}
@@ -0,0 +1,80 @@
+package com.pos.dao;
+
+import com.pos.pojo.DaySalesBackfillJob;
+import jakarta.persistence.LockModeType;
+import org.springframework.stereotype.Repository;
+
+import java.time.ZonedDateTime;
+
+@Repository
+public class DaySalesBackfillJobDao extends BaseDao {
+
+    private static final String SELECT_ACTIVE = "SELECT j FROM DaySalesBackfillJob j WHERE j.activeSlot = :slot";
+
+    // One statement per day, so concurrent workers add up instead of overwriting each other
+    private static final String RECORD_DAY = """
+        UPDATE DaySalesBackfillJob j
+        SET j.processedDays = j.processedDays + 1,
+            j.recomputedDays = j.recomputedDays + :recomputed,
+            j.skippedDays = j.skippedDays + :skipped,
+            j.failedDays = CONCAT(j.failedDays, :failed),
+            j.heartbeatAt = :now
+        WHERE j.id = :id
+          AND j.claimToken = :token
+    """;
+
+    private static final String SELECT_PROCESSED_DAYS = "SELECT j.processedDays FROM DaySalesBackfillJob j WHERE j.id = :id";
+
+    private static final String DELETE_FINISHED_BEFORE = "DELETE FROM DaySalesBackfillJob j WHERE j.finishedAt < :cutoff";
+
+    public DaySalesBackfillJob selectById(String id) {
+        return em().find(DaySalesBackfillJob.class, id);
+    }
+
+    public DaySalesBackfillJob selectActive() {
+        return createQuery(SELECT_ACTIVE, DaySalesBackfillJob.class)
+                .setParameter("slot", DaySalesBackfillJob.ACTIVE_SLOT)
+                .getResultStream()
+                .findFirst()
+                .orElse(null);
+    }
+
+    public DaySalesBackfillJob selectActiveForUpdate() {
+        return createQuery(SELECT_ACTIVE, DaySalesBackfillJob.class)
+                .setParameter("slot", DaySalesBackfillJob.ACTIVE_SLOT)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .getResultStream()
+                .findFirst()
+                .orElse(null);
+    }
+
+    public DaySalesBackfillJob selectByIdForUpdate(String id) {
+        return em().find(DaySalesBackfillJob.class, id, LockModeType.PESSIMISTIC_WRITE);
+    }
+
+    /**
+     * Counts one processed day and moves the heartbeat. Returns the processed-day count including this
+     * one, read under the row lock the update holds, or -1 when the token no longer owns the job.
+     */
+    public int recordDay(String id, String token, boolean recomputed, boolean skipped, String failed, ZonedDateTime now) {
+        int updated = em().createQuery(RECORD_DAY)
+                .setParameter("id", id)
+                .setParameter("token", token)
+                .setParameter("recomputed", recomputed ? 1 : 0)
+                .setParameter("skipped", skipped ? 1 : 0)
+                .setParameter("failed", failed)
+                .setParameter("now", now)
+                .executeUpdate();
+        if (updated == 0) return -1;
+
+        return createQuery(SELECT_PROCESSED_DAYS, Integer.class)
+                .setParameter("id", id)
+                .getSingleResult();
+    }
+
+    public int deleteFinishedBefore(ZonedDateTime cutoff) {
+        return em().createQuery(DELETE_FINISHED_BEFORE)
+                .setParameter("cutoff", cutoff)
+                .executeUpdate();
+    }
+}
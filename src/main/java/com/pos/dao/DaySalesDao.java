@@ -2,6 +2,8 @@ package com.pos.dao;
 
 import com.pos.model.constants.OrderStatus;
 import com.pos.pojo.DaySales;
+import com.pos.pojo.DaySalesCursor;
+import jakarta.persistence.LockModeType;
 import org.springframework.stereotype.Repository;
 
 import java.time.ZonedDateTime;
@@ -30,6 +32,24 @@ public class DaySalesDao extends BaseDao {
           AND o.updatedAt < :end
     """;
 
+    private static final String SELECT_BY_DATE = "SELECT d FROM DaySales d WHERE d.date = :date";
+
+    // Keyset on (updatedAt, id) so each batch resumes exactly after the previous one on pos_order_updatedAt_id_idx
+    private static final String SELECT_INVOICED_ORDER_TOTALS_AFTER = """
+        SELECT o.id,
+               o.updatedAt,
+               COALESCE(SUM(oi.quantity), 0),
+               COALESCE(SUM(oi.quantity * oi.sellingPrice), 0)
+        FROM OrderItem oi
+                JOIN Order o ON oi.orderId = o.id
+        WHERE o.status = :status
+          AND o.updatedAt < :before
+          AND (o.updatedAt > :afterUpdatedAt
+               OR (o.updatedAt = :afterUpdatedAt AND o.id > :afterOrderId))
+        GROUP BY o.id, o.updatedAt
+        ORDER BY o.updatedAt, o.id
+    """;
+
     public List<DaySales> selectInRange(ZonedDateTime start, ZonedDateTime end) {
         return createQuery(SELECT_IN_RANGE, DaySales.class)
                 .setParameter("start", start)
@@ -44,4 +64,40 @@ public class DaySalesDao extends BaseDao {
                 .setParameter("end", end)
                 .getSingleResult();
     }
+
+    public DaySales selectByDate(ZonedDateTime date) {
+        return createQuery(SELECT_BY_DATE, DaySales.class)
+                .setParameter("date", date)
+                .getResultStream()
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * Per-order [id, updatedAt, items, revenue] of invoiced orders strictly after the given
+     * (updatedAt, id) position and updated before {@code before}, oldest first.
+     */
+    public List<Object[]> selectInvoicedOrderTotalsAfter(
+            ZonedDateTime afterUpdatedAt, Integer afterOrderId, ZonedDateTime before, int limit) {
+        return createQuery(SELECT_INVOICED_ORDER_TOTALS_AFTER, Object[].class)
+                .setParameter("status", OrderStatus.INVOICED)
+                .setParameter("afterUpdatedAt", afterUpdatedAt)
+                .setParameter("afterOrderId", afterOrderId)
+                .setParameter("before", before)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * Locks the rollup cursor row for the rest of the transaction, so concurrent rollups (e.g. on
+     * several instances) apply each batch once. Returns null before the first rollup.
+     */
+    public DaySalesCursor selectCursorForUpdate() {
+        return em().find(DaySalesCursor.class, DaySalesCursor.ROLLUP_ID, LockModeType.PESSIMISTIC_WRITE);
+    }
+
+    /** Shared lock on the rollup cursor: backfills may run together but hold the rollup off. */
+    public DaySalesCursor selectCursorForShare() {
+        return em().find(DaySalesCursor.class, DaySalesCursor.ROLLUP_ID, LockModeType.PESSIMISTIC_READ);
+    }
 }
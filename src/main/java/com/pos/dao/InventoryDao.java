@@ -1,19 +1,38 @@
 package com.pos.dao;
 
+import com.pos.model.data.InventoryData;
 import com.pos.pojo.Inventory;
 import org.springframework.stereotype.Repository;
 import org.springframework.util.CollectionUtils;
 
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 @Repository
 public class InventoryDao extends BaseDao {
 
     private static final String SELECT_BY_PRODUCT_ID = "SELECT i FROM Inventory i WHERE i.productId = :productId";
-    private static final String SELECT_ALL = "SELECT i FROM Inventory i ORDER BY i.id";
-    private static final String COUNT_ALL = "SELECT COUNT(i) FROM Inventory i";
+    // Product filters are applied in the join, so no product id list is materialized
+    private static final QueryShape SEARCH_SHAPE = QueryShape.from("Inventory i JOIN Product p ON p.id = i.productId")
+            .where("barcode", "p.barcode = :barcode")
+            .where("name", "LOWER(p.name) LIKE :name")
+            .orderBy("i.id");
+
     private static final String SELECT_BY_PRODUCT_IDS = "SELECT i FROM Inventory i WHERE i.productId IN :productIds ORDER BY i.id";
-    private static final String COUNT_BY_PRODUCT_IDS = "SELECT COUNT(i) FROM Inventory i WHERE i.productId IN :productIds";
+    private static final String DECREMENT_IF_AVAILABLE = """
+        UPDATE pos_inventory
+        SET quantity = quantity - ?, version = version + 1, updated_at = ?
+        WHERE product_id = ? AND quantity >= ?""";
+    private static final String UPSERT_QUANTITY = """
+        INSERT INTO pos_inventory (product_id, quantity, created_at, updated_at, version)
+        VALUES (?, ?, ?, ?, 0)
+        ON DUPLICATE KEY UPDATE
+            quantity = VALUES(quantity),
+            updated_at = VALUES(updated_at),
+            version = version + 1""";
 
     public Inventory selectByProductId(Integer productId) {
         List<Inventory> list = createQuery(SELECT_BY_PRODUCT_ID, Inventory.class)
@@ -24,29 +43,13 @@ public class InventoryDao extends BaseDao {
         return list.isEmpty() ? null : list.get(0);
     }
 
-    public List<Inventory> findByProductIds(List<Integer> productIds, int page, int size) {
-        if (productIds == null || productIds.isEmpty()) {
-            return createQuery(SELECT_ALL, Inventory.class)
-                    .setFirstResult(page * size)
-                    .setMaxResults(size)
-                    .getResultList();
-        }
-
-        return createQuery(SELECT_BY_PRODUCT_IDS, Inventory.class)
-                .setParameter("productIds", productIds)
-                .setFirstResult(page * size)
-                .setMaxResults(size)
-                .getResultList();
-    }
-
-    public Long getCountByProductIds(List<Integer> productIds) {
-        if (productIds == null || productIds.isEmpty()) {
-            return createQuery(COUNT_ALL, Long.class).getSingleResult();
-        }
-
-        return createQuery(COUNT_BY_PRODUCT_IDS, Long.class)
-                .setParameter("productIds", productIds)
-                .getSingleResult();
+    /** Inventory joined with its product, filtered by barcode / product name, as [barcode, name, quantity] rows. */
+    public PageResult<InventoryData> search(String barcode, String productName, int page, int size, boolean withTotal) {
+        QueryShape.Filters filters = QueryShape.filters()
+                .with("barcode", barcode)
+                .with("name", like(productName));
+        return selectPage(SEARCH_SHAPE, "p.barcode, p.name, i.quantity", filters,
+                InventoryDao::toInventoryData, page, size, withTotal);
     }
 
     public List<Inventory> selectByProductIds(List<Integer> productIds) {
@@ -57,7 +60,52 @@ public class InventoryDao extends BaseDao {
                 .getResultList();
     }
 
+    /** Sets quantity per product, inserting rows that are missing (keyed on pos_inventory_productId_uk). */
+    public void upsertAll(List<Inventory> inventories) {
+        Timestamp now = Timestamp.from(Instant.now());
+        bulkWrite(UPSERT_QUANTITY, inventories, (statement, inventory) -> {
+            statement.setInt(1, inventory.getProductId());
+            statement.setInt(2, inventory.getQuantity());
+            statement.setTimestamp(3, now);
+            statement.setTimestamp(4, now);
+        });
+    }
+
     public Inventory selectById(Integer id) {
         return select(id, Inventory.class);
     }
+
+    /**
+     * Decrements every line with a guarded UPDATE, so concurrent sales of one SKU never read-modify-write
+     * the row. Lines are applied in product id order to keep row-lock order stable across baskets.
+     * Returns the product ids whose row was missing or did not have enough quantity.
+     */
+    public List<Integer> decrementIfAvailable(Map<Integer, Integer> quantityByProductId) {
+        List<Map.Entry<Integer, Integer>> lines = new ArrayList<>(quantityByProductId.entrySet());
+        lines.sort(Map.Entry.comparingByKey());
+
+        Timestamp now = Timestamp.from(Instant.now());
+        int[] counts = batchUpdate(DECREMENT_IF_AVAILABLE, lines, (statement, line) -> {
+            statement.setInt(1, line.getValue());
+            statement.setTimestamp(2, now);
+            statement.setInt(3, line.getKey());
+            statement.setInt(4, line.getValue());
+        });
+
+        List<Integer> shortProductIds = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                shortProductIds.add(lines.get(i).getKey());
+            }
+        }
+        return shortProductIds;
+    }
+
+    private static InventoryData toInventoryData(Object[] row) {
+        InventoryData data = new InventoryData();
+        data.setBarcode((String) row[0]);
+        data.setProductName((String) row[1]);
+        data.setQuantity((Integer) row[2]);
+        return data;
+    }
 }
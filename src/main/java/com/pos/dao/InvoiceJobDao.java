@@ -0,0 +1,133 @@
+package com.pos.dao;
+
+import com.pos.model.constants.InvoiceJobStatus;
+import com.pos.pojo.InvoiceJob;
+import org.springframework.stereotype.Repository;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+
+@Repository
+public class InvoiceJobDao extends BaseDao {
+
+    private static final String SELECT_ACTIVE_BY_ORDER_ID = "SELECT j FROM InvoiceJob j WHERE j.activeOrderId = :orderId";
+
+    private static final String SELECT_STALLED_IDS = """
+        SELECT j.id
+        FROM InvoiceJob j
+        WHERE j.activeOrderId IS NOT NULL
+          AND j.heartbeatAt < :staleBefore
+        ORDER BY j.createdAt
+    """;
+
+    // Of several instances sweeping at once, one matches the row; it runs the job under the new token itself
+    private static final String TAKE_OVER_IF_STALLED = """
+        UPDATE InvoiceJob j
+        SET j.status = :running, j.claimToken = :token, j.heartbeatAt = :now
+        WHERE j.id = :id
+          AND j.activeOrderId IS NOT NULL
+          AND j.heartbeatAt < :staleBefore
+    """;
+
+    // A queued job goes to the first worker that asks; a running one only once its worker has gone quiet
+    private static final String CLAIM = """
+        UPDATE InvoiceJob j
+        SET j.status = :running, j.claimToken = :token, j.heartbeatAt = :now
+        WHERE j.id = :id
+          AND j.activeOrderId IS NOT NULL
+          AND (j.status = :queued OR j.heartbeatAt < :staleBefore)
+    """;
+
+    private static final String UPDATE_ATTEMPTS = """
+        UPDATE InvoiceJob j
+        SET j.attempts = :attempts, j.heartbeatAt = :now
+        WHERE j.id = :id
+          AND j.claimToken = :token
+    """;
+
+    private static final String FINISH = """
+        UPDATE InvoiceJob j
+        SET j.status = :status, j.invoicePath = :invoicePath, j.error = :error,
+            j.activeOrderId = NULL, j.finishedAt = :now
+        WHERE j.id = :id
+          AND j.claimToken = :token
+          AND j.activeOrderId IS NOT NULL
+    """;
+
+    private static final String DELETE_BY_ID = "DELETE FROM InvoiceJob j WHERE j.id = :id";
+
+    private static final String DELETE_FINISHED_BEFORE = "DELETE FROM InvoiceJob j WHERE j.finishedAt < :cutoff";
+
+    public InvoiceJob selectById(String id) {
+        return em().find(InvoiceJob.class, id);
+    }
+
+    public InvoiceJob selectActiveByOrderId(Integer orderId) {
+        return createQuery(SELECT_ACTIVE_BY_ORDER_ID, InvoiceJob.class)
+                .setParameter("orderId", orderId)
+                .getResultStream()
+                .findFirst()
+                .orElse(null);
+    }
+
+    public List<String> selectStalledIds(ZonedDateTime staleBefore, int limit) {
+        return createQuery(SELECT_STALLED_IDS, String.class)
+                .setParameter("staleBefore", staleBefore)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    public boolean takeOverIfStalled(String id, String token, ZonedDateTime now, ZonedDateTime staleBefore) {
+        return em().createQuery(TAKE_OVER_IF_STALLED)
+                .setParameter("id", id)
+                .setParameter("token", token)
+                .setParameter("running", InvoiceJobStatus.RUNNING)
+                .setParameter("now", now)
+                .setParameter("staleBefore", staleBefore)
+                .executeUpdate() == 1;
+    }
+
+    public boolean claim(String id, String token, ZonedDateTime now, ZonedDateTime staleBefore) {
+        return em().createQuery(CLAIM)
+                .setParameter("id", id)
+                .setParameter("token", token)
+                .setParameter("running", InvoiceJobStatus.RUNNING)
+                .setParameter("queued", InvoiceJobStatus.QUEUED)
+                .setParameter("now", now)
+                .setParameter("staleBefore", staleBefore)
+                .executeUpdate() == 1;
+    }
+
+    public boolean updateAttempts(String id, String token, int attempts, ZonedDateTime now) {
+        return em().createQuery(UPDATE_ATTEMPTS)
+                .setParameter("id", id)
+                .setParameter("token", token)
+                .setParameter("attempts", attempts)
+                .setParameter("now", now)
+                .executeUpdate() == 1;
+    }
+
+    public boolean finish(String id, String token, InvoiceJobStatus status, String invoicePath, String error,
+                          ZonedDateTime now) {
+        return em().createQuery(FINISH)
+                .setParameter("id", id)
+                .setParameter("token", token)
+                .setParameter("status", status)
+                .setParameter("invoicePath", invoicePath)
+                .setParameter("error", error)
+                .setParameter("now", now)
+                .executeUpdate() == 1;
+    }
+
+    public void deleteById(String id) {
+        em().createQuery(DELETE_BY_ID)
+                .setParameter("id", id)
+                .executeUpdate();
+    }
+
+    public int deleteFinishedBefore(ZonedDateTime cutoff) {
+        return em().createQuery(DELETE_FINISHED_BEFORE)
+                .setParameter("cutoff", cutoff)
+                .executeUpdate();
+    }
+}
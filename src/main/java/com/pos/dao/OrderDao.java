@@ -10,41 +10,100 @@ import java.util.List;
 @Repository
 public class OrderDao extends BaseDao {
 
-    private static final String ORDER_FILTERS = """
-        FROM Order o
-        WHERE (:id IS NULL OR o.id = :id)
-          AND (:status IS NULL OR o.status = :status)
-          AND (:start IS NULL OR o.updatedAt >= :start)
-          AND (:end IS NULL OR o.updatedAt < :end)
-        """;
-
-    private static final String ORDER_SEARCH = "SELECT o " + ORDER_FILTERS + " ORDER BY o.updatedAt DESC";
-
-    private static final String ORDER_COUNT = "SELECT COUNT(o) " + ORDER_FILTERS;
-
-    public List<Order> search(Integer id, ZonedDateTime start, ZonedDateTime end, OrderStatus status, int page, int size) {
-
-        return createQuery(ORDER_SEARCH, Order.class)
-                .setParameter("id", id)
-                .setParameter("status", status)
-                .setParameter("start", start)
-                .setParameter("end", end)
-                .setFirstResult(page * size)
-                .setMaxResults(size)
-                .getResultList();
+    private static final QueryShape ORDER_SHAPE = QueryShape.from("Order o")
+            .where("id", "o.id = :id")
+            .where("status", "o.status = :status")
+            .where("start", "o.updatedAt >= :start")
+            .where("end", "o.updatedAt < :end")
+            .where("cursorAt", "(o.updatedAt < :cursorAt OR (o.updatedAt = :cursorAt AND o.id < :cursorId))")
+            .orderBy("o.updatedAt DESC, o.id DESC");
+
+    // Totals are stored on the order; the item subqueries only run for rows the backfill has not reached yet
+    private static final String ROW_PROJECTION = """
+        o.id, o.createdAt, o.updatedAt, o.status,
+        COALESCE(o.totalAmount,
+            (SELECT COALESCE(SUM(oi.quantity * oi.sellingPrice), 0.0) FROM OrderItem oi WHERE oi.orderId = o.id)),
+        COALESCE(o.itemCount, (SELECT COUNT(oi) FROM OrderItem oi WHERE oi.orderId = o.id))""";
+
+    private static final String SELECT_IDS_WITHOUT_TOTALS = "SELECT o.id FROM Order o WHERE o.totalAmount IS NULL ORDER BY o.id";
+
+    // Native so that neither updated_at nor version moves: totals are derived data, not an edit of the order
+    private static final String UPDATE_TOTALS_FROM_ITEMS = """
+        UPDATE pos_order o
+        LEFT JOIN (
+            SELECT oi.order_id, SUM(oi.quantity * oi.selling_price) AS total, COUNT(*) AS items
+            FROM pos_order_item oi
+            WHERE oi.order_id IN (:orderIds)
+            GROUP BY oi.order_id
+        ) t ON t.order_id = o.id
+        SET o.total_amount = COALESCE(t.total, 0), o.item_count = COALESCE(t.items, 0)
+        WHERE o.id IN (:orderIds)""";
+
+    public PageResult<OrderRow> searchPage(Integer id, ZonedDateTime start, ZonedDateTime end, OrderStatus status,
+                                           int page, int size, boolean withTotal) {
+
+        QueryShape.Filters filters = searchFilters(id, start, end, status);
+        return selectPage(ORDER_SHAPE, ROW_PROJECTION, filters, OrderDao::toOrderRow, page, size, withTotal);
+    }
+
+    /**
+     * Keyset page over (updatedAt, id) descending, served by pos_order_updatedAt_id_idx.
+     * A null cursor returns the first page; cost does not grow with page depth.
+     */
+    public List<OrderRow> searchAfter(Integer id, ZonedDateTime start, ZonedDateTime end, OrderStatus status,
+                                      ZonedDateTime cursorAt, Integer cursorId, int limit) {
+
+        QueryShape.Filters filters = searchFilters(id, start, end, status);
+        if (cursorAt != null) {
+            filters.with("cursorAt", cursorAt).with("cursorId", cursorId);
+        }
+        return createQuery(ORDER_SHAPE.select(ROW_PROJECTION, filters), filters, Object[].class)
+                .setMaxResults(limit)
+                .getResultList()
+                .stream()
+                .map(OrderDao::toOrderRow)
+                .toList();
     }
 
+    /** Total for keyset pages; the cursor is not a filter, so every page of one search shares the cached count. */
     public Long getCount(Integer id, ZonedDateTime start, ZonedDateTime end, OrderStatus status) {
 
-        return createQuery(ORDER_COUNT, Long.class)
-                .setParameter("id", id)
-                .setParameter("status", status)
-                .setParameter("start", start)
-                .setParameter("end", end)
-                .getSingleResult();
+        return countTotal(ORDER_SHAPE, searchFilters(id, start, end, status));
+    }
+
+    public List<Integer> selectIdsWithoutTotals(int limit) {
+        return createQuery(SELECT_IDS_WITHOUT_TOTALS, Integer.class)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    public int updateTotalsFromItems(List<Integer> orderIds) {
+        if (orderIds == null || orderIds.isEmpty()) return 0;
+        return createNativeQuery(UPDATE_TOTALS_FROM_ITEMS)
+                .setParameter("orderIds", orderIds)
+                .executeUpdate();
     }
 
     public Order selectById(Integer id) {
         return select(id, Order.class);
     }
+
+    private static QueryShape.Filters searchFilters(Integer id, ZonedDateTime start, ZonedDateTime end, OrderStatus status) {
+        return QueryShape.filters()
+                .with("id", id)
+                .with("status", status)
+                .with("start", start)
+                .with("end", end);
+    }
+
+    private static OrderRow toOrderRow(Object[] row) {
+        return new OrderRow(
+                (Integer) row[0],
+                (ZonedDateTime) row[1],
+                (ZonedDateTime) row[2],
+                (OrderStatus) row[3],
+                ((Number) row[4]).doubleValue(),
+                ((Number) row[5]).intValue()
+        );
+    }
 }
@@ -3,6 +3,8 @@ package com.pos.dao;
 import com.pos.pojo.OrderItem;
 import org.springframework.stereotype.Repository;
 
+import java.sql.Timestamp;
+import java.time.Instant;
 import java.util.List;
 
 @Repository
@@ -10,6 +12,9 @@ public class OrderItemDao extends BaseDao {
 
     private static final String SELECT_BY_ORDER_ID = "SELECT oi FROM OrderItem oi WHERE oi.orderId = :orderId ORDER BY oi.id";
     private static final String SELECT_BY_ORDER_IDS = "SELECT oi FROM OrderItem oi WHERE oi.orderId IN :orderIds ORDER BY oi.orderId, oi.id";
+    private static final String INSERT_ITEM = """
+        INSERT INTO pos_order_item (order_id, product_id, quantity, selling_price, created_at, updated_at, version)
+        VALUES (?, ?, ?, ?, ?, ?, 0)""";
 
     public List<OrderItem> selectByOrderId(Integer orderId) {
         return createQuery(SELECT_BY_ORDER_ID, OrderItem.class)
@@ -23,5 +28,16 @@ public class OrderItemDao extends BaseDao {
                 .setParameter("orderIds", orderIds)
                 .getResultList();
     }
-}
 
+    public void insertAll(List<OrderItem> items) {
+        Timestamp now = Timestamp.from(Instant.now());
+        batchUpdate(INSERT_ITEM, items, (statement, item) -> {
+            statement.setInt(1, item.getOrderId());
+            statement.setInt(2, item.getProductId());
+            statement.setInt(3, item.getQuantity());
+            statement.setDouble(4, item.getSellingPrice());
+            statement.setTimestamp(5, now);
+            statement.setTimestamp(6, now);
+        });
+    }
+}
@@ -0,0 +1,13 @@
+package com.pos.dao;
+
+import com.pos.model.constants.OrderStatus;
+
+import java.time.ZonedDateTime;
+
+/**
+ * Read-only projection of an order for list pages, totals included.
+ * Carries updatedAt so the caller can build the keyset cursor of the last row.
+ */
+public record OrderRow(Integer id, ZonedDateTime createdAt, ZonedDateTime updatedAt, OrderStatus status,
+                       Double totalAmount, Integer itemCount) {
+}
@@ -0,0 +1,11 @@
+package com.pos.dao;
+
+import java.util.List;
+
+/** One page of a search; {@code totalCount} is null when the caller did not ask for it. */
+public record PageResult<T>(List<T> rows, Long totalCount) {
+
+    public static <T> PageResult<T> empty(boolean withTotal) {
+        return new PageResult<>(List.of(), withTotal ? 0L : null);
+    }
+}
@@ -1,57 +1,38 @@
 package com.pos.dao;
 
+import com.pos.model.data.ProductData;
 import com.pos.pojo.Product;
 import org.springframework.stereotype.Repository;
 import org.springframework.util.CollectionUtils;
 
+import java.sql.Timestamp;
+import java.time.Instant;
 import java.util.List;
 
 @Repository
 public class ProductDao extends BaseDao {
 
-    private static final String BASE_QUERY = """
-        FROM Product p
-        WHERE (:name IS NULL OR LOWER(p.name) LIKE :name)
-          AND (:barcode IS NULL OR p.barcode = :barcode)
-          AND (:clientId IS NULL OR p.clientId = :clientId)
-    """;
+    private static final QueryShape SEARCH_SHAPE = QueryShape.from("Product p")
+            .where("barcode", "p.barcode = :barcode")
+            .where("clientId", "p.clientId = :clientId")
+            .where("name", "LOWER(p.name) LIKE :name")
+            .orderBy("p.id");
+
+    private static final String DATA_PROJECTION = "p.id, p.barcode, p.name, p.mrp, p.clientId, p.imageUrl";
+
+    private static final String INSERT_PRODUCT = """
+        INSERT INTO pos_product (barcode, client_id, name, mrp, image_url, created_at, updated_at, version)
+        VALUES (?, ?, ?, ?, ?, ?, ?, 0)""";
 
-    private static final String SEARCH_QUERY = "SELECT p " + BASE_QUERY + " ORDER BY p.id";
-    private static final String COUNT_QUERY  = "SELECT COUNT(p) " + BASE_QUERY;
     private static final String SELECT_BY_BARCODES = "SELECT p FROM Product p WHERE p.barcode IN :barcodes";
     private static final String SELECT_BY_IDS = "SELECT p FROM Product p WHERE p.id IN :ids";
-    private static final String FETCH_IDS = """
-        SELECT p.id
-        FROM Product p
-        WHERE (:barcode IS NULL OR p.barcode = :barcode)
-          AND (:name IS NULL OR LOWER(p.name) LIKE :name)
-        ORDER BY p.id
-    """;
-
-    public List<Product> search(String name, String barcode, Integer clientId, int page, int size) {
-        return createQuery(SEARCH_QUERY, Product.class)
-                .setParameter("name", like(name))
-                .setParameter("barcode", barcode)
-                .setParameter("clientId", clientId)
-                .setFirstResult(page * size)
-                .setMaxResults(size)
-                .getResultList();
-    }
+    private static final String SELECT_CATALOG_PAGE =
+            "SELECT p.id, p.barcode, p.clientId, p.name, p.mrp FROM Product p WHERE p.id > :afterId ORDER BY p.id";
 
-    public long getCount(String name, String barcode, Integer clientId) {
-        Long count = createQuery(COUNT_QUERY, Long.class)
-                .setParameter("name", like(name))
-                .setParameter("barcode", barcode)
-                .setParameter("clientId", clientId)
-                .getSingleResult();
-        return count == null ? 0L : count;
-    }
-
-    public List<Integer> findProductIdsByBarcodeOrName(String barcode, String productName) {
-        return createQuery(FETCH_IDS, Integer.class)
-                .setParameter("barcode", barcode)
-                .setParameter("name", like(productName))
-                .getResultList();
+    /** Search page projected straight into ProductData; no entities are loaded into the persistence context. */
+    public PageResult<ProductData> searchPage(String name, String barcode, Integer clientId, int page, int size, boolean withTotal) {
+        QueryShape.Filters filters = searchFilters(name, barcode, clientId);
+        return selectPage(SEARCH_SHAPE, DATA_PROJECTION, filters, ProductDao::toProductData, page, size, withTotal);
     }
 
     public List<Product> selectByBarcodes(List<String> barcodes) {
@@ -70,7 +51,62 @@ public class ProductDao extends BaseDao {
                 .getResultList();
     }
 
+    /**
+     * Keyset page of the catalogue columns only, returned as detached products so that walking
+     * the whole table does not fill the persistence context.
+     */
+    public List<Product> selectCatalogPage(Integer afterId, int limit) {
+        return createQuery(SELECT_CATALOG_PAGE, Object[].class)
+                .setParameter("afterId", afterId)
+                .setMaxResults(limit)
+                .getResultList()
+                .stream()
+                .map(ProductDao::toCatalogProduct)
+                .toList();
+    }
+
+    public void insertAll(List<Product> products) {
+        Timestamp now = Timestamp.from(Instant.now());
+        bulkWrite(INSERT_PRODUCT, products, (statement, product) -> {
+            statement.setString(1, product.getBarcode());
+            statement.setInt(2, product.getClientId());
+            statement.setString(3, product.getName());
+            statement.setDouble(4, product.getMrp());
+            statement.setString(5, product.getImageUrl());
+            statement.setTimestamp(6, now);
+            statement.setTimestamp(7, now);
+        });
+    }
+
     public Product selectById(Integer id) {
         return select(id, Product.class);
     }
+
+    private QueryShape.Filters searchFilters(String name, String barcode, Integer clientId) {
+        return QueryShape.filters()
+                .with("name", like(name))
+                .with("barcode", barcode)
+                .with("clientId", clientId);
+    }
+
+    private static Product toCatalogProduct(Object[] row) {
+        Product product = new Product();
+        product.setId((Integer) row[0]);
+        product.setBarcode((String) row[1]);
+        product.setClientId((Integer) row[2]);
+        product.setName((String) row[3]);
+        product.setMrp((Double) row[4]);
+        return product;
+    }
+
+    private static ProductData toProductData(Object[] row) {
+        ProductData data = new ProductData();
+        data.setId((Integer) row[0]);
+        data.setBarcode((String) row[1]);
+        data.setName((String) row[2]);
+        data.setMrp((Double) row[3]);
+        data.setClientId((Integer) row[4]);
+        data.setImageUrl((String) row[5]);
+        return data;
+    }
 }
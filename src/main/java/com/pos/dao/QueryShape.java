@@ -0,0 +1,162 @@
+package com.pos.dao;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A search query declared once as FROM clause + optional predicates + ORDER BY. Only the predicates whose
+ * parameter is present are emitted, so MySQL sees e.g. {@code p.barcode = ?} instead of
+ * {@code (? IS NULL OR p.barcode = ?)} and can pick the matching index. The JPQL for each
+ * (projection, filter combination) is built once and cached; the select and count of one search share
+ * the same WHERE clause. Totals are kept for a short TTL per filter mask and values (see {@link #total}),
+ * so paging through one search counts once instead of on every page.
+ */
+public final class QueryShape {
+
+    private static final Pattern NAMED_PARAM = Pattern.compile(":(\\w+)");
+    private static final int MAX_CACHED_TOTALS = 1024;
+
+    private final String from;
+    private final List<String> keys = new ArrayList<>();
+    private final List<String> predicates = new ArrayList<>();
+    private String orderBy = "";
+
+    private final ConcurrentMap<String, Compiled> cache = new ConcurrentHashMap<>();
+    private final ConcurrentMap<TotalKey, Total> totals = new ConcurrentHashMap<>();
+
+    private QueryShape(String from) {
+        this.from = from;
+    }
+
+    public static QueryShape from(String from) {
+        return new QueryShape(from);
+    }
+
+    public static Filters filters() {
+        return new Filters();
+    }
+
+    /** Adds a predicate that is emitted only when {@code key} has a value in the filters. */
+    public QueryShape where(String key, String predicate) {
+        keys.add(key);
+        predicates.add(predicate);
+        return this;
+    }
+
+    public QueryShape orderBy(String orderBy) {
+        this.orderBy = " ORDER BY " + orderBy;
+        return this;
+    }
+
+    public Compiled select(String projection, Filters filters) {
+        return compile("SELECT " + projection, filters, true);
+    }
+
+    public Compiled count(String alias, Filters filters) {
+        return compile("SELECT COUNT(" + alias + ")", filters, false);
+    }
+
+    /**
+     * Number of rows matching {@code filters}, loaded at most once per {@code ttlMillis} for the same filter
+     * mask and values. The result can lag behind writes by up to the TTL; zero disables caching.
+     */
+    public long total(Filters filters, long ttlMillis, LongSupplier loader) {
+        if (ttlMillis <= 0) return loader.getAsLong();
+
+        TotalKey key = totalKey(filters);
+        Total cached = totals.get(key);
+        if (cached != null && !cached.expired(System.nanoTime())) return cached.value();
+
+        long value = loader.getAsLong();
+        rememberTotal(key, value, ttlMillis);
+        return value;
+    }
+
+    /** Stores a total the caller knows exactly, e.g. from a short last page, as if {@link #total} had loaded it. */
+    public void rememberTotal(Filters filters, long value, long ttlMillis) {
+        if (ttlMillis > 0) rememberTotal(totalKey(filters), value, ttlMillis);
+    }
+
+    private void rememberTotal(TotalKey key, long value, long ttlMillis) {
+        long now = System.nanoTime();
+        if (totals.size() >= MAX_CACHED_TOTALS) {
+            totals.values().removeIf(total -> total.expired(now));
+            if (totals.size() >= MAX_CACHED_TOTALS) totals.clear();
+        }
+        totals.put(key, new Total(value, now + TimeUnit.MILLISECONDS.toNanos(ttlMillis)));
+    }
+
+    private TotalKey totalKey(Filters filters) {
+        List<Object> values = new ArrayList<>();
+        for (String key : keys) {
+            if (filters.has(key)) values.add(filters.get(key));
+        }
+        return new TotalKey(mask(filters), values);
+    }
+
+    private Compiled compile(String selectClause, Filters filters, boolean ordered) {
+        long mask = mask(filters);
+        String cacheKey = selectClause + '#' + mask + (ordered ? "o" : "");
+        return cache.computeIfAbsent(cacheKey, k -> build(selectClause, mask, ordered));
+    }
+
+    private long mask(Filters filters) {
+        long mask = 0L;
+        for (int i = 0; i < keys.size(); i++) {
+            if (filters.has(keys.get(i))) mask |= 1L << i;
+        }
+        return mask;
+    }
+
+    private Compiled build(String selectClause, long mask, boolean ordered) {
+        StringJoiner where = new StringJoiner(" AND ", " WHERE ", "").setEmptyValue("");
+        Set<String> params = new LinkedHashSet<>();
+
+        for (int i = 0; i < predicates.size(); i++) {
+            if ((mask & (1L << i)) == 0) continue;
+            where.add(predicates.get(i));
+            Matcher m = NAMED_PARAM.matcher(predicates.get(i));
+            while (m.find()) params.add(m.group(1));
+        }
+
+        String jpql = selectClause + " FROM " + from + where + (ordered ? orderBy : "");
+        return new Compiled(jpql, List.copyOf(params));
+    }
+
+    public record Compiled(String jpql, List<String> params) {}
+
+    private record TotalKey(long mask, List<Object> values) {}
+
+    private record Total(long value, long expiresAtNanos) {
+
+        boolean expired(long now) {
+            return now - expiresAtNanos >= 0;
+        }
+    }
+
+    /** Parameter values for one search; null values are dropped so their predicates are left out. */
+    public static final class Filters {
+
+        private final Map<String, Object> values = new HashMap<>();
+
+        private Filters() {}
+
+        public Filters with(String key, Object value) {
+            if (value != null) values.put(key, value);
+            return this;
+        }
+
+        public boolean has(String key) {
+            return values.containsKey(key);
+        }
+
+        public Object get(String key) {
+            return values.get(key);
+        }
+    }
+}
@@ -11,6 +11,10 @@ import java.util.stream.Collectors;
 @Repository
 public class SalesReportDao extends BaseDao {
 
+    // The client predicate is appended only when a client is given, so MySQL never plans around "? IS NULL"
+    private static final String CLIENT_FILTER = " AND p.client_id = :clientId";
+    private static final String REPORT_GROUP_ORDER = " GROUP BY p.barcode, p.name ORDER BY p.name";
+
     private static final String SALES_REPORT_SQL = """
         SELECT
             p.barcode AS barcode,
@@ -21,21 +25,84 @@ public class SalesReportDao extends BaseDao {
         JOIN pos_order_item oi ON oi.order_id = o.id
         JOIN pos_product p ON p.id = oi.product_id
         WHERE o.status = 'INVOICED'
-        AND DATE(o.updated_at) BETWEEN :startDate AND :endDate
-        AND (:clientId IS NULL OR p.client_id = :clientId)
-        GROUP BY p.barcode, p.name
-        ORDER BY p.name""";
+        AND o.updated_at >= :startAt AND o.updated_at < :endAt""";
 
+    private static final String AGGREGATED_SALES_REPORT_SQL = """
+        SELECT
+            p.barcode AS barcode,
+            p.name AS productName,
+            COALESCE(SUM(s.quantity), 0) AS quantity,
+            COALESCE(SUM(s.revenue), 0) AS revenue
+        FROM pos_product_day_sales s
+        JOIN pos_product p ON p.id = s.product_id
+        WHERE s.date BETWEEN :startDate AND :endDate""";
 
+    // Day is DATE(updated_at) so aggregates bucket exactly like SALES_REPORT_SQL
+    private static final String ADD_INVOICED_ORDER_SQL = """
+        INSERT INTO pos_product_day_sales (date, product_id, quantity, revenue)
+        SELECT DATE(o.updated_at), oi.product_id, SUM(oi.quantity), SUM(oi.quantity * oi.selling_price)
+        FROM pos_order o
+        JOIN pos_order_item oi ON oi.order_id = o.id
+        WHERE o.id = :orderId
+        GROUP BY DATE(o.updated_at), oi.product_id
+        ON DUPLICATE KEY UPDATE
+            quantity = pos_product_day_sales.quantity + VALUES(quantity),
+            revenue = pos_product_day_sales.revenue + VALUES(revenue)""";
+
+    private static final String SELECT_FIRST_AGGREGATED_DATE = "SELECT MIN(s.date) FROM ProductDaySales s";
+
+    /**
+     * Raw report over line items. The range is applied to updated_at directly (not DATE(updated_at))
+     * so pos_order_updatedAt_id_idx can serve it.
+     */
     public List<SalesReportData> getSalesReportRows(
             LocalDate startDate, LocalDate endDate, Integer clientId) {
-        Query query = createNativeQuery(SALES_REPORT_SQL)
+        Query query = createReportQuery(SALES_REPORT_SQL, clientId)
+                .setParameter("startAt", startDate.atStartOfDay())
+                .setParameter("endAt", endDate.plusDays(1).atStartOfDay());
+
+        return toSalesReportData(resultRows(query));
+    }
+
+    public List<SalesReportData> getAggregatedSalesReportRows(
+            LocalDate startDate, LocalDate endDate, Integer clientId) {
+        Query query = createReportQuery(AGGREGATED_SALES_REPORT_SQL, clientId)
                 .setParameter("startDate", startDate)
-                .setParameter("endDate", endDate)
+                .setParameter("endDate", endDate);
+
+        return toSalesReportData(resultRows(query));
+    }
+
+    /**
+     * Folds the lines of a just-invoiced order into pos_product_day_sales. The order must already be
+     * INVOICED in this transaction; it is flushed first so updated_at carries the invoice time.
+     */
+    public void addInvoicedOrder(Integer orderId) {
+        em().flush();
+        createNativeQuery(ADD_INVOICED_ORDER_SQL)
+                .setParameter("orderId", orderId)
+                .executeUpdate();
+    }
+
+    public LocalDate selectFirstAggregatedDate() {
+        return createQuery(SELECT_FIRST_AGGREGATED_DATE, LocalDate.class).getSingleResult();
+    }
+
+    private Query createReportQuery(String selectSql, Integer clientId) {
+        if (clientId == null) {
+            return createNativeQuery(selectSql + REPORT_GROUP_ORDER);
+        }
+        return createNativeQuery(selectSql + CLIENT_FILTER + REPORT_GROUP_ORDER)
                 .setParameter("clientId", clientId);
+    }
 
-        List<Object[]> rows = query.getResultList();
+    // A native query without a result mapping returns one Object[] per row (four report columns)
+    @SuppressWarnings("unchecked")
+    private static List<Object[]> resultRows(Query query) {
+        return (List<Object[]>) query.getResultList();
+    }
 
+    private static List<SalesReportData> toSalesReportData(List<Object[]> rows) {
         return rows.stream().map(r -> {
             SalesReportData row = new SalesReportData();
             row.setBarcode((String) r[0]);
@@ -50,4 +117,4 @@ public class SalesReportDao extends BaseDao {
             return row;
         }).collect(Collectors.toList());
     }
-}
\ No newline at end of file
+}
@@ -1,15 +1,23 @@
-
 package com.pos.dao;
 
 import com.pos.pojo.User;
 import org.springframework.stereotype.Repository;
+import org.springframework.util.CollectionUtils;
 
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public class UserDao extends BaseDao {
 
     private static final String FIND_BY_EMAIL = "SELECT u FROM User u WHERE u.email = :email";
+    private static final String FIND_BY_EMAILS = "SELECT u FROM User u WHERE u.email IN :emails";
+
+    private static final String INSERT_USER = """
+        INSERT INTO pos_user (email, password_hash, role, created_at, updated_at, version)
+        VALUES (?, ?, ?, ?, ?, 0)""";
 
     public Optional<User> findByEmail(String email) {
         return createQuery(FIND_BY_EMAIL, User.class)
@@ -17,6 +25,27 @@ public class UserDao extends BaseDao {
                 .getResultStream()
                 .findFirst();
     }
+
+    public List<User> findByEmails(List<String> emails) {
+        if (CollectionUtils.isEmpty(emails)) return List.of();
+
+        return createQuery(FIND_BY_EMAILS, User.class)
+                .setParameter("emails", emails)
+                .getResultList();
+    }
+
+    /** Passwords must already be hashed. */
+    public void insertAll(List<User> users) {
+        Timestamp now = Timestamp.from(Instant.now());
+        bulkWrite(INSERT_USER, users, (statement, user) -> {
+            statement.setString(1, user.getEmail());
+            statement.setString(2, user.getPasswordHash());
+            statement.setString(3, user.getRole().name());
+            statement.setTimestamp(4, now);
+            statement.setTimestamp(5, now);
+        });
+    }
+
     public User selectById(Integer id) {
         return select(id, User.class);
     }
@@ -0,0 +1,30 @@
+package com.pos.dto;
+
+import com.pos.exception.ApiException;
+import com.pos.model.data.AccessRulesData;
+import com.pos.utils.CsvRoleAccessService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+@Component
+public class AccessRulesDto extends AbstractDto {
+
+    @Autowired
+    private CsvRoleAccessService csvRoleAccessService;
+
+    public AccessRulesData get() {
+        return toData(csvRoleAccessService.current());
+    }
+
+    public AccessRulesData reload() throws ApiException {
+        return toData(csvRoleAccessService.reload());
+    }
+
+    private static AccessRulesData toData(CsvRoleAccessService.Snapshot snapshot) {
+        AccessRulesData data = new AccessRulesData();
+        data.setRuleCount(snapshot.ruleCount());
+        data.setSource(snapshot.source());
+        data.setLoadedAt(snapshot.loadedAt());
+        return data;
+    }
+}
@@ -8,20 +8,18 @@ import com.pos.model.form.ChangePasswordForm;
 import com.pos.model.form.LoginForm;
 import com.pos.model.form.SignupForm;
 import com.pos.pojo.User;
-import jakarta.servlet.http.HttpServletRequest;
+import com.pos.security.AuthPrincipal;
+import com.pos.security.JwtTokenService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.AnonymousAuthenticationToken;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
 import org.springframework.stereotype.Component;
-import java.util.List;
 import static com.pos.utils.AuthConversion.convertUserToAuthData;
+import static com.pos.utils.AuthConversion.convertUserToLoginData;
 import static com.pos.utils.AuthConversion.convertUserToSignupData;
 
 @Component
@@ -30,6 +28,9 @@ public class AuthDto extends AbstractDto {
     @Autowired
     private AuthApi authApi;
 
+    @Autowired
+    private JwtTokenService tokenService;
+
     public AuthData signup(SignupForm form) throws ApiException {
 
         normalize(form);
@@ -38,25 +39,21 @@ public class AuthDto extends AbstractDto {
         return convertUserToSignupData(user);
     }
 
-    public AuthData login(LoginForm form, HttpServletRequest request) throws ApiException {
+    public AuthData login(LoginForm form, HttpServletResponse response) throws ApiException {
 
         normalize(form);
         validateForm(form);
         User user = authApi.validateLogin(form.getEmail().toLowerCase(), form.getPassword());
-        GrantedAuthority authority = new SimpleGrantedAuthority("ROLE_" + user.getRole().name());
-        Authentication authentication = new UsernamePasswordAuthenticationToken(
-                user.getId(),
-                null,
-                List.of(authority)
-        );
-        SecurityContext context = SecurityContextHolder.createEmptyContext();
-        context.setAuthentication(authentication);
-        SecurityContextHolder.setContext(context);
-        request.getSession(true).setAttribute(
-                HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY,
-                context
-        );
-        return convertUserToAuthData(user);
+        if (authApi.needsRehash(user)) {
+            authApi.rehashPassword(user.getId(), form.getPassword());
+        }
+        String token = tokenService.issue(new AuthPrincipal(user.getId(), user.getRole()));
+        response.addHeader(HttpHeaders.SET_COOKIE, tokenService.tokenCookie(token).toString());
+        return convertUserToLoginData(user, token);
+    }
+
+    public void logout(HttpServletResponse response) {
+        response.addHeader(HttpHeaders.SET_COOKIE, tokenService.clearedTokenCookie().toString());
     }
 
     public void changePassword(@Valid ChangePasswordForm form) throws ApiException {
@@ -77,6 +74,7 @@ public class AuthDto extends AbstractDto {
             throw new ApiException(ErrorMessages.NOT_LOGGED_IN.value());
         }
         Object principal = auth.getPrincipal();
+        if (principal instanceof AuthPrincipal p) return p.getUserId();
         if (principal instanceof Integer) return (Integer) principal;
         if (principal instanceof String s) {
             try {
@@ -1,6 +1,7 @@
 package com.pos.dto;
 
 import com.pos.api.ClientApi;
+import com.pos.dao.PageResult;
 import com.pos.exception.ApiException;
 import com.pos.model.data.ClientData;
 import com.pos.model.data.PaginatedResponse;
@@ -10,8 +11,6 @@ import com.pos.utils.ClientConversion;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
-import java.util.List;
-
 @Component
 public class ClientDto extends AbstractDto {
 
@@ -33,14 +32,13 @@ public class ClientDto extends AbstractDto {
         clientApi.update(id, clientPojo);
     }
 
-    public PaginatedResponse<ClientData> getClients(Integer id, String name, String email, Integer pageNumber, Integer pageSize) throws ApiException {
+    public PaginatedResponse<ClientData> getClients(Integer id, String name, String email, Integer pageNumber, Integer pageSize,
+                                                    boolean includeTotal) throws ApiException {
 
         name = normalize(name);
         email = normalize(email);
 
-        List<Client> clients = clientApi.search(id, name, email, pageNumber, pageSize);
-        long totalCount = clientApi.getCount(id, name, email);
-        List<ClientData> dataList = ClientApi.toClientDataList(clients);
-        return PaginatedResponse.of(dataList, totalCount, pageNumber);
+        PageResult<ClientData> page = clientApi.search(id, name, email, pageNumber, pageSize, includeTotal);
+        return PaginatedResponse.of(page.rows(), page.totalCount(), pageNumber);
     }
 }
\ No newline at end of file
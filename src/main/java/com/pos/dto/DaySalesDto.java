@@ -2,9 +2,12 @@ package com.pos.dto;
 
 import com.pos.api.DaySalesApi;
 import com.pos.exception.ApiException;
+import com.pos.model.data.DaySalesBackfillData;
 import com.pos.model.data.DaySalesData;
+import com.pos.model.form.DaySalesBackfillForm;
 import com.pos.model.form.DaySalesForm;
 import com.pos.pojo.DaySales;
+import com.pos.scheduler.DaySalesBackfillExecutor;
 
 import com.pos.utils.DaySalesConversion;
 import jakarta.validation.Valid;
@@ -15,6 +18,7 @@ import java.time.ZonedDateTime;
 import java.util.List;
 
 import static com.pos.model.constants.ErrorMessages.START_AND_END_DATE_REQUIRED;
+import static com.pos.model.constants.ErrorMessages.START_DATE_AFTER_END_DATE;
 
 @Component
 public class DaySalesDto extends AbstractDto {
@@ -22,6 +26,9 @@ public class DaySalesDto extends AbstractDto {
     @Autowired
     private DaySalesApi daySalesApi;
 
+    @Autowired
+    private DaySalesBackfillExecutor daySalesBackfillExecutor;
+
     public List<DaySalesData> get(DaySalesForm form) throws ApiException {
         normalize(form);
         validateForm(form); // if startDate missing, bean validation throws
@@ -29,4 +36,19 @@ public class DaySalesDto extends AbstractDto {
         List<DaySales> daySalesList = daySalesApi.getDaySales(form.getStartDate());
         return DaySalesConversion.toData(daySalesList);
     }
-}
\ No newline at end of file
+
+    public DaySalesBackfillData startBackfill(DaySalesBackfillForm form) throws ApiException {
+        normalize(form);
+        validateForm(form);
+
+        if (form.getStartDate().isAfter(form.getEndDate())) {
+            throw new ApiException(START_DATE_AFTER_END_DATE.value()
+                    + " | startDate=" + form.getStartDate() + ", endDate=" + form.getEndDate());
+        }
+        return daySalesBackfillExecutor.submit(form.getStartDate(), form.getEndDate());
+    }
+
+    public DaySalesBackfillData getBackfill(String jobId) throws ApiException {
+        return daySalesBackfillExecutor.getCheck(jobId);
+    }
+}
@@ -3,10 +3,13 @@ package com.pos.dto;
 import com.pos.api.OrderApi;
 import com.pos.api.ProductApi;
 import com.pos.client.InvoiceClient;
+import com.pos.dao.OrderRow;
+import com.pos.dao.PageResult;
 import com.pos.exception.ApiException;
 import com.pos.flow.OrderFlow;
 import com.pos.model.constants.OrderStatus;
 import com.pos.model.data.InvoiceData;
+import com.pos.model.data.InvoiceJobData;
 import com.pos.model.data.OrderData;
 import com.pos.model.data.OrderItemData;
 import com.pos.model.data.PaginatedResponse;
@@ -17,18 +20,27 @@ import com.pos.model.form.OrderSearchForm;
 import com.pos.pojo.Order;
 import com.pos.pojo.OrderItem;
 import com.pos.pojo.Product;
+import com.pos.scheduler.InvoiceJobExecutor;
 import com.pos.utils.CollectionIndexUtil;
 import com.pos.utils.EnumParseUtil;
 import com.pos.utils.InvoiceConversion;
 import com.pos.utils.InvoicePathUtil;
 import com.pos.utils.InvoiceStorageUtil;
 import com.pos.utils.OrderConversion;
+import com.pos.utils.PageCursorUtil;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -37,12 +49,11 @@ import static com.pos.model.constants.ErrorMessages.*;
 @Component
 public class OrderDto extends AbstractDto {
 
-    private static final String INVOICE_DIR = "/tmp/invoices";
-
     @Autowired private OrderFlow orderFlow;
     @Autowired private ProductApi productApi;
     @Autowired private OrderApi orderApi;
     @Autowired private InvoiceClient invoiceClient;
+    @Autowired private InvoiceJobExecutor invoiceJobExecutor;
 
     public Integer create(OrderForm form) throws ApiException {
         normalize(form);
@@ -64,26 +75,58 @@ public class OrderDto extends AbstractDto {
         }
 
         OrderStatus orderStatus = validateStatus(form.getStatus());
-
-        List<Order> orders = orderApi.search(
-                form.getId(),
-                form.getStart(),
-                form.getEnd(),
-                orderStatus,
-                form.getPageNumber(),
-                form.getPageSize()
-        );
-        long totalCount = orderApi.getCount(form.getId(), form.getStart(), form.getEnd(), orderStatus);
+        PageCursorUtil.SeekCursor after = PageCursorUtil.decode(form.getCursor());
+        int pageSize = form.getPageSize();
+
+        boolean includeTotal = form.getIncludeTotal() != null ? form.getIncludeTotal() : after == null;
+
+        List<OrderRow> orders;
+        Long totalCount;
+        boolean hasMore;
+        if (after != null) {
+            orders = orderApi.searchAfter(
+                    form.getId(),
+                    form.getStart(),
+                    form.getEnd(),
+                    orderStatus,
+                    after.updatedAt(),
+                    after.id(),
+                    pageSize + 1
+            );
+            hasMore = orders.size() > pageSize;
+            if (hasMore) orders = orders.subList(0, pageSize);
+            totalCount = includeTotal
+                    ? orderApi.getCount(form.getId(), form.getStart(), form.getEnd(), orderStatus)
+                    : null;
+        } else if (form.getPageNumber() == 0) {
+            // First page: one extra row tells whether there is a next page; the total comes with it
+            PageResult<OrderRow> page = orderApi.search(
+                    form.getId(), form.getStart(), form.getEnd(), orderStatus, 0, pageSize + 1, includeTotal);
+            orders = page.rows();
+            totalCount = page.totalCount();
+            hasMore = orders.size() > pageSize;
+            if (hasMore) orders = orders.subList(0, pageSize);
+        } else {
+            PageResult<OrderRow> page = orderApi.search(
+                    form.getId(), form.getStart(), form.getEnd(), orderStatus, form.getPageNumber(), pageSize, includeTotal);
+            orders = page.rows();
+            totalCount = page.totalCount();
+            hasMore = orders.size() == pageSize;
+        }
 
         if (orders.isEmpty()) {
             return PaginatedResponse.of(List.of(), totalCount, form.getPageNumber());
         }
 
-        List<Integer> orderIds = extractOrderIds(orders);
-        Map<Integer, List<OrderItem>> itemsByOrderId = getItemsGroupedByOrderId(orderIds);
-        List<OrderData> data = OrderApi.toOrderDataList(orders, itemsByOrderId);
+        OrderRow last = orders.get(orders.size() - 1);
+        String nextCursor = hasMore ? PageCursorUtil.encode(last.updatedAt(), last.id()) : null;
 
-        return PaginatedResponse.of(data, totalCount, form.getPageNumber());
+        List<OrderData> data = OrderApi.toOrderDataList(orders);
+        if (Boolean.TRUE.equals(form.getIncludeItems())) {
+            attachItems(data);
+        }
+
+        return PaginatedResponse.of(data, totalCount, form.getPageNumber(), nextCursor);
     }
 
     public List<OrderItemData> getItems(Integer orderId) throws ApiException {
@@ -102,48 +145,92 @@ public class OrderDto extends AbstractDto {
         }
 
         orderApi.getCheck(orderId);
-
-        List<OrderItem> items = orderApi.getItemsByOrderId(orderId);
-        if (items.isEmpty()) {
-            throw new ApiException(CANNOT_INVOICE_EMPTY_ORDER.value() + ": orderId=" + orderId);
-        }
-
-        Map<Integer, Product> productById = getProductMapFromItems(items);
-
-        InvoiceForm form = OrderConversion.toInvoiceForm(orderId, items, productById);
-        normalize(form);
-        validateForm(form);
+        InvoiceForm form = toInvoiceForm(orderId);
 
         InvoiceData data = invoiceClient.generate(form);
         byte[] pdfBytes = InvoiceConversion.decodePdfBytes(data);
-        InvoiceStorageUtil.storeAndAttach(orderApi, INVOICE_DIR, orderId, pdfBytes);
+        InvoiceStorageUtil.storeAndAttach(orderApi, InvoicePathUtil.INVOICE_DIR, orderId, pdfBytes);
 
         return data;
     }
 
-    public ResponseEntity<byte[]> downloadInvoice(Integer orderId) throws ApiException {
-        if (orderId == null) throw new ApiException(ORDER_ID_REQUIRED.value());
+    public InvoiceJobData enqueueInvoice(Integer orderId) throws ApiException {
+        if (orderId == null) {
+            throw new ApiException(ORDER_ID_REQUIRED.value());
+        }
 
         Order order = orderApi.getCheck(orderId);
+        if (order.getStatus() == OrderStatus.INVOICED) {
+            throw new ApiException(INVOICE_ALREADY_GENERATED.value() + ": orderId=" + orderId);
+        }
+        return invoiceJobExecutor.submit(orderId, toInvoiceForm(orderId));
+    }
+
+    public InvoiceJobData getInvoiceJob(Integer orderId, String jobId) throws ApiException {
+        if (orderId == null) throw new ApiException(ORDER_ID_REQUIRED.value());
+        return invoiceJobExecutor.getCheck(orderId, jobId);
+    }
 
-        byte[] pdfBytes = null;
+    /**
+     * Serves the stored PDF as a file resource: Spring streams it (or the requested byte
+     * ranges) straight from disk and answers If-None-Match / If-Modified-Since with 304
+     * using only the file's metadata. Content-Length is left to the message converters, since
+     * it differs for range responses.
+     */
+    public ResponseEntity<Resource> downloadInvoice(Integer orderId) throws ApiException {
+        if (orderId == null) throw new ApiException(ORDER_ID_REQUIRED.value());
+
+        Order order = orderApi.getCheck(orderId);
 
-        String invoicePath = order.getInvoicePath();
-        if (invoicePath != null && !invoicePath.trim().isEmpty()) {
-            // IMPORTANT: this must NOT throw if file is missing
-            pdfBytes = InvoicePathUtil.tryReadInvoiceBytes(invoicePath, orderId);
+        // IMPORTANT: a missing file is not an error, the invoice is regenerated instead
+        Path invoiceFile = InvoicePathUtil.tryResolveInvoiceFile(order.getInvoicePath(), orderId);
+        if (invoiceFile == null) {
+            generateInvoice(orderId);
+            invoiceFile = InvoicePathUtil.invoiceFilePath(InvoicePathUtil.INVOICE_DIR, orderId);
         }
 
-        if (pdfBytes == null) {
-            InvoiceData data = generateInvoice(orderId);
-            pdfBytes = InvoiceConversion.decodePdfBytes(data);
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(invoiceFile, BasicFileAttributes.class);
+        } catch (IOException e) {
+            throw new ApiException(INVOICE_READ_FAILED.value() + "=" + orderId, e);
         }
 
         return ResponseEntity.ok()
                 .contentType(MediaType.APPLICATION_PDF)
+                .lastModified(attributes.lastModifiedTime().toMillis())
+                .eTag(InvoicePathUtil.invoiceETag(orderId, attributes))
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
                 .header(HttpHeaders.CONTENT_DISPOSITION,
-                        "attachment; filename=" + InvoicePathUtil.invoiceFileName(orderId))
-                .body(pdfBytes);
+                        ContentDisposition.attachment().filename("invoice_" + orderId + ".pdf").build().toString())
+                .body(new FileSystemResource(invoiceFile));
+    }
+
+    private InvoiceForm toInvoiceForm(Integer orderId) throws ApiException {
+        List<OrderItem> items = orderApi.getItemsByOrderId(orderId);
+        if (items.isEmpty()) {
+            throw new ApiException(CANNOT_INVOICE_EMPTY_ORDER.value() + ": orderId=" + orderId);
+        }
+
+        Map<Integer, Product> productById = getProductMapFromItems(items);
+
+        InvoiceForm form = OrderConversion.toInvoiceForm(orderId, items, productById);
+        normalize(form);
+        validateForm(form);
+        return form;
+    }
+
+    private void attachItems(List<OrderData> orders) throws ApiException {
+        List<Integer> orderIds = orders.stream().map(OrderData::getId).toList();
+        List<OrderItem> items = orderApi.getItemsByOrderIds(orderIds);
+        Map<Integer, Product> productById = getProductMapFromItems(items);
+        Map<Integer, List<OrderItem>> itemsByOrderId = items.stream()
+                .collect(Collectors.groupingBy(OrderItem::getOrderId));
+
+        for (OrderData order : orders) {
+            List<OrderItem> orderItems = itemsByOrderId.getOrDefault(order.getId(), List.of());
+            order.setItems(OrderConversion.toOrderItemDataList(orderItems, productById));
+        }
     }
 
     private Map<Integer, Product> getProductMapFromItems(List<OrderItem> items) throws ApiException {
@@ -199,24 +286,6 @@ public class OrderDto extends AbstractDto {
         return items;
     }
 
-    private List<Integer> extractOrderIds(List<Order> orders) {
-        return orders.stream()
-                .map(Order::getId)
-                .filter(Objects::nonNull)
-                .toList();
-    }
-
-    private Map<Integer, List<OrderItem>> getItemsGroupedByOrderId(List<Integer> orderIds) {
-        if (orderIds.isEmpty()) return Map.of();
-
-        List<OrderItem> allItems = orderApi.getItemsByOrderIds(orderIds);
-        if (allItems.isEmpty()) return Map.of();
-
-        return allItems.stream()
-                .filter(oi -> oi.getOrderId() != null)
-                .collect(Collectors.groupingBy(OrderItem::getOrderId));
-    }
-
     private Map<String, Product> getProductMapByBarcode(List<String> barcodes) throws ApiException {
         if (barcodes.isEmpty()) return Map.of();
 
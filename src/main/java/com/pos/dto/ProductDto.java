@@ -1,6 +1,7 @@
 package com.pos.dto;
 
 import com.pos.api.ProductApi;
+import com.pos.dao.PageResult;
 import com.pos.exception.ApiException;
 import com.pos.flow.ProductFlow;
 import com.pos.model.data.PaginatedResponse;
@@ -10,12 +11,11 @@ import com.pos.model.form.ProductSearchForm;
 import com.pos.pojo.Product;
 import com.pos.utils.ProductConversion;
 import com.pos.utils.ProductTsvParser;
+import com.pos.utils.TsvUploadUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
-import org.springframework.util.CollectionUtils;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.IOException;
 import java.util.*;
 
 @Component
@@ -38,32 +38,28 @@ public class ProductDto extends AbstractDto {
         productApi.update(productId, product);
     }
 
-    public void addBulk(Integer clientId, MultipartFile file) throws ApiException, IOException {
-        ProductTsvParser.ProductTsvParseResult parsed = ProductTsvParser.parse(file, clientId);
-        List<ProductForm> forms = parsed.forms();
-        if (CollectionUtils.isEmpty(forms)) return;
-
-        List<Product> products = new ArrayList<>(forms.size());
-        for (ProductForm f : forms) {
-            normalize(f);
-            validateForm(f);
-            products.add(ProductConversion.toPojo(f));
-        }
-
-        productFlow.addBulk(products, clientId);
+    public void addBulk(Integer clientId, MultipartFile file) throws ApiException {
+        TsvUploadUtil.ChunkSource<ProductForm> forms = ProductTsvParser.parse(file, clientId);
+        productFlow.addBulk(consumer -> forms.forEachChunk(chunk -> consumer.accept(toPojos(chunk))), clientId);
     }
 
     public PaginatedResponse<ProductData> getProducts(ProductSearchForm form) throws ApiException {
         normalize(form);
         validateForm(form);
 
-        List<Product> products = productApi.search(form.getName(), form.getBarcode(), form.getClientId(), form.getPageNumber(), form.getPageSize());
-        long total = productApi.getCount(form.getName(), form.getBarcode(), form.getClientId());
+        boolean includeTotal = !Boolean.FALSE.equals(form.getIncludeTotal());
+        PageResult<ProductData> page = productApi.search(
+                form.getName(), form.getBarcode(), form.getClientId(), form.getPageNumber(), form.getPageSize(), includeTotal);
+        return PaginatedResponse.of(page.rows(), page.totalCount(), form.getPageNumber());
+    }
 
-        List<ProductData> dataList = new ArrayList<>(products.size());
-        for (Product p : products) {
-            dataList.add(ProductConversion.toData(p));
+    private List<Product> toPojos(List<ProductForm> forms) throws ApiException {
+        List<Product> products = new ArrayList<>(forms.size());
+        for (ProductForm f : forms) {
+            normalize(f);
+            validateForm(f);
+            products.add(ProductConversion.toPojo(f));
         }
-        return PaginatedResponse.of(dataList, total, form.getPageNumber());
+        return products;
     }
 }
\ No newline at end of file
@@ -1,6 +1,9 @@
 package com.pos.exception;
 
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -15,13 +18,17 @@ import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.servlet.resource.NoResourceFoundException;
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
 import java.util.Map;
 
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    private static final String INVOICE_RETRY_AFTER_SECONDS = "5";
+
     @ExceptionHandler(UploadValidationException.class)
-    public ResponseEntity<byte[]> handleUploadValidation(UploadValidationException exception) {
+    public ResponseEntity<Resource> handleUploadValidation(UploadValidationException exception) throws IOException {
 
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.parseMediaType(exception.getContentType()));
@@ -30,8 +37,17 @@ public class GlobalExceptionHandler {
                 "attachment; filename=\"" + exception.getFilename() + "\""
         );
 
+        Resource body;
+        if (exception.getFile() != null) {
+            // Streamed from disk; the temp file goes away when the response stream is closed
+            headers.setContentLength(Files.size(exception.getFile()));
+            body = new InputStreamResource(Files.newInputStream(exception.getFile(), StandardOpenOption.DELETE_ON_CLOSE));
+        } else {
+            body = new ByteArrayResource(exception.getFileBytes());
+        }
+
         return new ResponseEntity<>(
-                exception.getFileBytes(),
+                body,
                 headers,
                 HttpStatus.BAD_REQUEST
         );
@@ -50,6 +66,22 @@ public class GlobalExceptionHandler {
                 .body(Map.of("message", exception.getMessage()));
     }
 
+    // Invoice workers saturated: ask the caller to back off
+    @ExceptionHandler(InvoiceQueueFullException.class)
+    public ResponseEntity<?> handleInvoiceQueueFull(InvoiceQueueFullException exception, HttpServletRequest request) {
+
+        if (expectsPdf(request)) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, INVOICE_RETRY_AFTER_SECONDS)
+                    .build();
+        }
+
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, INVOICE_RETRY_AFTER_SECONDS)
+                .body(Map.of("message", exception.getMessage()));
+    }
+
     // 3) Bean Validation Errors (@Valid)
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<?> handleValidation(MethodArgumentNotValidException exception, HttpServletRequest request) {
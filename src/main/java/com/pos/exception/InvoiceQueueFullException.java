@@ -0,0 +1,9 @@
+package com.pos.exception;
+
+// Invoice workers are saturated; mapped to 503 so callers back off and retry
+public class InvoiceQueueFullException extends ApiException {
+
+    public InvoiceQueueFullException(String message) {
+        super(message);
+    }
+}
@@ -1,14 +1,27 @@
 package com.pos.exception;
 
+import java.nio.file.Path;
+
 public class UploadValidationException extends RuntimeException {
 
     private final byte[] fileBytes;
+    private final Path file;
     private final String filename;
     private final String contentType;
 
     public UploadValidationException(String message, byte[] fileBytes, String filename, String contentType) {
         super(message);
         this.fileBytes = fileBytes;
+        this.file = null;
+        this.filename = filename;
+        this.contentType = contentType;
+    }
+
+    // Error report already on disk; streamed to the client and deleted once sent
+    public UploadValidationException(String message, Path file, String filename, String contentType) {
+        super(message);
+        this.fileBytes = null;
+        this.file = file;
         this.filename = filename;
         this.contentType = contentType;
     }
@@ -17,6 +30,10 @@ public class UploadValidationException extends RuntimeException {
         return fileBytes;
     }
 
+    public Path getFile() {
+        return file;
+    }
+
     public String getFilename() {
         return filename;
     }
@@ -3,18 +3,18 @@ package com.pos.flow;
 import com.pos.api.InventoryApi;
 import com.pos.api.ProductApi;
 import com.pos.exception.ApiException;
+import com.pos.metrics.UploadMetrics;
+import com.pos.model.form.InventoryForm;
 import com.pos.pojo.Inventory;
 import com.pos.pojo.Product;
+import com.pos.utils.InventoryConversion;
+import com.pos.utils.TsvUploadUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.util.CollectionUtils;
 
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
-
-import static com.pos.model.constants.ErrorMessages.*;
 
 @Component
 @Transactional(rollbackFor = Exception.class)
@@ -22,16 +22,18 @@ public class InventoryFlow {
 
     @Autowired private InventoryApi inventoryApi;
     @Autowired private ProductApi productApi;
+    @Autowired private UploadMetrics uploadMetrics;
 
-    @Transactional(readOnly = true)
-    public List<Inventory> searchInventories(String barcode, String productName, int page, int pageSize) throws ApiException {
-        List<Integer> productIds = productApi.findProductIdsByBarcodeOrName(barcode, productName);
-        return inventoryApi.findByProductIds(productIds, page, pageSize);
+    public void upload(TsvUploadUtil.ChunkSource<InventoryForm> forms) throws ApiException {
+        long start = System.nanoTime();
+        int rows = forms.forEachChunk(this::addChunk);
+        uploadMetrics.record("inventory", rows, System.nanoTime() - start);
     }
 
-    @Transactional(readOnly = true)
-    public long getSearchCount(String barcode, String productName) throws ApiException {
-        List<Integer> productIds = productApi.findProductIdsByBarcodeOrName(barcode, productName);
-        return inventoryApi.getCountByProductIds(productIds);
+    private void addChunk(List<InventoryForm> forms) throws ApiException {
+        List<String> barcodes = InventoryApi.extractBarcodes(forms);
+        List<Product> products = productApi.getCheckByBarcodes(barcodes);
+        Map<String, Integer> productIdByBarcode = ProductApi.toProductIdByBarcode(products);
+        inventoryApi.add(InventoryConversion.convertFormsToPojos(forms, productIdByBarcode));
     }
 }
@@ -5,12 +5,16 @@ import com.pos.api.OrderApi;
 import com.pos.api.ProductApi;
 import com.pos.exception.ApiException;
 import com.pos.pojo.OrderItem;
+import com.pos.pojo.Product;
+import com.pos.utils.CollectionIndexUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.CollectionUtils;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import static com.pos.model.constants.ErrorMessages.*;
 
@@ -31,9 +35,28 @@ public class OrderFlow {
             if (item.getProductId() == null) {
                 throw new ApiException(PRODUCT_NOT_FOUND.value());
             }
-            productApi.validateSellingPrice(item.getProductId(), item.getSellingPrice());
-            inventoryApi.reduceInventory(item.getProductId(), item.getQuantity());
         }
+
+        Map<Integer, Integer> quantityByProductId = toQuantityByProductId(items);
+        List<Product> products = productApi.getCheckByIds(List.copyOf(quantityByProductId.keySet()));
+        Map<Integer, Product> productById = CollectionIndexUtil.indexBy(products, Product::getId);
+
+        for (OrderItem item : items) {
+            ProductApi.checkSellingPrice(productById.get(item.getProductId()), item.getSellingPrice());
+        }
+        inventoryApi.reduceInventories(quantityByProductId);
         return orderApi.create(items);
     }
+
+    private static Map<Integer, Integer> toQuantityByProductId(List<OrderItem> items) throws ApiException {
+        Map<Integer, Integer> quantityByProductId = new LinkedHashMap<>();
+        for (OrderItem item : items) {
+            Integer quantity = item.getQuantity();
+            if (quantity == null || quantity <= 0) {
+                throw new ApiException(QUANTITY_MUST_BE_POSITIVE.value() + ": " + quantity);
+            }
+            quantityByProductId.merge(item.getProductId(), quantity, Integer::sum);
+        }
+        return quantityByProductId;
+    }
 }
@@ -3,8 +3,10 @@ package com.pos.flow;
 import com.pos.api.ClientApi;
 import com.pos.api.ProductApi;
 import com.pos.exception.ApiException;
+import com.pos.metrics.UploadMetrics;
 import com.pos.pojo.Client;
 import com.pos.pojo.Product;
+import com.pos.utils.TsvUploadUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
@@ -16,14 +18,17 @@ import java.util.*;
 public class ProductFlow {
     @Autowired private ProductApi productApi;
     @Autowired private ClientApi clientApi;
+    @Autowired private UploadMetrics uploadMetrics;
 
     public void add(Product product) throws ApiException {
         clientApi.getCheck(product.getClientId());
         productApi.add(product);
     }
 
-    public void addBulk(List<Product> products, Integer clientId) throws ApiException {
+    public void addBulk(TsvUploadUtil.ChunkSource<Product> products, Integer clientId) throws ApiException {
+        long start = System.nanoTime();
         clientApi.getCheck(clientId);
-        productApi.addBulk(products);
+        int rows = products.forEachChunk(productApi::addBulk);
+        uploadMetrics.record("product", rows, System.nanoTime() - start);
     }
 }
\ No newline at end of file
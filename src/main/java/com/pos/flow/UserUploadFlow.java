@@ -0,0 +1,82 @@
+package com.pos.flow;
+
+import com.pos.api.UserUploadApi;
+import com.pos.exception.ApiException;
+import com.pos.metrics.UploadMetrics;
+import com.pos.model.data.UserUploadData;
+import com.pos.pojo.User;
+import com.pos.scheduler.PasswordHashExecutor;
+import com.pos.utils.TsvUploadUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static com.pos.model.constants.ErrorMessages.USER_BULK_EMPTY;
+
+/**
+ * Deliberately not @Transactional: hashing is the slow part of a user upload, so new users'
+ * passwords are hashed in parallel first and the upload is then written in one short transaction.
+ */
+@Component
+public class UserUploadFlow {
+
+    private static final Logger log = LoggerFactory.getLogger(UserUploadFlow.class);
+
+    @Autowired private UserUploadApi userUploadApi;
+    @Autowired private PasswordHashExecutor passwordHashExecutor;
+    @Autowired private UploadMetrics uploadMetrics;
+
+    public UserUploadData upload(TsvUploadUtil.ChunkSource<User> source) throws ApiException {
+        long start = System.nanoTime();
+
+        List<User> users = new ArrayList<>();
+        int total = source.forEachChunk(chunk -> users.addAll(hashNewPasswords(chunk)));
+        if (total == 0) {
+            throw new ApiException(USER_BULK_EMPTY.value());
+        }
+        int created = userUploadApi.bulkCreateOrUpdate(users);
+
+        long elapsedNanos = System.nanoTime() - start;
+        uploadMetrics.record("user", total, elapsedNanos);
+        UserUploadData data = toUploadData(total, created, elapsedNanos);
+        log.info("User upload: {} users ({} created, {} updated) in {} ms, {} users/s",
+                total, created, data.getUpdatedUsers(), data.getElapsedMillis(), Math.round(data.getUsersPerSecond()));
+        return data;
+    }
+
+    // Existing users only get their role updated, so their raw passwords are dropped unhashed
+    private List<User> hashNewPasswords(List<User> chunk) throws ApiException {
+        Set<String> existingEmails = userUploadApi.getExistingEmails(UserUploadApi.extractEmails(chunk));
+
+        List<User> newUsers = new ArrayList<>();
+        for (User user : chunk) {
+            if (existingEmails.contains(user.getEmail())) {
+                user.setPasswordHash(null);
+            } else {
+                newUsers.add(user);
+            }
+        }
+
+        List<String> hashes = passwordHashExecutor.hashAll(newUsers.stream().map(User::getPasswordHash).toList());
+        for (int i = 0; i < newUsers.size(); i++) {
+            newUsers.get(i).setPasswordHash(hashes.get(i));
+        }
+        return chunk;
+    }
+
+    private static UserUploadData toUploadData(int total, int created, long elapsedNanos) {
+        UserUploadData data = new UserUploadData();
+        data.setTotalUsers(total);
+        data.setCreatedUsers(created);
+        data.setUpdatedUsers(total - created);
+        data.setElapsedMillis(TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+        data.setUsersPerSecond(total * 1e9 / Math.max(elapsedNanos, 1));
+        return data;
+    }
+}
@@ -0,0 +1,40 @@
+package com.pos.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Publishes an in-process cache under Micrometer's cache meter names, so it lands on the same
+ * dashboards as library caches: {@code cache.gets{result=hit|miss}}, {@code cache.evictions} and
+ * {@code cache.size}, all tagged {@code cache=<name>}. Counters read the cache's own adders at scrape time.
+ */
+public final class CacheMeters {
+
+    private CacheMeters() {}
+
+    public static <C> void bind(MeterRegistry registry, String name, C cache,
+                                LongAdder hits, LongAdder misses, LongAdder evictions, ToDoubleFunction<C> size) {
+        gets(registry, name, hits, "hit");
+        gets(registry, name, misses, "miss");
+        FunctionCounter.builder("cache.evictions", evictions, LongAdder::sum)
+                .description("Entries evicted to stay within the size limit")
+                .tag("cache", name)
+                .register(registry);
+        Gauge.builder("cache.size", cache, size)
+                .description("Entries in the cache")
+                .tag("cache", name)
+                .register(registry);
+    }
+
+    private static void gets(MeterRegistry registry, String name, LongAdder count, String result) {
+        FunctionCounter.builder("cache.gets", count, LongAdder::sum)
+                .description("Cache lookups")
+                .tag("cache", name)
+                .tag("result", result)
+                .register(registry);
+    }
+}
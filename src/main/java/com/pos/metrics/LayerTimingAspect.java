@@ -0,0 +1,79 @@
+package com.pos.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every public method called on an *Api, *Flow or *Dao bean as {@code pos.method}, tagged
+ * with layer, class, method and the exception thrown ("none" on success). Calls a bean makes on
+ * itself bypass the proxy and are not timed separately.
+ */
+@Aspect
+@Component
+public class LayerTimingAspect {
+
+    static final String METRIC = "pos.method";
+
+    private final MeterRegistry registry;
+
+    // success timers, looked up once per class and method; failures are rare enough to go through the registry
+    private final Map<Key, Timer> timers = new ConcurrentHashMap<>();
+
+    private record Key(Class<?> type, String method) {
+    }
+
+    public LayerTimingAspect(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Around("execution(public * com.pos.api.*Api.*(..))"
+            + " || execution(public * com.pos.flow.*Flow.*(..))"
+            + " || execution(public * com.pos.dao.*Dao.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        long start = System.nanoTime();
+        Throwable failure = null;
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            failure = e;
+            throw e;
+        } finally {
+            timer(joinPoint, failure).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer timer(ProceedingJoinPoint joinPoint, Throwable failure) {
+        Class<?> type = ClassUtils.getUserClass(joinPoint.getTarget());
+        String method = joinPoint.getSignature().getName();
+        if (failure == null) {
+            return timers.computeIfAbsent(new Key(type, method), key -> timer(type, method, "none"));
+        }
+        return timer(type, method, failure.getClass().getSimpleName());
+    }
+
+    private Timer timer(Class<?> type, String method, String exception) {
+        return Timer.builder(METRIC)
+                .description("Time spent in Api, Flow and Dao methods")
+                .tag("layer", layer(type))
+                .tag("class", type.getSimpleName())
+                .tag("method", method)
+                .tag("exception", exception)
+                .register(registry);
+    }
+
+    static String layer(Class<?> type) {
+        String name = type.getSimpleName();
+        if (name.endsWith("Api")) return "api";
+        if (name.endsWith("Flow")) return "flow";
+        return "dao";
+    }
+}
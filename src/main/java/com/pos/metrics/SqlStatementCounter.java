@@ -0,0 +1,46 @@
+package com.pos.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts JDBC statements prepared through the application DataSource (see
+ * {@link StatementCountingDataSource}): in total as {@code pos.sql.statements}, and per thread
+ * between {@link #begin()} and {@link #end()} so each HTTP request can report its own count.
+ * A JDBC batch is one statement however many rows it carries.
+ */
+@Component
+public class SqlStatementCounter implements MeterBinder {
+
+    private final LongAdder total = new LongAdder();
+    private final ThreadLocal<int[]> current = new ThreadLocal<>();
+
+    void increment() {
+        total.increment();
+        int[] count = current.get();
+        if (count != null) count[0]++;
+    }
+
+    /** Starts counting for this thread; a nested begin keeps the outer count. */
+    public void begin() {
+        if (current.get() == null) current.set(new int[1]);
+    }
+
+    /** Stops counting for this thread and returns the statements seen since {@link #begin()}. */
+    public int end() {
+        int[] count = current.get();
+        current.remove();
+        return count == null ? 0 : count[0];
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("pos.sql.statements", total, LongAdder::sum)
+                .description("JDBC statements prepared by the application")
+                .register(registry);
+    }
+}
@@ -0,0 +1,68 @@
+package com.pos.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Records the SQL statements each request ran as {@code pos.http.sql.statements}, tagged with
+ * method and route pattern, so an N+1 regression shows up as a jump on one route. Requests above
+ * {@code pos.metrics.sqlStatementsWarn} are also logged.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SqlStatementsPerRequestFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlStatementsPerRequestFilter.class);
+
+    private final SqlStatementCounter counter;
+    private final MeterRegistry registry;
+
+    @Value("${pos.metrics.sqlStatementsWarn:100}")
+    private int warnThreshold = 100;
+
+    public SqlStatementsPerRequestFilter(SqlStatementCounter counter, MeterRegistry registry) {
+        this.counter = counter;
+        this.registry = registry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        counter.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            int statements = counter.end();
+            String uri = route(request);
+            DistributionSummary.builder("pos.http.sql.statements")
+                    .description("SQL statements run per HTTP request")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri)
+                    .register(registry)
+                    .record(statements);
+            if (statements > warnThreshold) {
+                log.warn("{} {} ran {} SQL statements", request.getMethod(), uri, statements);
+            }
+        }
+    }
+
+    // the route pattern, not the raw path, so ids do not turn into separate series
+    private static String route(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern == null ? "UNKNOWN" : pattern.toString();
+    }
+}
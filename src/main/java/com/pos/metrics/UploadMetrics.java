@@ -0,0 +1,38 @@
+package com.pos.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TSV upload throughput per upload type: rows accepted ({@code pos.upload.rows}), time per upload
+ * ({@code pos.upload}) and rows per second of each upload ({@code pos.upload.rows.per.second}).
+ */
+@Component
+public class UploadMetrics {
+
+    private final MeterRegistry registry;
+
+    public UploadMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public void record(String upload, int rows, long elapsedNanos) {
+        Counter.builder("pos.upload.rows")
+                .tag("upload", upload)
+                .register(registry)
+                .increment(rows);
+        Timer.builder("pos.upload")
+                .tag("upload", upload)
+                .register(registry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("pos.upload.rows.per.second")
+                .tag("upload", upload)
+                .register(registry)
+                .record(rows * 1e9 / Math.max(elapsedNanos, 1));
+    }
+}
@@ -0,0 +1,7 @@
+package com.pos.model.constants;
+
+public enum DaySalesBackfillStatus {
+    RUNNING,
+    SUCCEEDED,
+    FAILED
+}
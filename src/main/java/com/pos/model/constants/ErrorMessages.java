@@ -42,6 +42,7 @@ public enum ErrorMessages {
     SELLING_PRICE_CANNOT_BE_NEGATIVE("Selling price cannot be negative"),
     ORDER_ID_REQUIRED("Order id is required"),
     INVALID_DATE_RANGE("Start date must be before or equal to end date"),
+    INVALID_PAGE_CURSOR("Invalid page cursor"),
 
     // ---------- Product ----------
     PRODUCT_NOT_FOUND("Product not found"),
@@ -77,6 +78,7 @@ public enum ErrorMessages {
     MISSING_TSV_HEADER("Missing required TSV header"),
     TSV_HAS_ERRORS("TSV has errors"),
     INVALID_ROW("Invalid row"),
+    FAILED_TO_WRITE_TSV_ERRORS("Failed to write TSV error file"),
 
     // ---------- Common Validation ----------
     NAME_REQUIRED("Name is required"),
@@ -93,7 +95,14 @@ public enum ErrorMessages {
     TSV_EMPTY("TSV file is empty"),
     ROLE_REQUIRED("Role is required"),
     PRODUCT_ID_NOT_FOUND("Product not found"),
-    INVOICE_READ_FAILED("Failed to read invoice for orderId");
+    INVOICE_READ_FAILED("Failed to read invoice for orderId"),
+    INVOICE_QUEUE_FULL("Invoice queue is full, retry later"),
+    INVOICE_JOB_NOT_FOUND("Invoice job not found"),
+    INVOICE_JOB_NOT_SAVED("Failed to save invoice job"),
+    ACCESS_RULES_RELOAD_FAILED("Failed to reload access rules"),
+    DAY_SALES_BACKFILL_RUNNING("A day sales backfill is already running"),
+    DAY_SALES_BACKFILL_TOO_LONG("Day sales backfill range is too long"),
+    DAY_SALES_BACKFILL_NOT_FOUND("Day sales backfill job not found");
 
 
     private final String msg;
@@ -0,0 +1,8 @@
+package com.pos.model.constants;
+
+public enum InvoiceJobStatus {
+    QUEUED,
+    RUNNING,
+    SUCCEEDED,
+    FAILED
+}
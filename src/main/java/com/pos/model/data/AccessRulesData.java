@@ -0,0 +1,13 @@
+package com.pos.model.data;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+@Getter @Setter
+public class AccessRulesData {
+    private Integer ruleCount;
+    private String source;
+    private Instant loadedAt;
+}
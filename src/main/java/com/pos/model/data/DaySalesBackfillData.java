@@ -0,0 +1,23 @@
+package com.pos.model.data;
+
+import com.pos.model.constants.DaySalesBackfillStatus;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+@Getter @Setter
+public class DaySalesBackfillData {
+    private String jobId;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private DaySalesBackfillStatus status;
+    private Integer totalDays;
+    private Integer recomputedDays;
+    private Integer skippedDays;
+    private List<LocalDate> failedDays;
+    private Instant createdAt;
+    private Instant finishedAt;
+}
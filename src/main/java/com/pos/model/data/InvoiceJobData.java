@@ -0,0 +1,19 @@
+package com.pos.model.data;
+
+import com.pos.model.constants.InvoiceJobStatus;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+@Getter @Setter
+public class InvoiceJobData {
+    private String jobId;
+    private Integer orderId;
+    private InvoiceJobStatus status;
+    private Integer attempts;
+    private String invoicePath;
+    private String error;
+    private Instant createdAt;
+    private Instant finishedAt;
+}
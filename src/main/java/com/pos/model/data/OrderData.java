@@ -3,6 +3,7 @@ package com.pos.model.data;
 import lombok.Getter;
 import lombok.Setter;
 import java.time.ZonedDateTime;
+import java.util.List;
 
 @Getter
 @Setter
@@ -12,4 +13,8 @@ public class OrderData {
     private ZonedDateTime createdAt;
     private String status;
     private Double totalAmount;
+    private Integer itemCount;
+
+    // only filled when the search asked for includeItems
+    private List<OrderItemData> items;
 }
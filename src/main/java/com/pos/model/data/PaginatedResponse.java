@@ -11,6 +11,7 @@ public class PaginatedResponse<T> {
     private List<T> data;
     private Long totalCount;
     private Integer pageNo;
+    private String nextCursor;
 
     public static <T> PaginatedResponse<T> of(List<T> data, Long totalCount, Integer pageNo) {
         PaginatedResponse<T> res = new PaginatedResponse<>();
@@ -19,4 +20,10 @@ public class PaginatedResponse<T> {
         res.pageNo = pageNo;
         return res;
     }
+
+    public static <T> PaginatedResponse<T> of(List<T> data, Long totalCount, Integer pageNo, String nextCursor) {
+        PaginatedResponse<T> res = of(data, totalCount, pageNo);
+        res.nextCursor = nextCursor;
+        return res;
+    }
 }
\ No newline at end of file
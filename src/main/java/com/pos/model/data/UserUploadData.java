@@ -0,0 +1,13 @@
+package com.pos.model.data;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter @Setter
+public class UserUploadData {
+    private Integer totalUsers;
+    private Integer createdUsers;
+    private Integer updatedUsers;
+    private Long elapsedMillis;
+    private Double usersPerSecond;
+}
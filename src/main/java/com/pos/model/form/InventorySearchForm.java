@@ -20,4 +20,7 @@ public class InventorySearchForm {
 
     @Max(MAX_PAGE_SIZE)
     private Integer pageSize = 10;
+
+    // totalCount is computed only when asked for; defaults to true
+    private Boolean includeTotal;
 }
\ No newline at end of file
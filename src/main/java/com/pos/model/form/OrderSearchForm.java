@@ -25,4 +25,13 @@ public class OrderSearchForm {
 
     @Max(MAX_PAGE_SIZE)
     private Integer pageSize = 10;
+
+    // opaque continuation token from a previous page's nextCursor; takes precedence over pageNumber
+    private String cursor;
+
+    // defaults to true for numbered pages and false when paging by cursor
+    private Boolean includeTotal;
+
+    // returns each order's lines with the page; off by default since totals are already on the order
+    private Boolean includeItems;
 }
\ No newline at end of file
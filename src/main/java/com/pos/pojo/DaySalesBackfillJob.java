@@ -0,0 +1,73 @@
+package com.pos.pojo;
+
+import com.pos.model.constants.DaySalesBackfillStatus;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+
+/**
+ * A DaySales backfill over a date range and its progress. Kept in the database so any instance can
+ * report it, only one runs across instances, and one whose instance went away is restarted elsewhere.
+ */
+@Entity
+@Getter
+@Setter
+@Table(
+        uniqueConstraints = {
+                @UniqueConstraint(name = "pos_daySalesBackfillJob_activeSlot_uk", columnNames = {"activeSlot"})
+        }
+)
+public class DaySalesBackfillJob {
+
+    public static final Integer ACTIVE_SLOT = 1;
+
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Column(nullable = false)
+    private LocalDate startDate;
+
+    @Column(nullable = false)
+    private LocalDate endDate;
+
+    // ACTIVE_SLOT while running, null once finished: the unique key allows one running backfill
+    private Integer activeSlot;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private DaySalesBackfillStatus status;
+
+    @Column(nullable = false)
+    private Integer totalDays;
+
+    @Column(nullable = false)
+    private Integer processedDays;
+
+    @Column(nullable = false)
+    private Integer recomputedDays;
+
+    @Column(nullable = false)
+    private Integer skippedDays;
+
+    // ISO dates, each followed by a comma
+    @Lob
+    @Column(nullable = false)
+    private String failedDays;
+
+    // Set by the instance running the days; progress from any other instance is ignored
+    @Column(length = 36)
+    private String claimToken;
+
+    // Moves with every processed day; a running backfill quiet for longer than the lease is restarted
+    @Column(nullable = false)
+    private ZonedDateTime heartbeatAt;
+
+    @Column(nullable = false)
+    private ZonedDateTime createdAt;
+
+    private ZonedDateTime finishedAt;
+}
@@ -0,0 +1,28 @@
+package com.pos.pojo;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.ZonedDateTime;
+
+/**
+ * High-water mark of the DaySales rollup: the (updatedAt, id) of the last invoiced order folded
+ * into pos_day_sales. Single row.
+ */
+@Entity
+@Getter
+@Setter
+public class DaySalesCursor {
+
+    public static final Integer ROLLUP_ID = 1;
+
+    @Id
+    private Integer id;
+
+    @Column(nullable = false)
+    private ZonedDateTime lastUpdatedAt;
+
+    @Column(nullable = false)
+    private Integer lastOrderId;
+}
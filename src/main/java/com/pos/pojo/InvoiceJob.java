@@ -0,0 +1,66 @@
+package com.pos.pojo;
+
+import com.pos.model.constants.InvoiceJobStatus;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.ZonedDateTime;
+
+/**
+ * An async invoice generation request. Kept in the database so any instance can answer a status poll and
+ * a job whose worker went away (restart, crash) is picked up again by another one.
+ */
+@Entity
+@Getter
+@Setter
+@Table(
+        uniqueConstraints = {
+                @UniqueConstraint(name = "pos_invoiceJob_activeOrderId_uk", columnNames = {"activeOrderId"})
+        },
+        indexes = {
+                @Index(name = "pos_invoiceJob_finishedAt_idx", columnList = "finishedAt")
+        }
+)
+public class InvoiceJob {
+
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Column(nullable = false)
+    private Integer orderId;
+
+    // The order id while the job is queued or running, null once finished: at most one active job per order
+    private Integer activeOrderId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private InvoiceJobStatus status;
+
+    // Request sent to the invoice service, as JSON, so whichever instance runs the job needs nothing else
+    @Lob
+    @Column(nullable = false)
+    private String form;
+
+    @Column(nullable = false)
+    private Integer attempts;
+
+    private String invoicePath;
+
+    @Column(length = 1000)
+    private String error;
+
+    // Set by the worker that claimed the job; updates from any other worker are ignored
+    @Column(length = 36)
+    private String claimToken;
+
+    // Last sign of life of the job; an active job quiet for longer than the lease is taken over
+    @Column(nullable = false)
+    private ZonedDateTime heartbeatAt;
+
+    @Column(nullable = false)
+    private ZonedDateTime createdAt;
+
+    private ZonedDateTime finishedAt;
+}
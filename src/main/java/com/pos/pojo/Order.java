@@ -10,7 +10,8 @@ import lombok.Setter;
 @Setter
 @Table(
         indexes = {
-                @Index(name = "pos_order_status_idx", columnList = "status")
+                @Index(name = "pos_order_status_idx", columnList = "status"),
+                @Index(name = "pos_order_updatedAt_id_idx", columnList = "updatedAt, id")
         }
 )
 public class Order extends AbstractPojo {
@@ -24,4 +25,10 @@ public class Order extends AbstractPojo {
     private OrderStatus status;
 
     private String invoicePath;
+
+    // Written once on create (lines are never edited afterwards). Null only on orders created before
+    // these columns existed, until OrderTotalsBackfill reaches them.
+    private Double totalAmount;
+
+    private Integer itemCount;
 }
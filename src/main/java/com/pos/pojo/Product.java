@@ -7,9 +7,14 @@ import lombok.Setter;
 @Entity
 @Getter
 @Setter
-@Table(uniqueConstraints = {
-        @UniqueConstraint(name = "pos_product_barcode_uk", columnNames = {"barcode"})
-})
+@Table(
+        uniqueConstraints = {
+                @UniqueConstraint(name = "pos_product_barcode_uk", columnNames = {"barcode"})
+        },
+        indexes = {
+                @Index(name = "pos_product_clientId_idx", columnList = "clientId")
+        }
+)
 public class Product extends AbstractPojo {
 
     @Id
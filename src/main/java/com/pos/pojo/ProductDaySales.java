@@ -0,0 +1,34 @@
+package com.pos.pojo;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+@Entity
+@Table(
+        uniqueConstraints = {
+                @UniqueConstraint(name = "pos_productDaySales_date_productId_uk", columnNames = {"date", "productId"})
+        }
+)
+@Getter
+@Setter
+public class ProductDaySales {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(nullable = false)
+    private LocalDate date;
+
+    @Column(nullable = false)
+    private Integer productId;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @Column(nullable = false)
+    private Double revenue;
+}
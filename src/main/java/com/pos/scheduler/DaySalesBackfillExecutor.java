@@ -0,0 +1,155 @@
+package com.pos.scheduler;
+
+import com.pos.api.DaySalesApi;
+import com.pos.api.DaySalesBackfillJobApi;
+import com.pos.exception.ApiException;
+import com.pos.model.data.DaySalesBackfillData;
+import com.pos.pojo.DaySalesBackfillJob;
+import com.pos.utils.DaySalesConversion;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static com.pos.model.constants.ErrorMessages.DAY_SALES_BACKFILL_RUNNING;
+import static com.pos.model.constants.ErrorMessages.DAY_SALES_BACKFILL_TOO_LONG;
+
+/**
+ * Rebuilds DaySales over a date range: one task per business day on a fixed pool of workers,
+ * each day in its own transaction (see {@link DaySalesApi#recomputeDay}). A failed day does not
+ * stop the others; it is listed on the job and the range can simply be submitted again.
+ * One backfill runs at a time across instances.
+ * <p>
+ * Progress lives in the database ({@link DaySalesBackfillJobApi}), so any instance can report it.
+ * A backfill whose instance stopped is restarted from its first day by the next
+ * {@link #recoverStalled} sweep on any instance, including the first one after a restart.
+ */
+@Component
+public class DaySalesBackfillExecutor {
+
+    private static final Logger log = LoggerFactory.getLogger(DaySalesBackfillExecutor.class);
+
+    private static final Duration JOB_RETENTION = Duration.ofHours(24);
+    private static final int PROGRESS_LOG_EVERY_DAYS = 10;
+
+    @Autowired
+    private DaySalesApi daySalesApi;
+
+    @Autowired
+    private DaySalesBackfillJobApi daySalesBackfillJobApi;
+
+    @Value("${pos.daySales.backfill.workers:4}")
+    private int workers = 4;
+
+    @Value("${pos.daySales.backfill.maxDays:366}")
+    private int maxDays = 366;
+
+    @Value("${pos.daySales.backfill.leaseSeconds:300}")
+    private long leaseSeconds = 300;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void start() {
+        // Room for a whole range: only one job is ever queued, so nothing is rejected
+        executor = new ThreadPoolExecutor(
+                workers, workers,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(maxDays),
+                Thread.ofVirtual().name("day-sales-backfill-", 0).factory(),
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    /** Queues one recompute task per day in [startDate, endDate]. */
+    public DaySalesBackfillData submit(LocalDate startDate, LocalDate endDate) throws ApiException {
+        long days = ChronoUnit.DAYS.between(startDate, endDate) + 1;
+        if (days > maxDays) {
+            throw new ApiException(DAY_SALES_BACKFILL_TOO_LONG.value() + ": " + days + " days, max " + maxDays);
+        }
+
+        DaySalesBackfillJob active = daySalesBackfillJobApi.getActive();
+        if (active != null) {
+            throw new ApiException(DAY_SALES_BACKFILL_RUNNING.value() + ": jobId=" + active.getId());
+        }
+
+        DaySalesBackfillJob job;
+        try {
+            job = daySalesBackfillJobApi.create(startDate, endDate, (int) days);
+        } catch (DataIntegrityViolationException e) {
+            // started concurrently, possibly on another instance
+            throw new ApiException(DAY_SALES_BACKFILL_RUNNING.value(), e);
+        }
+
+        log.info("DaySales backfill {} started for {}..{} ({} days)", job.getId(), startDate, endDate, days);
+        queueDays(job);
+        return DaySalesConversion.toBackfillData(job);
+    }
+
+    public DaySalesBackfillData getCheck(String jobId) throws ApiException {
+        return DaySalesConversion.toBackfillData(daySalesBackfillJobApi.getCheck(jobId));
+    }
+
+    /** Restarts a backfill whose instance has gone quiet for longer than the lease, once local workers are idle. */
+    @Scheduled(fixedDelay = 60_000)
+    public void recoverStalled() {
+        if (executor.getActiveCount() > 0 || !executor.getQueue().isEmpty()) return;
+
+        DaySalesBackfillJob job = daySalesBackfillJobApi.takeOverStalled(Duration.ofSeconds(leaseSeconds));
+        if (job == null) return;
+
+        log.info("DaySales backfill {} stalled; restarting {}..{}", job.getId(), job.getStartDate(), job.getEndDate());
+        queueDays(job);
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void purgeFinished() {
+        daySalesBackfillJobApi.deleteFinishedBefore(ZonedDateTime.now().minus(JOB_RETENTION));
+    }
+
+    private void queueDays(DaySalesBackfillJob job) {
+        String jobId = job.getId();
+        String token = job.getClaimToken();
+        int totalDays = job.getTotalDays();
+        for (LocalDate day = job.getStartDate(); !day.isAfter(job.getEndDate()); day = day.plusDays(1)) {
+            LocalDate target = day;
+            executor.execute(() -> runDay(jobId, token, totalDays, target));
+        }
+    }
+
+    private void runDay(String jobId, String token, int totalDays, LocalDate day) {
+        int processed;
+        try {
+            processed = daySalesBackfillJobApi.recordDay(jobId, token, daySalesApi.recomputeDay(day));
+        } catch (Exception e) {
+            log.warn("DaySales backfill {} failed for {}", jobId, day, e);
+            processed = daySalesBackfillJobApi.recordFailedDay(jobId, token, day);
+        }
+
+        if (processed < 0) return; // taken over by another instance
+        if (processed % PROGRESS_LOG_EVERY_DAYS == 0 || processed == totalDays) {
+            log.info("DaySales backfill {}: {}/{} days processed", jobId, processed, totalDays);
+        }
+        if (processed == totalDays && daySalesBackfillJobApi.finish(jobId, token)) {
+            log.info("DaySales backfill {} finished", jobId);
+        }
+    }
+}
@@ -1,12 +1,15 @@
 package com.pos.scheduler;
 
 import com.pos.api.DaySalesApi;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.TimeUnit;
+
 @Component
 public class DaySalesScheduler {
 
@@ -15,15 +18,30 @@ public class DaySalesScheduler {
     @Autowired
     DaySalesApi daySalesApi;
 
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    // One transaction per batch; the work per run is proportional to orders invoiced since the last one
     @Scheduled(cron = "0 */5 * * * *", zone = "Asia/Kolkata")
-    //@Scheduled(cron = "0 3 11 * * *", zone = "Asia/Kolkata")
     public void compute() {
+        long start = System.nanoTime();
+        String outcome = "success";
         try {
-            daySalesApi.calculateDaySales();
-            log.info("DaySalesScheduler finished successfully");
+            int total = 0;
+            int folded;
+            do {
+                folded = daySalesApi.rollUpInvoicedOrders();
+                total += folded;
+            } while (folded > 0);
+            meterRegistry.counter("pos.daysales.rollup.orders").increment(total);
+            log.info("DaySalesScheduler finished successfully, {} invoiced order(s) rolled up", total);
         } catch (Exception e) {
+            outcome = "failure";
             log.error("Unexpected error in DaySalesScheduler", e);
             log.error("DaySalesScheduler failed");
+        } finally {
+            meterRegistry.timer("pos.daysales.rollup", "outcome", outcome)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
         }
     }
-}
\ No newline at end of file
+}
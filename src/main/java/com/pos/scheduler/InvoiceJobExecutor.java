@@ -0,0 +1,208 @@
+package com.pos.scheduler;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pos.api.InvoiceJobApi;
+import com.pos.api.OrderApi;
+import com.pos.client.InvoiceClient;
+import com.pos.exception.ApiException;
+import com.pos.exception.InvoiceQueueFullException;
+import com.pos.model.constants.InvoiceJobStatus;
+import com.pos.model.data.InvoiceData;
+import com.pos.model.data.InvoiceJobData;
+import com.pos.model.form.InvoiceForm;
+import com.pos.pojo.InvoiceJob;
+import com.pos.utils.InvoiceConversion;
+import com.pos.utils.InvoicePathUtil;
+import com.pos.utils.InvoiceStorageUtil;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static com.pos.model.constants.ErrorMessages.INVOICE_JOB_NOT_SAVED;
+import static com.pos.model.constants.ErrorMessages.INVOICE_QUEUE_FULL;
+
+/**
+ * Runs invoice generation off the request thread: a fixed number of virtual-thread workers
+ * drain a bounded queue, calling the invoice service with exponential backoff, storing the
+ * PDF and attaching its path to the order. A full queue is rejected rather than buffered.
+ * <p>
+ * Job state lives in the database ({@link InvoiceJobApi}), so a poll can land on any instance.
+ * Only the queue of job ids is local: jobs left queued or running by an instance that stopped
+ * are picked up by the next {@link #recoverStalled} sweep on any instance, including the first
+ * one after a restart.
+ */
+@Component
+public class InvoiceJobExecutor {
+
+    private static final Logger log = LoggerFactory.getLogger(InvoiceJobExecutor.class);
+
+    private static final Duration JOB_RETENTION = Duration.ofHours(1);
+    private static final long MAX_BACKOFF_MS = 10_000;
+
+    @Autowired private InvoiceClient invoiceClient;
+    @Autowired private OrderApi orderApi;
+    @Autowired private InvoiceJobApi invoiceJobApi;
+    @Autowired private ObjectMapper objectMapper;
+
+    @Value("${pos.invoice.workers:4}")
+    private int workers = 4;
+
+    @Value("${pos.invoice.queueCapacity:100}")
+    private int queueCapacity = 100;
+
+    @Value("${pos.invoice.maxAttempts:3}")
+    private int maxAttempts = 3;
+
+    @Value("${pos.invoice.retryBackoffMs:500}")
+    private long retryBackoffMs = 500;
+
+    @Value("${pos.invoice.jobLeaseSeconds:300}")
+    private long jobLeaseSeconds = 300;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void start() {
+        executor = new ThreadPoolExecutor(
+                workers, workers,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofVirtual().name("invoice-worker-", 0).factory(),
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdown();
+    }
+
+    /**
+     * Queues invoice generation for an order. While a job for the order is still queued or
+     * running, on any instance, that job is returned instead of starting a second one.
+     */
+    public InvoiceJobData submit(Integer orderId, InvoiceForm form) throws ApiException {
+        InvoiceJob active = invoiceJobApi.getActiveByOrderId(orderId);
+        if (active != null) return InvoiceConversion.toJobData(active);
+
+        InvoiceJob job;
+        try {
+            job = invoiceJobApi.create(orderId, toJson(form));
+        } catch (DataIntegrityViolationException e) {
+            // queued concurrently, possibly on another instance
+            active = invoiceJobApi.getActiveByOrderId(orderId);
+            if (active == null) throw e;
+            return InvoiceConversion.toJobData(active);
+        }
+
+        try {
+            executor.execute(() -> run(job.getId()));
+        } catch (RejectedExecutionException e) {
+            invoiceJobApi.delete(job.getId());
+            throw new InvoiceQueueFullException(INVOICE_QUEUE_FULL.value() + ": orderId=" + orderId);
+        }
+        return InvoiceConversion.toJobData(job);
+    }
+
+    public InvoiceJobData getCheck(Integer orderId, String jobId) throws ApiException {
+        return InvoiceConversion.toJobData(invoiceJobApi.getCheck(orderId, jobId));
+    }
+
+    /** Re-queues jobs whose instance has gone quiet for longer than the lease, as far as the local queue has room. */
+    @Scheduled(fixedDelay = 60_000)
+    public void recoverStalled() {
+        int room = executor.getQueue().remainingCapacity();
+        if (room == 0) return;
+
+        for (InvoiceJob job : invoiceJobApi.takeOverStalled(lease(), room)) {
+            log.info("Re-queueing stalled invoice job {}", job.getId());
+            try {
+                executor.execute(() -> run(job));
+            } catch (RejectedExecutionException e) {
+                // stays stalled and is taken over again once the lease runs out
+                break;
+            }
+        }
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void purgeFinished() {
+        invoiceJobApi.deleteFinishedBefore(ZonedDateTime.now().minus(JOB_RETENTION));
+    }
+
+    private void run(String jobId) {
+        InvoiceJob job = invoiceJobApi.claim(jobId, lease());
+        if (job == null) return; // finished meanwhile, or running elsewhere
+        run(job);
+    }
+
+    // The job is already claimed: only writes under its token count
+    private void run(InvoiceJob job) {
+        InvoiceJobStatus status = InvoiceJobStatus.FAILED;
+        String invoicePath = null;
+        String error = null;
+        try {
+            InvoiceForm form = objectMapper.readValue(job.getForm(), InvoiceForm.class);
+            InvoiceData data = generateWithRetry(job, form);
+            byte[] pdfBytes = InvoiceConversion.decodePdfBytes(data);
+            invoicePath = InvoiceStorageUtil.storeAndAttach(orderApi, InvoicePathUtil.INVOICE_DIR, job.getOrderId(), pdfBytes);
+            status = InvoiceJobStatus.SUCCEEDED;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            error = "Interrupted";
+        } catch (Exception e) {
+            log.warn("Invoice job {} for order {} failed after {} attempt(s)", job.getId(), job.getOrderId(), job.getAttempts(), e);
+            error = e.getMessage();
+        } finally {
+            if (!invoiceJobApi.finish(job.getId(), job.getClaimToken(), status, invoicePath, error)) {
+                log.warn("Invoice job {} was taken over before it finished as {}", job.getId(), status);
+            }
+        }
+    }
+
+    // Only transport / service failures are retried; business errors fail the job straight away
+    private InvoiceData generateWithRetry(InvoiceJob job, InvoiceForm form) throws InterruptedException {
+        for (int attempt = 1; ; attempt++) {
+            job.setAttempts(attempt);
+            invoiceJobApi.recordAttempt(job.getId(), job.getClaimToken(), attempt);
+            try {
+                return invoiceClient.generate(form);
+            } catch (ApiException e) {
+                throw e;
+            } catch (RuntimeException e) {
+                if (attempt >= maxAttempts) throw e;
+                Thread.sleep(backoffMs(attempt));
+            }
+        }
+    }
+
+    private long backoffMs(int attempt) {
+        return Math.min(retryBackoffMs << (attempt - 1), MAX_BACKOFF_MS);
+    }
+
+    private Duration lease() {
+        return Duration.ofSeconds(jobLeaseSeconds);
+    }
+
+    private String toJson(InvoiceForm form) throws ApiException {
+        try {
+            return objectMapper.writeValueAsString(form);
+        } catch (JsonProcessingException e) {
+            throw new ApiException(INVOICE_JOB_NOT_SAVED.value() + ": orderId=" + form.getOrderId(), e);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.pos.scheduler;
+
+import com.pos.api.OrderApi;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * One-time migration for orders created before totalAmount / itemCount were stored: fills them in
+ * from the order lines, one batch per transaction, once the application is up. Once every order
+ * has totals a run is a single empty query, so it is safe to leave on.
+ */
+@Component
+public class OrderTotalsBackfill {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderTotalsBackfill.class);
+
+    @Autowired
+    private OrderApi orderApi;
+
+    @Value("${pos.order.totalsBackfill.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${pos.order.totalsBackfill.batchSize:500}")
+    private int batchSize = 500;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void run() {
+        if (!enabled) return;
+
+        try {
+            int total = 0;
+            int filled;
+            do {
+                filled = orderApi.backfillTotals(batchSize);
+                total += filled;
+            } while (filled > 0);
+            if (total > 0) {
+                log.info("Order totals backfill finished, {} order(s) updated", total);
+            }
+        } catch (Exception e) {
+            log.error("Order totals backfill failed; orders without totals fall back to summing their items", e);
+        }
+    }
+}
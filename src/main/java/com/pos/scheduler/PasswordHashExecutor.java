@@ -0,0 +1,88 @@
+package com.pos.scheduler;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BCrypt is deliberately slow, so bulk uploads hash on a fixed pool of platform threads, one per
+ * core by default. Each call is split into one slice per worker; when the queue is full the caller
+ * hashes its own slice, so concurrent uploads never use more than the pool plus their own threads.
+ */
+@Component
+public class PasswordHashExecutor {
+
+    @Value("${pos.users.hashWorkers:0}")
+    private int workers = 0;
+
+    @Autowired
+    private BCryptPasswordEncoder encoder;
+
+    private ThreadPoolExecutor executor;
+    private int threads;
+
+    @PostConstruct
+    public void start() {
+        threads = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+        executor = new ThreadPoolExecutor(
+                threads, threads,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads * 4),
+                Thread.ofPlatform().name("password-hash-", 0).daemon().factory(),
+                new ThreadPoolExecutor.CallerRunsPolicy()
+        );
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    /** Hashes every password in parallel and waits; hashes come back in input order. */
+    public List<String> hashAll(List<String> rawPasswords) {
+        int size = rawPasswords.size();
+        if (size == 0) return List.of();
+
+        String[] hashes = new String[size];
+        int slices = Math.min(threads, size);
+        List<Future<?>> futures = new ArrayList<>(slices);
+        for (int slice = 0; slice < slices; slice++) {
+            int from = slice * size / slices;
+            int to = (slice + 1) * size / slices;
+            futures.add(executor.submit(() -> {
+                for (int i = from; i < to; i++) {
+                    hashes[i] = encoder.encode(rawPasswords.get(i));
+                }
+            }));
+        }
+
+        for (Future<?> future : futures) {
+            await(future);
+        }
+        return Arrays.asList(hashes);
+    }
+
+    private static void await(Future<?> future) {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing passwords", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.pos.scheduler;
+
+import com.pos.utils.TsvErrorFile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+// Backstop for upload error reports the exception handler never streamed (and so never deleted)
+@Component
+public class UploadErrorFileSweeper {
+
+    private static final Logger log = LoggerFactory.getLogger(UploadErrorFileSweeper.class);
+
+    private static final Duration MAX_AGE = Duration.ofMinutes(15);
+
+    @Scheduled(fixedDelay = 300_000)
+    public void sweep() {
+        int deleted = TsvErrorFile.deleteStale(MAX_AGE);
+        if (deleted > 0) {
+            log.info("Deleted {} stale upload error report(s)", deleted);
+        }
+    }
+}
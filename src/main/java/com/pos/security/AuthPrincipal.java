@@ -3,6 +3,7 @@ package com.pos.security;
 import com.pos.model.constants.UserRole;
 import lombok.Getter;
 
+/** Authenticated user as carried by the JWT: who it is and the role the token was issued for. */
 @Getter
 public class AuthPrincipal {
 
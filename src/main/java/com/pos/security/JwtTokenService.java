@@ -0,0 +1,85 @@
+package com.pos.security;
+
+import com.pos.model.constants.UserRole;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseCookie;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Optional;
+
+/**
+ * Issues and checks the HS256 login tokens. A token carries the user id as subject and the role as
+ * a claim, so any node can authenticate a request from the token alone. The secret must be at
+ * least 32 bytes; a shorter one fails at startup.
+ */
+@Component
+public class JwtTokenService {
+
+    public static final String TOKEN_COOKIE = "POS_TOKEN";
+
+    private static final String ROLE_CLAIM = "role";
+
+    private final SecretKey key;
+    private final long ttlSeconds;
+
+    public JwtTokenService(@Value("${auth.jwt.secret}") String secret,
+                           @Value("${auth.jwt.ttlSeconds:86400}") long ttlSeconds) {
+        this.key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.ttlSeconds = ttlSeconds;
+    }
+
+    public String issue(AuthPrincipal principal) {
+        Instant now = Instant.now();
+        return Jwts.builder()
+                .setSubject(String.valueOf(principal.getUserId()))
+                .claim(ROLE_CLAIM, principal.getRole().name())
+                .setIssuedAt(Date.from(now))
+                .setExpiration(Date.from(now.plusSeconds(ttlSeconds)))
+                .signWith(key, SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    /** Empty when the token is malformed, tampered with or expired. */
+    public Optional<AuthPrincipal> parse(String token) {
+        try {
+            Claims claims = Jwts.parserBuilder()
+                    .setSigningKey(key)
+                    .build()
+                    .parseClaimsJws(token)
+                    .getBody();
+            String role = claims.get(ROLE_CLAIM, String.class);
+            if (claims.getSubject() == null || role == null) return Optional.empty();
+            return Optional.of(new AuthPrincipal(Integer.valueOf(claims.getSubject()), UserRole.valueOf(role)));
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    /** HttpOnly cookie carrying the token, for browser clients that do not send a bearer header. */
+    public ResponseCookie tokenCookie(String token) {
+        return cookie(token, Duration.ofSeconds(ttlSeconds));
+    }
+
+    public ResponseCookie clearedTokenCookie() {
+        return cookie("", Duration.ZERO);
+    }
+
+    private static ResponseCookie cookie(String value, Duration maxAge) {
+        return ResponseCookie.from(TOKEN_COOKIE, value)
+                .httpOnly(true)
+                .sameSite("Lax")
+                .path("/")
+                .maxAge(maxAge)
+                .build();
+    }
+}
@@ -36,6 +36,7 @@ public class RoleAuthorizationFilter extends OncePerRequestFilter {
         return path.startsWith("/auth/")
                 || path.startsWith("/swagger-ui")
                 || path.startsWith("/v3/api-docs")
+                || path.equals("/actuator/health")
                 || path.equals("/error");
     }
 
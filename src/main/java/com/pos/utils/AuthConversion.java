@@ -37,5 +37,4 @@ public class AuthConversion {
         data.setToken(null);
         return data;
     }
-
 }
@@ -1,73 +1,225 @@
 package com.pos.utils;
 
+import com.pos.exception.ApiException;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Component;
 
 import java.io.BufferedReader;
+import java.io.IOException;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
 import java.util.*;
-import java.util.regex.Pattern;
-
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.pos.model.constants.ErrorMessages.ACCESS_RULES_RELOAD_FAILED;
+
+/**
+ * Access rules from access-control.csv, held as an immutable compiled snapshot behind an
+ * atomic reference. A reload parses and compiles a complete new table before swapping it in,
+ * so request threads never lock and never see a partial table; a failed reload keeps the old one.
+ * When pos.access.rulesPath points at a file it is read instead of the classpath copy and,
+ * unless pos.access.watchRules is false, reloaded whenever it changes on disk. A change is only
+ * picked up once the file's size and modification time have held still for pos.access.reloadQuietMs,
+ * so an editor or copy still writing the file is never read half-way.
+ */
 @Component
 public class CsvRoleAccessService {
 
+    private static final Logger log = LoggerFactory.getLogger(CsvRoleAccessService.class);
+
     private static final String CSV_FILE = "access-control.csv";
+    private static final long DEFAULT_RELOAD_QUIET_MS = 500;
 
-    private final List<Rule> rules = new ArrayList<>();
+    public record Snapshot(int ruleCount, String source, Instant loadedAt) {
+    }
 
-    @PostConstruct
-    public void load() {
-        try {
-            ClassPathResource resource = new ClassPathResource(CSV_FILE);
-            if (!resource.exists()) {
-                throw new IllegalStateException("Missing " + CSV_FILE + " in src/main/resources");
+    private record Table(RouteIndex index, Snapshot snapshot) {
+    }
+
+    // size -1 while the file is missing, e.g. between delete and rename
+    private record FileState(long size, FileTime modified) {
+
+        static FileState of(Path file) {
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                return new FileState(attributes.size(), attributes.lastModifiedTime());
+            } catch (IOException e) {
+                return new FileState(-1, null);
             }
+        }
+    }
 
-            try (BufferedReader br = new BufferedReader(
-                    new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+    @Value("${pos.access.rulesPath:}")
+    private String rulesPath = "";
 
-                String line;
-                int lineNo = 0;
+    @Value("${pos.access.watchRules:true}")
+    private boolean watchRules = true;
 
-                while ((line = br.readLine()) != null) {
-                    lineNo++;
-                    line = line.trim();
+    @Value("${pos.access.reloadQuietMs:" + DEFAULT_RELOAD_QUIET_MS + "}")
+    private long reloadQuietMs = DEFAULT_RELOAD_QUIET_MS;
 
-                    if (line.isEmpty() || line.startsWith("#")) continue;
-                    String[] parts = line.split(",", -1);
-                    if (parts.length < 3) {
-                        throw new IllegalArgumentException("Invalid CSV format at line " + lineNo + ": " + line);
-                    }
+    private final AtomicReference<Table> table =
+            new AtomicReference<>(new Table(RouteIndex.compile(List.of()), new Snapshot(0, CSV_FILE, Instant.EPOCH)));
 
-                    String method = parts[0].trim().toUpperCase(Locale.ROOT);
-                    String path = normalizePath(parts[1].trim());
-                    String rolesRaw = parts[2].trim();
+    private WatchService watchService;
 
-                    Set<String> roles = parseRoles(rolesRaw);
-                    rules.add(new Rule(method, path, roles));
-                }
-            }
+    @PostConstruct
+    public void init() throws IOException {
+        load();
+        startWatcher();
+    }
 
+    public void load() {
+        try {
+            table.set(readTable());
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to load access rules from " + source() + ": " + e.getMessage(), e);
+        }
+    }
+
+    public Snapshot reload() throws ApiException {
+        try {
+            Table next = readTable();
+            table.set(next);
+            log.info("Reloaded {} access rules from {}", next.snapshot().ruleCount(), next.snapshot().source());
+            return next.snapshot();
         } catch (Exception e) {
-            throw new RuntimeException("Failed to load access rules from " + CSV_FILE + ": " + e.getMessage(), e);
+            throw new ApiException(ACCESS_RULES_RELOAD_FAILED.value() + ": " + e.getMessage(), e);
         }
     }
 
+    public Snapshot current() {
+        return table.get().snapshot();
+    }
+
+    private void startWatcher() throws IOException {
+        if (!watchRules || rulesPath == null || rulesPath.isBlank()) return;
+
+        Path file = Path.of(rulesPath).toAbsolutePath();
+        watchService = file.getFileSystem().newWatchService();
+        file.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+
+        Thread.ofPlatform()
+                .name("access-rules-watcher")
+                .daemon(true)
+                .start(() -> watch(file));
+    }
+
+    @PreDestroy
+    public void stopWatcher() throws IOException {
+        if (watchService != null) watchService.close();
+    }
+
     public boolean isAllowed(String method, String path, String role) {
         if (method == null || path == null || role == null) return false;
 
+        // trim/toUpperCase return the same instance when already normalized, as the filter passes them
         String m = method.trim().toUpperCase(Locale.ROOT);
-        String p = normalizePath(path.trim());
         String r = role.trim().toUpperCase(Locale.ROOT);
 
-        for (Rule rule : rules) {
-            if (rule.matches(m, p) && rule.allowsRole(r)) {
-                return true;
+        return table.get().index().isAllowed(m, path, r);
+    }
+
+    private void watch(Path file) {
+        try {
+            while (true) {
+                if (!changed(watchService.take(), file)) continue;
+
+                awaitQuiet(file);
+                // events queued while waiting belong to the write just waited out
+                for (WatchKey pending; (pending = watchService.poll()) != null; ) {
+                    changed(pending, file);
+                }
+                try {
+                    reload();
+                } catch (ApiException e) {
+                    log.error("Keeping previous access rules", e);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // shutting down
+        }
+    }
+
+    private static boolean changed(WatchKey key, Path file) {
+        boolean changed = key.pollEvents().stream()
+                .anyMatch(event -> file.getFileName().equals(event.context()));
+        key.reset();
+        return changed;
+    }
+
+    private void awaitQuiet(Path file) throws InterruptedException {
+        FileState last = FileState.of(file);
+        while (true) {
+            Thread.sleep(reloadQuietMs);
+            FileState now = FileState.of(file);
+            if (now.equals(last)) return;
+            last = now;
+        }
+    }
+
+    private String source() {
+        return rulesPath == null || rulesPath.isBlank() ? CSV_FILE : rulesPath;
+    }
+
+    private Table readTable() throws IOException {
+        List<RouteIndex.Rule> rules;
+        if (rulesPath == null || rulesPath.isBlank()) {
+            ClassPathResource resource = new ClassPathResource(CSV_FILE);
+            if (!resource.exists()) {
+                throw new IllegalStateException("Missing " + CSV_FILE + " in src/main/resources");
+            }
+            try (BufferedReader br = new BufferedReader(
+                    new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+                rules = parseRules(br);
+            }
+        } else {
+            try (BufferedReader br = Files.newBufferedReader(Path.of(rulesPath), StandardCharsets.UTF_8)) {
+                rules = parseRules(br);
             }
         }
-        return false;
+        return new Table(RouteIndex.compile(rules), new Snapshot(rules.size(), source(), Instant.now()));
+    }
+
+    private static List<RouteIndex.Rule> parseRules(BufferedReader br) throws IOException {
+        List<RouteIndex.Rule> rules = new ArrayList<>();
+        String line;
+        int lineNo = 0;
+
+        while ((line = br.readLine()) != null) {
+            lineNo++;
+            line = line.trim();
+
+            if (line.isEmpty() || line.startsWith("#")) continue;
+            String[] parts = line.split(",", -1);
+            if (parts.length < 3) {
+                throw new IllegalArgumentException("Invalid CSV format at line " + lineNo + ": " + line);
+            }
+
+            String method = parts[0].trim().toUpperCase(Locale.ROOT);
+            String path = normalizePath(parts[1].trim());
+            String rolesRaw = parts[2].trim();
+
+            Set<String> roles = parseRoles(rolesRaw);
+            rules.add(new RouteIndex.Rule(method, path, roles));
+        }
+        return rules;
     }
 
     private static String normalizePath(String p) {
@@ -91,49 +243,4 @@ public class CsvRoleAccessService {
         }
         return roles;
     }
-
-    private static final class Rule {
-        private final String method;     // e.g. GET / POST / * (optional support)
-        private final String pathSpec;   // original path spec from CSV
-        private final Pattern pathRegex; // compiled matcher
-        private final Set<String> roles; // allowed roles
-
-        Rule(String method, String pathSpec, Set<String> roles) {
-            this.method = method;
-            this.pathSpec = pathSpec;
-            this.roles = roles;
-
-            this.pathRegex = Pattern.compile("^" + toRegex(pathSpec) + "$");
-        }
-
-        boolean matches(String reqMethod, String reqPath) {
-            if (!"*".equals(method) && !method.equals(reqMethod)) return false;
-            return pathRegex.matcher(reqPath).matches();
-        }
-
-        boolean allowsRole(String role) {
-            return roles.contains("*") || roles.contains(role);
-        }
-
-        private static String toRegex(String pathSpec) {
-
-            String p = pathSpec;
-
-            p = p.replace(".", "\\.")
-                    .replace("?", "\\?")
-                    .replace("+", "\\+")
-                    .replace("(", "\\(")
-                    .replace(")", "\\)")
-                    .replace("[", "\\[")
-                    .replace("]", "\\]")
-                    .replace("^", "\\^")
-                    .replace("$", "\\$")
-                    .replace("|", "\\|");
-
-            p = p.replaceAll("\\{[^/]+\\}", "[^/]+");
-            p = p.replace("*", ".*");
-
-            return p;
-        }
-    }
 }
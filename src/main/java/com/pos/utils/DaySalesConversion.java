@@ -1,10 +1,14 @@
 package com.pos.utils;
 
+import com.pos.model.data.DaySalesBackfillData;
 import com.pos.model.data.DaySalesData;
 import com.pos.pojo.DaySales;
+import com.pos.pojo.DaySalesBackfillJob;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.ZonedDateTime;
+import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -25,6 +29,25 @@ public class DaySalesConversion {
                 .collect(Collectors.toList());
     }
 
+    public static DaySalesBackfillData toBackfillData(DaySalesBackfillJob job) {
+        DaySalesBackfillData data = new DaySalesBackfillData();
+        data.setJobId(job.getId());
+        data.setStartDate(job.getStartDate());
+        data.setEndDate(job.getEndDate());
+        data.setStatus(job.getStatus());
+        data.setTotalDays(job.getTotalDays());
+        data.setRecomputedDays(job.getRecomputedDays());
+        data.setSkippedDays(job.getSkippedDays());
+        data.setFailedDays(Arrays.stream(job.getFailedDays().split(","))
+                .filter(day -> !day.isEmpty())
+                .map(LocalDate::parse)
+                .sorted()
+                .toList());
+        data.setCreatedAt(job.getCreatedAt().toInstant());
+        data.setFinishedAt(job.getFinishedAt() == null ? null : job.getFinishedAt().toInstant());
+        return data;
+    }
+
     public static DaySales toPojo(
             ZonedDateTime businessDayStart,
             Object ordersCount,
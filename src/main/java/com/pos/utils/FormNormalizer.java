@@ -0,0 +1,61 @@
+package com.pos.utils;
+
+import com.pos.exception.ApiException;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.pos.model.constants.ErrorMessages.ERROR_DURING_NORMALIZATION;
+
+/**
+ * Trims the String fields declared on a form. The field handles for each form class are
+ * resolved once and cached, so a call does no reflective lookups, and strings that are
+ * already trimmed are neither copied nor written back.
+ */
+public final class FormNormalizer {
+
+    private static final ClassValue<VarHandle[]> STRING_FIELDS = new ClassValue<>() {
+        @Override
+        protected VarHandle[] computeValue(Class<?> type) {
+            return resolveStringFields(type);
+        }
+    };
+
+    private FormNormalizer() {}
+
+    public static void normalize(Object form) throws ApiException {
+        if (form == null) return;
+
+        for (VarHandle field : STRING_FIELDS.get(form.getClass())) {
+            String value = (String) field.get(form);
+            if (value == null) continue;
+
+            // trim() hands back the same instance when there is nothing to strip
+            String trimmed = value.trim();
+            if (trimmed != value) {
+                field.set(form, trimmed);
+            }
+        }
+    }
+
+    private static VarHandle[] resolveStringFields(Class<?> type) throws ApiException {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+            List<VarHandle> handles = new ArrayList<>();
+            for (Field field : type.getDeclaredFields()) {
+                int modifiers = field.getModifiers();
+                if (field.getType() != String.class || Modifier.isStatic(modifiers) || Modifier.isFinal(modifiers)) {
+                    continue;
+                }
+                handles.add(lookup.unreflectVarHandle(field));
+            }
+            return handles.toArray(new VarHandle[0]);
+        } catch (IllegalAccessException e) {
+            throw new ApiException(ERROR_DURING_NORMALIZATION.value() + ": " + type.getName(), e);
+        }
+    }
+}
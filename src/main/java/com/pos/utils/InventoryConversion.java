@@ -3,13 +3,9 @@ package com.pos.utils;
 import com.pos.model.data.InventoryData;
 import com.pos.model.form.InventoryForm;
 import com.pos.pojo.Inventory;
-import com.pos.pojo.Product;
 
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
-import java.util.function.Function;
-import java.util.stream.Collectors;
 
 public class InventoryConversion {
 
@@ -34,24 +30,6 @@ public class InventoryConversion {
                 .toList();
     }
 
-    public static List<InventoryData> toDataList(List<Inventory> inventories, List<Product> products) {
-        if (inventories == null || inventories.isEmpty()) return List.of();
-        if (products == null || products.isEmpty()) return List.of();
-
-        Map<Integer, Product> productMap = products.stream()
-                .filter(p -> p.getId() != null)
-                .collect(Collectors.toMap(Product::getId, Function.identity(), (a, b) -> a));
-
-        return inventories.stream()
-                .map(inv -> {
-                    Product p = productMap.get(inv.getProductId());
-                    if (p == null) return null;
-                    return convertPojoToData(inv, p.getBarcode(), p.getName());
-                })
-                .filter(Objects::nonNull)
-                .toList();
-    }
-
     public static List<Inventory> convertFormsToPojos(
             List<InventoryForm> forms,
             Map<String, Integer> productIdByBarcode
@@ -1,80 +1,55 @@
 package com.pos.utils;
 
 import com.pos.exception.ApiException;
-import com.pos.exception.UploadValidationException;
 import com.pos.model.form.InventoryForm;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.IOException;
-import java.time.LocalDateTime;
-import java.util.*;
+import java.util.HashSet;
+import java.util.Set;
 
 import static com.pos.model.constants.ErrorMessages.*;
 
 public class InventoryTsvParser {
 
-    private InventoryTsvParser() {}
-
-    public static List<InventoryForm> parse(MultipartFile file) throws ApiException, IOException {
-
-        List<String[]> rows = TsvParser.read(file.getInputStream());
-        TsvParser.validateHeader(rows.get(0), "barcode", "quantity");
-
-        List<String> errors = new ArrayList<>();
-        List<InventoryForm> forms = new ArrayList<>();
-        Set<String> seenBarcodes = new HashSet<>();
-
-        for (int i = 1; i < rows.size(); i++) {
-            String[] r = rows.get(i);
-            String err = null;
-
-            try {
-                InventoryForm form = new InventoryForm();
-                form.setBarcode(TsvParser.s(r, 0));
-
-                String qStr = TsvParser.s(r, 1);
-                if (qStr.isEmpty()) throw new ApiException(QUANTITY_REQUIRED.value());
+    private static final String ERROR_FILE_PREFIX = "inventory_upload_errors";
 
-                try {
-                    form.setQuantity(Integer.parseInt(qStr));
-                } catch (NumberFormatException e) {
-                    throw new ApiException(INVALID_QUANTITY.value());
-                }
-
-                validateShape(form);
-                normalizeShape(form);
+    private InventoryTsvParser() {}
 
-                String bc = form.getBarcode();
-                if (!seenBarcodes.add(bc)) {
-                    throw new ApiException(INVALID_ROW.value());
-                }
+    /** Rows are read and validated only when the returned source is consumed. */
+    public static TsvUploadUtil.ChunkSource<InventoryForm> parse(MultipartFile file) {
+        return consumer -> {
+            try (TsvParser.Reader reader = TsvParser.open(file)) {
+                String[] header = reader.header();
+                TsvParser.validateHeader(header, "barcode", "quantity");
+
+                Set<String> seenBarcodes = new HashSet<>();
+                return TsvUploadUtil.streamOrThrow(reader, header,
+                        new TsvUploadUtil.ErrorReport(ERROR_FILE_PREFIX, () -> TsvParser.open(file)),
+                        (r, lineNumber) -> toForm(r, seenBarcodes), TsvUploadUtil.CHUNK_SIZE, consumer);
+            }
+        };
+    }
 
-                forms.add(form);
+    private static InventoryForm toForm(String[] r, Set<String> seenBarcodes) throws ApiException {
+        InventoryForm form = new InventoryForm();
+        form.setBarcode(TsvParser.s(r, 0));
 
-            } catch (ApiException ex) {
-                err = ex.getMessage();
-            } catch (Exception ex) {
-                err = INVALID_ROW.value();
-            }
+        String qStr = TsvParser.s(r, 1);
+        if (qStr.isEmpty()) throw new ApiException(QUANTITY_REQUIRED.value());
 
-            errors.add(err);
+        try {
+            form.setQuantity(Integer.parseInt(qStr));
+        } catch (NumberFormatException e) {
+            throw new ApiException(INVALID_QUANTITY.value());
         }
 
-        boolean hasError = errors.stream().anyMatch(Objects::nonNull);
-        if (hasError) {
-            byte[] errorTsv = TsvParser.buildErrorTsv(rows, errors);
-            String fname = "inventory_upload_errors_" +
-                    LocalDateTime.now().toString().replace(":", "-") + ".tsv";
+        validateShape(form);
+        normalizeShape(form);
 
-            throw new UploadValidationException(
-                    TSV_HAS_ERRORS.value(),
-                    errorTsv,
-                    fname,
-                    "text/tab-separated-values"
-            );
+        if (!seenBarcodes.add(form.getBarcode())) {
+            throw new ApiException(INVALID_ROW.value());
         }
-
-        return forms;
+        return form;
     }
 
     private static void validateShape(InventoryForm form) throws ApiException {
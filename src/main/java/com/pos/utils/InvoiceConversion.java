@@ -2,8 +2,10 @@ package com.pos.utils;
 
 import com.pos.exception.ApiException;
 import com.pos.model.data.InvoiceData;
+import com.pos.model.data.InvoiceJobData;
 import com.pos.model.form.InvoiceForm;
 import com.pos.model.form.InvoiceItemForm;
+import com.pos.pojo.InvoiceJob;
 import com.pos.pojo.OrderItem;
 import com.pos.pojo.Product;
 
@@ -58,4 +60,17 @@ public class InvoiceConversion {
             throw new ApiException("Invalid invoice PDF received", e);
         }
     }
+
+    public static InvoiceJobData toJobData(InvoiceJob job) {
+        InvoiceJobData data = new InvoiceJobData();
+        data.setJobId(job.getId());
+        data.setOrderId(job.getOrderId());
+        data.setStatus(job.getStatus());
+        data.setAttempts(job.getAttempts());
+        data.setInvoicePath(job.getInvoicePath());
+        data.setError(job.getError());
+        data.setCreatedAt(job.getCreatedAt().toInstant());
+        data.setFinishedAt(job.getFinishedAt() == null ? null : job.getFinishedAt().toInstant());
+        return data;
+    }
 }
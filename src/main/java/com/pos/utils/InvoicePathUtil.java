@@ -1,16 +1,15 @@
 package com.pos.utils;
 
-import com.pos.exception.ApiException;
-
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-
-import static com.pos.model.constants.ErrorMessages.INVOICE_READ_FAILED;
+import java.nio.file.attribute.BasicFileAttributes;
 
 public final class InvoicePathUtil {
 
+    public static final String INVOICE_DIR = "/tmp/invoices";
+
     private InvoicePathUtil() {}
 
     public static Path invoiceDir(String invoiceDirPath) {
@@ -26,21 +25,19 @@ public final class InvoicePathUtil {
                 .resolve(invoiceFileName(orderId));
     }
 
-    public static byte[] tryReadInvoiceBytes(String path, Integer orderId) throws ApiException {
+    // Resolves the stored PDF for an order without reading it; null when there is none on disk
+    public static Path tryResolveInvoiceFile(String path, Integer orderId) {
         if (path == null || path.trim().isEmpty()) return null;
 
-        try {
-            Path p = Paths.get(path);
-            if (Files.exists(p) && Files.isDirectory(p)) {
-                p = invoiceFilePath(p.toString(), orderId);
-            }
-
-            if (!Files.exists(p) || Files.isDirectory(p)) return null;
-            return Files.readAllBytes(p);
-
-        } catch (IOException e) {
-            throw new ApiException(INVOICE_READ_FAILED.value() + "=" + orderId);
+        Path p = Paths.get(path);
+        if (Files.isDirectory(p)) {
+            p = invoiceFilePath(p.toString(), orderId);
         }
+        return Files.isRegularFile(p) ? p : null;
+    }
+
+    public static String invoiceETag(Integer orderId, BasicFileAttributes attributes) {
+        return "\"" + orderId + "-" + attributes.size() + "-" + attributes.lastModifiedTime().toMillis() + "\"";
     }
 
     public static void saveInvoiceBytes(String invoiceDirPath, Integer orderId, byte[] bytes)
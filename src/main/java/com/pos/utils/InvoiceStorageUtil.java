@@ -23,9 +23,10 @@ public final class InvoiceStorageUtil {
         }
     }
 
-    public static void storeAndAttach(OrderApi orderApi, String invoiceDir, Integer orderId, byte[] pdfBytes)
+    public static String storeAndAttach(OrderApi orderApi, String invoiceDir, Integer orderId, byte[] pdfBytes)
             throws ApiException {
         String path = storePdf(invoiceDir, orderId, pdfBytes);
         orderApi.generateInvoice(orderId, path);
+        return path;
     }
 }
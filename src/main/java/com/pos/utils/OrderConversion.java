@@ -2,6 +2,7 @@ package com.pos.utils;
 
 import com.pos.exception.ApiException;
 import com.pos.model.constants.OrderStatus;
+import com.pos.dao.OrderRow;
 import com.pos.model.data.OrderData;
 import com.pos.model.data.OrderItemData;
 import com.pos.model.form.InvoiceForm;
@@ -46,6 +47,16 @@ public class OrderConversion {
         return d;
     }
 
+    public static OrderData toOrderData(OrderRow row) {
+        OrderData d = new OrderData();
+        d.setId(row.id());
+        d.setCreatedAt(row.createdAt());
+        d.setStatus(row.status().name());
+        d.setTotalAmount(row.totalAmount());
+        d.setItemCount(row.itemCount());
+        return d;
+    }
+
     public static OrderItemData toOrderItemData(OrderItem item, Product p) {
         return toOrderItemData(item, p.getBarcode(), p.getName());
     }
@@ -0,0 +1,46 @@
+package com.pos.utils;
+
+import com.pos.exception.ApiException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Base64;
+
+import static com.pos.model.constants.ErrorMessages.INVALID_PAGE_CURSOR;
+
+public final class PageCursorUtil {
+
+    private PageCursorUtil() {}
+
+    private static final String SEPARATOR = "|";
+
+    public static String encode(ZonedDateTime updatedAt, Integer id) {
+        if (updatedAt == null || id == null) return null;
+
+        String raw = updatedAt.toInstant().toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static SeekCursor decode(String cursor) throws ApiException {
+        if (cursor == null || cursor.isBlank()) return null;
+
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+            int sep = raw.lastIndexOf(SEPARATOR);
+            if (sep <= 0) {
+                throw new ApiException(INVALID_PAGE_CURSOR.value());
+            }
+            ZonedDateTime updatedAt = Instant.parse(raw.substring(0, sep)).atZone(ZoneOffset.UTC);
+            Integer id = Integer.valueOf(raw.substring(sep + 1));
+            return new SeekCursor(updatedAt, id);
+        } catch (ApiException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new ApiException(INVALID_PAGE_CURSOR.value(), e);
+        }
+    }
+
+    public record SeekCursor(ZonedDateTime updatedAt, Integer id) {}
+}
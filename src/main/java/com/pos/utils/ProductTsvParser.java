@@ -1,109 +1,77 @@
 package com.pos.utils;
 
 import com.pos.exception.ApiException;
-import com.pos.exception.UploadValidationException;
 import com.pos.model.form.ProductForm;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.IOException;
-import java.time.LocalDateTime;
 import java.util.*;
 
 import static com.pos.model.constants.ErrorMessages.*;
 
 public class ProductTsvParser {
 
+    private static final String ERROR_FILE_PREFIX = "product_upload_errors";
+
     private ProductTsvParser() {}
 
-    public static ProductTsvParseResult parse(MultipartFile file, Integer clientId) throws ApiException, IOException {
+    /**
+     * Rows are read and validated only when the returned source is consumed. A bad header marks every
+     * row with the header error.
+     */
+    public static TsvUploadUtil.ChunkSource<ProductForm> parse(MultipartFile file, Integer clientId) throws ApiException {
         if (clientId == null) {
             throw new ApiException(CLIENT_ID_REQUIRED.value());
         }
 
-        List<String[]> rows = TsvParser.read(file.getInputStream());
-        if (rows == null || rows.isEmpty()) {
-            throw new ApiException("Empty TSV file");
-        }
+        return consumer -> {
+            try (TsvParser.Reader reader = TsvParser.open(file)) {
+                String[] header = reader.header();
+                return TsvUploadUtil.streamOrThrow(reader, header,
+                        new TsvUploadUtil.ErrorReport(ERROR_FILE_PREFIX, () -> TsvParser.open(file)),
+                        rowMapper(header, clientId), TsvUploadUtil.CHUNK_SIZE, consumer);
+            }
+        };
+    }
 
+    private static TsvUploadUtil.RowMapper<ProductForm> rowMapper(String[] header, Integer clientId) {
         try {
-            validateFlexibleHeader(rows.get(0));
+            validateFlexibleHeader(header);
         } catch (ApiException headerEx) {
-            List<String> errors = new ArrayList<>();
-            for (int i = 1; i < rows.size(); i++) {
-                errors.add(headerEx.getMessage());
-            }
-
-            byte[] errorTsv = TsvParser.buildErrorTsv(rows, errors);
-            String fname = "product_upload_errors_" + LocalDateTime.now().toString().replace(":", "-") + ".tsv";
-
-            throw new UploadValidationException(
-                    TSV_HAS_ERRORS.value(),
-                    errorTsv,
-                    fname,
-                    "text/tab-separated-values"
-            );
+            return (r, lineNumber) -> {
+                throw headerEx;
+            };
         }
 
-        List<String> errors = new ArrayList<>();
-        List<ProductForm> validForms = new ArrayList<>();
         Set<String> seenBarcodes = new HashSet<>();
+        return (r, lineNumber) -> toForm(r, clientId, seenBarcodes);
+    }
 
-        for (int i = 1; i < rows.size(); i++) {
-            String[] r = rows.get(i);
-            String err = null;
-
-            try {
-                ProductForm form = new ProductForm();
-
-                form.setBarcode(TsvParser.s(r, 0));
-                form.setName(TsvParser.s(r, 1));
-
-                String mrpStr = TsvParser.s(r, 2);
-                if (mrpStr.isEmpty()) throw new ApiException(MRP_REQUIRED.value());
-                try {
-                    form.setMrp(Double.parseDouble(mrpStr));
-                } catch (NumberFormatException e) {
-                    throw new ApiException(INVALID_MRP.value());
-                }
-
-                String img = (r != null && r.length > 3) ? TsvParser.s(r, 3) : "";
-                form.setImageUrl(img.isEmpty() ? null : img);
+    private static ProductForm toForm(String[] r, Integer clientId, Set<String> seenBarcodes) throws ApiException {
+        ProductForm form = new ProductForm();
 
-                form.setClientId(clientId);
+        form.setBarcode(TsvParser.s(r, 0));
+        form.setName(TsvParser.s(r, 1));
 
-                validateShape(form);
-                normalizeShape(form);
+        String mrpStr = TsvParser.s(r, 2);
+        if (mrpStr.isEmpty()) throw new ApiException(MRP_REQUIRED.value());
+        try {
+            form.setMrp(Double.parseDouble(mrpStr));
+        } catch (NumberFormatException e) {
+            throw new ApiException(INVALID_MRP.value());
+        }
 
-                String bc = form.getBarcode();
-                if (!seenBarcodes.add(bc)) {
-                    throw new ApiException(INVALID_ROW.value());
-                }
+        String img = (r != null && r.length > 3) ? TsvParser.s(r, 3) : "";
+        form.setImageUrl(img.isEmpty() ? null : img);
 
-                validForms.add(form);
+        form.setClientId(clientId);
 
-            } catch (ApiException ex) {
-                err = "Line " + (i + 1) + ": " + ex.getMessage();
-            } catch (Exception ex) {
-                err = "Line " + (i + 1) + ": " + INVALID_ROW.value();
-            }
+        validateShape(form);
+        normalizeShape(form);
 
-            errors.add(err);
+        if (!seenBarcodes.add(form.getBarcode())) {
+            throw new ApiException(INVALID_ROW.value());
         }
-
-        boolean hasAnyError = errors.stream().anyMatch(Objects::nonNull);
-        if (hasAnyError) {
-            byte[] errorTsv = TsvParser.buildErrorTsv(rows, errors);
-            String fname = "product_upload_errors_" + LocalDateTime.now().toString().replace(":", "-") + ".tsv";
-
-            throw new UploadValidationException(
-                    TSV_HAS_ERRORS.value(),
-                    errorTsv,
-                    fname,
-                    "text/tab-separated-values"
-            );
-        }
-
-        return new ProductTsvParseResult(validForms);
+        return form;
     }
 
     private static void validateFlexibleHeader(String[] headerRow) throws ApiException {
@@ -149,6 +117,4 @@ public class ProductTsvParser {
             form.setImageUrl(null);
         }
     }
-
-    public record ProductTsvParseResult(List<ProductForm> forms) {}
 }
\ No newline at end of file
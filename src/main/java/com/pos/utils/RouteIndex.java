@@ -0,0 +1,175 @@
+package com.pos.utils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable access-rule table compiled into one path-segment trie per HTTP method.
+ * A lookup walks the request path in place (no splitting, no regex) and checks the roles
+ * stored on the terminal node; decisions are additionally memoized per (method, role, path).
+ *
+ * Path specs: literal segments, {name} for exactly one segment and * for one or more segments.
+ */
+final class RouteIndex {
+
+    static final String ANY = "*";
+
+    private static final int MAX_MEMO_PATHS = 10_000;
+
+    record Rule(String method, String path, Set<String> roles) {
+    }
+
+    private final Map<String, Node> byMethod;
+    private final Node anyMethod;
+
+    // method -> role -> raw request path -> decision
+    private final Map<String, Map<String, Map<String, Boolean>>> memo = new ConcurrentHashMap<>();
+
+    private RouteIndex(Map<String, Node> byMethod, Node anyMethod) {
+        this.byMethod = byMethod;
+        this.anyMethod = anyMethod;
+    }
+
+    static RouteIndex compile(List<Rule> rules) {
+        Map<String, Builder> builders = new HashMap<>();
+        for (Rule rule : rules) {
+            Builder node = builders.computeIfAbsent(rule.method(), m -> new Builder());
+            for (String segment : segments(rule.path())) {
+                node = node.child(segment, rule.path());
+            }
+            node.roles.addAll(rule.roles());
+        }
+
+        Map<String, Node> byMethod = new HashMap<>();
+        builders.forEach((method, builder) -> byMethod.put(method, builder.build()));
+        return new RouteIndex(Map.copyOf(byMethod), byMethod.get(ANY));
+    }
+
+    boolean isAllowed(String method, String path, String role) {
+        // Only methods that have rules are memoized, so arbitrary request methods cannot grow the memo
+        if (!byMethod.containsKey(method)) return evaluate(method, path, role);
+
+        Map<String, Boolean> decisions = decisionsFor(method, role);
+        Boolean cached = decisions.get(path);
+        if (cached != null) return cached;
+
+        boolean allowed = evaluate(method, path, role);
+        if (decisions.size() >= MAX_MEMO_PATHS) decisions.clear();
+        decisions.put(path, allowed);
+        return allowed;
+    }
+
+    private Map<String, Boolean> decisionsFor(String method, String role) {
+        Map<String, Map<String, Boolean>> byRole = memo.get(method);
+        if (byRole == null) byRole = memo.computeIfAbsent(method, m -> new ConcurrentHashMap<>());
+
+        Map<String, Boolean> decisions = byRole.get(role);
+        if (decisions == null) decisions = byRole.computeIfAbsent(role, r -> new ConcurrentHashMap<>());
+        return decisions;
+    }
+
+    boolean evaluate(String method, String path, String role) {
+        int start = 0;
+        int end = path.length();
+        while (start < end && Character.isWhitespace(path.charAt(start))) start++;
+        while (end > start && Character.isWhitespace(path.charAt(end - 1))) end--;
+        if (start < end && path.charAt(start) == '/') start++;
+        if (end > start && path.charAt(end - 1) == '/') end--;
+
+        int pos = start == end ? end + 1 : start;
+
+        Node node = byMethod.get(method);
+        if (node != null && node.matches(path, pos, end, role)) return true;
+        return anyMethod != null && anyMethod != node && anyMethod.matches(path, pos, end, role);
+    }
+
+    private static List<String> segments(String normalizedPath) {
+        List<String> segments = new ArrayList<>();
+        if (normalizedPath.equals("/")) return segments;
+
+        for (String segment : normalizedPath.substring(1).split("/", -1)) {
+            segments.add(segment);
+        }
+        return segments;
+    }
+
+    private static final class Builder {
+        private final Map<String, Builder> literals = new HashMap<>();
+        private Builder param;
+        private Builder glob;
+        private final Set<String> roles = new HashSet<>();
+
+        Builder child(String segment, String pathSpec) {
+            if (segment.equals(ANY)) {
+                if (glob == null) glob = new Builder();
+                return glob;
+            }
+            if (segment.startsWith("{") && segment.endsWith("}") && segment.length() > 2) {
+                if (param == null) param = new Builder();
+                return param;
+            }
+            if (segment.contains("*") || segment.contains("{") || segment.contains("}")) {
+                throw new IllegalArgumentException("Unsupported path pattern: " + pathSpec);
+            }
+            return literals.computeIfAbsent(segment, s -> new Builder());
+        }
+
+        Node build() {
+            String[] names = literals.keySet().toArray(new String[0]);
+            Node[] children = new Node[names.length];
+            for (int i = 0; i < names.length; i++) {
+                children[i] = literals.get(names[i]).build();
+            }
+            return new Node(
+                    names,
+                    children,
+                    param == null ? null : param.build(),
+                    glob == null ? null : glob.build(),
+                    Set.copyOf(roles),
+                    roles.contains(ANY)
+            );
+        }
+    }
+
+    private record Node(String[] literals, Node[] children, Node param, Node glob, Set<String> roles, boolean anyRole) {
+
+        // pos is the start of the next segment; pos > end means the whole path has been consumed
+        boolean matches(String path, int pos, int end, String role) {
+            if (pos > end) {
+                return anyRole || roles.contains(role);
+            }
+
+            int segmentEnd = path.indexOf('/', pos);
+            if (segmentEnd < 0 || segmentEnd > end) segmentEnd = end;
+            int length = segmentEnd - pos;
+            int next = segmentEnd + 1;
+
+            for (int i = 0; i < literals.length; i++) {
+                String literal = literals[i];
+                if (literal.length() == length
+                        && path.regionMatches(pos, literal, 0, length)
+                        && children[i].matches(path, next, end, role)) {
+                    return true;
+                }
+            }
+            if (param != null && length > 0 && param.matches(path, next, end, role)) {
+                return true;
+            }
+            if (glob != null) {
+                // * swallows one or more whole segments, shortest first
+                while (true) {
+                    if (glob.matches(path, next, end, role)) return true;
+                    if (next > end) return false;
+                    int following = path.indexOf('/', next);
+                    next = (following < 0 || following > end) ? end + 1 : following + 1;
+                }
+            }
+            return false;
+        }
+    }
+}
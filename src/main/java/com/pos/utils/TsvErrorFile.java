@@ -0,0 +1,145 @@
+package com.pos.utils;
+
+import com.pos.exception.ApiException;
+import com.pos.exception.UploadValidationException;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import static com.pos.model.constants.ErrorMessages.FAILED_TO_WRITE_TSV_ERRORS;
+import static com.pos.model.constants.ErrorMessages.TSV_HAS_ERRORS;
+
+/**
+ * Error report for an upload, written row by row to a temp file: every input row plus an "error" column.
+ * Masked columns (passwords) are written blank. The file is deleted on close unless it was handed to an
+ * {@link UploadValidationException}; reports that were handed off but never streamed are removed by
+ * {@link #deleteStale(Duration)}.
+ */
+public final class TsvErrorFile implements Closeable {
+
+    private static final String CONTENT_TYPE = "text/tab-separated-values";
+    private static final String TEMP_PREFIX = "pos_upload_errors_";
+    private static final String TEMP_SUFFIX = ".tsv";
+
+    private final Path path;
+    private final BufferedWriter writer;
+    private final int[] maskedColumns;
+    private boolean hasErrors;
+    private boolean handedOff;
+
+    private TsvErrorFile(Path path, BufferedWriter writer, int[] maskedColumns) {
+        this.path = path;
+        this.writer = writer;
+        this.maskedColumns = maskedColumns;
+    }
+
+    public static TsvErrorFile create(String[] header, int... maskedColumns) throws ApiException {
+        Path path = null;
+        try {
+            path = Files.createTempFile(TEMP_PREFIX, TEMP_SUFFIX);
+            TsvErrorFile file = new TsvErrorFile(path, Files.newBufferedWriter(path, StandardCharsets.UTF_8), maskedColumns);
+            file.writer.write(TsvParser.join(header));
+            file.writer.write("\terror\n");
+            return file;
+        } catch (IOException e) {
+            deleteQuietly(path);
+            throw new ApiException(FAILED_TO_WRITE_TSV_ERRORS.value(), e);
+        }
+    }
+
+    public void write(String[] row, String error) throws ApiException {
+        if (error != null) hasErrors = true;
+        try {
+            append(row, error == null ? "" : error);
+        } catch (IOException e) {
+            throw new ApiException(FAILED_TO_WRITE_TSV_ERRORS.value(), e);
+        }
+    }
+
+    public boolean hasErrors() {
+        return hasErrors;
+    }
+
+    public UploadValidationException toException(String errorFilePrefix) throws ApiException {
+        try {
+            writer.close();
+        } catch (IOException e) {
+            throw new ApiException(FAILED_TO_WRITE_TSV_ERRORS.value(), e);
+        }
+        handedOff = true;
+
+        String fname = errorFilePrefix + "_" + LocalDateTime.now().toString().replace(":", "-") + ".tsv";
+        return new UploadValidationException(TSV_HAS_ERRORS.value(), path, fname, CONTENT_TYPE);
+    }
+
+    @Override
+    public void close() {
+        if (handedOff) return;
+        try {
+            writer.close();
+        } catch (IOException ignored) {
+            // file is discarded below
+        }
+        deleteQuietly(path);
+    }
+
+    /**
+     * Deletes reports in the temp dir older than {@code maxAge}: ones handed off for a response that never
+     * got streamed (client gone, handler failed) or left behind by a crash.
+     *
+     * @return number of files deleted
+     */
+    public static int deleteStale(Duration maxAge) {
+        Path tmp = Path.of(System.getProperty("java.io.tmpdir"));
+        FileTime cutoff = FileTime.from(Instant.now().minus(maxAge));
+        int deleted = 0;
+        try (Stream<Path> files = Files.list(tmp)) {
+            for (Path p : (Iterable<Path>) files::iterator) {
+                String name = p.getFileName().toString();
+                if (!name.startsWith(TEMP_PREFIX) || !name.endsWith(TEMP_SUFFIX)) continue;
+                try {
+                    if (Files.getLastModifiedTime(p).compareTo(cutoff) < 0 && Files.deleteIfExists(p)) deleted++;
+                } catch (IOException ignored) {
+                    // being streamed or already gone; next sweep retries
+                }
+            }
+        } catch (IOException ignored) {
+            // temp dir unreadable; nothing to sweep
+        }
+        return deleted;
+    }
+
+    private void append(String[] row, String error) throws IOException {
+        writer.write(TsvParser.join(mask(row)));
+        writer.write('\t');
+        writer.write(error);
+        writer.write('\n');
+    }
+
+    private String[] mask(String[] row) {
+        if (maskedColumns.length == 0 || row == null) return row;
+        String[] copy = row.clone();
+        for (int idx : maskedColumns) {
+            if (idx < copy.length) copy[idx] = "";
+        }
+        return copy;
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path == null) return;
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ignored) {
+            // temp dir is cleaned by the OS
+        }
+    }
+}
@@ -1,11 +1,10 @@
 package com.pos.utils;
 
 import com.pos.exception.ApiException;
+import org.springframework.web.multipart.MultipartFile;
 
 import java.io.*;
 import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
-import java.util.List;
 
 import static com.pos.model.constants.ErrorMessages.*;
 
@@ -13,17 +12,15 @@ public class TsvParser {
 
     private TsvParser() {}
 
-    public static List<String[]> read(InputStream is) throws ApiException {
-        try (BufferedReader br = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8))) {
-            List<String[]> rows = new ArrayList<>();
-            String line;
-            while ((line = br.readLine()) != null) {
-                if (!line.trim().isEmpty()) rows.add(line.split("\t", -1));
-            }
-            if (rows.isEmpty()) throw new ApiException(EMPTY_TSV_FILE.value());
-            return rows;
+    public static Reader open(InputStream is) {
+        return new Reader(is);
+    }
+
+    public static Reader open(MultipartFile file) throws ApiException {
+        try {
+            return open(file.getInputStream());
         } catch (IOException e) {
-            throw new ApiException(FAILED_TO_READ_TSV_FILE.value());
+            throw new ApiException(FAILED_TO_READ_TSV_FILE.value(), e);
         }
     }
 
@@ -43,22 +40,7 @@ public class TsvParser {
         return row[idx] == null ? "" : row[idx].trim();
     }
 
-    public static byte[] buildErrorTsv(List<String[]> originalRows, List<String> rowErrors) {
-        StringBuilder sb = new StringBuilder();
-
-        String[] header = originalRows.get(0);
-        sb.append(join(header)).append("\t").append("error").append("\n");
-
-        for (int i = 1; i < originalRows.size(); i++) {
-            String[] row = originalRows.get(i);
-            String err = rowErrors.get(i - 1);
-            sb.append(join(row)).append("\t").append(err == null ? "" : err).append("\n");
-        }
-
-        return sb.toString().getBytes(StandardCharsets.UTF_8);
-    }
-
-    private static String join(String[] cols) {
+    static String join(String[] cols) {
         if (cols == null || cols.length == 0) return "";
         StringBuilder sb = new StringBuilder();
         for (int i = 0; i < cols.length; i++) {
@@ -67,4 +49,53 @@ public class TsvParser {
         }
         return sb.toString();
     }
-}
\ No newline at end of file
+
+    /**
+     * Reads a TSV one non-blank row at a time, so only the current line is held in memory.
+     */
+    public static final class Reader implements Closeable {
+
+        private final BufferedReader br;
+        private int rowNumber;
+
+        private Reader(InputStream is) {
+            this.br = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8));
+        }
+
+        public String[] header() throws ApiException {
+            String[] header = next();
+            if (header == null) throw new ApiException(EMPTY_TSV_FILE.value());
+            return header;
+        }
+
+        /** Next non-blank row, or null at end of file. */
+        public String[] next() throws ApiException {
+            try {
+                String line;
+                while ((line = br.readLine()) != null) {
+                    if (!line.trim().isEmpty()) {
+                        rowNumber++;
+                        return line.split("\t", -1);
+                    }
+                }
+                return null;
+            } catch (IOException e) {
+                throw new ApiException(FAILED_TO_READ_TSV_FILE.value(), e);
+            }
+        }
+
+        /** 1-based position of the last returned row among non-blank rows, header included. */
+        public int rowNumber() {
+            return rowNumber;
+        }
+
+        @Override
+        public void close() {
+            try {
+                br.close();
+            } catch (IOException ignored) {
+                // input is fully consumed or abandoned; nothing to recover
+            }
+        }
+    }
+}
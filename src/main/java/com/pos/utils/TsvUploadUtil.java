@@ -1,15 +1,16 @@
 package com.pos.utils;
 
 import com.pos.exception.ApiException;
-import com.pos.exception.UploadValidationException;
 
-import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Objects;
+
+import static com.pos.model.constants.ErrorMessages.INVALID_ROW;
 
 public class TsvUploadUtil {
 
+    public static final int CHUNK_SIZE = 1000;
+
     private TsvUploadUtil() {}
 
     @FunctionalInterface
@@ -17,45 +18,112 @@ public class TsvUploadUtil {
         T map(String[] row, int lineNumber) throws ApiException;
     }
 
-    public static <T> List<T> parseOrThrow(
-            List<String[]> rows,
-            String errorFilePrefix,
-            RowMapper<T> mapper
+    @FunctionalInterface
+    public interface ChunkConsumer<T> {
+        void accept(List<T> chunk) throws ApiException;
+    }
+
+    /**
+     * An upload whose rows are read and mapped only while it is being consumed, in bounded chunks.
+     * Consume it inside the persisting transaction so a bad row later in the file rolls back earlier chunks.
+     */
+    @FunctionalInterface
+    public interface ChunkSource<T> {
+        int forEachChunk(ChunkConsumer<T> consumer) throws ApiException;
+    }
+
+    /** Reads the upload again from its first line. */
+    @FunctionalInterface
+    public interface Reopener {
+        TsvParser.Reader open() throws ApiException;
+    }
+
+    /**
+     * How to build the error report of an upload: the download name prefix, a way to read the upload
+     * again (rows before the first error are copied only once there is one) and the columns written
+     * blank in the report, e.g. passwords.
+     */
+    public record ErrorReport(String filePrefix, Reopener source, int... maskedColumns) {
+    }
+
+    /**
+     * Maps the remaining rows of {@code reader} one at a time and passes them to {@code consumer} in chunks
+     * of {@code chunkSize}. Nothing is written to disk while rows are valid. On the first failing row the
+     * error file is created, the rows before it are copied from a fresh read of the upload, and from then on
+     * every row is written to it and no further chunks are passed on; after the last row it is thrown as an
+     * UploadValidationException. Memory stays at one chunk regardless of file size.
+     *
+     * @return number of rows passed to the consumer
+     */
+    public static <T> int streamOrThrow(
+            TsvParser.Reader reader,
+            String[] header,
+            ErrorReport report,
+            RowMapper<T> mapper,
+            int chunkSize,
+            ChunkConsumer<T> consumer
     ) throws ApiException {
 
-        List<String> errors = new ArrayList<>();
-        List<T> out = new ArrayList<>();
+        List<T> chunk = new ArrayList<>(chunkSize);
+        int accepted = 0;
+        TsvErrorFile errorFile = null;
+
+        try {
+            String[] r;
+            while ((r = reader.next()) != null) {
+                int lineNumber = reader.rowNumber();
+                String err = null;
+
+                try {
+                    T obj = mapper.map(r, lineNumber);
+                    if (errorFile == null) chunk.add(obj);
+                } catch (ApiException ex) {
+                    err = "Line " + lineNumber + ": " + ex.getMessage();
+                } catch (Exception ex) {
+                    err = "Line " + lineNumber + ": " + INVALID_ROW.value();
+                }
 
-        for (int i = 1; i < rows.size(); i++) {
-            String[] r = rows.get(i);
-            String err = null;
+                if (err != null && errorFile == null) {
+                    errorFile = TsvErrorFile.create(header, report.maskedColumns());
+                    copyRowsBefore(report.source(), lineNumber, errorFile);
+                    chunk.clear();
+                }
 
-            try {
-                T obj = mapper.map(r, i + 1); // line number in file
-                out.add(obj);
-            } catch (ApiException ex) {
-                err = "Line " + (i + 1) + ": " + ex.getMessage();
-            } catch (Exception ex) {
-                err = "Line " + (i + 1) + ": Invalid row";
+                if (errorFile != null) {
+                    errorFile.write(r, err);
+                } else if (chunk.size() >= chunkSize) {
+                    accepted += flush(chunk, consumer);
+                }
             }
 
-            errors.add(err);
+            if (errorFile != null) {
+                throw errorFile.toException(report.filePrefix());
+            }
+            if (!chunk.isEmpty()) {
+                accepted += flush(chunk, consumer);
+            }
+            return accepted;
+        } finally {
+            // no-op once handed to the exception; deletes the report on any other way out
+            if (errorFile != null) errorFile.close();
         }
+    }
 
-        boolean hasAnyError = errors.stream().anyMatch(Objects::nonNull);
-        if (hasAnyError) {
-            byte[] errorTsv = TsvParser.buildErrorTsv(rows, errors);
-            String fname = errorFilePrefix + "_" +
-                    LocalDateTime.now().toString().replace(":", "-") + ".tsv";
-
-            throw new UploadValidationException(
-                    "TSV has errors",
-                    errorTsv,
-                    fname,
-                    "text/tab-separated-values"
-            );
+    // All rows before the first error mapped cleanly, so they go in with an empty error column
+    private static void copyRowsBefore(Reopener source, int lineNumber, TsvErrorFile errorFile) throws ApiException {
+        try (TsvParser.Reader again = source.open()) {
+            again.header();
+            String[] r;
+            while ((r = again.next()) != null && again.rowNumber() < lineNumber) {
+                errorFile.write(r, null);
+            }
         }
+    }
 
-        return out;
+    private static <T> int flush(List<T> chunk, ChunkConsumer<T> consumer) throws ApiException {
+        int size = chunk.size();
+        consumer.accept(List.copyOf(chunk));
+        chunk.clear();
+        return size;
     }
 }
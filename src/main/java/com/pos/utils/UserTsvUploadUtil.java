@@ -3,6 +3,7 @@ package com.pos.utils;
 import com.pos.exception.ApiException;
 import com.pos.model.constants.UserRole;
 import com.pos.pojo.User;
+import org.springframework.web.multipart.MultipartFile;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -16,10 +17,30 @@ public class UserTsvUploadUtil {
     // Keep regex here so DTO doesn't carry it around
     private static final String EMAIL_REGEX = "^[A-Za-z0-9._%+-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$";
 
+    private static final String ERROR_FILE_PREFIX = "user_upload_errors";
+
+    // Plaintext passwords never reach the error report
+    private static final int PASSWORD_COLUMN = 2;
+
     public static Set<String> newSeenEmails() {
         return new HashSet<>();
     }
 
+    /** Rows are read and validated only when the returned source is consumed. */
+    public static TsvUploadUtil.ChunkSource<User> parse(MultipartFile file) {
+        return consumer -> {
+            try (TsvParser.Reader reader = TsvParser.open(file)) {
+                String[] header = reader.header();
+                TsvParser.validateHeader(header, "email", "role", "password");
+
+                Set<String> seenEmails = newSeenEmails();
+                return TsvUploadUtil.streamOrThrow(reader, header,
+                        new TsvUploadUtil.ErrorReport(ERROR_FILE_PREFIX, () -> TsvParser.open(file), PASSWORD_COLUMN),
+                        (r, lineNumber) -> parseRowOrThrow(r, lineNumber, seenEmails), TsvUploadUtil.CHUNK_SIZE, consumer);
+            }
+        };
+    }
+
     public static User parseRowOrThrow(String[] r, int lineNumber, Set<String> seenEmails) throws ApiException {
         String email = TsvParser.s(r, 0).toLowerCase();
         String roleStr = TsvParser.s(r, 1).toUpperCase();
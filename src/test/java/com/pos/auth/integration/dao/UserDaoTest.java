@@ -10,6 +10,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Import;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -81,4 +82,33 @@ class UserDaoTest extends AbstractDaoTest {
     void selectByIdThrowsWhenIdNull() {
         assertThrows(IllegalArgumentException.class, () -> userDao.selectById(null));
     }
-}
\ No newline at end of file
+
+    @Test
+    void findByEmailsReturnsOnlyExistingUsers() {
+        List<User> out = userDao.findByEmails(List.of("a@b.com", "id@b.com", "missing@b.com"));
+
+        assertEquals(2, out.size());
+        assertTrue(out.stream().anyMatch(u -> u.getId().equals(operatorUser.getId())));
+        assertTrue(out.stream().anyMatch(u -> u.getId().equals(supervisorUser.getId())));
+    }
+
+    @Test
+    void findByEmailsReturnsEmptyWhenNoEmails() {
+        assertTrue(userDao.findByEmails(List.of()).isEmpty());
+        assertTrue(userDao.findByEmails(null).isEmpty());
+    }
+
+    @Test
+    void insertAllWritesEveryUser() {
+        userDao.insertAll(List.of(
+                TestEntities.newUser("c@b.com", "$2a$10$hash", UserRole.OPERATOR),
+                TestEntities.newUser("d@b.com", "$2a$10$hash", UserRole.SUPERVISOR)));
+
+        User out = userDao.findByEmail("d@b.com").orElseThrow();
+        assertEquals(UserRole.SUPERVISOR, out.getRole());
+        assertEquals("$2a$10$hash", out.getPasswordHash());
+        assertEquals(0, out.getVersion());
+        assertNotNull(out.getCreatedAt());
+        assertEquals(4, userDao.findByEmails(List.of("a@b.com", "id@b.com", "c@b.com", "d@b.com")).size());
+    }
+}
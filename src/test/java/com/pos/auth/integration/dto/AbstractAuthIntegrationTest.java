@@ -1,8 +1,6 @@
 package com.pos.auth.integration.dto;
 
 import com.pos.setup.AbstractIntegrationTest;
-import jakarta.servlet.http.HttpServletRequest;
-import jakarta.servlet.http.HttpSession;
 import org.junit.jupiter.api.AfterEach;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -10,9 +8,6 @@ import org.springframework.security.core.context.SecurityContextHolder;
 
 import java.util.List;
 
-import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.when;
-
 public abstract class AbstractAuthIntegrationTest extends AbstractIntegrationTest {
 
     @AfterEach
@@ -39,11 +34,4 @@ public abstract class AbstractAuthIntegrationTest extends AbstractIntegrationTes
                 )
         );
     }
-
-    protected HttpServletRequest mockRequestWithSession() {
-        HttpServletRequest request = mock(HttpServletRequest.class);
-        HttpSession session = mock(HttpSession.class);
-        when(request.getSession(true)).thenReturn(session);
-        return request;
-    }
 }
\ No newline at end of file
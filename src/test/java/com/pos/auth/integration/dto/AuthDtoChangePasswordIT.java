@@ -6,9 +6,9 @@ import com.pos.exception.ApiException;
 import com.pos.model.form.ChangePasswordForm;
 import com.pos.model.form.LoginForm;
 import com.pos.model.form.SignupForm;
-import jakarta.servlet.http.HttpServletRequest;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.security.authentication.AnonymousAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -43,8 +43,7 @@ class AuthDtoChangePasswordIT extends AbstractAuthIntegrationTest {
         login.setEmail("x@y.com");
         login.setPassword("newPass");
 
-        HttpServletRequest request = mockRequestWithSession();
-        assertNotNull(authDto.login(login, request));
+        assertNotNull(authDto.login(login, new MockHttpServletResponse()));
     }
 
     @Test
@@ -5,21 +5,23 @@ import com.pos.exception.ApiException;
 import com.pos.model.data.AuthData;
 import com.pos.model.form.LoginForm;
 import com.pos.model.form.SignupForm;
-import jakarta.servlet.http.HttpServletRequest;
-import jakarta.servlet.http.HttpSession;
+import com.pos.model.constants.UserRole;
+import com.pos.security.AuthPrincipal;
+import com.pos.security.JwtTokenService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.Mockito.*;
 
 class AuthDtoLoginIT extends AbstractAuthIntegrationTest {
 
     @Autowired AuthDto authDto;
+    @Autowired JwtTokenService tokenService;
 
     @Test
-    void shouldLoginAndSetSecurityContext_happyFlow() throws Exception {
+    void shouldLoginAndIssueToken_happyFlow() throws Exception {
         SignupForm signup = new SignupForm();
         signup.setEmail("  A@B.COM  ");
         signup.setPassword("p");
@@ -29,16 +31,18 @@ class AuthDtoLoginIT extends AbstractAuthIntegrationTest {
         form.setEmail("  A@B.COM  ");
         form.setPassword("p");
 
-        HttpServletRequest request = mockRequestWithSession();
-        HttpSession session = request.getSession(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
 
-        AuthData out = authDto.login(form, request);
+        AuthData out = authDto.login(form, response);
 
-        assertNotNull(out);
-        verify(session).setAttribute(
-                eq(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY),
-                any()
-        );
+        assertNotNull(out.getToken());
+        AuthPrincipal principal = tokenService.parse(out.getToken()).orElseThrow();
+        assertEquals(out.getUserId(), principal.getUserId());
+        assertEquals(UserRole.OPERATOR, principal.getRole());
+
+        String cookie = response.getHeader(HttpHeaders.SET_COOKIE);
+        assertTrue(cookie.startsWith(JwtTokenService.TOKEN_COOKIE + "=" + out.getToken()));
+        assertTrue(cookie.contains("HttpOnly"));
     }
 
     @Test
@@ -47,7 +51,8 @@ class AuthDtoLoginIT extends AbstractAuthIntegrationTest {
         form.setEmail("missing@b.com");
         form.setPassword("wrong");
 
-        HttpServletRequest request = mockRequestWithSession();
-        assertThrows(ApiException.class, () -> authDto.login(form, request));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertThrows(ApiException.class, () -> authDto.login(form, response));
+        assertNull(response.getHeader(HttpHeaders.SET_COOKIE));
     }
 }
\ No newline at end of file
@@ -4,8 +4,10 @@ import com.pos.dao.UserDao;
 import com.pos.dto.AuthDto;
 import com.pos.exception.ApiException;
 import com.pos.model.constants.ErrorMessages;
+import com.pos.model.constants.UserRole;
 import com.pos.model.data.AuthData;
 import com.pos.model.form.SignupForm;
+import com.pos.security.AuthPrincipal;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.AnonymousAuthenticationToken;
@@ -37,6 +39,22 @@ class AuthDtoSessionInfoIT extends AbstractAuthIntegrationTest {
         assertEquals("string@id.com", out.getEmail());
     }
 
+    @Test
+    void shouldReturnSessionInfoWhenPrincipalComesFromToken() throws Exception {
+        SignupForm signup = new SignupForm();
+        signup.setEmail("token@id.com");
+        signup.setPassword("p");
+        authDto.signup(signup);
+
+        Integer userId = userDao.findByEmail("token@id.com").orElseThrow().getId();
+        authenticatePrincipal(new AuthPrincipal(userId, UserRole.OPERATOR), "ROLE_OPERATOR");
+
+        AuthData out = authDto.getSessionInfo();
+
+        assertEquals(userId, out.getUserId());
+        assertEquals("token@id.com", out.getEmail());
+    }
+
     @Test
     void shouldThrowWhenNotLoggedIn() {
         SecurityContextHolder.clearContext();
@@ -1,19 +1,24 @@
 package com.pos.auth.unit;
 
 import com.pos.api.AuthApi;
+import com.pos.api.UserPrincipalCache;
 import com.pos.dao.UserDao;
 import com.pos.exception.ApiException;
 import com.pos.model.constants.UserRole;
 import com.pos.pojo.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.util.List;
 import java.util.Optional;
 
 import static com.pos.model.constants.ErrorMessages.*;
@@ -30,13 +35,20 @@ class AuthApiTest {
     @Mock
     private UserDao userDao;
 
-    private final BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
+    @Mock
+    private UserPrincipalCache principalCache;
+
+    @Spy
+    private BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
 
     private String email;
     private String password;
 
     @BeforeEach
     void setupData() {
+        ReflectionTestUtils.setField(authApi, "meterRegistry", meterRegistry);
         email = "a@b.com";
         password = "pass123";
     }
@@ -91,10 +103,27 @@ class AuthApiTest {
 
         assertSame(u, out);
         verify(userDao).findByEmail(email);
+        verify(principalCache).put(u, 0L);
         verify(userDao, never()).insert(any());
         verifyNoMoreInteractions(userDao);
     }
 
+    @Test
+    void validateLoginChecksStoredHash_evenWhenUserIsCached() throws Exception {
+        User changed = userWithHash(10, email, "newPass", UserRole.SUPERVISOR);
+        when(userDao.findByEmail(email)).thenReturn(Optional.of(changed));
+
+        ApiException ex = assertThrows(ApiException.class, () -> authApi.validateLogin(email, password));
+
+        assertEquals(INVALID_CREDENTIALS.value(), ex.getMessage());
+        assertSame(changed, authApi.validateLogin(email, "newPass"));
+        verify(userDao, times(2)).findByEmail(email);
+        verify(principalCache, never()).getById(any());
+        assertEquals(1, meterRegistry.get("pos.auth.login").tag("outcome", "failure").timer().count());
+        assertEquals(1, meterRegistry.get("pos.auth.login").tag("outcome", "success").timer().count());
+        assertEquals(2, meterRegistry.get("pos.auth.password.check").timer().count());
+    }
+
     @Test
     void validateLoginThrowsWhenUserNotFound() {
         String missingEmail = "missing@b.com";
@@ -130,9 +159,20 @@ class AuthApiTest {
 
         assertSame(u, out);
         verify(userDao).selectById(10);
+        verify(principalCache).put(u, 0L);
         verifyNoMoreInteractions(userDao);
     }
 
+    @Test
+    void getByIdServesCachedUserWithoutDatabase() throws Exception {
+        User cached = new User();
+        cached.setId(10);
+        when(principalCache.getById(10)).thenReturn(cached);
+
+        assertSame(cached, authApi.getById(10));
+        verifyNoInteractions(userDao);
+    }
+
     @Test
     void getByIdThrowsWhenNotFound() {
         when(userDao.selectById(99)).thenReturn(null);
@@ -164,6 +204,7 @@ class AuthApiTest {
         assertFalse(encoder.matches(current, u.getPasswordHash()));
 
         verify(userDao).selectById(userId);
+        verify(principalCache).invalidate(List.of(userId), List.of(email));
         verifyNoMoreInteractions(userDao);
     }
 
@@ -192,4 +233,36 @@ class AuthApiTest {
         verify(userDao).selectById(userId);
         verifyNoMoreInteractions(userDao);
     }
-}
\ No newline at end of file
+
+    @Test
+    void needsRehashWhenStoredCostDiffersFromConfigured() {
+        User cheap = new User();
+        cheap.setPasswordHash(new BCryptPasswordEncoder(4).encode(password));
+
+        assertTrue(authApi.needsRehash(cheap));
+        assertFalse(authApi.needsRehash(userWithHash(1, email, password, UserRole.OPERATOR)));
+    }
+
+    @Test
+    void rehashPasswordStoresConfiguredCostAndInvalidatesCache() throws Exception {
+        User u = new User();
+        u.setId(3);
+        u.setEmail(email);
+        u.setPasswordHash(new BCryptPasswordEncoder(4).encode(password));
+        when(userDao.selectById(3)).thenReturn(u);
+
+        authApi.rehashPassword(3, password);
+
+        assertEquals(10, AuthApi.hashCost(u.getPasswordHash()));
+        assertTrue(encoder.matches(password, u.getPasswordHash()));
+        verify(principalCache).invalidate(List.of(3), List.of(email));
+        assertEquals(1, meterRegistry.get("pos.auth.password.rehashed").counter().count());
+    }
+
+    @Test
+    void hashCostReadsBcryptCostOrMinusOne() {
+        assertEquals(12, AuthApi.hashCost("$2a$12$abcdefghijklmnopqrstuv"));
+        assertEquals(-1, AuthApi.hashCost("plain"));
+        assertEquals(-1, AuthApi.hashCost(null));
+    }
+}
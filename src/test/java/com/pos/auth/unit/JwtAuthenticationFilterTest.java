@@ -0,0 +1,67 @@
+package com.pos.auth.unit;
+
+import com.pos.model.constants.UserRole;
+import com.pos.security.AuthPrincipal;
+import com.pos.security.JwtAuthenticationFilter;
+import com.pos.security.JwtTokenService;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtAuthenticationFilterTest {
+
+    private final JwtTokenService tokenService = new JwtTokenService("0123456789abcdef0123456789abcdef", 3600);
+    private final JwtAuthenticationFilter filter = new JwtAuthenticationFilter(tokenService);
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private Authentication run(MockHttpServletRequest request) throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        assertNotNull(chain.getRequest());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    @Test
+    void bearerTokenShouldAuthenticateWithPrincipalAndRole() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/orders");
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + tokenService.issue(new AuthPrincipal(7, UserRole.SUPERVISOR)));
+
+        Authentication auth = run(request);
+
+        AuthPrincipal principal = (AuthPrincipal) auth.getPrincipal();
+        assertEquals(7, principal.getUserId());
+        assertEquals("ROLE_SUPERVISOR", auth.getAuthorities().stream().map(GrantedAuthority::getAuthority).findFirst().orElseThrow());
+    }
+
+    @Test
+    void tokenCookieShouldAuthenticateWhenNoHeader() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/orders");
+        request.setCookies(new Cookie(JwtTokenService.TOKEN_COOKIE, tokenService.issue(new AuthPrincipal(8, UserRole.OPERATOR))));
+
+        Authentication auth = run(request);
+
+        assertEquals(8, ((AuthPrincipal) auth.getPrincipal()).getUserId());
+    }
+
+    @Test
+    void invalidOrMissingTokenShouldLeaveRequestAnonymous() throws Exception {
+        MockHttpServletRequest invalid = new MockHttpServletRequest("GET", "/orders");
+        invalid.addHeader(HttpHeaders.AUTHORIZATION, "Bearer garbage");
+
+        assertNull(run(invalid));
+        assertNull(run(new MockHttpServletRequest("GET", "/orders")));
+    }
+}
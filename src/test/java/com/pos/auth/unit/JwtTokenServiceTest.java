@@ -0,0 +1,63 @@
+package com.pos.auth.unit;
+
+import com.pos.model.constants.UserRole;
+import com.pos.security.AuthPrincipal;
+import com.pos.security.JwtTokenService;
+import io.jsonwebtoken.security.WeakKeyException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseCookie;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtTokenServiceTest {
+
+    private static final String SECRET = "0123456789abcdef0123456789abcdef";
+
+    private final JwtTokenService tokenService = new JwtTokenService(SECRET, 3600);
+
+    @Test
+    void issuedTokenShouldParseBackToSamePrincipal() {
+        String token = tokenService.issue(new AuthPrincipal(42, UserRole.SUPERVISOR));
+
+        AuthPrincipal principal = tokenService.parse(token).orElseThrow();
+
+        assertEquals(42, principal.getUserId());
+        assertEquals(UserRole.SUPERVISOR, principal.getRole());
+    }
+
+    @Test
+    void parseShouldRejectTokenSignedWithAnotherSecret() {
+        String token = new JwtTokenService("another-secret-another-secret-xx", 3600)
+                .issue(new AuthPrincipal(42, UserRole.SUPERVISOR));
+
+        assertTrue(tokenService.parse(token).isEmpty());
+    }
+
+    @Test
+    void parseShouldRejectTamperedExpiredAndMalformedTokens() {
+        String token = tokenService.issue(new AuthPrincipal(1, UserRole.OPERATOR));
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+        String expired = new JwtTokenService(SECRET, -10).issue(new AuthPrincipal(1, UserRole.OPERATOR));
+
+        assertTrue(tokenService.parse(tampered).isEmpty());
+        assertTrue(tokenService.parse(expired).isEmpty());
+        assertTrue(tokenService.parse("not-a-jwt").isEmpty());
+        assertTrue(tokenService.parse("").isEmpty());
+    }
+
+    @Test
+    void shortSecretShouldFailFast() {
+        assertThrows(WeakKeyException.class, () -> new JwtTokenService("too-short", 3600));
+    }
+
+    @Test
+    void tokenCookieShouldBeHttpOnlyAndExpireWithToken() {
+        ResponseCookie cookie = tokenService.tokenCookie("abc");
+        ResponseCookie cleared = tokenService.clearedTokenCookie();
+
+        assertEquals(JwtTokenService.TOKEN_COOKIE, cookie.getName());
+        assertTrue(cookie.isHttpOnly());
+        assertEquals(3600, cookie.getMaxAge().getSeconds());
+        assertEquals(0, cleared.getMaxAge().getSeconds());
+    }
+}
@@ -0,0 +1,92 @@
+package com.pos.auth.unit;
+
+import com.pos.api.UserPrincipalCache;
+import com.pos.model.constants.UserRole;
+import com.pos.pojo.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserPrincipalCacheTest {
+
+    private final UserPrincipalCache cache = new UserPrincipalCache();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void bind() {
+        cache.bindTo(registry);
+    }
+
+    private double meter(String name, String... tags) {
+        var search = registry.get(name).tag("cache", "userPrincipal").tags(tags);
+        return name.equals("cache.size") ? search.gauge().value() : search.functionCounter().count();
+    }
+
+    private User user(Integer id, String email, UserRole role) {
+        User u = new User();
+        u.setId(id);
+        u.setEmail(email);
+        u.setRole(role);
+        u.setPasswordHash("$2a$10$hash-" + id);
+        return u;
+    }
+
+    @Test
+    void shouldServeDetachedCopiesWithoutPasswordHash_andCountHitsAndMisses() {
+        User source = user(1, "a@b.com", UserRole.SUPERVISOR);
+        cache.put(source, cache.generation());
+
+        User byId = cache.getById(1);
+
+        assertNotSame(source, byId);
+        assertEquals("a@b.com", byId.getEmail());
+        assertEquals(UserRole.SUPERVISOR, byId.getRole());
+        assertNull(byId.getPasswordHash());
+        assertNull(cache.getById(2));
+
+        assertEquals(1, meter("cache.gets", "result", "hit"));
+        assertEquals(1, meter("cache.gets", "result", "miss"));
+        assertEquals(1, meter("cache.size"));
+    }
+
+    @Test
+    void shouldExpireEntriesAfterTtl() {
+        ReflectionTestUtils.setField(cache, "ttlSeconds", 0L);
+        cache.put(user(1, "a@b.com", UserRole.OPERATOR), cache.generation());
+
+        assertNull(cache.getById(1));
+        assertEquals(0, meter("cache.size"));
+    }
+
+    @Test
+    void invalidateShouldEvictByIdOrEmail_andRejectPutsFromOlderGeneration() {
+        long before = cache.generation();
+        cache.put(user(1, "a@b.com", UserRole.OPERATOR), before);
+        cache.put(user(2, "c@d.com", UserRole.OPERATOR), before);
+
+        cache.invalidate(List.of(1), List.of("c@d.com"));
+
+        assertNull(cache.getById(1));
+        assertNull(cache.getById(2));
+
+        cache.put(user(1, "a@b.com", UserRole.SUPERVISOR), before);
+        assertNull(cache.getById(1));
+    }
+
+    @Test
+    void shouldStayWithinMaxEntries() {
+        ReflectionTestUtils.setField(cache, "maxEntries", 2);
+
+        for (int id = 1; id <= 5; id++) {
+            cache.put(user(id, id + "@b.com", UserRole.OPERATOR), cache.generation());
+        }
+
+        assertEquals(2, meter("cache.size"));
+        assertEquals(3, meter("cache.evictions"));
+    }
+}
@@ -1,6 +1,8 @@
 package com.pos.client.integration.dao;
 
 import com.pos.dao.ClientDao;
+import com.pos.dao.PageResult;
+import com.pos.model.data.ClientData;
 import com.pos.pojo.Client;
 import com.pos.setup.AbstractDaoTest;
 import com.pos.setup.TestEntities;
@@ -116,38 +118,47 @@ class ClientDaoTest extends AbstractDaoTest {
     }
 
     @Test
-    void searchByParamsWhenNameFilter() {
+    void searchPageWhenNameFilter() {
         clientDao.insert(TestEntities.newClient("Acme One", "a1@acme.com"));
         clientDao.insert(TestEntities.newClient("Acme Two", "a2@acme.com"));
         clientDao.insert(TestEntities.newClient(betaName, "b@beta.com"));
         em.clear();
 
-        List<Client> out = clientDao.searchByParams(null, "Acme", null, 0, 10);
+        PageResult<ClientData> out = clientDao.searchPage(null, "Acme", null, 0, 10, false);
 
-        assertEquals(2, out.size());
+        assertEquals(2, out.rows().size());
+        assertNull(out.totalCount());
     }
 
     @Test
-    void searchByParamsWhenEmailFilter() {
+    void searchPageWhenEmailFilter() {
         clientDao.insert(TestEntities.newClient(acmeName, "a@acme.com"));
         clientDao.insert(TestEntities.newClient(betaName, "beta@beta.com"));
         em.clear();
 
-        List<Client> out = clientDao.searchByParams(null, null, "beta@", 0, 10);
+        List<ClientData> out = clientDao.searchPage(null, null, "beta@", 0, 10, false).rows();
 
         assertEquals(1, out.size());
         assertEquals(betaName, out.getFirst().getName());
+        assertEquals("beta@beta.com", out.getFirst().getEmail());
+        assertNotNull(out.getFirst().getId());
     }
 
     @Test
-    void getCountWhenNameFilter() {
+    void searchPageShouldReturnTotalWithPage_andCountPastTheLastPage() {
         clientDao.insert(TestEntities.newClient("Acme One", "a1@acme.com"));
         clientDao.insert(TestEntities.newClient("Acme Two", "a2@acme.com"));
         clientDao.insert(TestEntities.newClient(betaName, "b@beta.com"));
         em.clear();
 
-        long count = clientDao.getCount(null, "Acme", null);
+        PageResult<ClientData> first = clientDao.searchPage(null, "Acme", null, 0, 1, true);
+        assertEquals(1, first.rows().size());
+        assertEquals(2L, first.totalCount());
+
+        PageResult<ClientData> beyond = clientDao.searchPage(null, "Acme", null, 5, 1, true);
+        assertTrue(beyond.rows().isEmpty());
+        assertEquals(2L, beyond.totalCount());
 
-        assertEquals(2L, count);
+        assertEquals(0L, clientDao.searchPage(null, "Nobody", null, 0, 10, true).totalCount());
     }
 }
\ No newline at end of file
@@ -22,7 +22,7 @@ class ClientDtoSearchIT extends AbstractClientDtoIntegrationTest {
         flushAndClear();
 
         PaginatedResponse<ClientData> resp =
-                clientDto.getClients(null, "  Ac  ", null, 0, 10);
+                clientDto.getClients(null, "  Ac  ", null, 0, 10, true);
 
         assertNotNull(resp);
         assertTrue(resp.getTotalCount() >= 1);
@@ -2,7 +2,9 @@ package com.pos.client.unit;
 
 import com.pos.api.ClientApi;
 import com.pos.dao.ClientDao;
+import com.pos.dao.PageResult;
 import com.pos.exception.ApiException;
+import com.pos.model.data.ClientData;
 import com.pos.pojo.Client;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -226,24 +228,13 @@ class ClientApiTest {
 
     @Test
     void searchShouldDelegateToDao() {
-        List<Client> expected = List.of(existingClient);
-        when(clientDao.searchByParams(1, "n", "e", 0, 10)).thenReturn(expected);
+        PageResult<ClientData> expected = new PageResult<>(List.of(new ClientData()), 5L);
+        when(clientDao.searchPage(1, "n", "e", 0, 10, true)).thenReturn(expected);
 
-        List<Client> out = clientApi.search(1, "n", "e", 0, 10);
+        PageResult<ClientData> out = clientApi.search(1, "n", "e", 0, 10, true);
 
         assertSame(expected, out);
-        verify(clientDao).searchByParams(1, "n", "e", 0, 10);
-        verifyNoMoreInteractions(clientDao);
-    }
-
-    @Test
-    void getCountShouldDelegateToDao() {
-        when(clientDao.getCount(1, "n", "e")).thenReturn(5L);
-
-        Long out = clientApi.getCount(1, "n", "e");
-
-        assertEquals(5L, out);
-        verify(clientDao).getCount(1, "n", "e");
+        verify(clientDao).searchPage(1, "n", "e", 0, 10, true);
         verifyNoMoreInteractions(clientDao);
     }
 
@@ -0,0 +1,99 @@
+package com.pos.dao;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryShapeTest {
+
+    private static QueryShape shape() {
+        return QueryShape.from("Product p")
+                .where("barcode", "p.barcode = :barcode")
+                .where("clientId", "p.clientId = :clientId")
+                .where("name", "LOWER(p.name) LIKE :name")
+                .orderBy("p.id");
+    }
+
+    @Test
+    void select_shouldEmitOnlyPresentPredicates() {
+        QueryShape.Compiled compiled = shape().select("p", QueryShape.filters().with("barcode", "b1").with("name", null));
+
+        assertEquals("SELECT p FROM Product p WHERE p.barcode = :barcode ORDER BY p.id", compiled.jpql());
+        assertEquals(List.of("barcode"), compiled.params());
+    }
+
+    @Test
+    void select_shouldOmitWhere_whenNoFilters() {
+        QueryShape.Compiled compiled = shape().select("p.id", QueryShape.filters());
+
+        assertEquals("SELECT p.id FROM Product p ORDER BY p.id", compiled.jpql());
+        assertTrue(compiled.params().isEmpty());
+    }
+
+    @Test
+    void count_shouldShareWhereClause_withoutOrderBy() {
+        QueryShape.Filters filters = QueryShape.filters().with("clientId", 7).with("name", "%x%");
+
+        QueryShape s = shape();
+        assertEquals("SELECT COUNT(p) FROM Product p WHERE p.clientId = :clientId AND LOWER(p.name) LIKE :name",
+                s.count("p", filters).jpql());
+        assertEquals("SELECT p FROM Product p WHERE p.clientId = :clientId AND LOWER(p.name) LIKE :name ORDER BY p.id",
+                s.select("p", filters).jpql());
+    }
+
+    @Test
+    void total_shouldLoadOncePerFilterValues_withinTtl() {
+        QueryShape s = shape();
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals(5, s.total(QueryShape.filters().with("barcode", "a"), 60_000, () -> loads.incrementAndGet() * 5L));
+        assertEquals(5, s.total(QueryShape.filters().with("barcode", "a"), 60_000, () -> loads.incrementAndGet() * 5L));
+        assertEquals(10, s.total(QueryShape.filters().with("barcode", "b"), 60_000, () -> loads.incrementAndGet() * 5L));
+        assertEquals(15, s.total(QueryShape.filters().with("clientId", "a"), 60_000, () -> loads.incrementAndGet() * 5L));
+
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void total_shouldAlwaysLoad_whenTtlIsZero() {
+        QueryShape s = shape();
+        AtomicInteger loads = new AtomicInteger();
+
+        s.total(QueryShape.filters(), 0, loads::incrementAndGet);
+        s.total(QueryShape.filters(), 0, loads::incrementAndGet);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void rememberTotal_shouldServeLaterTotals() {
+        QueryShape s = shape();
+        s.rememberTotal(QueryShape.filters().with("name", "%x%"), 7, 60_000);
+
+        assertEquals(7, s.total(QueryShape.filters().with("name", "%x%"), 60_000, () -> fail("should not count")));
+    }
+
+    @Test
+    void select_shouldReuseCompiledShape_forSameFilterCombination() {
+        QueryShape s = shape();
+
+        QueryShape.Compiled first = s.select("p", QueryShape.filters().with("barcode", "a"));
+        QueryShape.Compiled second = s.select("p", QueryShape.filters().with("barcode", "b"));
+
+        assertSame(first, second);
+        assertNotSame(first, s.select("p", QueryShape.filters().with("clientId", 1)));
+    }
+
+    @Test
+    void compiled_shouldListEveryParamOfActivePredicate() {
+        QueryShape s = QueryShape.from("Order o")
+                .where("cursorAt", "(o.updatedAt < :cursorAt OR (o.updatedAt = :cursorAt AND o.id < :cursorId))");
+
+        QueryShape.Compiled compiled = s.select("o", QueryShape.filters().with("cursorAt", 1).with("cursorId", 2));
+
+        assertEquals(List.of("cursorAt", "cursorId"), compiled.params());
+    }
+}
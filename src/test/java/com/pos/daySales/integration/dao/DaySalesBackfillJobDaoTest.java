@@ -0,0 +1,73 @@
+package com.pos.daySales.integration.dao;
+
+import com.pos.dao.DaySalesBackfillJobDao;
+import com.pos.model.constants.DaySalesBackfillStatus;
+import com.pos.pojo.DaySalesBackfillJob;
+import com.pos.setup.AbstractDaoTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Import(DaySalesBackfillJobDao.class)
+class DaySalesBackfillJobDaoTest extends AbstractDaoTest {
+
+    private static final LocalDate START = LocalDate.of(2026, 1, 1);
+
+    @Autowired
+    private DaySalesBackfillJobDao dao;
+
+    private DaySalesBackfillJob job(String id, String token) {
+        ZonedDateTime now = ZonedDateTime.now();
+        DaySalesBackfillJob job = new DaySalesBackfillJob();
+        job.setId(id);
+        job.setStartDate(START);
+        job.setEndDate(START.plusDays(2));
+        job.setActiveSlot(DaySalesBackfillJob.ACTIVE_SLOT);
+        job.setStatus(DaySalesBackfillStatus.RUNNING);
+        job.setTotalDays(3);
+        job.setProcessedDays(0);
+        job.setRecomputedDays(0);
+        job.setSkippedDays(0);
+        job.setFailedDays("");
+        job.setClaimToken(token);
+        job.setHeartbeatAt(now);
+        job.setCreatedAt(now);
+        return persist(job);
+    }
+
+    @Test
+    void recordDayShouldAccumulateProgress_forCurrentTokenOnly() {
+        job("b1", "t1");
+        ZonedDateTime now = ZonedDateTime.now();
+
+        assertEquals(1, dao.recordDay("b1", "t1", true, false, "", now));
+        assertEquals(2, dao.recordDay("b1", "t1", false, false, START.plusDays(1) + ",", now));
+        assertEquals(-1, dao.recordDay("b1", "old", true, false, "", now));
+        assertEquals(3, dao.recordDay("b1", "t1", false, true, "", now));
+        em.clear();
+
+        DaySalesBackfillJob job = dao.selectById("b1");
+        assertEquals(3, job.getProcessedDays());
+        assertEquals(1, job.getRecomputedDays());
+        assertEquals(1, job.getSkippedDays());
+        assertEquals("2026-01-02,", job.getFailedDays());
+    }
+
+    @Test
+    void selectActiveShouldIgnoreFinishedJobs() {
+        DaySalesBackfillJob job = job("b1", "t1");
+        assertEquals("b1", dao.selectActive().getId());
+
+        job.setActiveSlot(null);
+        job.setFinishedAt(ZonedDateTime.now());
+        em.flush();
+        em.clear();
+
+        assertNull(dao.selectActive());
+    }
+}
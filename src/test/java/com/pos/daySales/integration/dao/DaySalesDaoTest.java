@@ -5,6 +5,7 @@ import com.pos.dao.OrderDao;
 import com.pos.dao.OrderItemDao;
 import com.pos.model.constants.OrderStatus;
 import com.pos.pojo.DaySales;
+import com.pos.pojo.DaySalesCursor;
 import com.pos.pojo.Order;
 import com.pos.pojo.OrderItem;
 import com.pos.setup.AbstractDaoTest;
@@ -89,4 +90,54 @@ class DaySalesDaoTest extends AbstractDaoTest {
         assertEquals(2L, ((Number) agg[1]).longValue());
         assertEquals(100.0, ((Number) agg[2]).doubleValue(), 0.0001);
     }
-}
\ No newline at end of file
+
+    @Test
+    void selectInvoicedOrderTotalsAfterShouldResumeAfterKeysetPosition() {
+        Order first = TestEntities.newOrder(OrderStatus.INVOICED, "inv");
+        orderDao.insert(first);
+        orderItemDao.insert(TestEntities.newOrderItem(first.getId(), 101, 2, 50.0));
+        orderItemDao.insert(TestEntities.newOrderItem(first.getId(), 102, 1, 5.0));
+
+        Order second = TestEntities.newOrder(OrderStatus.INVOICED, "inv");
+        orderDao.insert(second);
+        orderItemDao.insert(TestEntities.newOrderItem(second.getId(), 101, 3, 10.0));
+
+        Order created = TestEntities.newOrder(OrderStatus.CREATED, null);
+        orderDao.insert(created);
+        orderItemDao.insert(TestEntities.newOrderItem(created.getId(), 101, 9, 1.0));
+        em.flush();
+        em.clear();
+
+        List<Object[]> all = dao.selectInvoicedOrderTotalsAfter(baseUtc.minusHours(1), 0, baseUtc.plusHours(1), 10);
+
+        assertEquals(2, all.size());
+        assertEquals(first.getId(), ((Number) all.get(0)[0]).intValue());
+        assertEquals(3L, ((Number) all.get(0)[2]).longValue());
+        assertEquals(105.0, ((Number) all.get(0)[3]).doubleValue(), 0.0001);
+
+        Object[] last = all.get(1);
+        List<Object[]> after = dao.selectInvoicedOrderTotalsAfter(
+                (ZonedDateTime) last[1], ((Number) last[0]).intValue(), baseUtc.plusHours(1), 10);
+        assertTrue(after.isEmpty());
+
+        assertTrue(dao.selectInvoicedOrderTotalsAfter(baseUtc.minusHours(1), 0, baseUtc.minusMinutes(30), 10).isEmpty());
+    }
+
+    @Test
+    void selectByDateAndCursorShouldReturnNullWhenMissing() {
+        assertNull(dao.selectByDate(baseMidnightUtc));
+        assertNull(dao.selectCursorForUpdate());
+
+        dao.insert(TestEntities.newDaySales(baseMidnightUtc, 1, 1, 1.0));
+        DaySalesCursor cursor = new DaySalesCursor();
+        cursor.setId(DaySalesCursor.ROLLUP_ID);
+        cursor.setLastUpdatedAt(baseMidnightUtc);
+        cursor.setLastOrderId(0);
+        dao.insert(cursor);
+        em.flush();
+        em.clear();
+
+        assertEquals(1, dao.selectByDate(baseMidnightUtc).getInvoicedOrdersCount());
+        assertEquals(0, dao.selectCursorForUpdate().getLastOrderId());
+    }
+}
@@ -4,6 +4,8 @@ import com.pos.api.DaySalesApi;
 import com.pos.dao.DaySalesDao;
 import com.pos.exception.ApiException;
 import com.pos.pojo.DaySales;
+import com.pos.pojo.DaySalesCursor;
+import com.pos.setup.TestEntities;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -11,7 +13,9 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.LocalDate;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.List;
@@ -19,6 +23,8 @@ import java.util.List;
 import static com.pos.model.constants.ErrorMessages.DATE_REQUIRED;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -86,48 +92,142 @@ class DaySalesApiTest {
         verifyNoMoreInteractions(daySalesDao);
     }
 
-    @Test
-    void calculateDaySalesShouldAggregateAndInsertPojo() throws ApiException {
-        Object[] aggRow = new Object[]{2L, 5L, 250.75};
-        when(daySalesDao.selectInvoicedSalesAggregatesForDay(any(), any())).thenReturn(aggRow);
-
-        daySalesApi.calculateDaySales();
-
-        ArgumentCaptor<ZonedDateTime> zdtCaptor = ArgumentCaptor.forClass(ZonedDateTime.class);
-        verify(daySalesDao).selectInvoicedSalesAggregatesForDay(zdtCaptor.capture(), zdtCaptor.capture());
+    private DaySalesCursor cursor(ZonedDateTime lastUpdatedAt, Integer lastOrderId) {
+        DaySalesCursor cursor = new DaySalesCursor();
+        cursor.setId(DaySalesCursor.ROLLUP_ID);
+        cursor.setLastUpdatedAt(lastUpdatedAt);
+        cursor.setLastOrderId(lastOrderId);
+        return cursor;
+    }
 
-        List<ZonedDateTime> captured = zdtCaptor.getAllValues();
-        ZonedDateTime start = captured.get(0);
-        ZonedDateTime end = captured.get(1);
+    private static ZonedDateTime todayStart() {
+        return ZonedDateTime.now(IST).toLocalDate().atStartOfDay(IST);
+    }
 
-        assertEquals(IST, start.getZone());
-        assertEquals(IST, end.getZone());
-        assertEquals(start.toLocalDate().atStartOfDay(IST), start);
-        assertEquals(start.plusDays(1), end);
+    @Test
+    void rollUpShouldStartCursorAtTodayAndResetTodaysRowOnFirstRun() {
+        DaySales today = TestEntities.newDaySales(todayStart(), 7, 9, 70.0);
+        when(daySalesDao.selectCursorForUpdate()).thenReturn(null);
+        when(daySalesDao.selectByDate(todayStart())).thenReturn(today);
+        when(daySalesDao.selectInvoicedOrderTotalsAfter(any(), any(), any(), anyInt())).thenReturn(List.of());
+
+        int folded = daySalesApi.rollUpInvoicedOrders();
+
+        assertEquals(0, folded);
+        ArgumentCaptor<DaySalesCursor> cursorCaptor = ArgumentCaptor.forClass(DaySalesCursor.class);
+        verify(daySalesDao).insert(cursorCaptor.capture());
+        assertEquals(todayStart(), cursorCaptor.getValue().getLastUpdatedAt());
+        assertEquals(0, cursorCaptor.getValue().getLastOrderId());
+        verify(daySalesDao).selectInvoicedOrderTotalsAfter(eq(todayStart()), eq(0), any(), eq(500));
+
+        assertEquals(0, today.getInvoicedOrdersCount());
+        assertEquals(0, today.getInvoicedItemsCount());
+        assertEquals(0.0, today.getTotalRevenue());
+    }
 
-        ArgumentCaptor<DaySales> daySalesCaptor = ArgumentCaptor.forClass(DaySales.class);
-        verify(daySalesDao).insert(daySalesCaptor.capture());
+    @Test
+    void rollUpShouldAddOrdersToTheirBusinessDaysAndAdvanceCursor() {
+        ZonedDateTime yesterday = todayStart().minusDays(1);
+        DaySalesCursor cursor = cursor(yesterday, 3);
+        DaySales existingYesterday = TestEntities.newDaySales(yesterday, 1, 2, 20.0);
+        DaySales existingToday = TestEntities.newDaySales(todayStart(), 0, 0, 0.0);
+
+        ZonedDateTime lateYesterday = yesterday.plusHours(23);
+        ZonedDateTime earlyToday = todayStart().plusMinutes(1);
+        when(daySalesDao.selectCursorForUpdate()).thenReturn(cursor);
+        when(daySalesDao.selectInvoicedOrderTotalsAfter(eq(yesterday), eq(3), any(), anyInt())).thenReturn(List.of(
+                new Object[]{4, lateYesterday, 3L, 30.0},
+                new Object[]{5, earlyToday, 1L, 12.5},
+                new Object[]{6, earlyToday, 2L, 7.5}
+        ));
+        when(daySalesDao.selectByDate(yesterday)).thenReturn(existingYesterday);
+        when(daySalesDao.selectByDate(todayStart())).thenReturn(existingToday);
+
+        int folded = daySalesApi.rollUpInvoicedOrders();
+
+        assertEquals(3, folded);
+        assertEquals(2, existingYesterday.getInvoicedOrdersCount());
+        assertEquals(5, existingYesterday.getInvoicedItemsCount());
+        assertEquals(50.0, existingYesterday.getTotalRevenue());
+        assertEquals(2, existingToday.getInvoicedOrdersCount());
+        assertEquals(3, existingToday.getInvoicedItemsCount());
+        assertEquals(20.0, existingToday.getTotalRevenue());
+
+        assertEquals(earlyToday, cursor.getLastUpdatedAt());
+        assertEquals(6, cursor.getLastOrderId());
+        verify(daySalesDao, never()).insert(any());
+    }
 
-        DaySales inserted = daySalesCaptor.getValue();
+    @Test
+    void rollUpShouldInsertMissingDayRowsAndOnlyFoldSettledOrders() {
+        ZonedDateTime start = todayStart().minusDays(2);
+        DaySalesCursor cursor = cursor(start, 0);
+        ZonedDateTime missedDay = start.plusHours(12);
+        ReflectionTestUtils.setField(daySalesApi, "batchSize", 10);
+        when(daySalesDao.selectCursorForUpdate()).thenReturn(cursor);
+        when(daySalesDao.selectInvoicedOrderTotalsAfter(any(), any(), any(), anyInt()))
+                .thenReturn(List.<Object[]>of(new Object[]{9, missedDay, 4L, 40.0}));
+
+        ZonedDateTime before = ZonedDateTime.now(IST);
+        daySalesApi.rollUpInvoicedOrders();
+
+        ArgumentCaptor<ZonedDateTime> settledBefore = ArgumentCaptor.forClass(ZonedDateTime.class);
+        verify(daySalesDao).selectInvoicedOrderTotalsAfter(eq(start), eq(0), settledBefore.capture(), eq(10));
+        assertFalse(settledBefore.getValue().isAfter(before.minusSeconds(119)));
+
+        ArgumentCaptor<DaySales> inserted = ArgumentCaptor.forClass(DaySales.class);
+        verify(daySalesDao, times(2)).insert(inserted.capture());
+        DaySales missed = inserted.getAllValues().get(0);
+        assertEquals(start, missed.getDate());
+        assertEquals(1, missed.getInvoicedOrdersCount());
+        assertEquals(4, missed.getInvoicedItemsCount());
+        assertEquals(40.0, missed.getTotalRevenue());
+        assertEquals(todayStart(), inserted.getAllValues().get(1).getDate());
+        assertEquals(0, inserted.getAllValues().get(1).getInvoicedOrdersCount());
+    }
 
-        assertNotNull(inserted);
-        assertEquals(start, inserted.getDate());
-        assertEquals(2, inserted.getInvoicedOrdersCount());
-        assertEquals(5, inserted.getInvoicedItemsCount());
-        assertEquals(250.75, inserted.getTotalRevenue());
+    @Test
+    void recomputeDayShouldReplaceExistingRowWhenRollupHasPassedTheDay() {
+        LocalDate day = LocalDate.of(2026, 2, 10);
+        ZonedDateTime dayStart = day.atStartOfDay(IST);
+        DaySales existing = TestEntities.newDaySales(dayStart, 9, 9, 99.0);
+        when(daySalesDao.selectCursorForShare()).thenReturn(cursor(dayStart.plusDays(1), 42));
+        when(daySalesDao.selectInvoicedSalesAggregatesForDay(dayStart, dayStart.plusDays(1)))
+                .thenReturn(new Object[]{2L, 5L, 250.75});
+        when(daySalesDao.selectByDate(dayStart)).thenReturn(existing);
+
+        assertTrue(daySalesApi.recomputeDay(day));
+
+        assertEquals(2, existing.getInvoicedOrdersCount());
+        assertEquals(5, existing.getInvoicedItemsCount());
+        assertEquals(250.75, existing.getTotalRevenue());
+        verify(daySalesDao, never()).insert(any());
+    }
 
-        verifyNoMoreInteractions(daySalesDao);
+    @Test
+    void recomputeDayShouldInsertRowWhenMissing() {
+        LocalDate day = LocalDate.of(2026, 2, 10);
+        ZonedDateTime dayStart = day.atStartOfDay(IST);
+        when(daySalesDao.selectCursorForShare()).thenReturn(null);
+        when(daySalesDao.selectInvoicedSalesAggregatesForDay(any(), any())).thenReturn(new Object[]{null, null, null});
+
+        assertTrue(daySalesApi.recomputeDay(day));
+
+        ArgumentCaptor<DaySales> inserted = ArgumentCaptor.forClass(DaySales.class);
+        verify(daySalesDao).insert(inserted.capture());
+        assertEquals(dayStart, inserted.getValue().getDate());
+        assertEquals(0, inserted.getValue().getInvoicedOrdersCount());
     }
 
     @Test
-    void calculateDaySalesShouldStillInsertWhenDaoReturnsNullsInRow() throws ApiException {
-        Object[] aggRow = new Object[]{null, null, null};
-        when(daySalesDao.selectInvoicedSalesAggregatesForDay(any(), any())).thenReturn(aggRow);
+    void recomputeDayShouldSkipDaysTheRollupHasNotPassed() {
+        LocalDate day = LocalDate.of(2026, 2, 10);
+        when(daySalesDao.selectCursorForShare()).thenReturn(cursor(day.atStartOfDay(IST).plusHours(20), 42));
 
-        daySalesApi.calculateDaySales();
+        assertFalse(daySalesApi.recomputeDay(day));
+        assertFalse(daySalesApi.recomputeDay(LocalDate.now(IST)));
 
-        verify(daySalesDao).selectInvoicedSalesAggregatesForDay(any(), any());
-        verify(daySalesDao).insert(any(DaySales.class));
+        verify(daySalesDao, times(2)).selectCursorForShare();
         verifyNoMoreInteractions(daySalesDao);
     }
-}
\ No newline at end of file
+}
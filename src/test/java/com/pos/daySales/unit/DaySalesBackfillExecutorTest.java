@@ -0,0 +1,254 @@
+package com.pos.daySales.unit;
+
+import com.pos.api.DaySalesApi;
+import com.pos.api.DaySalesBackfillJobApi;
+import com.pos.exception.ApiException;
+import com.pos.model.constants.DaySalesBackfillStatus;
+import com.pos.model.data.DaySalesBackfillData;
+import com.pos.pojo.DaySalesBackfillJob;
+import com.pos.scheduler.DaySalesBackfillExecutor;
+import com.pos.utils.DaySalesConversion;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DaySalesBackfillExecutorTest {
+
+    private static final LocalDate START = LocalDate.of(2026, 1, 1);
+
+    @InjectMocks
+    private DaySalesBackfillExecutor executor;
+
+    @Mock
+    private DaySalesApi daySalesApi;
+
+    @Spy
+    private InMemoryBackfillJobApi backfillJobApi = new InMemoryBackfillJobApi();
+
+    /** Same rules as the table behind DaySalesBackfillJobApi, kept in a map. */
+    static class InMemoryBackfillJobApi extends DaySalesBackfillJobApi {
+
+        private final Map<String, DaySalesBackfillJob> jobs = new ConcurrentHashMap<>();
+
+        @Override
+        public synchronized DaySalesBackfillJob getActive() {
+            return jobs.values().stream().filter(j -> j.getActiveSlot() != null).findFirst().map(this::copy).orElse(null);
+        }
+
+        @Override
+        public synchronized DaySalesBackfillJob getCheck(String jobId) throws ApiException {
+            DaySalesBackfillJob job = jobId == null ? null : jobs.get(jobId);
+            if (job == null) throw new ApiException("Day sales backfill job not found: " + jobId);
+            return copy(job);
+        }
+
+        @Override
+        public synchronized DaySalesBackfillJob create(LocalDate startDate, LocalDate endDate, int totalDays) {
+            if (getActive() != null) throw new DataIntegrityViolationException("pos_daySalesBackfillJob_activeSlot_uk");
+            return insert(startDate, endDate, totalDays, ZonedDateTime.now());
+        }
+
+        synchronized DaySalesBackfillJob insert(LocalDate startDate, LocalDate endDate, int totalDays, ZonedDateTime heartbeatAt) {
+            DaySalesBackfillJob job = new DaySalesBackfillJob();
+            job.setId(UUID.randomUUID().toString());
+            job.setStartDate(startDate);
+            job.setEndDate(endDate);
+            job.setActiveSlot(DaySalesBackfillJob.ACTIVE_SLOT);
+            job.setStatus(DaySalesBackfillStatus.RUNNING);
+            job.setTotalDays(totalDays);
+            job.setCreatedAt(heartbeatAt);
+            reset(job, heartbeatAt);
+            jobs.put(job.getId(), job);
+            return copy(job);
+        }
+
+        @Override
+        public synchronized int recordDay(String jobId, String token, boolean recomputed) {
+            DaySalesBackfillJob job = jobs.get(jobId);
+            if (job == null || !token.equals(job.getClaimToken())) return -1;
+            if (recomputed) job.setRecomputedDays(job.getRecomputedDays() + 1);
+            else job.setSkippedDays(job.getSkippedDays() + 1);
+            job.setProcessedDays(job.getProcessedDays() + 1);
+            return job.getProcessedDays();
+        }
+
+        @Override
+        public synchronized int recordFailedDay(String jobId, String token, LocalDate day) {
+            DaySalesBackfillJob job = jobs.get(jobId);
+            if (job == null || !token.equals(job.getClaimToken())) return -1;
+            job.setFailedDays(job.getFailedDays() + day + ",");
+            job.setProcessedDays(job.getProcessedDays() + 1);
+            return job.getProcessedDays();
+        }
+
+        @Override
+        public synchronized boolean finish(String jobId, String token) {
+            DaySalesBackfillJob job = jobs.get(jobId);
+            if (job == null || job.getActiveSlot() == null || !token.equals(job.getClaimToken())) return false;
+            job.setStatus(job.getFailedDays().isEmpty() ? DaySalesBackfillStatus.SUCCEEDED : DaySalesBackfillStatus.FAILED);
+            job.setActiveSlot(null);
+            job.setFinishedAt(ZonedDateTime.now());
+            return true;
+        }
+
+        @Override
+        public synchronized DaySalesBackfillJob takeOverStalled(Duration lease) {
+            ZonedDateTime now = ZonedDateTime.now();
+            DaySalesBackfillJob job = jobs.values().stream().filter(j -> j.getActiveSlot() != null).findFirst().orElse(null);
+            if (job == null || !job.getHeartbeatAt().isBefore(now.minus(lease))) return null;
+            reset(job, now);
+            return copy(job);
+        }
+
+        @Override
+        public synchronized int deleteFinishedBefore(ZonedDateTime cutoff) {
+            int before = jobs.size();
+            jobs.values().removeIf(j -> j.getFinishedAt() != null && j.getFinishedAt().isBefore(cutoff));
+            return before - jobs.size();
+        }
+
+        private static void reset(DaySalesBackfillJob job, ZonedDateTime now) {
+            job.setProcessedDays(0);
+            job.setRecomputedDays(0);
+            job.setSkippedDays(0);
+            job.setFailedDays("");
+            job.setClaimToken(UUID.randomUUID().toString());
+            job.setHeartbeatAt(now);
+        }
+
+        // Callers get detached rows, as they would from a committed transaction
+        private DaySalesBackfillJob copy(DaySalesBackfillJob job) {
+            DaySalesBackfillJob c = new DaySalesBackfillJob();
+            c.setId(job.getId());
+            c.setStartDate(job.getStartDate());
+            c.setEndDate(job.getEndDate());
+            c.setActiveSlot(job.getActiveSlot());
+            c.setStatus(job.getStatus());
+            c.setTotalDays(job.getTotalDays());
+            c.setProcessedDays(job.getProcessedDays());
+            c.setRecomputedDays(job.getRecomputedDays());
+            c.setSkippedDays(job.getSkippedDays());
+            c.setFailedDays(job.getFailedDays());
+            c.setClaimToken(job.getClaimToken());
+            c.setHeartbeatAt(job.getHeartbeatAt());
+            c.setCreatedAt(job.getCreatedAt());
+            c.setFinishedAt(job.getFinishedAt());
+            return c;
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(executor, "workers", 2);
+        ReflectionTestUtils.setField(executor, "maxDays", 31);
+        executor.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.stop();
+    }
+
+    private DaySalesBackfillData await(DaySalesBackfillData job) throws Exception {
+        for (int i = 0; i < 500; i++) {
+            DaySalesBackfillData current = executor.getCheck(job.getJobId());
+            if (current.getFinishedAt() != null) return current;
+            Thread.sleep(10);
+        }
+        fail("Backfill did not finish");
+        return null;
+    }
+
+    @Test
+    void shouldRecomputeEveryDayInRangeAndReportProgress() throws Exception {
+        when(daySalesApi.recomputeDay(any())).thenReturn(true);
+        when(daySalesApi.recomputeDay(START.plusDays(9))).thenReturn(false);
+
+        DaySalesBackfillData done = await(executor.submit(START, START.plusDays(9)));
+
+        assertEquals(DaySalesBackfillStatus.SUCCEEDED, done.getStatus());
+        assertEquals(10, done.getTotalDays());
+        assertEquals(9, done.getRecomputedDays());
+        assertEquals(1, done.getSkippedDays());
+        assertTrue(done.getFailedDays().isEmpty());
+        for (int i = 0; i < 10; i++) {
+            verify(daySalesApi).recomputeDay(START.plusDays(i));
+        }
+    }
+
+    @Test
+    void shouldListFailedDaysWithoutStoppingTheRest() throws Exception {
+        when(daySalesApi.recomputeDay(any())).thenReturn(true);
+        when(daySalesApi.recomputeDay(START.plusDays(1))).thenThrow(new RuntimeException("deadlock"));
+
+        DaySalesBackfillData done = await(executor.submit(START, START.plusDays(2)));
+
+        assertEquals(DaySalesBackfillStatus.FAILED, done.getStatus());
+        assertEquals(2, done.getRecomputedDays());
+        assertEquals(List.of(START.plusDays(1)), done.getFailedDays());
+    }
+
+    @Test
+    void shouldRejectSecondBackfillWhileOneIsRunning_andAllowItAfterwards() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(daySalesApi.recomputeDay(any())).thenAnswer(inv -> release.await(5, TimeUnit.SECONDS));
+
+        DaySalesBackfillData running = executor.submit(START, START);
+        assertThrows(ApiException.class, () -> executor.submit(START, START));
+
+        release.countDown();
+        assertEquals(DaySalesBackfillStatus.SUCCEEDED, await(running).getStatus());
+        assertEquals(DaySalesBackfillStatus.SUCCEEDED, await(executor.submit(START, START)).getStatus());
+    }
+
+    @Test
+    void shouldRejectRangesLongerThanMaxDays_andUnknownJobs() {
+        assertThrows(ApiException.class, () -> executor.submit(START, START.plusDays(31)));
+        assertThrows(ApiException.class, () -> executor.getCheck("missing"));
+        assertThrows(ApiException.class, () -> executor.getCheck(null));
+        verifyNoInteractions(daySalesApi);
+    }
+
+    @Test
+    void recoverStalledShouldRestartBackfillLeftByAStoppedInstance() throws Exception {
+        when(daySalesApi.recomputeDay(any())).thenReturn(true);
+        DaySalesBackfillJob orphan = backfillJobApi.insert(START, START.plusDays(2), 3, ZonedDateTime.now().minusHours(1));
+
+        executor.recoverStalled();
+        DaySalesBackfillData done = await(DaySalesConversion.toBackfillData(orphan));
+
+        assertEquals(DaySalesBackfillStatus.SUCCEEDED, done.getStatus());
+        assertEquals(3, done.getRecomputedDays());
+    }
+
+    @Test
+    void recoverStalledShouldLeaveBackfillWithinItsLease() {
+        backfillJobApi.insert(START, START, 1, ZonedDateTime.now());
+
+        executor.recoverStalled();
+
+        verifyNoInteractions(daySalesApi);
+    }
+}
@@ -2,8 +2,10 @@ package com.pos.exception.unit;
 
 import com.pos.exception.ApiException;
 import com.pos.exception.GlobalExceptionHandler;
+import com.pos.exception.InvoiceQueueFullException;
 import com.pos.exception.UploadValidationException;
 import org.junit.jupiter.api.Test;
+import org.springframework.core.io.Resource;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -18,7 +20,10 @@ import org.springframework.web.servlet.resource.NoResourceFoundException;
 import org.springframework.mock.web.MockHttpServletRequest;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -35,16 +40,16 @@ class GlobalExceptionHandlerTest {
     }
 
     @Test
-    void handleUploadValidation_shouldReturnAttachmentBytesAndHeaders() {
+    void handleUploadValidation_shouldReturnAttachmentBytesAndHeaders() throws Exception {
         byte[] bytes = "bad".getBytes();
         UploadValidationException ex = new UploadValidationException(
                 "TSV has errors", bytes, "errors.tsv", "text/tab-separated-values"
         );
 
-        ResponseEntity<byte[]> res = handler.handleUploadValidation(ex);
+        ResponseEntity<Resource> res = handler.handleUploadValidation(ex);
 
         assertEquals(HttpStatus.BAD_REQUEST, res.getStatusCode());
-        assertArrayEquals(bytes, res.getBody());
+        assertArrayEquals(bytes, res.getBody().getContentAsByteArray());
 
         assertNotNull(res.getHeaders().getContentType());
         assertEquals("text/tab-separated-values", res.getHeaders().getContentType().toString());
@@ -55,6 +60,24 @@ class GlobalExceptionHandlerTest {
         assertTrue(cd.contains("errors.tsv"));
     }
 
+    @Test
+    void handleUploadValidation_shouldStreamReportFile_andDeleteItOnceRead() throws Exception {
+        Path report = Files.createTempFile("errors", ".tsv");
+        Files.writeString(report, "a\terror\n");
+        UploadValidationException ex = new UploadValidationException(
+                "TSV has errors", report, "errors.tsv", "text/tab-separated-values"
+        );
+
+        ResponseEntity<Resource> res = handler.handleUploadValidation(ex);
+
+        assertEquals(HttpStatus.BAD_REQUEST, res.getStatusCode());
+        assertEquals(8, res.getHeaders().getContentLength());
+        try (InputStream in = res.getBody().getInputStream()) {
+            assertEquals("a\terror\n", new String(in.readAllBytes()));
+        }
+        assertFalse(Files.exists(report));
+    }
+
     @Test
     void handleApiException_shouldReturnJsonMessage_whenNotPdf() {
         MockHttpServletRequest req = reqWithAccept("application/json");
@@ -127,6 +150,20 @@ class GlobalExceptionHandlerTest {
         assertEquals("Validation failed", body.get("message"));
     }
 
+    @Test
+    void handleInvoiceQueueFull_shouldReturn503WithRetryAfter() {
+        MockHttpServletRequest req = reqWithAccept("application/json");
+
+        ResponseEntity<?> res = handler.handleInvoiceQueueFull(new InvoiceQueueFullException("full"), req);
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, res.getStatusCode());
+        assertNotNull(res.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> body = (Map<String, Object>) res.getBody();
+        assertEquals("full", body.get("message"));
+    }
+
     @Test
     void handleNetworkError_shouldReturn503Json_whenNotPdf() {
         MockHttpServletRequest req = reqWithAccept("application/json");
@@ -0,0 +1,93 @@
+package com.pos.inventory.integration.dao;
+
+import com.pos.dao.InventoryDao;
+import com.pos.pojo.Inventory;
+import com.pos.setup.AbstractDaoTest;
+import com.pos.setup.TestEntities;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Many cashiers selling the same SKU at once: every thread commits its own transaction,
+ * so the guarded decrement is exercised against real row locks rather than one shared test transaction.
+ */
+@Import({InventoryDao.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class InventoryDaoContentionTest extends AbstractDaoTest {
+
+    private static final int PRODUCT_ID = 7777;
+    private static final int STOCK = 100;
+    private static final int THREADS = 32;
+    private static final int SALES_PER_THREAD = 5;
+    private static final int UNITS_PER_SALE = 1;
+
+    @Autowired private InventoryDao dao;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate tx;
+
+    @BeforeEach
+    void setupData() {
+        tx = new TransactionTemplate(transactionManager);
+        tx.executeWithoutResult(s -> dao.insert(TestEntities.newInventory(PRODUCT_ID, STOCK)));
+    }
+
+    @AfterEach
+    void cleanup() {
+        tx.executeWithoutResult(s -> em.createQuery("DELETE FROM Inventory i WHERE i.productId = :productId")
+                .setParameter("productId", PRODUCT_ID)
+                .executeUpdate());
+    }
+
+    @Test
+    void concurrentDecrementsNeverOversellAndNeverConflict() throws Exception {
+        AtomicInteger sold = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < SALES_PER_THREAD; i++) {
+                    List<Integer> shortIds = tx.execute(s -> dao.decrementIfAvailable(Map.of(PRODUCT_ID, UNITS_PER_SALE)));
+                    if (shortIds == null || shortIds.isEmpty()) {
+                        sold.incrementAndGet();
+                    } else {
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> f : futures) {
+            f.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        Inventory after = tx.execute(s -> dao.selectByProductId(PRODUCT_ID));
+
+        assertEquals(STOCK, sold.get() * UNITS_PER_SALE);
+        assertEquals(THREADS * SALES_PER_THREAD - STOCK, rejected.get());
+        assertNotNull(after);
+        assertEquals(0, after.getQuantity());
+    }
+}
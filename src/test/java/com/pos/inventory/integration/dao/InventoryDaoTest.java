@@ -1,15 +1,18 @@
 package com.pos.inventory.integration.dao;
 
 import com.pos.dao.InventoryDao;
+import com.pos.dao.PageResult;
+import com.pos.model.data.InventoryData;
 import com.pos.pojo.Inventory;
+import com.pos.pojo.Product;
 import com.pos.setup.AbstractDaoTest;
 import com.pos.setup.TestEntities;
-import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Import;
 
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -19,13 +22,6 @@ class InventoryDaoTest extends AbstractDaoTest {
     @Autowired
     private InventoryDao dao;
 
-    private List<Integer> productIds4;
-
-    @BeforeEach
-    void setupData() {
-        productIds4 = List.of(10, 20, 30, 40);
-    }
-
     @Test
     void selectByProductIdWhenNotFound() {
         assertNull(dao.selectByProductId(999));
@@ -45,56 +41,61 @@ class InventoryDaoTest extends AbstractDaoTest {
         assertEquals(5, out.getQuantity());
     }
 
-    @Test
-    void findByProductIdsWhenNull() {
-        dao.insert(TestEntities.newInventory(1, 1));
-        dao.insert(TestEntities.newInventory(2, 2));
-        dao.insert(TestEntities.newInventory(3, 3));
-        em.clear();
-
-        assertEquals(3, dao.findByProductIds(null, 0, 10).size());
+    private Integer product(String barcode, String name) {
+        Product p = TestEntities.newProduct(barcode, name, 1, 10.0, null);
+        em.persist(p);
+        return p.getId();
     }
 
     @Test
-    void getCountByProductIdsWhenFiltered() {
-        dao.insert(TestEntities.newInventory(10, 1));
-        dao.insert(TestEntities.newInventory(20, 2));
-        dao.insert(TestEntities.newInventory(30, 3));
+    void searchWithoutFiltersPagesOverAllRowsWithProductColumns() {
+        dao.insert(TestEntities.newInventory(product("B1", "Soap"), 1));
+        dao.insert(TestEntities.newInventory(product("B2", "Milk"), 2));
+        dao.insert(TestEntities.newInventory(product("B3", "Tea"), 3));
         em.clear();
 
-        assertEquals(2L, dao.getCountByProductIds(List.of(10, 20)));
+        PageResult<InventoryData> page0 = dao.search(null, null, 0, 2, true);
+        assertEquals(2, page0.rows().size());
+        assertEquals(3L, page0.totalCount());
+        assertEquals("B1", page0.rows().get(0).getBarcode());
+        assertEquals("Soap", page0.rows().get(0).getProductName());
+        assertEquals(1, page0.rows().get(0).getQuantity());
+
+        PageResult<InventoryData> page1 = dao.search(null, null, 1, 2, false);
+        assertEquals(1, page1.rows().size());
+        assertEquals("B3", page1.rows().getFirst().getBarcode());
+        assertNull(page1.totalCount());
     }
 
     @Test
-    void findByProductIdsWhenFilteredAndPaged() {
-        // product_id is UNIQUE in pos_inventory, so every inventory row must have a unique productId
-        dao.insert(TestEntities.newInventory(10, 1));
-        dao.insert(TestEntities.newInventory(20, 2));
-        dao.insert(TestEntities.newInventory(30, 3));
-        dao.insert(TestEntities.newInventory(40, 4));
+    void searchFiltersByProductNameAndBarcodeInTheJoin() {
+        dao.insert(TestEntities.newInventory(product("B1", "Soap"), 1));
+        dao.insert(TestEntities.newInventory(product("B2", "Soap Deluxe"), 2));
+        dao.insert(TestEntities.newInventory(product("B3", "Milk"), 3));
+        product("B4", "Soap Unstocked");
         em.clear();
 
-        // page 0 size 1 => 1 row
-        List<Inventory> page0 = dao.findByProductIds(productIds4, 0, 1);
-        assertEquals(1, page0.size());
+        PageResult<InventoryData> byName = dao.search(null, "soap", 0, 10, true);
+        assertEquals(2L, byName.totalCount());
+        assertEquals(List.of("B1", "B2"), byName.rows().stream().map(InventoryData::getBarcode).toList());
 
-        // page 1 size 2 => 2 rows
-        List<Inventory> page1 = dao.findByProductIds(productIds4, 1, 2);
-        assertEquals(2, page1.size());
+        PageResult<InventoryData> byBoth = dao.search("B2", "soap", 0, 10, true);
+        assertEquals(1L, byBoth.totalCount());
+        assertEquals(2, byBoth.rows().getFirst().getQuantity());
 
-        assertTrue(productIds4.contains(page0.getFirst().getProductId()));
-        assertTrue(productIds4.contains(page1.get(0).getProductId()));
-        assertTrue(productIds4.contains(page1.get(1).getProductId()));
+        assertEquals(0L, dao.search("B4", null, 0, 10, true).totalCount());
     }
 
     @Test
-    void getCountByProductIdsWhenNullOrEmptyUsesTotalCount() {
-        dao.insert(TestEntities.newInventory(1, 1));
-        dao.insert(TestEntities.newInventory(2, 2));
+    void searchPastLastPageStillReportsTotal() {
+        dao.insert(TestEntities.newInventory(product("B1", "Soap"), 1));
+        dao.insert(TestEntities.newInventory(product("B2", "Milk"), 2));
         em.clear();
 
-        assertEquals(2L, dao.getCountByProductIds(null));
-        assertEquals(2L, dao.getCountByProductIds(List.of()));
+        PageResult<InventoryData> out = dao.search(null, null, 1, 10, true);
+
+        assertTrue(out.rows().isEmpty());
+        assertEquals(2L, out.totalCount());
     }
 
     @Test
@@ -127,4 +128,41 @@ class InventoryDaoTest extends AbstractDaoTest {
         assertNotNull(out);
         assertEquals(i.getId(), out.getId());
     }
-}
\ No newline at end of file
+
+    @Test
+    void decrementIfAvailableReducesOnlyLinesWithEnoughStock() {
+        dao.insert(TestEntities.newInventory(10, 5));
+        dao.insert(TestEntities.newInventory(20, 1));
+
+        List<Integer> shortIds = dao.decrementIfAvailable(Map.of(10, 3, 20, 2, 30, 1));
+        em.clear();
+
+        assertEquals(List.of(20, 30), shortIds);
+        assertEquals(2, dao.selectByProductId(10).getQuantity());
+        assertEquals(1, dao.selectByProductId(20).getQuantity());
+    }
+
+    @Test
+    void decrementIfAvailableAllowsTakingTheLastUnit() {
+        dao.insert(TestEntities.newInventory(10, 2));
+
+        assertEquals(List.of(), dao.decrementIfAvailable(Map.of(10, 2)));
+        em.clear();
+
+        assertEquals(0, dao.selectByProductId(10).getQuantity());
+    }
+
+    @Test
+    void upsertAllInsertsMissingRowsAndOverwritesExistingQuantity() {
+        Inventory existing = TestEntities.newInventory(10, 5);
+        dao.insert(existing);
+
+        dao.upsertAll(List.of(TestEntities.newInventory(10, 9), TestEntities.newInventory(20, 4)));
+
+        Inventory updated = dao.selectByProductId(10);
+        assertEquals(existing.getId(), updated.getId());
+        assertEquals(9, updated.getQuantity());
+        assertEquals(1, updated.getVersion());
+        assertEquals(4, dao.selectByProductId(20).getQuantity());
+    }
+}
@@ -2,8 +2,10 @@ package com.pos.inventory.unit;
 
 import com.pos.api.InventoryApi;
 import com.pos.dao.InventoryDao;
+import com.pos.dao.PageResult;
 import com.pos.exception.ApiException;
 import com.pos.model.form.InventoryForm;
+import com.pos.model.data.InventoryData;
 import com.pos.pojo.Inventory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -12,7 +14,10 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import static com.pos.model.constants.ErrorMessages.*;
 import static org.junit.jupiter.api.Assertions.*;
@@ -43,6 +48,14 @@ class InventoryApiTest {
         return f;
     }
 
+    private Map<Integer, Integer> quantities(int... productIdQtyPairs) {
+        Map<Integer, Integer> out = new LinkedHashMap<>();
+        for (int i = 0; i < productIdQtyPairs.length; i += 2) {
+            out.put(productIdQtyPairs[i], productIdQtyPairs[i + 1]);
+        }
+        return out;
+    }
+
     @BeforeEach
     void setupData() {
         productId = 5;
@@ -118,131 +131,92 @@ class InventoryApiTest {
     }
 
     @Test
-    void findByProductIdsShouldReturnEmptyWhenNullOrEmptyIds() {
-        assertEquals(List.of(), inventoryApi.findByProductIds(null, 0, 10));
-        assertEquals(List.of(), inventoryApi.findByProductIds(List.of(), 0, 10));
-        verifyNoInteractions(inventoryDao);
-    }
-
-    @Test
-    void findByProductIdsShouldCallDaoWhenIdsPresent() {
-        List<Integer> ids = List.of(1, 2);
-        List<Inventory> expected = List.of(inv(1, 1));
+    void searchShouldDelegateToJoinedDaoQuery() {
+        InventoryData row = new InventoryData();
+        row.setBarcode("b1");
+        PageResult<InventoryData> expected = new PageResult<>(List.of(row), 21L);
 
-        when(inventoryDao.findByProductIds(ids, 1, 20)).thenReturn(expected);
+        when(inventoryDao.search("b1", "soap", 1, 20, true)).thenReturn(expected);
 
-        List<Inventory> out = inventoryApi.findByProductIds(ids, 1, 20);
+        PageResult<InventoryData> out = inventoryApi.search("b1", "soap", 1, 20, true);
 
         assertSame(expected, out);
-        verify(inventoryDao).findByProductIds(ids, 1, 20);
+        verify(inventoryDao).search("b1", "soap", 1, 20, true);
         verifyNoMoreInteractions(inventoryDao);
     }
 
     @Test
-    void addShouldInsertWhenNoExistingInventoryForProduct() throws ApiException {
-        Inventory incoming = inv(10, 5);
-        when(inventoryDao.selectByProductIds(List.of(10))).thenReturn(List.of());
+    void addShouldUpsertAllInOneBulkWrite() throws ApiException {
+        List<Inventory> incoming = List.of(inv(1, 5), inv(2, 7));
 
-        inventoryApi.add(List.of(incoming));
+        inventoryApi.add(incoming);
 
-        verify(inventoryDao).selectByProductIds(List.of(10));
-        verify(inventoryDao).insert(incoming);
+        verify(inventoryDao).upsertAll(incoming);
         verifyNoMoreInteractions(inventoryDao);
     }
 
     @Test
-    void addShouldUpdateExistingQuantityWhenExists() throws ApiException {
-        Inventory incoming = inv(10, 9);
-        Inventory existing = inv(10, 1);
-
-        when(inventoryDao.selectByProductIds(List.of(10))).thenReturn(List.of(existing));
-
-        inventoryApi.add(List.of(incoming));
-
-        assertEquals(9, existing.getQuantity());
-        verify(inventoryDao).selectByProductIds(List.of(10));
-        verify(inventoryDao, never()).insert(any());
-        verifyNoMoreInteractions(inventoryDao);
+    void addShouldDoNothingWhenEmpty() throws ApiException {
+        inventoryApi.add(null);
+        inventoryApi.add(List.of());
+        verifyNoInteractions(inventoryDao);
     }
 
     @Test
-    void addShouldHandleMultipleInventoriesMixedInsertAndUpdate() throws ApiException {
-        Inventory inv1 = inv(1, 5);
-        Inventory inv2 = inv(2, 7);
-        Inventory existing2 = inv(2, 1);
-
-        when(inventoryDao.selectByProductIds(List.of(1, 2))).thenReturn(List.of(existing2));
+    void addShouldThrowWhenProductIdMissing() {
+        Inventory missing = inv(null, 5);
 
-        inventoryApi.add(List.of(inv1, inv2));
-
-        assertEquals(7, existing2.getQuantity());
-
-        verify(inventoryDao).selectByProductIds(List.of(1, 2));
-        verify(inventoryDao).insert(inv1);
-        verify(inventoryDao, never()).insert(inv2);
-        verifyNoMoreInteractions(inventoryDao);
-    }
+        ApiException ex = assertThrows(ApiException.class, () -> inventoryApi.add(List.of(inv(1, 1), missing)));
 
-    @Test
-    void reduceInventoryShouldThrowWhenQuantityNull() {
-        ApiException ex = assertThrows(ApiException.class, () -> inventoryApi.reduceInventory(productId, null));
-        assertTrue(ex.getMessage().contains(QUANTITY_MUST_BE_POSITIVE.value()));
+        assertTrue(ex.getMessage().contains(PRODUCT_NOT_FOUND.value()));
         verifyNoInteractions(inventoryDao);
     }
 
     @Test
-    void reduceInventoryShouldThrowWhenQuantityZeroOrNegative() {
-        ApiException ex1 = assertThrows(ApiException.class, () -> inventoryApi.reduceInventory(productId, 0));
-        assertTrue(ex1.getMessage().contains(QUANTITY_MUST_BE_POSITIVE.value()));
-
-        ApiException ex2 = assertThrows(ApiException.class, () -> inventoryApi.reduceInventory(productId, -1));
-        assertTrue(ex2.getMessage().contains(QUANTITY_MUST_BE_POSITIVE.value()));
-
+    void reduceInventoriesShouldDoNothingWhenEmpty() throws ApiException {
+        inventoryApi.reduceInventories(null);
+        inventoryApi.reduceInventories(Map.of());
         verifyNoInteractions(inventoryDao);
     }
 
     @Test
-    void reduceInventoryShouldThrowWhenInsufficientInventory() {
-        Inventory existing = inv(productId, 2);
-        when(inventoryDao.selectByProductId(productId)).thenReturn(existing);
+    void reduceInventoriesShouldDecrementAllLinesInOneGuardedBatch() throws ApiException {
+        Map<Integer, Integer> lines = quantities(1, 3, 2, 4);
+        when(inventoryDao.decrementIfAvailable(lines)).thenReturn(List.of());
 
-        ApiException ex = assertThrows(ApiException.class, () -> inventoryApi.reduceInventory(productId, 3));
-        assertTrue(ex.getMessage().contains(INSUFFICIENT_INVENTORY.value()));
-        assertTrue(ex.getMessage().contains("productId=" + productId));
+        inventoryApi.reduceInventories(lines);
 
-        verify(inventoryDao).selectByProductId(productId);
+        verify(inventoryDao).decrementIfAvailable(lines);
         verifyNoMoreInteractions(inventoryDao);
     }
 
     @Test
-    void reduceInventoryShouldReduceQuantityWhenSufficient() throws ApiException {
-        Inventory existing = inv(productId, 10);
-        when(inventoryDao.selectByProductId(productId)).thenReturn(existing);
+    void reduceInventoriesShouldReportEveryShortLine() {
+        Map<Integer, Integer> lines = quantities(1, 3, 2, 5, 3, 1);
+        when(inventoryDao.decrementIfAvailable(lines)).thenReturn(List.of(2, 3));
+        when(inventoryDao.selectByProductIds(List.of(2, 3))).thenReturn(List.of(inv(2, 1)));
 
-        inventoryApi.reduceInventory(productId, 3);
+        ApiException ex = assertThrows(ApiException.class, () -> inventoryApi.reduceInventories(lines));
 
-        assertEquals(7, existing.getQuantity());
-        verify(inventoryDao).selectByProductId(productId);
-        verifyNoMoreInteractions(inventoryDao);
+        assertTrue(ex.getMessage().contains(INSUFFICIENT_INVENTORY.value()));
+        assertTrue(ex.getMessage().contains("productId=2, available=1, requested=5"));
+        assertTrue(ex.getMessage().contains("productId=3, available=0, requested=1"));
+        assertFalse(ex.getMessage().contains("productId=1"));
     }
 
     @Test
-    void getCountByProductIdsShouldReturnZeroWhenNullOrEmpty() {
-        assertEquals(0L, inventoryApi.getCountByProductIds(null));
-        assertEquals(0L, inventoryApi.getCountByProductIds(List.of()));
-        verifyNoInteractions(inventoryDao);
-    }
+    void reduceInventoriesShouldThrowWhenQuantityNotPositive() {
+        ApiException ex = assertThrows(ApiException.class, () -> inventoryApi.reduceInventories(Map.of(1, 0)));
+        assertTrue(ex.getMessage().contains(QUANTITY_MUST_BE_POSITIVE.value()));
 
-    @Test
-    void getCountByProductIdsShouldCallDaoWhenIdsPresent() {
-        List<Integer> ids = List.of(1, 2, 3);
-        when(inventoryDao.getCountByProductIds(ids)).thenReturn(12L);
+        ApiException negative = assertThrows(ApiException.class, () -> inventoryApi.reduceInventories(Map.of(1, -1)));
+        assertTrue(negative.getMessage().contains(QUANTITY_MUST_BE_POSITIVE.value()));
 
-        long out = inventoryApi.getCountByProductIds(ids);
+        ApiException missing = assertThrows(ApiException.class,
+                () -> inventoryApi.reduceInventories(Collections.singletonMap(1, null)));
+        assertTrue(missing.getMessage().contains(QUANTITY_MUST_BE_POSITIVE.value()));
 
-        assertEquals(12L, out);
-        verify(inventoryDao).getCountByProductIds(ids);
-        verifyNoMoreInteractions(inventoryDao);
+        verifyNoInteractions(inventoryDao);
     }
 
     @Test
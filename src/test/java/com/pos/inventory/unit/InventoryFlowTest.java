@@ -4,10 +4,14 @@ import com.pos.api.InventoryApi;
 import com.pos.api.ProductApi;
 import com.pos.exception.ApiException;
 import com.pos.flow.InventoryFlow;
+import com.pos.metrics.UploadMetrics;
+import com.pos.model.form.InventoryForm;
 import com.pos.pojo.Inventory;
-import org.junit.jupiter.api.BeforeEach;
+import com.pos.pojo.Product;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -30,123 +34,56 @@ class InventoryFlowTest {
     @Mock
     private ProductApi productApi;
 
-    private String barcode;
-    private String productName;
-    private int page;
-    private int pageSize;
-
-    private Inventory inv(Integer productId, Integer qty) {
-        Inventory i = new Inventory();
-        i.setProductId(productId);
-        i.setQuantity(qty);
-        return i;
-    }
-
-    @BeforeEach
-    void setupData() {
-        barcode = "B1";
-        productName = "Soap";
-        page = 1;
-        pageSize = 20;
-    }
-
-    @Test
-    void searchInventories_shouldCallProductApiThenInventoryApi() throws ApiException {
-        List<Integer> productIds = List.of(10, 20);
-        List<Inventory> expected = List.of(inv(10, 1), inv(20, 2));
-
-        when(productApi.findProductIdsByBarcodeOrName(barcode, productName)).thenReturn(productIds);
-        when(inventoryApi.findByProductIds(productIds, page, pageSize)).thenReturn(expected);
-
-        List<Inventory> actual = inventoryFlow.searchInventories(barcode, productName, page, pageSize);
-
-        assertSame(expected, actual);
-        verify(productApi).findProductIdsByBarcodeOrName(barcode, productName);
-        verify(inventoryApi).findByProductIds(productIds, page, pageSize);
-        verifyNoMoreInteractions(productApi, inventoryApi);
-    }
-
-    @Test
-    void searchInventories_shouldPassEmptyProductIds_whenProductApiReturnsEmpty() throws ApiException {
-        List<Integer> empty = List.of();
-        List<Inventory> expected = List.of();
-
-        when(productApi.findProductIdsByBarcodeOrName(null, "Whatever")).thenReturn(empty);
-        when(inventoryApi.findByProductIds(empty, 0, 10)).thenReturn(expected);
-
-        List<Inventory> actual = inventoryFlow.searchInventories(null, "Whatever", 0, 10);
-
-        assertSame(expected, actual);
-        verify(productApi).findProductIdsByBarcodeOrName(null, "Whatever");
-        verify(inventoryApi).findByProductIds(empty, 0, 10);
-        verifyNoMoreInteractions(productApi, inventoryApi);
-    }
-
-    @Test
-    void searchInventories_shouldPassNullProductIds_whenProductApiReturnsNull() throws ApiException {
-        when(productApi.findProductIdsByBarcodeOrName(barcode, null)).thenReturn(null);
-        when(inventoryApi.findByProductIds(null, 0, 10)).thenReturn(List.of());
-
-        List<Inventory> actual = inventoryFlow.searchInventories(barcode, null, 0, 10);
-
-        assertNotNull(actual);
-        verify(productApi).findProductIdsByBarcodeOrName(barcode, null);
-        verify(inventoryApi).findByProductIds(null, 0, 10);
-        verifyNoMoreInteractions(productApi, inventoryApi);
-    }
-
-    @Test
-    void getSearchCount_shouldCallProductApiThenInventoryApiCount() throws ApiException {
-        String bc = "B2";
-        String name = "Milk";
-        List<Integer> productIds = List.of(1, 2, 3);
-
-        when(productApi.findProductIdsByBarcodeOrName(bc, name)).thenReturn(productIds);
-        when(inventoryApi.getCountByProductIds(productIds)).thenReturn(42L);
+    @Mock
+    private UploadMetrics uploadMetrics;
 
-        long count = inventoryFlow.getSearchCount(bc, name);
+    @Captor
+    private ArgumentCaptor<List<Inventory>> added;
 
-        assertEquals(42L, count);
-        verify(productApi).findProductIdsByBarcodeOrName(bc, name);
-        verify(inventoryApi).getCountByProductIds(productIds);
-        verifyNoMoreInteractions(productApi, inventoryApi);
+    private InventoryForm form(String barcode, Integer quantity) {
+        InventoryForm f = new InventoryForm();
+        f.setBarcode(barcode);
+        f.setQuantity(quantity);
+        return f;
     }
 
-    @Test
-    void getSearchCount_shouldPassEmptyIds_whenProductApiReturnsEmpty() throws ApiException {
-        List<Integer> empty = List.of();
-
-        when(productApi.findProductIdsByBarcodeOrName(null, null)).thenReturn(empty);
-        when(inventoryApi.getCountByProductIds(empty)).thenReturn(0L);
-
-        long count = inventoryFlow.getSearchCount(null, null);
-
-        assertEquals(0L, count);
-        verify(productApi).findProductIdsByBarcodeOrName(null, null);
-        verify(inventoryApi).getCountByProductIds(empty);
-        verifyNoMoreInteractions(productApi, inventoryApi);
+    private Product product(Integer id, String barcode) {
+        Product p = new Product();
+        p.setId(id);
+        p.setBarcode(barcode);
+        return p;
     }
 
     @Test
-    void searchInventories_shouldPropagateApiException_fromProductApi() throws ApiException {
-        when(productApi.findProductIdsByBarcodeOrName(any(), any()))
-                .thenThrow(new ApiException("boom"));
-
-        assertThrows(ApiException.class, () -> inventoryFlow.searchInventories("B", "P", 0, 10));
-        verify(productApi).findProductIdsByBarcodeOrName("B", "P");
-        verifyNoInteractions(inventoryApi);
+    void upload_shouldResolveBarcodesAndAddEachChunk() throws ApiException {
+        List<InventoryForm> chunk1 = List.of(form("B1", 5), form("B2", 7));
+        List<InventoryForm> chunk2 = List.of(form("B3", 1));
+
+        when(productApi.getCheckByBarcodes(List.of("B1", "B2"))).thenReturn(List.of(product(10, "B1"), product(20, "B2")));
+        when(productApi.getCheckByBarcodes(List.of("B3"))).thenReturn(List.of(product(30, "B3")));
+
+        inventoryFlow.upload(consumer -> {
+            consumer.accept(chunk1);
+            consumer.accept(chunk2);
+            return 3;
+        });
+
+        verify(inventoryApi, times(2)).add(added.capture());
+        List<Inventory> first = added.getAllValues().getFirst();
+        assertEquals(List.of(10, 20), first.stream().map(Inventory::getProductId).toList());
+        assertEquals(List.of(5, 7), first.stream().map(Inventory::getQuantity).toList());
+        assertEquals(30, added.getAllValues().get(1).getFirst().getProductId());
+        verify(uploadMetrics).record(eq("inventory"), eq(3), anyLong());
     }
 
     @Test
-    void getSearchCount_shouldPropagateApiException_fromInventoryApi() throws ApiException {
-        List<Integer> ids = List.of(1);
-
-        when(productApi.findProductIdsByBarcodeOrName(any(), any())).thenReturn(ids);
-        when(inventoryApi.getCountByProductIds(ids)).thenThrow(new ApiException("boom"));
-
-        assertThrows(ApiException.class, () -> inventoryFlow.getSearchCount("B", "P"));
-        verify(productApi).findProductIdsByBarcodeOrName("B", "P");
-        verify(inventoryApi).getCountByProductIds(ids);
-        verifyNoMoreInteractions(productApi, inventoryApi);
+    void upload_shouldStopAtFirstUnknownBarcode() throws ApiException {
+        when(productApi.getCheckByBarcodes(any())).thenThrow(new ApiException("boom"));
+
+        assertThrows(ApiException.class, () -> inventoryFlow.upload(consumer -> {
+            consumer.accept(List.of(form("NOPE", 1)));
+            return 1;
+        }));
+        verifyNoInteractions(inventoryApi, uploadMetrics);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,76 @@
+package com.pos.metrics;
+
+import com.pos.api.ClientApi;
+import com.pos.dao.ClientDao;
+import com.pos.exception.ApiException;
+import com.pos.flow.OrderFlow;
+import com.pos.pojo.Client;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LayerTimingAspectTest {
+
+    @InjectMocks
+    private ClientApi target;
+
+    @Mock
+    private ClientDao clientDao;
+
+    private SimpleMeterRegistry registry;
+    private ClientApi clientApi;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new LayerTimingAspect(registry));
+        clientApi = factory.getProxy();
+    }
+
+    private Timer timer(String method, String exception) {
+        return registry.find(LayerTimingAspect.METRIC)
+                .tags("layer", "api", "class", "ClientApi", "method", method, "exception", exception)
+                .timer();
+    }
+
+    @Test
+    void shouldTimeEachCallThroughTheProxy() throws ApiException {
+        when(clientDao.selectById(1)).thenReturn(new Client());
+
+        clientApi.getCheck(1);
+        clientApi.getCheck(1);
+
+        assertEquals(2, timer("getCheck", "none").count());
+        // getCheck calls get on itself, which does not go through the proxy
+        assertNull(timer("get", "none"));
+    }
+
+    @Test
+    void shouldTagFailuresWithTheExceptionAndRethrow() {
+        when(clientDao.selectById(2)).thenReturn(null);
+
+        assertThrows(ApiException.class, () -> clientApi.getCheck(2));
+
+        assertEquals(1, timer("getCheck", "ApiException").count());
+        assertNull(timer("getCheck", "none"));
+    }
+
+    @Test
+    void layerShouldFollowTheClassSuffix() {
+        assertEquals("api", LayerTimingAspect.layer(ClientApi.class));
+        assertEquals("flow", LayerTimingAspect.layer(OrderFlow.class));
+        assertEquals("dao", LayerTimingAspect.layer(ClientDao.class));
+    }
+}
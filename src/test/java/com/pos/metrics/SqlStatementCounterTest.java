@@ -0,0 +1,67 @@
+package com.pos.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class SqlStatementCounterTest {
+
+    private final SqlStatementCounter counter = new SqlStatementCounter();
+
+    private DataSource countingDataSource(Connection connection) throws SQLException {
+        DataSource target = mock(DataSource.class);
+        when(target.getConnection()).thenReturn(connection);
+        return new StatementCountingDataSource(target, counter);
+    }
+
+    @Test
+    void shouldCountStatementsPreparedOnWrappedConnections() throws SQLException {
+        Connection connection = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(connection.prepareStatement("SELECT 1")).thenReturn(statement);
+
+        counter.begin();
+        try (Connection wrapped = countingDataSource(connection).getConnection()) {
+            assertSame(statement, wrapped.prepareStatement("SELECT 1"));
+            wrapped.createStatement();
+            wrapped.getAutoCommit();
+        }
+
+        assertEquals(2, counter.end());
+        verify(connection).close();
+    }
+
+    @Test
+    void shouldRethrowTheDriverException() throws SQLException {
+        Connection connection = mock(Connection.class);
+        when(connection.prepareStatement(anyString())).thenThrow(new SQLException("gone"));
+
+        Connection wrapped = countingDataSource(connection).getConnection();
+
+        SQLException ex = assertThrows(SQLException.class, () -> wrapped.prepareStatement("SELECT 1"));
+        assertEquals("gone", ex.getMessage());
+    }
+
+    @Test
+    void shouldCountPerThreadOnlyBetweenBeginAndEnd_butAlwaysInTotal() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        counter.bindTo(registry);
+
+        counter.increment();
+        counter.begin();
+        counter.increment();
+        counter.begin();
+        counter.increment();
+
+        assertEquals(2, counter.end());
+        assertEquals(0, counter.end());
+        assertEquals(3.0, registry.get("pos.sql.statements").functionCounter().count());
+    }
+}
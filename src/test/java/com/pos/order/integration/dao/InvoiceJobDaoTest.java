@@ -0,0 +1,119 @@
+package com.pos.order.integration.dao;
+
+import com.pos.dao.InvoiceJobDao;
+import com.pos.model.constants.InvoiceJobStatus;
+import com.pos.pojo.InvoiceJob;
+import com.pos.setup.AbstractDaoTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Import(InvoiceJobDao.class)
+class InvoiceJobDaoTest extends AbstractDaoTest {
+
+    @Autowired
+    private InvoiceJobDao dao;
+
+    private InvoiceJob job(String id, Integer orderId, ZonedDateTime heartbeatAt) {
+        InvoiceJob job = new InvoiceJob();
+        job.setId(id);
+        job.setOrderId(orderId);
+        job.setActiveOrderId(orderId);
+        job.setStatus(InvoiceJobStatus.QUEUED);
+        job.setForm("{}");
+        job.setAttempts(0);
+        job.setHeartbeatAt(heartbeatAt);
+        job.setCreatedAt(heartbeatAt);
+        return persist(job);
+    }
+
+    @Test
+    void claimShouldTakeQueuedJobOnce_andRunningJobOnlyWhenStale() {
+        ZonedDateTime now = ZonedDateTime.now();
+        job("j1", 1, now);
+
+        assertTrue(dao.claim("j1", "t1", now, now.minusMinutes(5)));
+        assertFalse(dao.claim("j1", "t2", now, now.minusMinutes(5)));
+        assertTrue(dao.claim("j1", "t3", now.plusMinutes(10), now.plusMinutes(5)));
+        em.clear();
+
+        InvoiceJob claimed = dao.selectById("j1");
+        assertEquals(InvoiceJobStatus.RUNNING, claimed.getStatus());
+        assertEquals("t3", claimed.getClaimToken());
+    }
+
+    @Test
+    void updatesShouldOnlyApplyForCurrentClaim_andFinishFreesTheOrder() {
+        ZonedDateTime now = ZonedDateTime.now();
+        job("j1", 1, now);
+        dao.claim("j1", "t1", now, now.minusMinutes(5));
+
+        assertFalse(dao.updateAttempts("j1", "stale", 2, now));
+        assertFalse(dao.finish("j1", "stale", InvoiceJobStatus.FAILED, null, "x", now));
+        assertTrue(dao.updateAttempts("j1", "t1", 2, now));
+        assertTrue(dao.finish("j1", "t1", InvoiceJobStatus.SUCCEEDED, "/inv/1.pdf", null, now));
+        assertFalse(dao.finish("j1", "t1", InvoiceJobStatus.FAILED, null, "again", now));
+        em.clear();
+
+        InvoiceJob done = dao.selectById("j1");
+        assertEquals(InvoiceJobStatus.SUCCEEDED, done.getStatus());
+        assertEquals(2, done.getAttempts());
+        assertNull(done.getActiveOrderId());
+        assertNull(dao.selectActiveByOrderId(1));
+    }
+
+    @Test
+    void stalledJobsShouldBeTakenOverOnce() {
+        ZonedDateTime now = ZonedDateTime.now();
+        job("old", 1, now.minusMinutes(10));
+        job("fresh", 2, now);
+
+        List<String> stalled = dao.selectStalledIds(now.minusMinutes(5), 10);
+        assertEquals(List.of("old"), stalled);
+        assertTrue(dao.takeOverIfStalled("old", "t1", now, now.minusMinutes(5)));
+        assertFalse(dao.takeOverIfStalled("old", "t2", now, now.minusMinutes(5)));
+        em.clear();
+
+        InvoiceJob taken = dao.selectById("old");
+        assertEquals(InvoiceJobStatus.RUNNING, taken.getStatus());
+        assertEquals("t1", taken.getClaimToken());
+    }
+
+    @Test
+    void stalledRunningJobShouldPassToTheNewToken() {
+        ZonedDateTime now = ZonedDateTime.now();
+        job("orphan", 1, now.minusMinutes(10));
+        dao.claim("orphan", "gone", now.minusMinutes(10), now.minusMinutes(15));
+
+        assertEquals(List.of("orphan"), dao.selectStalledIds(now.minusMinutes(5), 10));
+        assertTrue(dao.takeOverIfStalled("orphan", "t1", now, now.minusMinutes(5)));
+
+        assertFalse(dao.updateAttempts("orphan", "gone", 2, now));
+        assertTrue(dao.updateAttempts("orphan", "t1", 1, now));
+        assertTrue(dao.finish("orphan", "t1", InvoiceJobStatus.SUCCEEDED, "/inv/1.pdf", null, now));
+        em.clear();
+
+        InvoiceJob done = dao.selectById("orphan");
+        assertEquals(InvoiceJobStatus.SUCCEEDED, done.getStatus());
+        assertNull(done.getActiveOrderId());
+    }
+
+    @Test
+    void deleteFinishedBeforeShouldKeepActiveAndRecentJobs() {
+        ZonedDateTime now = ZonedDateTime.now();
+        job("active", 1, now.minusHours(3));
+        job("old", 2, now.minusHours(3));
+        dao.claim("old", "t", now, now);
+        dao.finish("old", "t", InvoiceJobStatus.SUCCEEDED, "/inv/2.pdf", null, now.minusHours(2));
+
+        assertEquals(1, dao.deleteFinishedBefore(now.minusHours(1)));
+        em.clear();
+        assertNotNull(dao.selectById("active"));
+        assertNull(dao.selectById("old"));
+    }
+}
@@ -1,6 +1,8 @@
 package com.pos.order.integration.dao;
 
 import com.pos.dao.OrderDao;
+import com.pos.dao.OrderRow;
+import com.pos.dao.PageResult;
 import com.pos.model.constants.OrderStatus;
 import com.pos.pojo.Order;
 import com.pos.setup.AbstractDaoTest;
@@ -10,7 +12,11 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Import;
 
+import java.time.ZonedDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -32,10 +38,30 @@ class OrderDaoTest extends AbstractDaoTest {
         dao.insert(invoiced);
         em.clear();
 
-        List<Order> out = dao.search(null, null, null, OrderStatus.INVOICED, 0, 10);
+        PageResult<OrderRow> out = dao.searchPage(null, null, null, OrderStatus.INVOICED, 0, 10, true);
 
-        assertEquals(1, out.size());
-        assertEquals(invoiced.getId(), out.getFirst().getId());
+        assertEquals(1, out.rows().size());
+        assertEquals(invoiced.getId(), out.rows().getFirst().id());
+        assertEquals(OrderStatus.INVOICED, out.rows().getFirst().status());
+        assertEquals(1L, out.totalCount());
+    }
+
+    @Test
+    void searchPageShouldSumItemTotalsInTheProjection() {
+        Order withItems = TestEntities.newOrder(OrderStatus.CREATED, null);
+        dao.insert(withItems);
+        Order empty = TestEntities.newOrder(OrderStatus.CREATED, null);
+        dao.insert(empty);
+        em.persist(TestEntities.newOrderItem(withItems.getId(), 1, 2, 10.0));
+        em.persist(TestEntities.newOrderItem(withItems.getId(), 2, 1, 5.5));
+        em.flush();
+        em.clear();
+
+        Map<Integer, Double> totalById = dao.searchPage(null, null, null, null, 0, 10, false).rows().stream()
+                .collect(Collectors.toMap(OrderRow::id, OrderRow::totalAmount));
+
+        assertEquals(25.5, totalById.get(withItems.getId()), 1e-9);
+        assertEquals(0.0, totalById.get(empty.getId()), 1e-9);
     }
 
     @Test
@@ -47,4 +73,85 @@ class OrderDaoTest extends AbstractDaoTest {
 
         assertEquals(2, dao.getCount(null, null, null, OrderStatus.INVOICED));
     }
-}
\ No newline at end of file
+
+    @Test
+    void searchPageShouldPreferStoredTotals() {
+        Order stored = TestEntities.newOrder(OrderStatus.CREATED, null);
+        stored.setTotalAmount(99.0);
+        stored.setItemCount(3);
+        dao.insert(stored);
+        em.persist(TestEntities.newOrderItem(stored.getId(), 1, 1, 1.0));
+        em.flush();
+        em.clear();
+
+        OrderRow row = dao.searchPage(stored.getId(), null, null, null, 0, 10, false).rows().getFirst();
+
+        assertEquals(99.0, row.totalAmount(), 1e-9);
+        assertEquals(3, row.itemCount());
+    }
+
+    @Test
+    void updateTotalsFromItemsShouldFillOnlyMissingOrdersAndKeepUpdatedAt() {
+        Order withItems = TestEntities.newOrder(OrderStatus.CREATED, null);
+        dao.insert(withItems);
+        Order empty = TestEntities.newOrder(OrderStatus.CREATED, null);
+        dao.insert(empty);
+        em.persist(TestEntities.newOrderItem(withItems.getId(), 1, 2, 10.0));
+        em.persist(TestEntities.newOrderItem(withItems.getId(), 2, 1, 5.5));
+        em.flush();
+        em.clear();
+        ZonedDateTime updatedAt = dao.selectById(withItems.getId()).getUpdatedAt();
+        em.clear();
+
+        List<Integer> missing = dao.selectIdsWithoutTotals(10);
+        assertEquals(List.of(withItems.getId(), empty.getId()), missing);
+
+        dao.updateTotalsFromItems(missing);
+        em.clear();
+
+        Order filled = dao.selectById(withItems.getId());
+        assertEquals(25.5, filled.getTotalAmount(), 1e-9);
+        assertEquals(2, filled.getItemCount());
+        assertEquals(updatedAt.toInstant(), filled.getUpdatedAt().toInstant());
+        assertEquals(0, dao.selectById(empty.getId()).getItemCount());
+        assertTrue(dao.selectIdsWithoutTotals(10).isEmpty());
+    }
+
+    @Test
+    void searchAfterWalksAllPagesWithoutGapsOrRepeats() {
+        for (int i = 0; i < 5; i++) {
+            dao.insert(TestEntities.newOrder(OrderStatus.CREATED, null));
+        }
+        em.flush();
+        em.clear();
+
+        List<OrderRow> all = dao.searchPage(null, null, null, null, 0, 10, false).rows();
+        List<OrderRow> page1 = dao.searchAfter(null, null, null, null, null, null, 2);
+        OrderRow last1 = page1.get(1);
+        List<OrderRow> page2 = dao.searchAfter(null, null, null, null, last1.updatedAt(), last1.id(), 2);
+        OrderRow last2 = page2.get(1);
+        List<OrderRow> page3 = dao.searchAfter(null, null, null, null, last2.updatedAt(), last2.id(), 2);
+
+        assertEquals(5, all.size());
+        assertEquals(2, page1.size());
+        assertEquals(2, page2.size());
+        assertEquals(1, page3.size());
+        assertEquals(
+                all.stream().map(OrderRow::id).toList(),
+                Stream.of(page1, page2, page3).flatMap(List::stream).map(OrderRow::id).toList()
+        );
+    }
+
+    @Test
+    void searchAfterAppliesFilters() {
+        dao.insert(TestEntities.newOrder(OrderStatus.CREATED, null));
+        Order invoiced = TestEntities.newOrder(OrderStatus.INVOICED, "inv");
+        dao.insert(invoiced);
+        em.clear();
+
+        List<OrderRow> out = dao.searchAfter(null, null, null, OrderStatus.INVOICED, null, null, 10);
+
+        assertEquals(1, out.size());
+        assertEquals(invoiced.getId(), out.getFirst().id());
+    }
+}
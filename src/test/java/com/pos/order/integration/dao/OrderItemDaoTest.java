@@ -80,6 +80,32 @@ class OrderItemDaoTest extends AbstractDaoTest {
                 x.getOrderId().equals(o10.getId()) || x.getOrderId().equals(o11.getId())));
     }
 
+    @Test
+    void insertAllWritesEveryItemInOneBatch() {
+        Order order = TestEntities.newOrder(OrderStatus.CREATED, null);
+        orderDao.insert(order);
+
+        List<OrderItem> items = List.of(
+                TestEntities.newOrderItem(order.getId(), 201, 2, 15.0),
+                TestEntities.newOrderItem(order.getId(), 202, 1, 30.0),
+                TestEntities.newOrderItem(order.getId(), 203, 4, 5.5)
+        );
+
+        dao.insertAll(items);
+        em.clear();
+
+        List<OrderItem> out = dao.selectByOrderId(order.getId());
+        assertEquals(3, out.size());
+        assertEquals(List.of(201, 202, 203), out.stream().map(OrderItem::getProductId).toList());
+        assertTrue(out.stream().allMatch(x -> x.getCreatedAt() != null && x.getVersion() == 0));
+    }
+
+    @Test
+    void insertAll_whenEmpty_doesNothing() {
+        dao.insertAll(List.of());
+        assertEquals(List.of(), dao.selectByOrderId(-1));
+    }
+
     @Test
     void selectByOrderIds_whenNull_returnsEmpty() {
         assertEquals(List.of(), dao.selectByOrderIds(null));
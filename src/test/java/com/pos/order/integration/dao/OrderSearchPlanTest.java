@@ -0,0 +1,51 @@
+package com.pos.order.integration.dao;
+
+import com.pos.dao.OrderDao;
+import com.pos.model.constants.OrderStatus;
+import com.pos.setup.AbstractQueryPlanTest;
+import com.pos.setup.TestEntities;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+
+import java.sql.Timestamp;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Import({OrderDao.class})
+class OrderSearchPlanTest extends AbstractQueryPlanTest {
+
+    private static final int ORDERS = 300;
+    private static final ZonedDateTime BASE = ZonedDateTime.of(2026, 1, 1, 0, 0, 0, 0, ZoneId.of("UTC"));
+
+    @Autowired
+    private OrderDao dao;
+
+    @BeforeEach
+    void setupData() {
+        for (int i = 0; i < ORDERS; i++) {
+            persist(TestEntities.newOrder(OrderStatus.CREATED, null));
+        }
+        // one order per hour, so a one-day range matches a small slice of the table
+        em.createNativeQuery("UPDATE pos_order SET updated_at = TIMESTAMP('2026-01-01') + INTERVAL id HOUR")
+                .executeUpdate();
+        em.clear();
+    }
+
+    @Test
+    void dateRangeOnlySearchShouldUseUpdatedAtIndex() {
+        ZonedDateTime start = BASE.plusDays(3);
+        ZonedDateTime end = BASE.plusDays(4);
+
+        assertEquals(10, dao.searchPage(null, start, end, null, 0, 10, false).rows().size());
+
+        assertEquals("pos_order_updatedAt_id_idx", explainKey(timestamp(start), timestamp(end)));
+    }
+
+    private static Timestamp timestamp(ZonedDateTime at) {
+        return Timestamp.from(at.toInstant());
+    }
+}
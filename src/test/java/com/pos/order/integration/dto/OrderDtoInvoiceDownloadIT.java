@@ -17,6 +17,8 @@ import com.pos.utils.InvoicePathUtil;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 
 import java.nio.file.Files;
@@ -54,13 +56,36 @@ class OrderDtoInvoiceDownloadIT extends AbstractIntegrationTest {
         order.setInvoicePath(INVOICE_DIR);
         flushAndClear();
 
-        ResponseEntity<byte[]> resp = orderDto.downloadInvoice(orderId);
+        ResponseEntity<Resource> resp = orderDto.downloadInvoice(orderId);
 
         assertNotNull(resp.getBody());
-        assertArrayEquals(existingBytes, resp.getBody());
+        assertArrayEquals(existingBytes, resp.getBody().getContentAsByteArray());
         verify(invoiceClient, never()).generate(any());
     }
 
+    @Test
+    void shouldServeStoredFileWithLengthAndValidators() throws Exception {
+        Integer orderId = createOrderWithOneItem("h1");
+
+        byte[] existingBytes = "cached-invoice".getBytes();
+        Files.createDirectories(Path.of(INVOICE_DIR));
+        Files.write(InvoicePathUtil.invoiceFilePath(INVOICE_DIR, orderId), existingBytes);
+
+        Order order = orderApi.getCheck(orderId);
+        order.setInvoicePath(INVOICE_DIR);
+        flushAndClear();
+
+        ResponseEntity<Resource> resp = orderDto.downloadInvoice(orderId);
+        HttpHeaders headers = resp.getHeaders();
+
+        assertEquals(existingBytes.length, resp.getBody().contentLength());
+        assertNotNull(headers.getETag());
+        assertTrue(headers.getLastModified() > 0);
+        assertEquals("bytes", headers.getFirst(HttpHeaders.ACCEPT_RANGES));
+        assertTrue(headers.getFirst(HttpHeaders.CONTENT_DISPOSITION).contains("invoice_" + orderId + ".pdf"));
+        assertEquals(headers.getETag(), orderDto.downloadInvoice(orderId).getHeaders().getETag());
+    }
+
     @Test
     void shouldGenerateInvoiceWhenDownloadingWithoutExistingPath() throws Exception {
         Integer orderId = createOrderWithOneItem("b2");
@@ -74,10 +99,10 @@ class OrderDtoInvoiceDownloadIT extends AbstractIntegrationTest {
 
         when(invoiceClient.generate(any())).thenReturn(data);
 
-        ResponseEntity<byte[]> resp = orderDto.downloadInvoice(orderId);
+        ResponseEntity<Resource> resp = orderDto.downloadInvoice(orderId);
 
         assertNotNull(resp.getBody());
-        assertArrayEquals(pdf, resp.getBody());
+        assertArrayEquals(pdf, resp.getBody().getContentAsByteArray());
         verify(invoiceClient, times(1)).generate(any());
 
         assertTrue(Files.exists(InvoicePathUtil.invoiceFilePath(INVOICE_DIR, orderId)));
@@ -100,10 +125,10 @@ class OrderDtoInvoiceDownloadIT extends AbstractIntegrationTest {
 
         when(invoiceClient.generate(any())).thenReturn(data);
 
-        ResponseEntity<byte[]> resp = orderDto.downloadInvoice(orderId);
+        ResponseEntity<Resource> resp = orderDto.downloadInvoice(orderId);
 
         assertNotNull(resp.getBody());
-        assertArrayEquals(pdf, resp.getBody());
+        assertArrayEquals(pdf, resp.getBody().getContentAsByteArray());
         verify(invoiceClient, times(1)).generate(any());
     }
 
@@ -128,10 +153,10 @@ class OrderDtoInvoiceDownloadIT extends AbstractIntegrationTest {
 
         when(invoiceClient.generate(any())).thenReturn(data);
 
-        ResponseEntity<byte[]> resp = orderDto.downloadInvoice(orderId);
+        ResponseEntity<Resource> resp = orderDto.downloadInvoice(orderId);
 
         assertNotNull(resp.getBody());
-        assertArrayEquals(pdf, resp.getBody());
+        assertArrayEquals(pdf, resp.getBody().getContentAsByteArray());
         verify(invoiceClient, times(1)).generate(any());
     }
 
@@ -151,7 +176,7 @@ class OrderDtoInvoiceDownloadIT extends AbstractIntegrationTest {
 
         var resp = orderDto.downloadInvoice(orderId);
 
-        assertArrayEquals(pdf, resp.getBody());
+        assertArrayEquals(pdf, resp.getBody().getContentAsByteArray());
         verify(invoiceClient, times(1)).generate(any());
     }
 
@@ -170,7 +195,7 @@ class OrderDtoInvoiceDownloadIT extends AbstractIntegrationTest {
 
         var resp = orderDto.downloadInvoice(orderId);
 
-        assertArrayEquals(existing, resp.getBody());
+        assertArrayEquals(existing, resp.getBody().getContentAsByteArray());
         verify(invoiceClient, never()).generate(any());
     }
 
@@ -192,7 +217,7 @@ class OrderDtoInvoiceDownloadIT extends AbstractIntegrationTest {
 
         var resp = orderDto.downloadInvoice(orderId);
 
-        assertArrayEquals(pdf, resp.getBody());
+        assertArrayEquals(pdf, resp.getBody().getContentAsByteArray());
         verify(invoiceClient, times(1)).generate(any());
     }
 
@@ -212,7 +237,7 @@ class OrderDtoInvoiceDownloadIT extends AbstractIntegrationTest {
 
         var resp = orderDto.downloadInvoice(orderId);
 
-        assertArrayEquals(pdf, resp.getBody());
+        assertArrayEquals(pdf, resp.getBody().getContentAsByteArray());
         verify(invoiceClient, times(1)).generate(any());
     }
 
@@ -237,7 +262,7 @@ class OrderDtoInvoiceDownloadIT extends AbstractIntegrationTest {
 
         var resp = orderDto.downloadInvoice(orderId);
 
-        assertArrayEquals(pdf, resp.getBody());
+        assertArrayEquals(pdf, resp.getBody().getContentAsByteArray());
         verify(invoiceClient, times(1)).generate(any());
     }
 
@@ -257,7 +282,7 @@ class OrderDtoInvoiceDownloadIT extends AbstractIntegrationTest {
 
         var resp = orderDto.downloadInvoice(orderId);
 
-        assertArrayEquals(pdf, resp.getBody());
+        assertArrayEquals(pdf, resp.getBody().getContentAsByteArray());
         verify(invoiceClient, times(1)).generate(any());
     }
 
@@ -173,4 +173,57 @@ class OrderDtoSearchIT extends AbstractOrderDtoIntegrationTest {
         assertEquals(1, resp.getData().size());
         assertEquals(order.getId(), resp.getData().get(0).getId());
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldPageByCursor_andSkipCountUnlessRequested() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            orderDao.insert(TestEntities.newOrder(OrderStatus.CREATED, null));
+        }
+        flushAndClear();
+
+        OrderSearchForm first = baseSearchForm();
+        first.setPageSize(2);
+        PaginatedResponse<OrderData> page1 = orderDto.search(first);
+
+        assertEquals(2, page1.getData().size());
+        assertEquals(3L, page1.getTotalCount());
+        assertNotNull(page1.getNextCursor());
+
+        OrderSearchForm next = baseSearchForm();
+        next.setPageSize(2);
+        next.setCursor(page1.getNextCursor());
+        PaginatedResponse<OrderData> page2 = orderDto.search(next);
+
+        assertEquals(1, page2.getData().size());
+        assertNull(page2.getTotalCount());
+        assertNull(page2.getNextCursor());
+        assertTrue(page1.getData().stream().noneMatch(o -> o.getId().equals(page2.getData().get(0).getId())));
+    }
+
+    @Test
+    void shouldReturnStoredTotals_andItemsOnlyWhenRequested() throws Exception {
+        Integer orderId = seedOrderWithOneItem("SRCH-ITEMS");
+
+        OrderSearchForm form = baseSearchForm();
+        form.setId(orderId);
+        OrderData withoutItems = orderDto.search(form).getData().getFirst();
+
+        assertEquals(10.0, withoutItems.getTotalAmount(), 1e-9);
+        assertEquals(1, withoutItems.getItemCount());
+        assertNull(withoutItems.getItems());
+
+        form.setIncludeItems(true);
+        OrderData withItems = orderDto.search(form).getData().getFirst();
+
+        assertEquals(1, withItems.getItems().size());
+        assertEquals("SRCH-ITEMS", withItems.getItems().getFirst().getBarcode());
+    }
+
+    @Test
+    void shouldThrowWhenCursorInvalid() {
+        OrderSearchForm form = baseSearchForm();
+        form.setCursor("not-a-cursor");
+
+        assertThrows(ApiException.class, () -> orderDto.search(form));
+    }
+}
@@ -0,0 +1,94 @@
+package com.pos.order.unit;
+
+import com.pos.api.OrderApi;
+import com.pos.controller.OrderController;
+import com.pos.dto.OrderDto;
+import com.pos.pojo.Order;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@ExtendWith(MockitoExtension.class)
+class InvoiceDownloadRangeTest {
+
+    private static final String PDF = "%PDF-1.4 0123456789";
+
+    @InjectMocks
+    private OrderDto orderDto;
+
+    @Mock
+    private OrderApi orderApi;
+
+    @TempDir
+    Path invoiceDir;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Files.writeString(invoiceDir.resolve("INV-7.pdf"), PDF, StandardCharsets.US_ASCII);
+        Order order = new Order();
+        order.setId(7);
+        order.setInvoicePath(invoiceDir.toString());
+        when(orderApi.getCheck(7)).thenReturn(order);
+
+        OrderController controller = new OrderController();
+        ReflectionTestUtils.setField(controller, "orderDto", orderDto);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    private MockHttpServletResponse download(String range) throws Exception {
+        var request = get("/orders/7/invoice/download");
+        if (range != null) request.header(HttpHeaders.RANGE, range);
+        return mockMvc.perform(request).andReturn().getResponse();
+    }
+
+    @Test
+    void fullDownloadShouldDeclareTheFileLength() throws Exception {
+        MockHttpServletResponse response = download(null);
+
+        assertEquals(200, response.getStatus());
+        assertEquals(PDF.length(), response.getContentAsByteArray().length);
+        assertEquals(String.valueOf(PDF.length()), response.getHeader(HttpHeaders.CONTENT_LENGTH));
+    }
+
+    @Test
+    void singleRangeShouldDeclareTheRangeLength() throws Exception {
+        MockHttpServletResponse response = download("bytes=0-3");
+
+        assertEquals(206, response.getStatus());
+        assertEquals("%PDF", response.getContentAsString());
+        assertEquals("4", response.getHeader(HttpHeaders.CONTENT_LENGTH));
+    }
+
+    @Test
+    void multipleRangesShouldDeclareTheMultipartBodyLength() throws Exception {
+        MockHttpServletResponse response = download("bytes=0-3,10-14");
+
+        assertEquals(206, response.getStatus());
+        assertTrue(response.getContentType().startsWith("multipart/byteranges"));
+        int bodyLength = response.getContentAsByteArray().length;
+        assertTrue(bodyLength > PDF.length());
+        // multipart bodies are streamed without a length; a declared one must match the body
+        String declared = response.getHeader(HttpHeaders.CONTENT_LENGTH);
+        assertTrue(declared == null || declared.equals(String.valueOf(bodyLength)),
+                "Content-Length " + declared + " for a " + bodyLength + "-byte body");
+    }
+}
@@ -0,0 +1,159 @@
+package com.pos.order.unit;
+
+import com.pos.config.InvoiceHttpInterceptor;
+import com.pos.model.data.InvoiceData;
+import com.pos.setup.StubInvoiceServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class InvoiceHttpInterceptorTest {
+
+    private StubInvoiceServer stub;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        stub = StubInvoiceServer.start(0, 0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        stub.close();
+    }
+
+    private RestTemplate restTemplate(InvoiceHttpInterceptor interceptor) {
+        RestTemplate restTemplate = new RestTemplate(new JdkClientHttpRequestFactory());
+        restTemplate.getInterceptors().add(interceptor);
+        return restTemplate;
+    }
+
+    private InvoiceData generate(RestTemplate restTemplate) {
+        return restTemplate.postForObject(stub.baseUrl() + "/invoice", Map.of("orderId", 7), InvoiceData.class);
+    }
+
+    @Test
+    void shouldPassCallsThroughAndCountThem() {
+        InvoiceHttpInterceptor interceptor = new InvoiceHttpInterceptor(4, 100, 3, 60_000);
+        RestTemplate restTemplate = restTemplate(interceptor);
+
+        InvoiceData data = generate(restTemplate);
+        generate(restTemplate);
+
+        assertEquals(7, data.getOrderId());
+        assertNotNull(data.getBase64Pdf());
+        InvoiceHttpInterceptor.Stats stats = interceptor.stats();
+        assertEquals(2, stats.requests());
+        assertEquals(0, stats.failures());
+        assertFalse(stats.circuitOpen());
+    }
+
+    @Test
+    void shouldOpenAfterConsecutiveFailures_thenCloseOnSuccessfulTrial() throws Exception {
+        InvoiceHttpInterceptor interceptor = new InvoiceHttpInterceptor(4, 100, 2, 50);
+        RestTemplate restTemplate = restTemplate(interceptor);
+        stub.failWith(503);
+
+        assertThrows(HttpServerErrorException.class, () -> generate(restTemplate));
+        assertThrows(HttpServerErrorException.class, () -> generate(restTemplate));
+        assertThrows(ResourceAccessException.class, () -> generate(restTemplate));
+
+        assertEquals(2, stub.calls());
+        assertTrue(interceptor.stats().circuitOpen());
+        assertEquals(1, interceptor.stats().shortCircuited());
+
+        stub.failWith(0);
+        Thread.sleep(80);
+
+        assertNotNull(generate(restTemplate));
+        assertFalse(interceptor.stats().circuitOpen());
+    }
+
+    @Test
+    void failedTrialShouldReopenImmediately() throws Exception {
+        InvoiceHttpInterceptor interceptor = new InvoiceHttpInterceptor(4, 100, 1, 50);
+        RestTemplate restTemplate = restTemplate(interceptor);
+        stub.failWith(500);
+
+        assertThrows(HttpServerErrorException.class, () -> generate(restTemplate));
+        Thread.sleep(80);
+        assertThrows(HttpServerErrorException.class, () -> generate(restTemplate));
+        assertThrows(ResourceAccessException.class, () -> generate(restTemplate));
+
+        assertEquals(2, stub.calls());
+    }
+
+    @Test
+    void boundRegistryShouldSeeLatencyByOutcomeAndShortCircuits() {
+        InvoiceHttpInterceptor interceptor = new InvoiceHttpInterceptor(4, 100, 1, 60_000);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        interceptor.bindTo(registry);
+        RestTemplate restTemplate = restTemplate(interceptor);
+
+        generate(restTemplate);
+        stub.failWith(503);
+        assertThrows(HttpServerErrorException.class, () -> generate(restTemplate));
+        assertThrows(ResourceAccessException.class, () -> generate(restTemplate));
+
+        assertEquals(1, registry.get("pos.invoice.client.requests").tag("outcome", "success").timer().count());
+        assertEquals(1, registry.get("pos.invoice.client.requests").tag("outcome", "failure").timer().count());
+        assertEquals(1.0, registry.get("pos.invoice.client.rejected").tag("reason", "circuit_open").functionCounter().count());
+        assertEquals(1.0, registry.get("pos.invoice.client.circuit.open").gauge().value());
+    }
+
+    @Test
+    void shouldRejectWhenRouteHasNoFreeSlot() {
+        InvoiceHttpInterceptor interceptor = new InvoiceHttpInterceptor(1, 10, 5, 60_000);
+        RestTemplate restTemplate = restTemplate(interceptor);
+        stub.setLatencyMs(300);
+
+        CompletableFuture<InvoiceData> slow = CompletableFuture.supplyAsync(() -> generate(restTemplate));
+        while (stub.calls() == 0) Thread.onSpinWait();
+
+        assertThrows(ResourceAccessException.class, () -> generate(restTemplate));
+        assertNotNull(slow.join());
+        assertEquals(1, interceptor.stats().rejected());
+        assertFalse(interceptor.stats().circuitOpen());
+    }
+
+    @Test
+    void slotShouldStayTakenUntilResponseIsClosed() throws Exception {
+        InvoiceHttpInterceptor interceptor = new InvoiceHttpInterceptor(1, 10, 5, 60_000);
+        HttpRequest request = mock(HttpRequest.class);
+        when(request.getURI()).thenReturn(URI.create(stub.baseUrl() + "/invoice"));
+        ClientHttpResponse response = mock(ClientHttpResponse.class);
+        when(response.getStatusCode()).thenReturn(HttpStatus.OK);
+        ClientHttpRequestExecution execution = mock(ClientHttpRequestExecution.class);
+        when(execution.execute(any(), any())).thenReturn(response);
+
+        ClientHttpResponse first = interceptor.intercept(request, new byte[0], execution);
+        assertThrows(ResourceAccessException.class, () -> interceptor.intercept(request, new byte[0], execution));
+
+        first.close();
+        first.close();
+        // closing twice must not free a second slot: one call gets through, the next is refused
+        ClientHttpResponse second = interceptor.intercept(request, new byte[0], execution);
+        assertThrows(ResourceAccessException.class, () -> interceptor.intercept(request, new byte[0], execution));
+        second.close();
+
+        verify(response, times(3)).close();
+        verify(execution, times(2)).execute(any(), any());
+        assertEquals(2, interceptor.stats().rejected());
+    }
+}
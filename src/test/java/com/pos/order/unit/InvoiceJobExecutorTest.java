@@ -0,0 +1,332 @@
+package com.pos.order.unit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pos.api.InvoiceJobApi;
+import com.pos.api.OrderApi;
+import com.pos.client.InvoiceClient;
+import com.pos.exception.ApiException;
+import com.pos.exception.InvoiceQueueFullException;
+import com.pos.model.constants.InvoiceJobStatus;
+import com.pos.model.data.InvoiceData;
+import com.pos.model.data.InvoiceJobData;
+import com.pos.model.form.InvoiceForm;
+import com.pos.pojo.InvoiceJob;
+import com.pos.scheduler.InvoiceJobExecutor;
+import com.pos.utils.InvoiceConversion;
+import com.pos.utils.InvoicePathUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InvoiceJobExecutorTest {
+
+    private static final Integer ORDER_ID = 987_001;
+
+    @InjectMocks
+    private InvoiceJobExecutor executor;
+
+    @Mock private InvoiceClient invoiceClient;
+    @Mock private OrderApi orderApi;
+    @Spy private InMemoryInvoiceJobApi invoiceJobApi = new InMemoryInvoiceJobApi();
+    @Spy private ObjectMapper objectMapper = new ObjectMapper();
+
+    private final InvoiceForm form = new InvoiceForm();
+
+    /** Same rules as the table behind InvoiceJobApi, kept in a map. */
+    static class InMemoryInvoiceJobApi extends InvoiceJobApi {
+
+        private final Map<String, InvoiceJob> jobs = new ConcurrentHashMap<>();
+
+        @Override
+        public synchronized InvoiceJob getActiveByOrderId(Integer orderId) {
+            return jobs.values().stream().filter(j -> orderId.equals(j.getActiveOrderId())).findFirst().map(this::copy).orElse(null);
+        }
+
+        @Override
+        public synchronized InvoiceJob getCheck(Integer orderId, String jobId) throws ApiException {
+            InvoiceJob job = jobId == null ? null : jobs.get(jobId);
+            if (job == null || !job.getOrderId().equals(orderId)) throw new ApiException("Invoice job not found: " + jobId);
+            return copy(job);
+        }
+
+        @Override
+        public synchronized InvoiceJob create(Integer orderId, String form) {
+            if (getActiveByOrderId(orderId) != null) throw new DataIntegrityViolationException("pos_invoiceJob_activeOrderId_uk");
+            return insert(orderId, form, ZonedDateTime.now());
+        }
+
+        synchronized InvoiceJob insert(Integer orderId, String form, ZonedDateTime heartbeatAt) {
+            InvoiceJob job = new InvoiceJob();
+            job.setId(UUID.randomUUID().toString());
+            job.setOrderId(orderId);
+            job.setActiveOrderId(orderId);
+            job.setStatus(InvoiceJobStatus.QUEUED);
+            job.setForm(form);
+            job.setAttempts(0);
+            job.setHeartbeatAt(heartbeatAt);
+            job.setCreatedAt(heartbeatAt);
+            jobs.put(job.getId(), job);
+            return copy(job);
+        }
+
+        synchronized void markRunning(String jobId, String token) {
+            jobs.get(jobId).setStatus(InvoiceJobStatus.RUNNING);
+            jobs.get(jobId).setClaimToken(token);
+        }
+
+        @Override
+        public synchronized void delete(String jobId) {
+            jobs.remove(jobId);
+        }
+
+        @Override
+        public synchronized InvoiceJob claim(String jobId, Duration lease) {
+            InvoiceJob job = jobs.get(jobId);
+            ZonedDateTime now = ZonedDateTime.now();
+            if (job == null || job.getActiveOrderId() == null) return null;
+            if (job.getStatus() != InvoiceJobStatus.QUEUED && !job.getHeartbeatAt().isBefore(now.minus(lease))) return null;
+            job.setStatus(InvoiceJobStatus.RUNNING);
+            job.setClaimToken(UUID.randomUUID().toString());
+            job.setHeartbeatAt(now);
+            return copy(job);
+        }
+
+        @Override
+        public synchronized List<InvoiceJob> takeOverStalled(Duration lease, int limit) {
+            ZonedDateTime now = ZonedDateTime.now();
+            List<InvoiceJob> taken = new ArrayList<>();
+            for (InvoiceJob job : jobs.values()) {
+                if (taken.size() < limit && job.getActiveOrderId() != null && job.getHeartbeatAt().isBefore(now.minus(lease))) {
+                    job.setStatus(InvoiceJobStatus.RUNNING);
+                    job.setClaimToken(UUID.randomUUID().toString());
+                    job.setHeartbeatAt(now);
+                    taken.add(copy(job));
+                }
+            }
+            return taken;
+        }
+
+        @Override
+        public synchronized boolean recordAttempt(String jobId, String token, int attempts) {
+            InvoiceJob job = jobs.get(jobId);
+            if (job == null || !token.equals(job.getClaimToken())) return false;
+            job.setAttempts(attempts);
+            return true;
+        }
+
+        @Override
+        public synchronized boolean finish(String jobId, String token, InvoiceJobStatus status, String invoicePath, String error) {
+            InvoiceJob job = jobs.get(jobId);
+            if (job == null || job.getActiveOrderId() == null || !token.equals(job.getClaimToken())) return false;
+            job.setStatus(status);
+            job.setInvoicePath(invoicePath);
+            job.setError(error);
+            job.setActiveOrderId(null);
+            job.setFinishedAt(ZonedDateTime.now());
+            return true;
+        }
+
+        @Override
+        public synchronized int deleteFinishedBefore(ZonedDateTime cutoff) {
+            int before = jobs.size();
+            jobs.values().removeIf(j -> j.getFinishedAt() != null && j.getFinishedAt().isBefore(cutoff));
+            return before - jobs.size();
+        }
+
+        // Callers get detached rows, as they would from a committed transaction
+        private InvoiceJob copy(InvoiceJob job) {
+            InvoiceJob c = new InvoiceJob();
+            c.setId(job.getId());
+            c.setOrderId(job.getOrderId());
+            c.setActiveOrderId(job.getActiveOrderId());
+            c.setStatus(job.getStatus());
+            c.setForm(job.getForm());
+            c.setAttempts(job.getAttempts());
+            c.setInvoicePath(job.getInvoicePath());
+            c.setError(job.getError());
+            c.setClaimToken(job.getClaimToken());
+            c.setHeartbeatAt(job.getHeartbeatAt());
+            c.setCreatedAt(job.getCreatedAt());
+            c.setFinishedAt(job.getFinishedAt());
+            return c;
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(executor, "workers", 1);
+        ReflectionTestUtils.setField(executor, "queueCapacity", 1);
+        ReflectionTestUtils.setField(executor, "retryBackoffMs", 1L);
+        form.setOrderId(ORDER_ID);
+        form.setItems(List.of());
+        executor.start();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        executor.stop();
+        Files.deleteIfExists(InvoicePathUtil.invoiceFilePath(InvoicePathUtil.INVOICE_DIR, ORDER_ID));
+    }
+
+    private InvoiceData pdf() {
+        InvoiceData data = new InvoiceData();
+        data.setOrderId(ORDER_ID);
+        data.setBase64Pdf(Base64.getEncoder().encodeToString("%PDF".getBytes()));
+        return data;
+    }
+
+    private InvoiceJobData await(InvoiceJobData job) throws Exception {
+        for (int i = 0; i < 500; i++) {
+            InvoiceJobData current = executor.getCheck(job.getOrderId(), job.getJobId());
+            if (current.getFinishedAt() != null) return current;
+            Thread.sleep(10);
+        }
+        fail("Invoice job did not finish");
+        return null;
+    }
+
+    @Test
+    void shouldRetryTransientFailures_thenStorePdfAndAttachPath() throws Exception {
+        when(invoiceClient.generate(any()))
+                .thenThrow(new ResourceAccessException("down"))
+                .thenReturn(pdf());
+
+        InvoiceJobData queued = executor.submit(ORDER_ID, form);
+        InvoiceJobData done = await(queued);
+
+        assertEquals(InvoiceJobStatus.SUCCEEDED, done.getStatus());
+        assertEquals(2, done.getAttempts());
+        assertTrue(Files.exists(InvoicePathUtil.invoiceFilePath(InvoicePathUtil.INVOICE_DIR, ORDER_ID)));
+        verify(orderApi).generateInvoice(ORDER_ID, done.getInvoicePath());
+    }
+
+    @Test
+    void shouldFailAfterMaxAttempts() throws Exception {
+        when(invoiceClient.generate(any())).thenThrow(new ResourceAccessException("down"));
+
+        InvoiceJobData done = await(executor.submit(ORDER_ID, form));
+
+        assertEquals(InvoiceJobStatus.FAILED, done.getStatus());
+        assertEquals(3, done.getAttempts());
+        assertEquals("down", done.getError());
+        verifyNoInteractions(orderApi);
+    }
+
+    @Test
+    void shouldNotRetryBusinessErrors() throws Exception {
+        when(invoiceClient.generate(any())).thenReturn(pdf());
+        doThrow(new ApiException("Invoice already generated")).when(orderApi).generateInvoice(eq(ORDER_ID), anyString());
+
+        InvoiceJobData done = await(executor.submit(ORDER_ID, form));
+
+        assertEquals(InvoiceJobStatus.FAILED, done.getStatus());
+        assertEquals(1, done.getAttempts());
+        verify(invoiceClient, times(1)).generate(any());
+    }
+
+    @Test
+    void shouldReturnActiveJobForSameOrder_andRejectWhenQueueIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(invoiceClient.generate(any())).thenAnswer(inv -> {
+            release.await(5, TimeUnit.SECONDS);
+            throw new ApiException("stop");
+        });
+
+        InvoiceJobData running = executor.submit(ORDER_ID, form);
+        assertEquals(running.getJobId(), executor.submit(ORDER_ID, form).getJobId());
+
+        InvoiceJobData queued = executor.submit(ORDER_ID + 1, form);
+        for (int i = 0; i < 500 && executor.getCheck(ORDER_ID, running.getJobId()).getStatus() == InvoiceJobStatus.QUEUED; i++) {
+            Thread.sleep(10);
+        }
+        assertThrows(InvoiceQueueFullException.class, () -> executor.submit(ORDER_ID + 2, form));
+
+        release.countDown();
+        assertEquals(InvoiceJobStatus.FAILED, await(running).getStatus());
+        assertEquals(InvoiceJobStatus.FAILED, await(queued).getStatus());
+    }
+
+    @Test
+    void getCheckShouldThrowForUnknownJobOrOtherOrder() throws Exception {
+        when(invoiceClient.generate(any())).thenThrow(new ApiException("stop"));
+        InvoiceJobData job = await(executor.submit(ORDER_ID, form));
+
+        assertThrows(ApiException.class, () -> executor.getCheck(ORDER_ID, "missing"));
+        assertThrows(ApiException.class, () -> executor.getCheck(ORDER_ID + 1, job.getJobId()));
+        assertThrows(ApiException.class, () -> executor.getCheck(ORDER_ID, null));
+    }
+
+    @Test
+    void shouldSendTheStoredForm() throws Exception {
+        when(invoiceClient.generate(any())).thenReturn(pdf());
+
+        await(executor.submit(ORDER_ID, form));
+
+        verify(invoiceClient).generate(argThat(sent -> ORDER_ID.equals(sent.getOrderId()) && sent.getItems().isEmpty()));
+    }
+
+    @Test
+    void recoverStalledShouldRunJobsLeftByAStoppedInstance() throws Exception {
+        when(invoiceClient.generate(any())).thenReturn(pdf());
+        InvoiceJob orphan = invoiceJobApi.insert(ORDER_ID, objectMapper.writeValueAsString(form),
+                ZonedDateTime.now().minusHours(1));
+
+        executor.recoverStalled();
+        InvoiceJobData done = await(InvoiceConversion.toJobData(orphan));
+
+        assertEquals(InvoiceJobStatus.SUCCEEDED, done.getStatus());
+        verify(orderApi).generateInvoice(ORDER_ID, done.getInvoicePath());
+    }
+
+    @Test
+    void recoverStalledShouldRunJobsLeftRunningByAStoppedInstance() throws Exception {
+        when(invoiceClient.generate(any())).thenReturn(pdf());
+        InvoiceJob orphan = invoiceJobApi.insert(ORDER_ID, objectMapper.writeValueAsString(form),
+                ZonedDateTime.now().minusHours(1));
+        invoiceJobApi.markRunning(orphan.getId(), "stopped-worker");
+
+        executor.recoverStalled();
+        InvoiceJobData done = await(InvoiceConversion.toJobData(orphan));
+
+        assertEquals(InvoiceJobStatus.SUCCEEDED, done.getStatus());
+        assertFalse(invoiceJobApi.finish(orphan.getId(), "stopped-worker", InvoiceJobStatus.FAILED, null, "late"));
+        verify(orderApi).generateInvoice(ORDER_ID, done.getInvoicePath());
+    }
+
+    @Test
+    void recoverStalledShouldLeaveJobsWithinTheirLease() throws Exception {
+        invoiceJobApi.insert(ORDER_ID, objectMapper.writeValueAsString(form), ZonedDateTime.now());
+
+        executor.recoverStalled();
+
+        verifyNoInteractions(invoiceClient);
+    }
+}
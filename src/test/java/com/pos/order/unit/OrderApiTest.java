@@ -3,6 +3,9 @@ package com.pos.order.unit;
 import com.pos.api.OrderApi;
 import com.pos.dao.OrderDao;
 import com.pos.dao.OrderItemDao;
+import com.pos.dao.OrderRow;
+import com.pos.dao.PageResult;
+import com.pos.dao.SalesReportDao;
 import com.pos.exception.ApiException;
 import com.pos.model.constants.OrderStatus;
 import com.pos.pojo.Order;
@@ -31,6 +34,7 @@ class OrderApiTest {
 
     @Mock private OrderDao orderDao;
     @Mock private OrderItemDao orderItemDao;
+    @Mock private SalesReportDao salesReportDao;
 
     private ZonedDateTime start;
     private ZonedDateTime end;
@@ -51,6 +55,10 @@ class OrderApiTest {
         return o;
     }
 
+    private OrderRow row(Integer id, Double totalAmount) {
+        return new OrderRow(id, start, end, OrderStatus.CREATED, totalAmount, 0);
+    }
+
     @BeforeEach
     void setupData() {
         start = ZonedDateTime.now().minusDays(1);
@@ -127,17 +135,40 @@ class OrderApiTest {
         ArgumentCaptor<Order> orderCaptor = ArgumentCaptor.forClass(Order.class);
         verify(orderDao).insert(orderCaptor.capture());
         assertEquals(OrderStatus.CREATED, orderCaptor.getValue().getStatus());
+        assertEquals(25.0, orderCaptor.getValue().getTotalAmount());
+        assertEquals(2, orderCaptor.getValue().getItemCount());
 
         // API should assign orderId into each item before insert
         assertEquals(999, i1.getOrderId());
         assertEquals(999, i2.getOrderId());
 
-        verify(orderItemDao).insert(i1);
-        verify(orderItemDao).insert(i2);
+        verify(orderItemDao).insertAll(List.of(i1, i2));
 
         verifyNoMoreInteractions(orderDao, orderItemDao);
     }
 
+    @Test
+    void backfillTotalsShouldUpdateTheSelectedBatch() {
+        when(orderDao.selectIdsWithoutTotals(50)).thenReturn(List.of(3, 4));
+
+        assertEquals(2, orderApi.backfillTotals(50));
+
+        verify(orderDao).selectIdsWithoutTotals(50);
+        verify(orderDao).updateTotalsFromItems(List.of(3, 4));
+        verifyNoMoreInteractions(orderDao);
+        verifyNoInteractions(orderItemDao);
+    }
+
+    @Test
+    void backfillTotalsShouldStopWhenNothingIsLeft() {
+        when(orderDao.selectIdsWithoutTotals(50)).thenReturn(List.of());
+
+        assertEquals(0, orderApi.backfillTotals(50));
+
+        verify(orderDao).selectIdsWithoutTotals(50);
+        verifyNoMoreInteractions(orderDao);
+    }
+
     @Test
     void getCheckShouldReturnOrderWhenFound() throws ApiException {
         Order o = order(10, OrderStatus.CREATED, null);
@@ -197,19 +228,33 @@ class OrderApiTest {
         assertEquals(OrderStatus.INVOICED, o.getStatus());
 
         verify(orderDao).selectById(1);
-        verifyNoMoreInteractions(orderDao);
+        verify(salesReportDao).addInvoicedOrder(1);
+        verifyNoMoreInteractions(orderDao, salesReportDao);
         verifyNoInteractions(orderItemDao);
     }
 
     @Test
     void searchShouldCallDaoSearch() {
-        List<Order> expected = List.of(order(1, OrderStatus.CREATED, null));
-        when(orderDao.search(1, start, end, OrderStatus.CREATED, 0, 10)).thenReturn(expected);
+        PageResult<OrderRow> expected = new PageResult<>(List.of(row(1, 0.0)), 1L);
+        when(orderDao.searchPage(1, start, end, OrderStatus.CREATED, 0, 10, true)).thenReturn(expected);
+
+        PageResult<OrderRow> out = orderApi.search(1, start, end, OrderStatus.CREATED, 0, 10, true);
+
+        assertSame(expected, out);
+        verify(orderDao).searchPage(1, start, end, OrderStatus.CREATED, 0, 10, true);
+        verifyNoMoreInteractions(orderDao);
+        verifyNoInteractions(orderItemDao);
+    }
+
+    @Test
+    void searchAfterShouldCallDaoSearchAfter() {
+        List<OrderRow> expected = List.of(row(1, 0.0));
+        when(orderDao.searchAfter(null, start, end, null, end, 7, 11)).thenReturn(expected);
 
-        List<Order> out = orderApi.search(1, start, end, OrderStatus.CREATED, 0, 10);
+        List<OrderRow> out = orderApi.searchAfter(null, start, end, null, end, 7, 11);
 
         assertSame(expected, out);
-        verify(orderDao).search(1, start, end, OrderStatus.CREATED, 0, 10);
+        verify(orderDao).searchAfter(null, start, end, null, end, 7, 11);
         verifyNoMoreInteractions(orderDao);
         verifyNoInteractions(orderItemDao);
     }
@@ -6,6 +6,7 @@ import com.pos.api.ProductApi;
 import com.pos.exception.ApiException;
 import com.pos.flow.OrderFlow;
 import com.pos.pojo.OrderItem;
+import com.pos.pojo.Product;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -14,10 +15,14 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import static com.pos.model.constants.ErrorMessages.NO_ORDER_ITEMS_FOUND;
 import static com.pos.model.constants.ErrorMessages.PRODUCT_NOT_FOUND;
+import static com.pos.model.constants.ErrorMessages.QUANTITY_MUST_BE_POSITIVE;
+import static com.pos.model.constants.ErrorMessages.SELLING_PRICE_EXCEEDS_MRP;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -42,6 +47,21 @@ class OrderFlowTest {
         return oi;
     }
 
+    private Product product(Integer id, Double mrp) {
+        Product p = new Product();
+        p.setId(id);
+        p.setMrp(mrp);
+        return p;
+    }
+
+    private Map<Integer, Integer> quantities(int... productIdQtyPairs) {
+        Map<Integer, Integer> out = new LinkedHashMap<>();
+        for (int i = 0; i < productIdQtyPairs.length; i += 2) {
+            out.put(productIdQtyPairs[i], productIdQtyPairs[i + 1]);
+        }
+        return out;
+    }
+
     @BeforeEach
     void setupData() {
         i1 = item(101, 2, 50.0);
@@ -75,6 +95,7 @@ class OrderFlowTest {
     //todo: write a happy flow test to check if the order is created or not, dont remove this add new
     @Test
     void createOrder_happyFlow_shouldReturnOrderId_andCallDepsInOrder() throws ApiException {
+        when(productApi.getCheckByIds(List.of(101, 202))).thenReturn(List.of(product(101, 100.0), product(202, 10.0)));
         when(orderApi.create(List.of(i1, i2))).thenReturn(999);
 
         Integer out = orderFlow.createOrder(List.of(i1, i2));
@@ -82,41 +103,73 @@ class OrderFlowTest {
         assertEquals(999, out);
 
         InOrder inOrder = inOrder(productApi, inventoryApi, orderApi);
-        inOrder.verify(productApi).validateSellingPrice(101, 50.0);
-        inOrder.verify(inventoryApi).reduceInventory(101, 2);
-        inOrder.verify(productApi).validateSellingPrice(202, 10.0);
-        inOrder.verify(inventoryApi).reduceInventory(202, 1);
+        inOrder.verify(productApi).getCheckByIds(List.of(101, 202));
+        inOrder.verify(inventoryApi).reduceInventories(quantities(101, 2, 202, 1));
         inOrder.verify(orderApi).create(List.of(i1, i2));
 
         verifyNoMoreInteractions(orderApi, inventoryApi, productApi);
     }
 
+    @Test
+    void createOrder_shouldLoadProductsOnce_andSumQuantitiesForRepeatedProduct() throws ApiException {
+        OrderItem again = item(101, 3, 40.0);
+        when(productApi.getCheckByIds(List.of(101, 202))).thenReturn(List.of(product(101, 100.0), product(202, 10.0)));
+        when(orderApi.create(List.of(i1, i2, again))).thenReturn(7);
+
+        assertEquals(7, orderFlow.createOrder(List.of(i1, i2, again)));
+
+        verify(productApi).getCheckByIds(List.of(101, 202));
+        verify(inventoryApi).reduceInventories(quantities(101, 5, 202, 1));
+        verifyNoMoreInteractions(productApi, inventoryApi);
+    }
+
+    @Test
+    void createOrder_shouldThrow_whenQuantityNotPositive() {
+        OrderItem bad = item(101, 0, 10.0);
+
+        ApiException ex = assertThrows(ApiException.class, () -> orderFlow.createOrder(List.of(bad)));
+        assertTrue(ex.getMessage().contains(QUANTITY_MUST_BE_POSITIVE.value()));
+
+        verifyNoInteractions(productApi, inventoryApi, orderApi);
+    }
+
     @Test
     void createOrder_shouldNotCallOrderCreate_whenValidationFails() throws ApiException {
         OrderItem expensive = item(101, 2, 5000.0);
 
-        doThrow(new ApiException("selling price exceeds mrp"))
-                .when(productApi).validateSellingPrice(101, 5000.0);
+        when(productApi.getCheckByIds(List.of(101))).thenReturn(List.of(product(101, 100.0)));
 
-        assertThrows(ApiException.class, () -> orderFlow.createOrder(List.of(expensive)));
+        ApiException ex = assertThrows(ApiException.class, () -> orderFlow.createOrder(List.of(expensive)));
+        assertTrue(ex.getMessage().contains(SELLING_PRICE_EXCEEDS_MRP.value()));
 
-        verify(productApi).validateSellingPrice(101, 5000.0);
+        verify(productApi).getCheckByIds(List.of(101));
         verifyNoInteractions(inventoryApi);
         verify(orderApi, never()).create(anyList());
         verifyNoMoreInteractions(productApi, orderApi);
     }
 
+    @Test
+    void createOrder_shouldNotCallOrderCreate_whenProductLookupFails() throws ApiException {
+        when(productApi.getCheckByIds(List.of(101))).thenThrow(new ApiException("product not found"));
+
+        assertThrows(ApiException.class, () -> orderFlow.createOrder(List.of(i1)));
+
+        verifyNoInteractions(inventoryApi);
+        verify(orderApi, never()).create(anyList());
+    }
+
     @Test
     void createOrder_shouldNotCallOrderCreate_whenInventoryReductionFails() throws ApiException {
+        when(productApi.getCheckByIds(List.of(101))).thenReturn(List.of(product(101, 100.0)));
         doThrow(new ApiException("insufficient inventory"))
-                .when(inventoryApi).reduceInventory(101, 2);
+                .when(inventoryApi).reduceInventories(quantities(101, 2));
 
         assertThrows(ApiException.class, () -> orderFlow.createOrder(List.of(i1)));
 
-        verify(productApi).validateSellingPrice(101, 50.0);
-        verify(inventoryApi).reduceInventory(101, 2);
+        verify(productApi).getCheckByIds(List.of(101));
+        verify(inventoryApi).reduceInventories(quantities(101, 2));
         verify(orderApi, never()).create(anyList());
 
         verifyNoMoreInteractions(productApi, inventoryApi, orderApi);
     }
-}
\ No newline at end of file
+}
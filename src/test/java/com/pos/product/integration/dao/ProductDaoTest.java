@@ -1,6 +1,8 @@
 package com.pos.product.integration.dao;
 
+import com.pos.dao.PageResult;
 import com.pos.dao.ProductDao;
+import com.pos.model.data.ProductData;
 import com.pos.pojo.Product;
 import com.pos.setup.AbstractDaoTest;
 import com.pos.setup.TestEntities;
@@ -47,17 +49,23 @@ class ProductDaoTest extends AbstractDaoTest {
         dao.insert(TestEntities.newProduct("B3", "Milk", client2, 50.0, "img"));
         em.clear();
 
-        assertEquals(2, dao.search("soap", null, client1, 0, 10).size());
+        assertEquals(2, dao.searchPage("soap", null, client1, 0, 10, false).rows().size());
     }
 
     @Test
-    void getCountWhenFiltered() {
+    void searchPageShouldCarryTotalWhenRequested() {
         dao.insert(TestEntities.newProduct("B1", "Soap", client1, 100.0, "img"));
         dao.insert(TestEntities.newProduct("B2", "Soap Deluxe", client1, 120.0, "img"));
         dao.insert(TestEntities.newProduct("B3", "Milk", client2, 50.0, "img"));
         em.clear();
 
-        assertEquals(2, dao.getCount("soap", null, client1));
+        PageResult<ProductData> page = dao.searchPage("soap", null, client1, 0, 1, true);
+        assertEquals(1, page.rows().size());
+        assertEquals("B1", page.rows().getFirst().getBarcode());
+        assertEquals(100.0, page.rows().getFirst().getMrp());
+        assertEquals("img", page.rows().getFirst().getImageUrl());
+        assertEquals(2L, page.totalCount());
+        assertEquals(2L, dao.searchPage("soap", null, client1, 3, 1, true).totalCount());
     }
 
     @Test
@@ -71,13 +79,13 @@ class ProductDaoTest extends AbstractDaoTest {
         em.clear();
 
         // barcode filter is exact match
-        List<Product> barcodeMatch = dao.search(null, "B2", null, 0, 10);
+        List<ProductData> barcodeMatch = dao.searchPage(null, "B2", null, 0, 10, false).rows();
         assertEquals(1, barcodeMatch.size());
         assertEquals(p2.getId(), barcodeMatch.getFirst().getId());
 
         // pagination works on ORDER BY p.id
-        List<Product> page0 = dao.search("soap", null, client1, 0, 2);
-        List<Product> page1 = dao.search("soap", null, client1, 1, 2);
+        List<ProductData> page0 = dao.searchPage("soap", null, client1, 0, 2, true).rows();
+        List<ProductData> page1 = dao.searchPage("soap", null, client1, 1, 2, true).rows();
 
         assertEquals(2, page0.size());
         assertEquals(1, page1.size());
@@ -85,9 +93,9 @@ class ProductDaoTest extends AbstractDaoTest {
         // since order is by id, page0 should contain the first 2 created products among soap matches
         List<Integer> allSoapIdsInOrder = List.of(p1.getId(), p2.getId(), p3.getId());
         assertEquals(allSoapIdsInOrder.subList(0, 2),
-                page0.stream().map(Product::getId).toList());
+                page0.stream().map(ProductData::getId).toList());
         assertEquals(allSoapIdsInOrder.subList(2, 3),
-                page1.stream().map(Product::getId).toList());
+                page1.stream().map(ProductData::getId).toList());
     }
 
     @Test
@@ -125,20 +133,35 @@ class ProductDaoTest extends AbstractDaoTest {
     }
 
     @Test
-    void findProductIdsByBarcodeOrNameSupportsNameLikeAndBarcode() {
-        Product p1 = TestEntities.newProduct("B1", "Soap", client1, 100.0, "img");
-        Product p2 = TestEntities.newProduct("B2", "Soap Deluxe", client1, 120.0, "img");
-        Product p3 = TestEntities.newProduct("B3", "Milk", client2, 50.0, "img");
+    void insertAllWritesEveryRow() {
+        dao.insertAll(List.of(
+                TestEntities.newProduct("BULK1", "Soap", client1, 100.0, "img"),
+                TestEntities.newProduct("BULK2", "Tea", client2, 50.0, null)
+        ));
+
+        List<Product> out = dao.selectByBarcodes(List.of("BULK1", "BULK2"));
+
+        assertEquals(2, out.size());
+        assertTrue(out.stream().anyMatch(p -> p.getBarcode().equals("BULK2") && p.getImageUrl() == null));
+        assertTrue(out.stream().allMatch(p -> p.getVersion() == 0 && p.getCreatedAt() != null));
+    }
+
+    @Test
+    void selectCatalogPageWalksByIdAndReturnsDetachedRows() {
+        Product p1 = TestEntities.newProduct("C1", "Soap", client1, 100.0, "img");
+        Product p2 = TestEntities.newProduct("C2", "Tea", client2, 50.0, "img");
         dao.insert(p1);
         dao.insert(p2);
-        dao.insert(p3);
+        em.flush();
         em.clear();
 
-        List<Integer> idsByName = dao.findProductIdsByBarcodeOrName(null, "soap");
-        assertTrue(idsByName.contains(p1.getId()));
-        assertTrue(idsByName.contains(p2.getId()));
+        List<Product> first = dao.selectCatalogPage(0, 1);
+        List<Product> second = dao.selectCatalogPage(first.get(0).getId(), 10);
 
-        List<Integer> idsByBarcode = dao.findProductIdsByBarcodeOrName("B3", null);
-        assertEquals(List.of(p3.getId()), idsByBarcode);
+        assertEquals(List.of(p1.getId()), first.stream().map(Product::getId).toList());
+        assertEquals(List.of(p2.getId()), second.stream().map(Product::getId).toList());
+        assertEquals("Tea", second.get(0).getName());
+        assertEquals(50.0, second.get(0).getMrp());
+        assertFalse(em.contains(second.get(0)));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,44 @@
+package com.pos.product.integration.dao;
+
+import com.pos.dao.ProductDao;
+import com.pos.setup.AbstractQueryPlanTest;
+import com.pos.setup.TestEntities;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Import({ProductDao.class})
+class ProductSearchPlanTest extends AbstractQueryPlanTest {
+
+    private static final int CLIENTS = 30;
+    private static final int PRODUCTS = 300;
+
+    @Autowired
+    private ProductDao dao;
+
+    @BeforeEach
+    void setupData() {
+        for (int i = 1; i <= PRODUCTS; i++) {
+            dao.insert(TestEntities.newProduct("B" + i, "Product " + i, 1 + i % CLIENTS, 10.0, "img"));
+        }
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    void barcodeOnlySearchShouldUseBarcodeKey() {
+        assertEquals(1, dao.searchPage(null, "B42", null, 0, 10, false).rows().size());
+
+        assertEquals("pos_product_barcode_uk", explainKey("B42"));
+    }
+
+    @Test
+    void clientOnlySearchShouldUseClientIdIndex() {
+        assertEquals(10, dao.searchPage(null, null, 7, 0, 10, false).rows().size());
+
+        assertEquals("pos_product_clientId_idx", explainKey(7));
+    }
+}
@@ -1,8 +1,11 @@
 package com.pos.product.unit;
 
 import com.pos.api.ProductApi;
+import com.pos.api.ProductCatalogCache;
+import com.pos.dao.PageResult;
 import com.pos.dao.ProductDao;
 import com.pos.exception.ApiException;
+import com.pos.model.data.ProductData;
 import com.pos.pojo.Product;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -26,6 +29,9 @@ class ProductApiTest {
     @Mock
     private ProductDao productDao;
 
+    @Mock
+    private ProductCatalogCache catalogCache;
+
     private Integer productId;
     private Product existing;
 
@@ -121,6 +127,77 @@ class ProductApiTest {
         verifyNoMoreInteractions(productDao);
     }
 
+    @Test
+    void getCheckByIdsShouldReturnEmptyWhenNullOrEmpty() throws ApiException {
+        assertEquals(List.of(), productApi.getCheckByIds(null));
+        assertEquals(List.of(), productApi.getCheckByIds(List.of()));
+        verifyNoInteractions(productDao);
+    }
+
+    @Test
+    void getCheckByIdsShouldReturnFoundWhenAllExist() throws ApiException {
+        List<Product> found = List.of(product(1, "A", 1, null, 5.0, null), product(2, "B", 1, null, 5.0, null));
+        when(productDao.selectByIds(List.of(1, 2))).thenReturn(found);
+
+        assertSame(found, productApi.getCheckByIds(List.of(1, 2)));
+        verify(productDao).selectByIds(List.of(1, 2));
+        verifyNoMoreInteractions(productDao);
+    }
+
+    @Test
+    void getCheckByIdsShouldReadTheDatabaseNotTheCatalogCache() throws ApiException {
+        List<Product> found = List.of(product(1, "A", 1, "a", 5.0, null));
+        when(productDao.selectByIds(List.of(1))).thenReturn(found);
+
+        assertSame(found, productApi.getCheckByIds(List.of(1)));
+        verifyNoInteractions(catalogCache);
+    }
+
+    @Test
+    void getByIdsShouldLoadOnlyCacheMissesAndCacheThem() {
+        Product cached = product(1, "A", 1, "a", 5.0, null);
+        List<Product> loaded = List.of(product(2, "B", 1, "b", 6.0, null));
+        when(catalogCache.generation()).thenReturn(7L);
+        when(catalogCache.getByIds(List.of(1, 2, 2))).thenReturn(Map.of(1, cached));
+        when(productDao.selectByIds(List.of(2))).thenReturn(loaded);
+
+        List<Product> out = productApi.getByIds(List.of(1, 2, 2));
+
+        assertEquals(List.of(cached, loaded.get(0)), out);
+        verify(productDao).selectByIds(List.of(2));
+        verify(catalogCache).putAll(loaded, 7L);
+        verifyNoMoreInteractions(productDao);
+    }
+
+    @Test
+    void getCheckByBarcodesShouldSkipDaoWhenAllCached() throws ApiException {
+        Product a = product(1, "A", 1, "a", 5.0, null);
+        when(catalogCache.getByBarcodes(List.of("A"))).thenReturn(Map.of("A", a));
+
+        List<Product> out = productApi.getCheckByBarcodes(List.of("A"));
+
+        assertEquals(List.of(a), out);
+        verifyNoInteractions(productDao);
+    }
+
+    @Test
+    void getCheckByIdsShouldThrowWithMissingIds() {
+        when(productDao.selectByIds(List.of(1, 2, 3))).thenReturn(List.of(product(2, "B", 1, null, 5.0, null)));
+
+        ApiException ex = assertThrows(ApiException.class, () -> productApi.getCheckByIds(List.of(1, 2, 3)));
+        assertTrue(ex.getMessage().contains("[1, 3]"));
+    }
+
+    @Test
+    void checkSellingPriceShouldAllowUpToMrpAndRejectAbove() {
+        Product p = product(7, null, null, null, 50.0, null);
+
+        assertDoesNotThrow(() -> ProductApi.checkSellingPrice(p, 50.0));
+        ApiException ex = assertThrows(ApiException.class, () -> ProductApi.checkSellingPrice(p, 50.5));
+        assertTrue(ex.getMessage().contains("productId=7"));
+        assertThrows(ApiException.class, () -> ProductApi.checkSellingPrice(p, null));
+    }
+
     @Test
     void getCheckByBarcodesShouldThrowWhenEmptyInput() {
         assertThrows(ApiException.class, () -> productApi.getCheckByBarcodes(null));
@@ -190,18 +267,6 @@ class ProductApiTest {
         verifyNoMoreInteractions(productDao);
     }
 
-    @Test
-    void findProductIdsByBarcodeOrNameShouldDelegateToDao() {
-        List<Integer> ids = List.of(10, 11);
-        when(productDao.findProductIdsByBarcodeOrName("b", "n")).thenReturn(ids);
-
-        List<Integer> out = productApi.findProductIdsByBarcodeOrName("b", "n");
-
-        assertSame(ids, out);
-        verify(productDao).findProductIdsByBarcodeOrName("b", "n");
-        verifyNoMoreInteractions(productDao);
-    }
-
     @Test
     void addShouldInsertWhenBarcodeNotExists() throws ApiException {
         Product p = product(null, "NEW", 1, "N", 10.0, null);
@@ -211,6 +276,7 @@ class ProductApiTest {
 
         verify(productDao).selectByBarcodes(List.of("NEW"));
         verify(productDao).insert(p);
+        verify(catalogCache).invalidate(List.of(), List.of("NEW"));
         verifyNoMoreInteractions(productDao);
     }
 
@@ -246,8 +312,8 @@ class ProductApiTest {
         productApi.addBulk(products);
 
         verify(productDao).selectByBarcodes(List.of("A", "B"));
-        verify(productDao).insert(p1);
-        verify(productDao).insert(p2);
+        verify(productDao).insertAll(products);
+        verify(catalogCache).invalidate(List.of(), List.of("A", "B"));
         verifyNoMoreInteractions(productDao);
     }
 
@@ -265,7 +331,7 @@ class ProductApiTest {
         assertTrue(ex.getMessage().contains("B"));
 
         verify(productDao).selectByBarcodes(List.of("A", "B"));
-        verify(productDao, never()).insert(any());
+        verify(productDao, never()).insertAll(any());
         verifyNoMoreInteractions(productDao);
     }
 
@@ -284,6 +350,7 @@ class ProductApiTest {
         assertEquals(100, existing.getClientId());
 
         verify(productDao).selectById(1);
+        verify(catalogCache).invalidate(List.of(1), List.of("BC"));
         verifyNoMoreInteractions(productDao);
     }
 
@@ -350,24 +417,13 @@ class ProductApiTest {
 
     @Test
     void searchShouldDelegateToDao() {
-        List<Product> out = List.of(product(1, "A", 1, null, null, null));
-        when(productDao.search("n", "b", 1, 0, 10)).thenReturn(out);
+        PageResult<ProductData> out = new PageResult<>(List.of(new ProductData()), 123L);
+        when(productDao.searchPage("n", "b", 1, 0, 10, true)).thenReturn(out);
 
-        List<Product> res = productApi.search("n", "b", 1, 0, 10);
+        PageResult<ProductData> res = productApi.search("n", "b", 1, 0, 10, true);
 
         assertSame(out, res);
-        verify(productDao).search("n", "b", 1, 0, 10);
-        verifyNoMoreInteractions(productDao);
-    }
-
-    @Test
-    void getCountShouldDelegateToDao() {
-        when(productDao.getCount("n", "b", 1)).thenReturn(123L);
-
-        long cnt = productApi.getCount("n", "b", 1);
-
-        assertEquals(123L, cnt);
-        verify(productDao).getCount("n", "b", 1);
+        verify(productDao).searchPage("n", "b", 1, 0, 10, true);
         verifyNoMoreInteractions(productDao);
     }
 
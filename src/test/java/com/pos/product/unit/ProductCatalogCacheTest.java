@@ -0,0 +1,139 @@
+package com.pos.product.unit;
+
+import com.pos.api.ProductCatalogCache;
+import com.pos.dao.ProductDao;
+import com.pos.pojo.Product;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductCatalogCacheTest {
+
+    @InjectMocks
+    private ProductCatalogCache cache;
+
+    @Mock
+    private ProductDao productDao;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void bind() {
+        cache.bindTo(registry);
+    }
+
+    private double meter(String name, String... tags) {
+        var search = registry.get(name).tag("cache", "productCatalog").tags(tags);
+        return name.equals("cache.size") ? search.gauge().value() : search.functionCounter().count();
+    }
+
+    private Product product(Integer id, String barcode, Double mrp) {
+        Product p = new Product();
+        p.setId(id);
+        p.setBarcode(barcode);
+        p.setClientId(10);
+        p.setName("name-" + id);
+        p.setMrp(mrp);
+        return p;
+    }
+
+    @Test
+    void shouldServeDetachedCopiesByIdAndBarcode_andCountHitsAndMisses() {
+        Product source = product(1, "A", 5.0);
+        cache.putAll(List.of(source), cache.generation());
+
+        Map<Integer, Product> byId = cache.getByIds(List.of(1, 2));
+        Map<String, Product> byBarcode = cache.getByBarcodes(List.of("A", "B"));
+
+        assertEquals(1, byId.size());
+        assertNotSame(source, byId.get(1));
+        assertEquals("A", byId.get(1).getBarcode());
+        assertEquals(5.0, byBarcode.get("A").getMrp());
+        assertEquals(10, byBarcode.get("A").getClientId());
+        assertFalse(byBarcode.containsKey("B"));
+
+        assertEquals(2, meter("cache.gets", "result", "hit"));
+        assertEquals(2, meter("cache.gets", "result", "miss"));
+        assertEquals(1, meter("cache.size"));
+    }
+
+    @Test
+    void shouldExpireEntriesAfterTtl() {
+        ReflectionTestUtils.setField(cache, "ttlSeconds", 0L);
+        cache.putAll(List.of(product(1, "A", 5.0), product(2, "B", 6.0)), cache.generation());
+
+        assertTrue(cache.getByIds(List.of(1)).isEmpty());
+        assertTrue(cache.getByBarcodes(List.of("B")).isEmpty());
+        assertEquals(2, meter("cache.gets", "result", "miss"));
+        assertEquals(0, meter("cache.size"));
+    }
+
+    @Test
+    void shouldNotCacheRowsReadBeforeAnInvalidation() {
+        long generation = cache.generation();
+        cache.invalidate(List.of(1), List.of());
+
+        cache.putAll(List.of(product(1, "A", 5.0)), generation);
+
+        assertTrue(cache.getByIds(List.of(1)).isEmpty());
+    }
+
+    @Test
+    void invalidateShouldEvictByIdAndByBarcode() {
+        cache.putAll(List.of(product(1, "A", 5.0), product(2, "B", 6.0)), cache.generation());
+
+        cache.invalidate(List.of(1), Arrays.asList("B", null));
+
+        assertTrue(cache.getByIds(List.of(1, 2)).isEmpty());
+        assertTrue(cache.getByBarcodes(List.of("A", "B")).isEmpty());
+        assertEquals(0, meter("cache.size"));
+    }
+
+    @Test
+    void shouldStayWithinMaxEntries() {
+        ReflectionTestUtils.setField(cache, "maxEntries", 2);
+
+        cache.putAll(List.of(product(1, "A", 1.0), product(2, "B", 2.0), product(3, "C", 3.0)), cache.generation());
+
+        assertEquals(2, meter("cache.size"));
+        assertEquals(1, meter("cache.evictions"));
+        assertEquals(2, cache.getByBarcodes(List.of("A", "B", "C")).size());
+    }
+
+    @Test
+    void warmUpShouldPageThroughCatalogUpToMaxEntries() {
+        ReflectionTestUtils.setField(cache, "maxEntries", 3);
+        when(productDao.selectCatalogPage(0, 3)).thenReturn(List.of(product(1, "A", 1.0), product(4, "D", 4.0)));
+        when(productDao.selectCatalogPage(4, 1)).thenReturn(List.of(product(9, "I", 9.0)));
+
+        cache.warmUp();
+
+        assertEquals(3, meter("cache.size"));
+        assertEquals(3, cache.getByIds(List.of(1, 4, 9)).size());
+        verify(productDao).selectCatalogPage(0, 3);
+        verify(productDao).selectCatalogPage(4, 1);
+        verifyNoMoreInteractions(productDao);
+    }
+
+    @Test
+    void warmUpShouldDoNothingWhenDisabled() {
+        ReflectionTestUtils.setField(cache, "warmUpEnabled", false);
+
+        cache.warmUp();
+
+        verifyNoInteractions(productDao);
+    }
+}
@@ -4,8 +4,10 @@ import com.pos.api.ClientApi;
 import com.pos.api.ProductApi;
 import com.pos.exception.ApiException;
 import com.pos.flow.ProductFlow;
+import com.pos.metrics.UploadMetrics;
 import com.pos.pojo.Client;
 import com.pos.pojo.Product;
+import com.pos.utils.TsvUploadUtil;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -26,10 +28,18 @@ class ProductFlowTest {
 
     @Mock private ProductApi productApi;
     @Mock private ClientApi clientApi;
+    @Mock private UploadMetrics uploadMetrics;
 
     private Integer clientId;
     private Client client;
 
+    private static TsvUploadUtil.ChunkSource<Product> chunks(List<Product> products) {
+        return consumer -> {
+            consumer.accept(products);
+            return products.size();
+        };
+    }
+
     private Client client(Integer id, String name, String email) {
         Client c = new Client();
         c.setId(id);
@@ -89,10 +99,11 @@ class ProductFlowTest {
 
         when(clientApi.getCheck(bulkClientId)).thenReturn(client(bulkClientId, "x", "x@mail"));
 
-        productFlow.addBulk(products, bulkClientId);
+        productFlow.addBulk(chunks(products), bulkClientId);
 
         verify(clientApi).getCheck(bulkClientId);
         verify(productApi).addBulk(products);
+        verify(uploadMetrics).record(eq("product"), eq(products.size()), anyLong());
         verifyNoMoreInteractions(clientApi, productApi);
     }
 
@@ -103,7 +114,7 @@ class ProductFlowTest {
 
         when(clientApi.getCheck(bulkClientId)).thenThrow(new ApiException("client missing"));
 
-        assertThrows(ApiException.class, () -> productFlow.addBulk(products, bulkClientId));
+        assertThrows(ApiException.class, () -> productFlow.addBulk(chunks(products), bulkClientId));
 
         verify(clientApi).getCheck(bulkClientId);
         verifyNoInteractions(productApi);
@@ -97,4 +97,53 @@ class SalesReportDaoTest extends AbstractDaoTest {
         assertEquals(1, outClient2.size());
         assertEquals("C2B1", outClient2.getFirst().getBarcode());
     }
-}
\ No newline at end of file
+
+    @Test
+    void addInvoicedOrder_shouldAccumulatePerDayAndProduct() {
+        Product p = TestEntities.newProduct("AGG1", "Soap", 1, 100.0, "img");
+        productDao.insert(p);
+
+        for (int i = 0; i < 2; i++) {
+            Order o = TestEntities.newOrder(OrderStatus.INVOICED, null);
+            orderDao.insert(o);
+            orderItemDao.insert(TestEntities.newOrderItem(o.getId(), p.getId(), 2, 10.0));
+            orderItemDao.insert(TestEntities.newOrderItem(o.getId(), p.getId(), 1, 10.0));
+            dao.addInvoicedOrder(o.getId());
+        }
+        em.clear();
+
+        List<SalesReportData> out = dao.getAggregatedSalesReportRows(todayUtc, todayUtc, null);
+
+        assertEquals(1, out.size());
+        assertEquals("AGG1", out.getFirst().getBarcode());
+        assertEquals(6, out.getFirst().getQuantity());
+        assertEquals(60.0, out.getFirst().getRevenue());
+        assertEquals(todayUtc, dao.selectFirstAggregatedDate());
+    }
+
+    @Test
+    void getAggregatedSalesReportRows_withClientIdFilter_filtersCorrectly() {
+        Product p1 = TestEntities.newProduct("AGGC1", "P1", 1, 100.0, "img");
+        Product p2 = TestEntities.newProduct("AGGC2", "P2", 2, 100.0, "img");
+        productDao.insert(p1);
+        productDao.insert(p2);
+
+        Order o = TestEntities.newOrder(OrderStatus.INVOICED, null);
+        orderDao.insert(o);
+        orderItemDao.insert(TestEntities.newOrderItem(o.getId(), p1.getId(), 2, 10.0));
+        orderItemDao.insert(TestEntities.newOrderItem(o.getId(), p2.getId(), 5, 10.0));
+        dao.addInvoicedOrder(o.getId());
+        em.clear();
+
+        List<SalesReportData> out = dao.getAggregatedSalesReportRows(todayUtc, todayUtc, 2);
+
+        assertEquals(1, out.size());
+        assertEquals("AGGC2", out.getFirst().getBarcode());
+        assertEquals(5, out.getFirst().getQuantity());
+    }
+
+    @Test
+    void selectFirstAggregatedDate_whenNothingAggregated_returnsNull() {
+        assertNull(dao.selectFirstAggregatedDate());
+    }
+}
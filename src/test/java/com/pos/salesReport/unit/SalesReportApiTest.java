@@ -45,10 +45,54 @@ class SalesReportApiTest {
         List<SalesReportData> out = salesReportApi.getSalesReport(start, end, clientId);
 
         assertSame(expected, out);
+        verify(salesReportDao).selectFirstAggregatedDate();
         verify(salesReportDao).getSalesReportRows(start, end, clientId);
         verifyNoMoreInteractions(salesReportDao);
     }
 
+    @Test
+    void getSalesReportShouldUseRawRows_whenRangeEndsOnFirstAggregatedDay() {
+        when(salesReportDao.selectFirstAggregatedDate()).thenReturn(end);
+        List<SalesReportData> expected = List.of(row("B1", "Soap", 1, 10.0));
+        when(salesReportDao.getSalesReportRows(start, end, null)).thenReturn(expected);
+
+        assertSame(expected, salesReportApi.getSalesReport(start, end, null));
+
+        verify(salesReportDao).selectFirstAggregatedDate();
+        verify(salesReportDao).getSalesReportRows(start, end, null);
+        verifyNoMoreInteractions(salesReportDao);
+    }
+
+    @Test
+    void getSalesReportShouldUseAggregates_whenRangeStartsAfterFirstAggregatedDay() {
+        when(salesReportDao.selectFirstAggregatedDate()).thenReturn(start.minusDays(1));
+        List<SalesReportData> expected = List.of(row("B1", "Soap", 1, 10.0));
+        when(salesReportDao.getAggregatedSalesReportRows(start, end, 5)).thenReturn(expected);
+
+        assertSame(expected, salesReportApi.getSalesReport(start, end, 5));
+
+        verify(salesReportDao).selectFirstAggregatedDate();
+        verify(salesReportDao).getAggregatedSalesReportRows(start, end, 5);
+        verifyNoMoreInteractions(salesReportDao);
+    }
+
+    @Test
+    void getSalesReportShouldMergeRawAndAggregatedRows_whenRangeSpansFirstAggregatedDay() {
+        LocalDate firstAggregated = LocalDate.of(2026, 2, 5);
+        when(salesReportDao.selectFirstAggregatedDate()).thenReturn(firstAggregated);
+        when(salesReportDao.getSalesReportRows(start, firstAggregated, null))
+                .thenReturn(List.of(row("B2", "Tea", 2, 20.0), row("B1", "Soap", 1, 10.0)));
+        when(salesReportDao.getAggregatedSalesReportRows(firstAggregated.plusDays(1), end, null))
+                .thenReturn(List.of(row("B1", "Soap", 3, 30.0), row("B3", "Milk", 4, 40.0)));
+
+        List<SalesReportData> out = salesReportApi.getSalesReport(start, end, null);
+
+        assertEquals(List.of("Milk", "Soap", "Tea"), out.stream().map(SalesReportData::getProductName).toList());
+        SalesReportData soap = out.get(1);
+        assertEquals(4, soap.getQuantity());
+        assertEquals(40.0, soap.getRevenue());
+    }
+
     @Test
     void getCheckSalesReportShouldReturnRowsWhenNotEmpty() throws ApiException {
         Integer clientId = null;
@@ -58,6 +102,7 @@ class SalesReportApiTest {
         List<SalesReportData> out = salesReportApi.getCheckSalesReport(start, end, clientId);
 
         assertSame(rows, out);
+        verify(salesReportDao).selectFirstAggregatedDate();
         verify(salesReportDao).getSalesReportRows(start, end, clientId);
         verifyNoMoreInteractions(salesReportDao);
     }
@@ -71,6 +116,7 @@ class SalesReportApiTest {
                 () -> salesReportApi.getCheckSalesReport(start, end, clientId));
 
         assertSalesReportEmptyMessage(ex, clientId);
+        verify(salesReportDao).selectFirstAggregatedDate();
         verify(salesReportDao).getSalesReportRows(start, end, clientId);
         verifyNoMoreInteractions(salesReportDao);
     }
@@ -84,10 +130,20 @@ class SalesReportApiTest {
                 () -> salesReportApi.getCheckSalesReport(start, end, clientId));
 
         assertSalesReportEmptyMessage(ex, clientId);
+        verify(salesReportDao).selectFirstAggregatedDate();
         verify(salesReportDao).getSalesReportRows(start, end, clientId);
         verifyNoMoreInteractions(salesReportDao);
     }
 
+    private SalesReportData row(String barcode, String name, int quantity, double revenue) {
+        SalesReportData row = new SalesReportData();
+        row.setBarcode(barcode);
+        row.setProductName(name);
+        row.setQuantity(quantity);
+        row.setRevenue(revenue);
+        return row;
+    }
+
     private void assertSalesReportEmptyMessage(ApiException ex, Integer clientId) {
         assertTrue(ex.getMessage().startsWith(SALES_REPORT_EMPTY.value()));
         assertTrue(ex.getMessage().contains("startDate=" + start));
@@ -0,0 +1,46 @@
+package com.pos.setup;
+
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.test.context.TestPropertySource;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+/**
+ * DAO tests that check MySQL's plan for the SQL a DAO actually issued: call the DAO, then
+ * {@link #explainKey} runs EXPLAIN on the last captured SELECT and returns the index chosen for the
+ * outer table.
+ */
+@TestPropertySource(properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.pos.setup.SqlCapture")
+public abstract class AbstractQueryPlanTest extends AbstractDaoTest {
+
+    private static final int LIMIT_VALUE = 10;
+
+    @BeforeEach
+    void clearCapturedSql() {
+        SqlCapture.clear();
+    }
+
+    /**
+     * Binds {@code params} to the leading placeholders of the last SELECT in order; the remaining ones
+     * are Hibernate's LIMIT/OFFSET and get a page size.
+     */
+    protected String explainKey(Object... params) {
+        String sql = SqlCapture.lastSelect();
+        return em.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                // DAO SQL carries no literals, so every '?' is a bind parameter
+                long placeholders = sql.chars().filter(c -> c == '?').count();
+                for (int i = 1; i <= placeholders; i++) {
+                    statement.setObject(i, i <= params.length ? params[i - 1] : LIMIT_VALUE);
+                }
+                try (ResultSet plan = statement.executeQuery()) {
+                    if (!plan.next()) throw new IllegalStateException("Empty plan for " + sql);
+                    return plan.getString("key");
+                }
+            }
+        });
+    }
+}
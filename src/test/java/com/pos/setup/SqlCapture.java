@@ -0,0 +1,33 @@
+package com.pos.setup;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Records the SQL Hibernate prepares, so a test can EXPLAIN exactly what a DAO sent.
+ * Registered through {@code hibernate.session_factory.statement_inspector}; see {@link AbstractQueryPlanTest}.
+ */
+public class SqlCapture implements StatementInspector {
+
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.add(sql);
+        return sql;
+    }
+
+    public static void clear() {
+        STATEMENTS.clear();
+    }
+
+    public static String lastSelect() {
+        for (int i = STATEMENTS.size() - 1; i >= 0; i--) {
+            String sql = STATEMENTS.get(i);
+            if (sql.stripLeading().regionMatches(true, 0, "select", 0, 6)) return sql;
+        }
+        throw new IllegalStateException("No SELECT captured");
+    }
+}
@@ -0,0 +1,103 @@
+package com.pos.setup;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Local stand-in for the invoice service. Any POST is answered with an InvoiceData JSON body
+ * carrying a tiny PDF, after a fixed delay, so client throughput can be measured without the
+ * real service. Setting a status makes every call fail with it (e.g. 503) until cleared.
+ *
+ * Load tests: run {@code main} with [port] [latencyMs] and point invoice.client.baseUrl at it.
+ */
+public final class StubInvoiceServer implements AutoCloseable {
+
+    private static final Pattern ORDER_ID = Pattern.compile("\"orderId\"\\s*:\\s*(\\d+)");
+    private static final String PDF = Base64.getEncoder().encodeToString("%PDF-1.4 stub".getBytes(StandardCharsets.US_ASCII));
+
+    private final HttpServer server;
+    private final AtomicInteger calls = new AtomicInteger();
+    private volatile long latencyMs;
+    private volatile int failWithStatus;
+
+    private StubInvoiceServer(int port, long latencyMs) throws IOException {
+        this.latencyMs = latencyMs;
+        this.server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/", this::handle);
+    }
+
+    /** Starts on {@code port}; 0 picks a free one. */
+    public static StubInvoiceServer start(int port, long latencyMs) throws IOException {
+        StubInvoiceServer stub = new StubInvoiceServer(port, latencyMs);
+        stub.server.start();
+        return stub;
+    }
+
+    public String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    public int calls() {
+        return calls.get();
+    }
+
+    public void setLatencyMs(long latencyMs) {
+        this.latencyMs = latencyMs;
+    }
+
+    /** Every call answers with this status; 0 goes back to answering normally. */
+    public void failWith(int status) {
+        this.failWithStatus = status;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        calls.incrementAndGet();
+        String request = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        try {
+            if (latencyMs > 0) Thread.sleep(latencyMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        int status = failWithStatus;
+        if (status != 0) {
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+            return;
+        }
+
+        Matcher matcher = ORDER_ID.matcher(request);
+        String orderId = matcher.find() ? matcher.group(1) : "0";
+        byte[] body = ("{\"orderId\":" + orderId + ",\"base64Pdf\":\"" + PDF + "\"}").getBytes(StandardCharsets.UTF_8);
+
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8081;
+        long latencyMs = args.length > 1 ? Long.parseLong(args[1]) : 20;
+        StubInvoiceServer stub = start(port, latencyMs);
+        System.out.println("Stub invoice server on " + stub.baseUrl() + ", latency " + latencyMs + " ms");
+        Thread.currentThread().join();
+    }
+}
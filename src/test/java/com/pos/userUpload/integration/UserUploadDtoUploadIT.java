@@ -4,6 +4,7 @@ import com.pos.dao.UserDao;
 import com.pos.dto.UserUploadDto;
 import com.pos.exception.ApiException;
 import com.pos.model.constants.UserRole;
+import com.pos.model.data.UserUploadData;
 import com.pos.pojo.User;
 import com.pos.setup.AbstractIntegrationTest;
 import org.junit.jupiter.api.Test;
@@ -35,9 +36,11 @@ class UserUploadDtoUploadIT extends AbstractIntegrationTest {
                         "a@b.com\tSUPERVISOR\tpass\n"
         );
 
-        userUploadDto.upload(file);
+        UserUploadData data = userUploadDto.upload(file);
         flushAndClear();
 
+        assertEquals(1, data.getCreatedUsers());
+
         User user = userDao.findByEmail("a@b.com").orElse(null);
         assertNotNull(user);
         assertEquals(UserRole.SUPERVISOR, user.getRole());
@@ -0,0 +1,58 @@
+package com.pos.userUpload.unit;
+
+import com.pos.scheduler.PasswordHashExecutor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHashExecutorTest {
+
+    private PasswordHashExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = new PasswordHashExecutor();
+        ReflectionTestUtils.setField(executor, "workers", 3);
+        ReflectionTestUtils.setField(executor, "encoder", new BCryptPasswordEncoder(4));
+        executor.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.stop();
+    }
+
+    @Test
+    void hashAllShouldReturnHashesInInputOrder() {
+        List<String> raw = IntStream.range(0, 7).mapToObj(i -> "password-" + i).toList();
+
+        List<String> hashes = executor.hashAll(raw);
+
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
+        assertEquals(raw.size(), hashes.size());
+        for (int i = 0; i < raw.size(); i++) {
+            assertTrue(encoder.matches(raw.get(i), hashes.get(i)));
+        }
+    }
+
+    @Test
+    void hashAllShouldReturnEmptyForNoPasswords() {
+        assertTrue(executor.hashAll(List.of()).isEmpty());
+    }
+
+    @Test
+    void hashAllShouldRethrowWorkerFailure() {
+        List<String> raw = new ArrayList<>(List.of("ok"));
+        raw.add(null);
+
+        assertThrows(IllegalArgumentException.class, () -> executor.hashAll(raw));
+    }
+}
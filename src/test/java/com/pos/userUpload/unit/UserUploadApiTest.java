@@ -1,5 +1,6 @@
 package com.pos.userUpload.unit;
 
+import com.pos.api.UserPrincipalCache;
 import com.pos.api.UserUploadApi;
 import com.pos.dao.UserDao;
 import com.pos.exception.ApiException;
@@ -9,17 +10,18 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.List;
-import java.util.Optional;
+import java.util.Set;
 
 import static com.pos.model.constants.ErrorMessages.INVALID_EMAIL;
+import static com.pos.model.constants.ErrorMessages.PASSWORD_CANNOT_BE_EMPTY;
 import static com.pos.model.constants.ErrorMessages.USER_BULK_EMPTY;
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -31,6 +33,12 @@ class UserUploadApiTest {
     @Mock
     private UserDao userDao;
 
+    @Mock
+    private UserPrincipalCache principalCache;
+
+    @Captor
+    private ArgumentCaptor<List<User>> usersCaptor;
+
     private String existingEmail;
     private String newEmail;
 
@@ -64,7 +72,7 @@ class UserUploadApiTest {
 
     @Test
     void bulkCreateOrUpdateShouldThrowWhenEmailNull() {
-        User incoming = user(null, "pass", UserRole.OPERATOR);
+        User incoming = user(null, "$2a$10$hash", UserRole.OPERATOR);
 
         ApiException ex = assertThrows(ApiException.class,
                 () -> userUploadApi.bulkCreateOrUpdate(List.of(incoming)));
@@ -75,7 +83,7 @@ class UserUploadApiTest {
 
     @Test
     void bulkCreateOrUpdateShouldThrowWhenEmailBlank() {
-        User incoming = user("   ", "pass", UserRole.OPERATOR);
+        User incoming = user("   ", "$2a$10$hash", UserRole.OPERATOR);
 
         ApiException ex = assertThrows(ApiException.class,
                 () -> userUploadApi.bulkCreateOrUpdate(List.of(incoming)));
@@ -85,71 +93,74 @@ class UserUploadApiTest {
     }
 
     @Test
-    void bulkCreateOrUpdateShouldInsertNewUserAndEncodePassword() throws ApiException {
-        User incoming = user("a@b.com", "plainPass", UserRole.SUPERVISOR);
-        when(userDao.findByEmail("a@b.com")).thenReturn(Optional.empty());
-
-        userUploadApi.bulkCreateOrUpdate(List.of(incoming));
+    void bulkCreateOrUpdateShouldBatchInsertNewUsersAsGiven() throws ApiException {
+        User incoming = user("a@b.com", "$2a$10$hash", UserRole.SUPERVISOR);
+        when(userDao.findByEmails(List.of("a@b.com"))).thenReturn(List.of());
 
-        verify(userDao).findByEmail("a@b.com");
+        int created = userUploadApi.bulkCreateOrUpdate(List.of(incoming));
 
-        ArgumentCaptor<User> userCaptor = ArgumentCaptor.forClass(User.class);
-        verify(userDao).insert(userCaptor.capture());
-        User inserted = userCaptor.getValue();
+        assertEquals(1, created);
+        verify(userDao).findByEmails(List.of("a@b.com"));
+        verify(userDao).insertAll(usersCaptor.capture());
+        assertEquals(List.of(incoming), usersCaptor.getValue());
+        assertEquals("$2a$10$hash", incoming.getPasswordHash());
+        verifyNoMoreInteractions(userDao);
+        verifyNoInteractions(principalCache);
+    }
 
-        assertEquals("a@b.com", inserted.getEmail());
-        assertEquals(UserRole.SUPERVISOR, inserted.getRole());
+    @Test
+    void bulkCreateOrUpdateShouldThrowWhenNewUserHasNoHash() {
+        when(userDao.findByEmails(List.of(newEmail))).thenReturn(List.of());
 
-        assertNotNull(inserted.getPasswordHash());
-        assertNotEquals("plainPass", inserted.getPasswordHash());
-        assertTrue(inserted.getPasswordHash().startsWith("$2")); // bcrypt signature
+        ApiException ex = assertThrows(ApiException.class,
+                () -> userUploadApi.bulkCreateOrUpdate(List.of(user(newEmail, null, UserRole.OPERATOR))));
 
-        verifyNoMoreInteractions(userDao);
+        assertEquals(PASSWORD_CANNOT_BE_EMPTY.value() + ": " + newEmail, ex.getMessage());
+        verify(userDao, never()).insertAll(anyList());
     }
 
     @Test
-    void bulkCreateOrUpdateShouldUpdateExistingUserRoleAndNotInsert() throws ApiException {
+    void bulkCreateOrUpdateShouldUpdateExistingUserRoleAndInsertNothing() throws ApiException {
         User existing = user("x@y.com", "$2b$10$somehash", UserRole.OPERATOR);
-        when(userDao.findByEmail("x@y.com")).thenReturn(Optional.of(existing));
-
-        User incoming = user("x@y.com", "ignoredPass", UserRole.SUPERVISOR);
+        existing.setId(4);
+        when(userDao.findByEmails(List.of("x@y.com"))).thenReturn(List.of(existing));
 
-        userUploadApi.bulkCreateOrUpdate(List.of(incoming));
+        int created = userUploadApi.bulkCreateOrUpdate(List.of(user("x@y.com", null, UserRole.SUPERVISOR)));
 
+        assertEquals(0, created);
         assertEquals(UserRole.SUPERVISOR, existing.getRole());
-        verify(userDao).findByEmail("x@y.com");
-        verify(userDao, never()).insert(any());
-        verifyNoMoreInteractions(userDao);
+        assertEquals("$2b$10$somehash", existing.getPasswordHash());
+        verify(principalCache).invalidate(List.of(4), Set.of("x@y.com"));
+        verify(userDao).insertAll(List.of());
     }
 
     @Test
-    void bulkCreateOrUpdateMixedListShouldInsertNewAndUpdateExisting() throws ApiException {
+    void bulkCreateOrUpdateMixedListShouldLookUpOnceInsertNewAndUpdateExisting() throws ApiException {
         User existing = user(existingEmail, "$2b$10$hash", UserRole.OPERATOR);
+        when(userDao.findByEmails(List.of(existingEmail, newEmail))).thenReturn(List.of(existing));
 
-        when(userDao.findByEmail(existingEmail)).thenReturn(Optional.of(existing));
-        when(userDao.findByEmail(newEmail)).thenReturn(Optional.empty());
-
-        User incomingExisting = user(existingEmail, "ignored", UserRole.SUPERVISOR);
-        User incomingNew = user(newEmail, "plain", UserRole.OPERATOR);
+        User incomingExisting = user(existingEmail, null, UserRole.SUPERVISOR);
+        User incomingNew = user(newEmail, "$2a$10$new", UserRole.OPERATOR);
 
-        userUploadApi.bulkCreateOrUpdate(List.of(incomingExisting, incomingNew));
+        int created = userUploadApi.bulkCreateOrUpdate(List.of(incomingExisting, incomingNew));
 
-        // updated existing role
+        assertEquals(1, created);
         assertEquals(UserRole.SUPERVISOR, existing.getRole());
+        verify(userDao).findByEmails(List.of(existingEmail, newEmail));
+        verify(userDao).insertAll(usersCaptor.capture());
+        assertEquals(List.of(incomingNew), usersCaptor.getValue());
+        verifyNoMoreInteractions(userDao);
+    }
 
-        verify(userDao).findByEmail(existingEmail);
-        verify(userDao).findByEmail(newEmail);
-
-        ArgumentCaptor<User> userCaptor = ArgumentCaptor.forClass(User.class);
-        verify(userDao).insert(userCaptor.capture());
-        User inserted = userCaptor.getValue();
+    @Test
+    void getExistingEmailsShouldReturnEmailsFoundByOneQuery() {
+        when(userDao.findByEmails(List.of(existingEmail, newEmail)))
+                .thenReturn(List.of(user(existingEmail, "$2b$10$hash", UserRole.OPERATOR)));
 
-        assertEquals(newEmail, inserted.getEmail());
-        assertEquals(UserRole.OPERATOR, inserted.getRole());
-        assertNotNull(inserted.getPasswordHash());
-        assertNotEquals("plain", inserted.getPasswordHash());
-        assertTrue(inserted.getPasswordHash().startsWith("$2"));
+        Set<String> out = userUploadApi.getExistingEmails(List.of(existingEmail, newEmail));
 
+        assertEquals(Set.of(existingEmail), out);
+        verify(userDao).findByEmails(List.of(existingEmail, newEmail));
         verifyNoMoreInteractions(userDao);
     }
-}
\ No newline at end of file
+}
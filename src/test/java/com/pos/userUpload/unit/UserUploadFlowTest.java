@@ -0,0 +1,98 @@
+package com.pos.userUpload.unit;
+
+import com.pos.api.UserUploadApi;
+import com.pos.exception.ApiException;
+import com.pos.flow.UserUploadFlow;
+import com.pos.metrics.UploadMetrics;
+import com.pos.model.constants.UserRole;
+import com.pos.model.data.UserUploadData;
+import com.pos.pojo.User;
+import com.pos.scheduler.PasswordHashExecutor;
+import com.pos.utils.TsvUploadUtil;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Set;
+
+import static com.pos.model.constants.ErrorMessages.USER_BULK_EMPTY;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserUploadFlowTest {
+
+    @InjectMocks
+    private UserUploadFlow userUploadFlow;
+
+    @Mock
+    private UserUploadApi userUploadApi;
+
+    @Mock
+    private PasswordHashExecutor passwordHashExecutor;
+
+    @Mock
+    private UploadMetrics uploadMetrics;
+
+    @Captor
+    private ArgumentCaptor<List<User>> usersCaptor;
+
+    private User user(String email, String password, UserRole role) {
+        User u = new User();
+        u.setEmail(email);
+        u.setPasswordHash(password);
+        u.setRole(role);
+        return u;
+    }
+
+    private static TsvUploadUtil.ChunkSource<User> chunks(List<List<User>> chunks) {
+        return consumer -> {
+            int total = 0;
+            for (List<User> chunk : chunks) {
+                consumer.accept(chunk);
+                total += chunk.size();
+            }
+            return total;
+        };
+    }
+
+    @Test
+    void uploadShouldThrowWhenSourceHasNoRows() {
+        ApiException ex = assertThrows(ApiException.class, () -> userUploadFlow.upload(consumer -> 0));
+        assertEquals(USER_BULK_EMPTY.value(), ex.getMessage());
+        verifyNoInteractions(userUploadApi, passwordHashExecutor, uploadMetrics);
+    }
+
+    @Test
+    void uploadShouldHashOnlyNewUsersThenWriteOnce() throws ApiException {
+        User existing = user("e@e.com", "ignored", UserRole.SUPERVISOR);
+        User first = user("a@a.com", "p1", UserRole.OPERATOR);
+        User second = user("b@b.com", "p2", UserRole.OPERATOR);
+
+        when(userUploadApi.getExistingEmails(List.of("e@e.com", "a@a.com"))).thenReturn(Set.of("e@e.com"));
+        when(userUploadApi.getExistingEmails(List.of("b@b.com"))).thenReturn(Set.of());
+        when(passwordHashExecutor.hashAll(List.of("p1"))).thenReturn(List.of("h1"));
+        when(passwordHashExecutor.hashAll(List.of("p2"))).thenReturn(List.of("h2"));
+        when(userUploadApi.bulkCreateOrUpdate(anyList())).thenReturn(2);
+
+        UserUploadData data = userUploadFlow.upload(chunks(List.of(List.of(existing, first), List.of(second))));
+
+        verify(userUploadApi).bulkCreateOrUpdate(usersCaptor.capture());
+        assertEquals(List.of(existing, first, second), usersCaptor.getValue());
+        assertNull(existing.getPasswordHash());
+        assertEquals("h1", first.getPasswordHash());
+        assertEquals("h2", second.getPasswordHash());
+
+        assertEquals(3, data.getTotalUsers());
+        assertEquals(2, data.getCreatedUsers());
+        assertEquals(1, data.getUpdatedUsers());
+        assertNotNull(data.getElapsedMillis());
+        assertTrue(data.getUsersPerSecond() > 0);
+        verify(uploadMetrics).record(eq("user"), eq(3), anyLong());
+    }
+}
@@ -1,11 +1,15 @@
 package com.pos.utils;
 
+import com.pos.exception.ApiException;
 import com.pos.utils.CsvRoleAccessService;
 import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -69,6 +73,144 @@ class CsvRoleAccessServiceTest {
         assertFalse(svc.isAllowed("PUT", "/orders", "SUPERVISOR"));
     }
 
+    @Test
+    void isAllowed_shouldMatchSegmentsLikeTheCsvPatterns() throws Exception {
+        writeCsv("""
+                GET,/orders/*/items,OPERATOR
+                GET,/orders/{id},SUPERVISOR
+                GET,/orders/latest,OPERATOR
+                PUT,/products/*,SUPERVISOR
+                GET,/,OPERATOR
+                """);
+
+        CsvRoleAccessService svc = new CsvRoleAccessService();
+        svc.load();
+
+        // * spans one or more segments, {id} exactly one non-empty segment
+        assertTrue(svc.isAllowed("GET", "/orders/1/items", "OPERATOR"));
+        assertTrue(svc.isAllowed("GET", "/orders/1/2/items", "OPERATOR"));
+        assertFalse(svc.isAllowed("GET", "/orders/items", "OPERATOR"));
+        assertTrue(svc.isAllowed("GET", "/orders/7", "SUPERVISOR"));
+        assertFalse(svc.isAllowed("GET", "/orders/7/8", "SUPERVISOR"));
+        assertFalse(svc.isAllowed("GET", "/orders//", "SUPERVISOR"));
+
+        // literal and parameter siblings are both tried
+        assertTrue(svc.isAllowed("GET", "/orders/latest", "OPERATOR"));
+        assertTrue(svc.isAllowed("GET", "/orders/latest", "SUPERVISOR"));
+
+        // prefixes and extra empty segments do not match
+        assertFalse(svc.isAllowed("PUT", "/products", "SUPERVISOR"));
+        assertFalse(svc.isAllowed("GET", "/order/1/items", "OPERATOR"));
+        assertFalse(svc.isAllowed("GET", "/orders/latest//", "OPERATOR"));
+
+        // root path
+        assertTrue(svc.isAllowed("GET", "/", "OPERATOR"));
+        assertTrue(svc.isAllowed("GET", "", "OPERATOR"));
+
+        // memoized decisions stay correct when repeated
+        for (int i = 0; i < 3; i++) {
+            assertTrue(svc.isAllowed("PUT", "/products/9", "SUPERVISOR"));
+            assertFalse(svc.isAllowed("PUT", "/products/9", "OPERATOR"));
+        }
+    }
+
+    @Test
+    void load_shouldRejectPartialSegmentWildcards() throws Exception {
+        writeCsv("""
+                GET,/files/*.pdf,SUPERVISOR
+                """);
+
+        CsvRoleAccessService svc = new CsvRoleAccessService();
+
+        RuntimeException ex = assertThrows(RuntimeException.class, svc::load);
+        assertTrue(ex.getMessage().contains("Unsupported path pattern"));
+    }
+
+    @Test
+    void reload_shouldSwapRulesFromFilesystemPath_andKeepOldRulesOnFailure() throws Exception {
+        Path rules = Files.createTempFile("access-", ".csv");
+        Files.writeString(rules, "GET,/orders,OPERATOR\n", StandardCharsets.UTF_8);
+
+        CsvRoleAccessService svc = new CsvRoleAccessService();
+        ReflectionTestUtils.setField(svc, "rulesPath", rules.toString());
+        svc.load();
+
+        assertTrue(svc.isAllowed("GET", "/orders", "OPERATOR"));
+        assertEquals(1, svc.current().ruleCount());
+        assertEquals(rules.toString(), svc.current().source());
+
+        Files.writeString(rules, "GET,/orders,SUPERVISOR\nGET,/clients,SUPERVISOR\n", StandardCharsets.UTF_8);
+        CsvRoleAccessService.Snapshot snapshot = svc.reload();
+
+        assertEquals(2, snapshot.ruleCount());
+        assertFalse(svc.isAllowed("GET", "/orders", "OPERATOR"));
+        assertTrue(svc.isAllowed("GET", "/clients", "SUPERVISOR"));
+
+        Files.writeString(rules, "BROKEN\n", StandardCharsets.UTF_8);
+        assertThrows(ApiException.class, svc::reload);
+        assertTrue(svc.isAllowed("GET", "/clients", "SUPERVISOR"));
+        assertEquals(2, svc.current().ruleCount());
+    }
+
+    @Test
+    void watcher_shouldReloadWhenRulesFileChanges() throws Exception {
+        Path dir = Files.createTempDirectory("access-watch-");
+        Path rules = dir.resolve("access-control.csv");
+        Files.writeString(rules, "GET,/orders,OPERATOR\n", StandardCharsets.UTF_8);
+
+        CsvRoleAccessService svc = new CsvRoleAccessService();
+        ReflectionTestUtils.setField(svc, "rulesPath", rules.toString());
+        svc.init();
+        try {
+            Files.writeString(rules, "GET,/orders,SUPERVISOR\n", StandardCharsets.UTF_8);
+
+            for (int i = 0; i < 100 && !svc.isAllowed("GET", "/orders", "SUPERVISOR"); i++) {
+                Thread.sleep(50);
+            }
+            assertTrue(svc.isAllowed("GET", "/orders", "SUPERVISOR"));
+            assertFalse(svc.isAllowed("GET", "/orders", "OPERATOR"));
+        } finally {
+            svc.stopWatcher();
+        }
+    }
+
+    @Test
+    void watcher_shouldWaitForWriterToFinish_beforeReloading() throws Exception {
+        Path dir = Files.createTempDirectory("access-watch-");
+        Path rules = dir.resolve("access-control.csv");
+        Files.writeString(rules, "GET,/orders,OPERATOR\nGET,/clients,OPERATOR\nGET,/products,OPERATOR\nGET,/inventory,OPERATOR\n",
+                StandardCharsets.UTF_8);
+
+        CsvRoleAccessService svc = new CsvRoleAccessService();
+        ReflectionTestUtils.setField(svc, "rulesPath", rules.toString());
+        ReflectionTestUtils.setField(svc, "reloadQuietMs", 400L);
+        svc.init();
+        try {
+            // a slow writer: each prefix is a valid but incomplete table of 1 or 2 rules
+            boolean sawPartialTable = false;
+            Files.writeString(rules, "GET,/orders,SUPERVISOR\n", StandardCharsets.UTF_8);
+            for (String chunk : List.of("GET,/clients,SUPERVISOR\n", "GET,/products,SUPERVISOR\n")) {
+                for (int i = 0; i < 5; i++) {
+                    Thread.sleep(10);
+                    sawPartialTable |= svc.current().ruleCount() < 3;
+                }
+                Files.writeString(rules, chunk, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+            }
+
+            int ruleCount = svc.current().ruleCount();
+            for (int i = 0; i < 200 && ruleCount != 3; i++) {
+                sawPartialTable |= ruleCount < 3;
+                Thread.sleep(10);
+                ruleCount = svc.current().ruleCount();
+            }
+            assertFalse(sawPartialTable);
+            assertEquals(3, ruleCount);
+            assertTrue(svc.isAllowed("GET", "/products", "SUPERVISOR"));
+        } finally {
+            svc.stopWatcher();
+        }
+    }
+
     @Test
     void load_shouldThrowRuntimeException_whenCsvLineHasLessThan3Parts() throws Exception {
         writeCsv("""
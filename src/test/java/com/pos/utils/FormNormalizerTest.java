@@ -0,0 +1,61 @@
+package com.pos.utils;
+
+import com.pos.model.form.OrderItemForm;
+import com.pos.model.form.ProductForm;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FormNormalizerTest {
+
+    static class Sample {
+        private static String shared = "  static  ";
+        private final String fixed = "  final  ";
+        private String name;
+        private String blank;
+        private String absent;
+        private Integer count;
+    }
+
+    @Test
+    void normalize_shouldTrimDeclaredInstanceStrings_only() throws Exception {
+        Sample sample = new Sample();
+        sample.name = "  soap ";
+        sample.blank = "   ";
+        sample.count = 3;
+
+        FormNormalizer.normalize(sample);
+
+        assertEquals("soap", sample.name);
+        assertEquals("", sample.blank);
+        assertNull(sample.absent);
+        assertEquals(3, sample.count);
+        assertEquals("  final  ", sample.fixed);
+        assertEquals("  static  ", Sample.shared);
+    }
+
+    @Test
+    void normalize_shouldKeepSameInstance_whenAlreadyTrimmed() throws Exception {
+        ProductForm form = new ProductForm();
+        String barcode = "B1";
+        form.setBarcode(barcode);
+        form.setName(" Soap ");
+
+        FormNormalizer.normalize(form);
+        FormNormalizer.normalize(form);
+
+        assertSame(barcode, form.getBarcode());
+        assertEquals("Soap", form.getName());
+    }
+
+    @Test
+    void normalize_shouldHandleNullAndDifferentFormClasses() throws Exception {
+        FormNormalizer.normalize(null);
+
+        OrderItemForm item = new OrderItemForm();
+        item.setBarcode(" b1 ");
+        FormNormalizer.normalize(item);
+
+        assertEquals("b1", item.getBarcode());
+    }
+}
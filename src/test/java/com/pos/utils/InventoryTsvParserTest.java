@@ -3,134 +3,71 @@ package com.pos.utils;
 import com.pos.exception.ApiException;
 import com.pos.exception.UploadValidationException;
 import com.pos.model.form.InventoryForm;
-import com.pos.utils.InventoryTsvParser;
-import com.pos.utils.TsvParser;
 import org.junit.jupiter.api.Test;
-import org.mockito.MockedStatic;
 import org.springframework.mock.web.MockMultipartFile;
 
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.*;
-import static org.mockito.Mockito.mockStatic;
 
 class InventoryTsvParserTest {
 
-    private MockMultipartFile dummyFile() {
+    private MockMultipartFile file(String content) {
         return new MockMultipartFile(
                 "file",
                 "inv.tsv",
                 "text/tab-separated-values",
-                "x".getBytes()
+                content.getBytes(StandardCharsets.UTF_8)
         );
     }
 
-    private static void stubTrimS(MockedStatic<TsvParser> mocked) {
-        mocked.when(() -> TsvParser.s(any(String[].class), anyInt()))
-                .thenAnswer(inv -> {
-                    String[] r = inv.getArgument(0);
-                    int idx = inv.getArgument(1);
-                    if (r == null || idx < 0 || idx >= r.length || r[idx] == null) return "";
-                    return r[idx].trim();
-                });
+    private static List<InventoryForm> collect(TsvUploadUtil.ChunkSource<InventoryForm> source) throws ApiException {
+        List<InventoryForm> out = new ArrayList<>();
+        source.forEachChunk(out::addAll);
+        return out;
     }
 
     @Test
     void parse_shouldReturnForms_whenValid() throws Exception {
-        List<String[]> rows = List.of(
-                new String[]{"barcode", "quantity"},
-                new String[]{"  b1  ", "10"},
-                new String[]{"b2", "0"}
-        );
-
-        try (MockedStatic<TsvParser> mocked = mockStatic(TsvParser.class)) {
-            mocked.when(() -> TsvParser.read(any())).thenReturn(rows);
-
-            // validateHeader is static void -> do NOT thenReturn(...)
-            // Let it run real OR stub it as "do nothing":
-            mocked.when(() -> TsvParser.validateHeader(any(String[].class), eq("barcode"), eq("quantity")))
-                    .thenAnswer(inv -> null);
+        List<InventoryForm> out = collect(InventoryTsvParser.parse(file("barcode\tquantity\n  b1  \t10\nb2\t0\n")));
 
-            stubTrimS(mocked);
-
-            List<InventoryForm> out = InventoryTsvParser.parse(dummyFile());
-
-            assertEquals(2, out.size());
-            assertEquals("b1", out.get(0).getBarcode());
-            assertEquals(10, out.get(0).getQuantity());
-            assertEquals("b2", out.get(1).getBarcode());
-            assertEquals(0, out.get(1).getQuantity());
-        }
+        assertEquals(2, out.size());
+        assertEquals("b1", out.get(0).getBarcode());
+        assertEquals(10, out.get(0).getQuantity());
+        assertEquals("b2", out.get(1).getBarcode());
+        assertEquals(0, out.get(1).getQuantity());
     }
 
     @Test
     void parse_shouldThrowUploadValidationException_whenQuantityMissing() throws Exception {
-        List<String[]> rows = List.of(
-                new String[]{"barcode", "quantity"},
-                new String[]{"b1", ""} // quantity missing
-        );
-
-        try (MockedStatic<TsvParser> mocked = mockStatic(TsvParser.class)) {
-            mocked.when(() -> TsvParser.read(any())).thenReturn(rows);
-
-            mocked.when(() -> TsvParser.validateHeader(any(String[].class), eq("barcode"), eq("quantity")))
-                    .thenAnswer(inv -> null);
-
-            stubTrimS(mocked);
-
-            mocked.when(() -> TsvParser.buildErrorTsv(eq(rows), anyList()))
-                    .thenReturn("err".getBytes());
+        var source = InventoryTsvParser.parse(file("barcode\tquantity\nb1\t\n"));
 
-            UploadValidationException ex = assertThrows(
-                    UploadValidationException.class,
-                    () -> InventoryTsvParser.parse(dummyFile())
-            );
+        UploadValidationException ex = assertThrows(UploadValidationException.class, () -> collect(source));
 
-            assertNotNull(ex.getFileBytes());
-            assertTrue(ex.getFileBytes().length > 0);
+        try {
+            assertTrue(Files.size(ex.getFile()) > 0);
             assertTrue(ex.getFilename().startsWith("inventory_upload_errors_"));
+        } finally {
+            Files.deleteIfExists(ex.getFile());
         }
     }
 
     @Test
     void parse_shouldThrowUploadValidationException_whenDuplicateBarcode() throws Exception {
-        List<String[]> rows = List.of(
-                new String[]{"barcode", "quantity"},
-                new String[]{"b1", "1"},
-                new String[]{" b1 ", "2"} // duplicate after trim
-        );
-
-        try (MockedStatic<TsvParser> mocked = mockStatic(TsvParser.class)) {
-            mocked.when(() -> TsvParser.read(any())).thenReturn(rows);
-
-            mocked.when(() -> TsvParser.validateHeader(any(String[].class), eq("barcode"), eq("quantity")))
-                    .thenAnswer(inv -> null);
-
-            stubTrimS(mocked);
-
-            mocked.when(() -> TsvParser.buildErrorTsv(eq(rows), anyList()))
-                    .thenReturn("err".getBytes());
+        var source = InventoryTsvParser.parse(file("barcode\tquantity\nb1\t1\n b1 \t2\n"));
 
-            assertThrows(UploadValidationException.class, () -> InventoryTsvParser.parse(dummyFile()));
-        }
+        UploadValidationException ex = assertThrows(UploadValidationException.class, () -> collect(source));
+        Files.deleteIfExists(ex.getFile());
     }
 
     @Test
-    void parse_shouldThrowApiException_whenHeaderInvalid() throws Exception {
-        List<String[]> rows = List.of(
-                new String[]{"wrong", "header"},
-                new String[]{"b1", "1"}
-        );
-
-        try (MockedStatic<TsvParser> mocked = mockStatic(TsvParser.class)) {
-            mocked.when(() -> TsvParser.read(any())).thenReturn(rows);
+    void parse_shouldThrowApiException_whenHeaderInvalid() {
+        var source = InventoryTsvParser.parse(file("wrong\theader\nb1\t1\n"));
 
-            mocked.when(() -> TsvParser.validateHeader(any(String[].class), eq("barcode"), eq("quantity")))
-                    .thenThrow(new ApiException("bad header"));
-
-            ApiException ex = assertThrows(ApiException.class, () -> InventoryTsvParser.parse(dummyFile()));
-            assertEquals("bad header", ex.getMessage());
-        }
+        ApiException ex = assertThrows(ApiException.class, () -> collect(source));
+        assertEquals("Invalid TSV header", ex.getMessage());
     }
 }
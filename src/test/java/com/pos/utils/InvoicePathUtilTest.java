@@ -5,6 +5,7 @@ import org.junit.jupiter.api.Test;
 
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -18,22 +19,36 @@ class InvoicePathUtilTest {
     }
 
     @Test
-    void tryReadInvoiceBytes_shouldReturnNull_whenFileMissing() throws Exception {
-        byte[] bytes = InvoicePathUtil.tryReadInvoiceBytes("/tmp/non_existing.pdf", 10);
-        assertNull(bytes);
+    void tryResolveInvoiceFile_shouldReturnNull_whenFileMissingOrPathBlank() {
+        assertNull(InvoicePathUtil.tryResolveInvoiceFile("/tmp/non_existing.pdf", 10));
+        assertNull(InvoicePathUtil.tryResolveInvoiceFile("  ", 10));
+        assertNull(InvoicePathUtil.tryResolveInvoiceFile(null, 10));
     }
 
     @Test
-    void tryReadInvoiceBytes_shouldReturnBytes_whenFileExists() throws Exception {
+    void tryResolveInvoiceFile_shouldResolveOrderFileInsideDirectory() throws Exception {
         Path dir = Files.createTempDirectory("inv-dir-");
         int orderId = 1;
 
         InvoicePathUtil.saveInvoiceBytes(dir.toString(), orderId, "abc".getBytes());
 
-        byte[] bytes = InvoicePathUtil.tryReadInvoiceBytes(dir.toString(), orderId);
+        Path file = InvoicePathUtil.tryResolveInvoiceFile(dir.toString(), orderId);
 
-        assertNotNull(bytes);
-        assertEquals(3, bytes.length);
+        assertEquals(InvoicePathUtil.invoiceFilePath(dir.toString(), orderId), file);
+        assertEquals(file, InvoicePathUtil.tryResolveInvoiceFile(file.toString(), orderId));
     }
 
+    @Test
+    void invoiceETag_shouldChangeWhenFileChanges() throws Exception {
+        Path dir = Files.createTempDirectory("inv-dir-");
+        InvoicePathUtil.saveInvoiceBytes(dir.toString(), 2, "abc".getBytes());
+        Path file = InvoicePathUtil.invoiceFilePath(dir.toString(), 2);
+
+        String before = InvoicePathUtil.invoiceETag(2, Files.readAttributes(file, BasicFileAttributes.class));
+        Files.write(file, "abcd".getBytes());
+        String after = InvoicePathUtil.invoiceETag(2, Files.readAttributes(file, BasicFileAttributes.class));
+
+        assertTrue(before.startsWith("\"") && before.endsWith("\""));
+        assertNotEquals(before, after);
+    }
 }
@@ -1,5 +1,6 @@
 package com.pos.utils;
 
+import com.pos.dao.OrderRow;
 import com.pos.exception.ApiException;
 import com.pos.model.constants.OrderStatus;
 import com.pos.model.data.OrderData;
@@ -119,6 +120,21 @@ class OrderConversionTest {
         assertEquals(25.5, d.getTotalAmount(), 0.0001);
     }
 
+    @Test
+    void toOrderData_fromRow_shouldCopyProjectedColumns() {
+        ZonedDateTime created = ZonedDateTime.now().minusHours(1);
+        OrderRow row = new OrderRow(4, created, ZonedDateTime.now(), OrderStatus.INVOICED, 25.5, 2);
+
+        OrderData d = OrderConversion.toOrderData(row);
+
+        assertEquals(4, d.getId());
+        assertEquals(created, d.getCreatedAt());
+        assertEquals("INVOICED", d.getStatus());
+        assertEquals(25.5, d.getTotalAmount());
+        assertEquals(2, d.getItemCount());
+        assertNull(d.getItems());
+    }
+
     @Test
     void toOrderItemDataList_withProductMap_shouldReturnEmpty_whenItemsNull() throws Exception {
         List<OrderItemData> out = OrderConversion.toOrderItemDataList(null, Map.of());
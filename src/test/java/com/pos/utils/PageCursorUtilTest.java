@@ -0,0 +1,52 @@
+package com.pos.utils;
+
+import com.pos.exception.ApiException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Base64;
+
+import static com.pos.model.constants.ErrorMessages.INVALID_PAGE_CURSOR;
+import static org.junit.jupiter.api.Assertions.*;
+
+class PageCursorUtilTest {
+
+    @Test
+    void encodeDecode_shouldRoundTripInstantAndId() throws Exception {
+        ZonedDateTime at = ZonedDateTime.of(2025, 10, 20, 18, 30, 15, 123456000, ZoneId.of("Asia/Kolkata"));
+
+        String cursor = PageCursorUtil.encode(at, 42);
+        PageCursorUtil.SeekCursor out = PageCursorUtil.decode(cursor);
+
+        assertNotNull(out);
+        assertEquals(at.toInstant(), out.updatedAt().toInstant());
+        assertEquals(42, out.id());
+        assertFalse(cursor.contains("="));
+    }
+
+    @Test
+    void encode_shouldReturnNull_whenPartsMissing() {
+        assertNull(PageCursorUtil.encode(null, 1));
+        assertNull(PageCursorUtil.encode(ZonedDateTime.now(), null));
+    }
+
+    @Test
+    void decode_shouldReturnNull_whenBlank() throws Exception {
+        assertNull(PageCursorUtil.decode(null));
+        assertNull(PageCursorUtil.decode("  "));
+    }
+
+    @Test
+    void decode_shouldThrow_whenTampered() {
+        String notBase64 = "%%%";
+        String noSeparator = Base64.getUrlEncoder().encodeToString("2025-01-01T00:00:00Z".getBytes(StandardCharsets.UTF_8));
+        String badId = Base64.getUrlEncoder().encodeToString("2025-01-01T00:00:00Z|abc".getBytes(StandardCharsets.UTF_8));
+
+        for (String cursor : new String[]{notBase64, noSeparator, badId}) {
+            ApiException ex = assertThrows(ApiException.class, () -> PageCursorUtil.decode(cursor));
+            assertEquals(INVALID_PAGE_CURSOR.value(), ex.getMessage());
+        }
+    }
+}
@@ -3,135 +3,100 @@ package com.pos.utils;
 import com.pos.exception.ApiException;
 import com.pos.exception.UploadValidationException;
 import com.pos.model.form.ProductForm;
-import com.pos.utils.ProductTsvParser;
-import com.pos.utils.TsvParser;
 import org.junit.jupiter.api.Test;
-import org.mockito.MockedStatic;
 import org.springframework.mock.web.MockMultipartFile;
 
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.Mockito.*;
 
 class ProductTsvParserTest {
 
-    private MockMultipartFile dummyFile() {
+    private MockMultipartFile file(String content) {
         return new MockMultipartFile(
                 "file",
                 "prod.tsv",
                 "text/tab-separated-values",
-                "x".getBytes()
+                content.getBytes(StandardCharsets.UTF_8)
         );
     }
 
+    private static List<ProductForm> collect(TsvUploadUtil.ChunkSource<ProductForm> source) throws ApiException {
+        List<ProductForm> out = new ArrayList<>();
+        source.forEachChunk(out::addAll);
+        return out;
+    }
+
+    private static String errorReport(UploadValidationException ex) throws Exception {
+        try {
+            return Files.readString(ex.getFile());
+        } finally {
+            Files.deleteIfExists(ex.getFile());
+        }
+    }
+
     @Test
     void parse_shouldThrowApiException_whenClientIdMissing() {
-        assertThrows(ApiException.class, () -> ProductTsvParser.parse(dummyFile(), null));
+        assertThrows(ApiException.class, () -> ProductTsvParser.parse(file("barcode\tname\tmrp\n"), null));
     }
 
     @Test
     void parse_shouldThrowApiException_whenFileEmpty() throws Exception {
-        try (MockedStatic<TsvParser> mocked = mockStatic(TsvParser.class)) {
-            mocked.when(() -> TsvParser.read(any())).thenReturn(List.of()); // empty
-            ApiException ex = assertThrows(ApiException.class, () -> ProductTsvParser.parse(dummyFile(), 1));
-            assertEquals("Empty TSV file", ex.getMessage());
-        }
+        var source = ProductTsvParser.parse(file(" \n\n"), 1);
+
+        ApiException ex = assertThrows(ApiException.class, () -> collect(source));
+        assertEquals("Empty TSV file", ex.getMessage());
     }
 
     @Test
     void parse_shouldReturnForms_whenValid3ColHeader() throws Exception {
-        List<String[]> rows = List.of(
-                new String[]{"barcode", "name", "mrp"},
-                new String[]{" b1 ", " n1 ", "10.5"},
-                new String[]{"b2", "n2", "0"}
-        );
+        String tsv = "barcode\tname\tmrp\n" +
+                " b1 \t n1 \t10.5\n" +
+                "b2\tn2\t0\n";
 
-        try (MockedStatic<TsvParser> mocked = mockStatic(TsvParser.class)) {
-            mocked.when(() -> TsvParser.read(any())).thenReturn(rows);
-            mocked.when(() -> TsvParser.s(any(String[].class), anyInt()))
-                    .thenAnswer(inv -> {
-                        String[] r = inv.getArgument(0);
-                        int idx = inv.getArgument(1);
-                        if (r == null || idx < 0 || idx >= r.length || r[idx] == null) return "";
-                        return r[idx].trim();
-                    });
-            mocked.when(() -> TsvParser.buildErrorTsv(anyList(), anyList()))
-                    .thenReturn("err".getBytes());
-
-            ProductTsvParser.ProductTsvParseResult res = ProductTsvParser.parse(dummyFile(), 99);
-
-            assertEquals(2, res.forms().size());
-
-            ProductForm f1 = res.forms().get(0);
-            assertEquals("b1", f1.getBarcode());
-            assertEquals("n1", f1.getName());
-            assertEquals(10.5, f1.getMrp());
-            assertEquals(99, f1.getClientId());
-            assertNull(f1.getImageUrl());
-        }
+        List<ProductForm> forms = collect(ProductTsvParser.parse(file(tsv), 99));
+
+        assertEquals(2, forms.size());
+
+        ProductForm f1 = forms.get(0);
+        assertEquals("b1", f1.getBarcode());
+        assertEquals("n1", f1.getName());
+        assertEquals(10.5, f1.getMrp());
+        assertEquals(99, f1.getClientId());
+        assertNull(f1.getImageUrl());
     }
 
     @Test
     void parse_shouldThrowUploadValidationException_whenInvalidHeader() throws Exception {
-        List<String[]> rows = List.of(
-                new String[]{"barcode", "bad", "mrp"},
-                new String[]{"b1", "n1", "10"}
-        );
+        var source = ProductTsvParser.parse(file("barcode\tbad\tmrp\nb1\tn1\t10\n"), 1);
 
-        try (MockedStatic<TsvParser> mocked = mockStatic(TsvParser.class)) {
-            mocked.when(() -> TsvParser.read(any())).thenReturn(rows);
-            mocked.when(() -> TsvParser.buildErrorTsv(eq(rows), anyList()))
-                    .thenReturn("err".getBytes());
+        UploadValidationException ex = assertThrows(UploadValidationException.class, () -> collect(source));
 
-            assertThrows(UploadValidationException.class, () -> ProductTsvParser.parse(dummyFile(), 1));
-        }
+        String report = errorReport(ex);
+        assertTrue(report.contains("b1\tn1\t10\t"));
+        assertTrue(report.contains("Invalid TSV header"));
+        assertTrue(ex.getFilename().startsWith("product_upload_errors_"));
     }
 
     @Test
     void parse_shouldThrowUploadValidationException_whenDuplicateBarcode() throws Exception {
-        List<String[]> rows = List.of(
-                new String[]{"barcode", "name", "mrp"},
-                new String[]{"b1", "n1", "10"},
-                new String[]{" b1 ", "n2", "12"}
-        );
+        var source = ProductTsvParser.parse(file("barcode\tname\tmrp\nb1\tn1\t10\n b1 \tn2\t12\n"), 1);
 
-        try (MockedStatic<TsvParser> mocked = mockStatic(TsvParser.class)) {
-            mocked.when(() -> TsvParser.read(any())).thenReturn(rows);
-            mocked.when(() -> TsvParser.s(any(String[].class), anyInt()))
-                    .thenAnswer(inv -> {
-                        String[] r = inv.getArgument(0);
-                        int idx = inv.getArgument(1);
-                        if (r == null || idx < 0 || idx >= r.length || r[idx] == null) return "";
-                        return r[idx].trim();
-                    });
-            mocked.when(() -> TsvParser.buildErrorTsv(eq(rows), anyList()))
-                    .thenReturn("err".getBytes());
-
-            assertThrows(UploadValidationException.class, () -> ProductTsvParser.parse(dummyFile(), 1));
-        }
+        UploadValidationException ex = assertThrows(UploadValidationException.class, () -> collect(source));
+
+        String report = errorReport(ex);
+        assertTrue(report.contains("Line 3: Invalid row"));
+        assertFalse(report.contains("Line 2"));
     }
 
     @Test
     void parse_shouldThrowUploadValidationException_whenMrpInvalid() throws Exception {
-        List<String[]> rows = List.of(
-                new String[]{"barcode", "name", "mrp", "imageurl"},
-                new String[]{"b1", "n1", "abc", "  "} // invalid mrp, blank image
-        );
+        var source = ProductTsvParser.parse(file("barcode\tname\tmrp\timageurl\nb1\tn1\tabc\t  \n"), 1);
 
-        try (MockedStatic<TsvParser> mocked = mockStatic(TsvParser.class)) {
-            mocked.when(() -> TsvParser.read(any())).thenReturn(rows);
-            mocked.when(() -> TsvParser.s(any(String[].class), anyInt()))
-                    .thenAnswer(inv -> {
-                        String[] r = inv.getArgument(0);
-                        int idx = inv.getArgument(1);
-                        if (r == null || idx < 0 || idx >= r.length || r[idx] == null) return "";
-                        return r[idx].trim();
-                    });
-            mocked.when(() -> TsvParser.buildErrorTsv(eq(rows), anyList()))
-                    .thenReturn("err".getBytes());
-
-            assertThrows(UploadValidationException.class, () -> ProductTsvParser.parse(dummyFile(), 1));
-        }
+        UploadValidationException ex = assertThrows(UploadValidationException.class, () -> collect(source));
+        assertTrue(errorReport(ex).contains("Line 2: "));
     }
 }
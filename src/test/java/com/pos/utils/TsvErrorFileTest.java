@@ -0,0 +1,80 @@
+package com.pos.utils;
+
+import com.pos.exception.UploadValidationException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TsvErrorFileTest {
+
+    @Test
+    void write_shouldTrackErrors() throws Exception {
+        try (TsvErrorFile errorFile = TsvErrorFile.create(new String[]{"a"})) {
+            errorFile.write(new String[]{"1"}, null);
+            assertFalse(errorFile.hasErrors());
+
+            errorFile.write(new String[]{"2"}, "bad");
+            assertTrue(errorFile.hasErrors());
+        }
+    }
+
+    @Test
+    void toException_shouldKeepReportAfterClose() throws Exception {
+        UploadValidationException ex;
+        try (TsvErrorFile errorFile = TsvErrorFile.create(new String[]{"a"})) {
+            errorFile.write(new String[]{"1"}, null);
+            errorFile.write(new String[]{"2"}, "bad");
+            ex = errorFile.toException("prefix");
+        }
+
+        Path report = ex.getFile();
+        try {
+            assertEquals("a\terror\n1\t\n2\tbad\n", Files.readString(report));
+            assertTrue(ex.getFilename().startsWith("prefix_"));
+            assertNull(ex.getFileBytes());
+        } finally {
+            Files.deleteIfExists(report);
+        }
+    }
+
+    @Test
+    void write_shouldBlankMaskedColumns() throws Exception {
+        UploadValidationException ex;
+        try (TsvErrorFile errorFile = TsvErrorFile.create(new String[]{"email", "password"}, 1)) {
+            errorFile.write(new String[]{"a@x.com", "secret"}, "bad");
+            ex = errorFile.toException("prefix");
+        }
+
+        try {
+            assertEquals("email\tpassword\terror\na@x.com\t\tbad\n", Files.readString(ex.getFile()));
+        } finally {
+            Files.deleteIfExists(ex.getFile());
+        }
+    }
+
+    @Test
+    void deleteStale_shouldRemoveOnlyOldReports() throws Exception {
+        UploadValidationException old;
+        UploadValidationException fresh;
+        try (TsvErrorFile a = TsvErrorFile.create(new String[]{"a"}); TsvErrorFile b = TsvErrorFile.create(new String[]{"a"})) {
+            old = a.toException("prefix");
+            fresh = b.toException("prefix");
+        }
+        Files.setLastModifiedTime(old.getFile(), FileTime.from(Instant.now().minus(Duration.ofHours(1))));
+
+        try {
+            assertTrue(TsvErrorFile.deleteStale(Duration.ofMinutes(15)) >= 1);
+            assertFalse(Files.exists(old.getFile()));
+            assertTrue(Files.exists(fresh.getFile()));
+        } finally {
+            Files.deleteIfExists(old.getFile());
+            Files.deleteIfExists(fresh.getFile());
+        }
+    }
+}
@@ -1,23 +1,35 @@
 package com.pos.utils;
 
-import com.pos.utils.TsvParser;
+import com.pos.exception.ApiException;
 import org.junit.jupiter.api.Test;
 
 import java.io.ByteArrayInputStream;
-import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 class TsvParserTest {
 
     @Test
-    void read_shouldParseRows() throws Exception {
-        String data = "a\tb\n1\t2";
-        List<String[]> rows = TsvParser.read(new ByteArrayInputStream(data.getBytes()));
+    void reader_shouldStreamNonBlankRows() throws Exception {
+        String data = "a\tb\n\n  \n1\t2";
+        try (TsvParser.Reader reader = TsvParser.open(new ByteArrayInputStream(data.getBytes()))) {
+            String[] header = reader.header();
+            assertEquals("a", header[0]);
+            assertEquals(1, reader.rowNumber());
+
+            String[] row = reader.next();
+            assertEquals("2", row[1]);
+            assertEquals(2, reader.rowNumber());
+
+            assertNull(reader.next());
+        }
+    }
 
-        assertEquals(2, rows.size());
-        assertEquals("a", rows.get(0)[0]);
-        assertEquals("2", rows.get(1)[1]);
+    @Test
+    void reader_shouldThrowOnEmptyInput() {
+        TsvParser.Reader reader = TsvParser.open(new ByteArrayInputStream("\n".getBytes()));
+        ApiException ex = assertThrows(ApiException.class, reader::header);
+        assertEquals("Empty TSV file", ex.getMessage());
     }
 
     @Test
@@ -27,13 +39,7 @@ class TsvParserTest {
     }
 
     @Test
-    void buildErrorTsv_shouldReturnBytes() {
-        List<String[]> rows = List.<String[]>of(new String[]{"a", "b"});
-        List<String> errors = List.of("err");
-
-        byte[] result = TsvParser.buildErrorTsv(rows, errors);
-        assertNotNull(result);
-        assertTrue(result.length > 0);
+    void join_shouldTabSeparateAndBlankNulls() {
+        assertEquals("a\t\tc", TsvParser.join(new String[]{"a", null, "c"}));
     }
-
 }
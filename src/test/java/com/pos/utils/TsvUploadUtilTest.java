@@ -2,109 +2,195 @@ package com.pos.utils;
 
 import com.pos.exception.ApiException;
 import com.pos.exception.UploadValidationException;
-import com.pos.utils.TsvParser;
-import com.pos.utils.TsvUploadUtil;
 import org.junit.jupiter.api.Test;
-import org.mockito.MockedStatic;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.*;
-import static org.mockito.Mockito.*;
 
 class TsvUploadUtilTest {
 
+    private static TsvParser.Reader reader(String content) {
+        return TsvParser.open(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static TsvUploadUtil.ErrorReport report(String prefix, String content, int... maskedColumns) {
+        return new TsvUploadUtil.ErrorReport(prefix, () -> reader(content), maskedColumns);
+    }
+
+    private static long errorFilesInTempDir() throws Exception {
+        try (Stream<Path> files = Files.list(Path.of(System.getProperty("java.io.tmpdir")))) {
+            return files.filter(p -> p.getFileName().toString().startsWith("pos_upload_errors_")).count();
+        }
+    }
+
     @Test
-    void parseOrThrow_shouldReturnList_whenAllRowsValid() throws Exception {
-        List<String[]> rows = List.of(
-                new String[]{"h1", "h2"},
-                new String[]{"a", "1"},
-                new String[]{"b", "2"}
-        );
-
-        AtomicInteger calls = new AtomicInteger(0);
-
-        List<String> out = TsvUploadUtil.parseOrThrow(
-                rows,
-                "any_prefix",
-                (row, lineNo) -> {
-                    // ensure correct file line number mapping
-                    calls.incrementAndGet();
-                    if (lineNo == 2) {
-                        assertArrayEquals(new String[]{"a", "1"}, row);
-                    } else if (lineNo == 3) {
-                        assertArrayEquals(new String[]{"b", "2"}, row);
-                    } else {
-                        fail("Unexpected lineNo: " + lineNo);
-                    }
-                    return row[0] + ":" + row[1];
-                }
-        );
-
-        assertEquals(2, out.size());
-        assertEquals("a:1", out.get(0));
-        assertEquals("b:2", out.get(1));
-        assertEquals(2, calls.get());
+    void streamOrThrow_shouldFeedBoundedChunks_whenAllRowsValid() throws Exception {
+        List<List<String>> chunks = new ArrayList<>();
+
+        String content = "h1\th2\na\t1\nb\t2\nc\t3\n";
+        long filesBefore = errorFilesInTempDir();
+
+        try (TsvParser.Reader reader = reader(content)) {
+            String[] header = reader.header();
+
+            int accepted = TsvUploadUtil.streamOrThrow(
+                    reader,
+                    header,
+                    report("any_prefix", content),
+                    (row, lineNo) -> {
+                        // line numbers count the header as line 1
+                        assertEquals(String.valueOf(lineNo - 1), row[1]);
+                        return row[0] + ":" + row[1];
+                    },
+                    2,
+                    chunks::add
+            );
+
+            assertEquals(3, accepted);
+        }
+
+        assertEquals(List.of(List.of("a:1", "b:2"), List.of("c:3")), chunks);
+        // a clean upload never touches the disk
+        assertEquals(filesBefore, errorFilesInTempDir());
     }
 
     @Test
-    void parseOrThrow_shouldThrowUploadValidationException_whenMapperThrowsApiException() throws Exception {
-        List<String[]> rows = List.of(
-                new String[]{"h1", "h2"},
-                new String[]{"a", "1"},
-                new String[]{"b", "2"}
-        );
+    void streamOrThrow_shouldThrowUploadValidationException_whenMapperThrowsApiException() throws Exception {
+        List<List<String>> chunks = new ArrayList<>();
+
+        String content = "h1\th2\na\t1\nb\t2\nc\t3\n";
 
-        try (MockedStatic<TsvParser> mocked = mockStatic(TsvParser.class)) {
-            mocked.when(() -> TsvParser.buildErrorTsv(eq(rows), anyList()))
-                    .thenReturn("error-file".getBytes());
+        try (TsvParser.Reader reader = reader(content)) {
+            String[] header = reader.header();
 
             UploadValidationException ex = assertThrows(
                     UploadValidationException.class,
-                    () -> TsvUploadUtil.parseOrThrow(
-                            rows,
-                            "tsv_errors",
+                    () -> TsvUploadUtil.streamOrThrow(
+                            reader,
+                            header,
+                            report("tsv_errors", content),
                             (row, lineNo) -> {
                                 if (lineNo == 3) throw new ApiException("boom");
                                 return row[0];
-                            }
+                            },
+                            1,
+                            chunks::add
+                    )
+            );
+
+            try {
+                assertEquals("TSV has errors", ex.getMessage());
+                assertEquals("text/tab-separated-values", ex.getContentType());
+                assertTrue(ex.getFilename().startsWith("tsv_errors_"));
+                assertTrue(ex.getFilename().endsWith(".tsv"));
+                assertEquals(
+                        List.of("h1\th2\terror", "a\t1\t", "b\t2\tLine 3: boom", "c\t3\t"),
+                        Files.readAllLines(ex.getFile())
+                );
+            } finally {
+                Files.deleteIfExists(ex.getFile());
+            }
+        }
+
+        // the chunk completed before the bad row was already handed over; nothing after it is
+        assertEquals(List.of(List.of("a")), chunks);
+    }
+
+    @Test
+    void streamOrThrow_shouldReportInvalidRow_whenMapperThrowsRuntimeException() throws Exception {
+        String content = "h1\th2\na\t1\n";
+
+        try (TsvParser.Reader reader = reader(content)) {
+            String[] header = reader.header();
+
+            UploadValidationException ex = assertThrows(
+                    UploadValidationException.class,
+                    () -> TsvUploadUtil.streamOrThrow(
+                            reader,
+                            header,
+                            report("runtime_err", content),
+                            (row, lineNo) -> { throw new RuntimeException("kaboom"); },
+                            10,
+                            chunk -> fail("no chunk expected")
                     )
             );
 
-            assertEquals("TSV has errors", ex.getMessage());
-            assertNotNull(ex.getFileBytes());
-            assertTrue(ex.getFileBytes().length > 0);
-            assertEquals("text/tab-separated-values", ex.getContentType());
-            assertTrue(ex.getFilename().startsWith("tsv_errors_"));
-            assertTrue(ex.getFilename().endsWith(".tsv"));
+            try {
+                assertTrue(ex.getFilename().startsWith("runtime_err_"));
+                assertTrue(Files.readString(ex.getFile()).contains("Line 2: Invalid row"));
+            } finally {
+                Files.deleteIfExists(ex.getFile());
+            }
         }
     }
 
     @Test
-    void parseOrThrow_shouldThrowUploadValidationException_whenMapperThrowsRuntimeException() throws Exception {
-        List<String[]> rows = List.of(
-                new String[]{"h1", "h2"},
-                new String[]{"a", "1"}
-        );
+    void streamOrThrow_shouldBlankMaskedColumns_inErrorReport() throws Exception {
+        String content = "email\trole\tpassword\na@x.com\tOPERATOR\tsecret1\nb@x.com\tBAD\tsecret2\n";
 
-        try (MockedStatic<TsvParser> mocked = mockStatic(TsvParser.class)) {
-            mocked.when(() -> TsvParser.buildErrorTsv(eq(rows), anyList()))
-                    .thenReturn("error-file".getBytes());
+        try (TsvParser.Reader reader = reader(content)) {
+            String[] header = reader.header();
 
             UploadValidationException ex = assertThrows(
                     UploadValidationException.class,
-                    () -> TsvUploadUtil.parseOrThrow(
-                            rows,
-                            "runtime_err",
-                            (row, lineNo) -> { throw new RuntimeException("kaboom"); }
+                    () -> TsvUploadUtil.streamOrThrow(
+                            reader,
+                            header,
+                            report("user_errors", content, 2),
+                            (row, lineNo) -> {
+                                if (lineNo == 3) throw new ApiException("bad role");
+                                return row[0];
+                            },
+                            10,
+                            chunk -> fail("no chunk expected")
                     )
             );
 
-            assertEquals("TSV has errors", ex.getMessage());
-            assertNotNull(ex.getFileBytes());
-            assertTrue(ex.getFilename().startsWith("runtime_err_"));
+            try {
+                assertEquals(
+                        List.of("email\trole\tpassword\terror", "a@x.com\tOPERATOR\t\t", "b@x.com\tBAD\t\tLine 3: bad role"),
+                        Files.readAllLines(ex.getFile())
+                );
+            } finally {
+                Files.deleteIfExists(ex.getFile());
+            }
+        }
+    }
+
+    @Test
+    void streamOrThrow_shouldDeleteErrorReport_whenReportCannotBeCompleted() throws Exception {
+        long filesBefore = errorFilesInTempDir();
+
+        try (TsvParser.Reader reader = reader("h1\na\nb\n")) {
+            String[] header = reader.header();
+            TsvUploadUtil.ErrorReport unreadable = new TsvUploadUtil.ErrorReport("any_prefix", () -> {
+                throw new ApiException("upload no longer readable");
+            });
+
+            ApiException ex = assertThrows(
+                    ApiException.class,
+                    () -> TsvUploadUtil.streamOrThrow(
+                            reader,
+                            header,
+                            unreadable,
+                            (row, lineNo) -> {
+                                if (lineNo == 3) throw new ApiException("boom");
+                                return row[0];
+                            },
+                            10,
+                            chunk -> { }
+                    )
+            );
+            assertEquals("upload no longer readable", ex.getMessage());
         }
+
+        assertEquals(filesBefore, errorFilesInTempDir());
     }
 }